@@ -2,6 +2,7 @@ package com.xml.processor.config;
 
 import com.xml.processor.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.transaction.TransactionManagerCustomizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -12,6 +13,7 @@ import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
 
 @Configuration
 @RequiredArgsConstructor
@@ -42,4 +44,13 @@ public class ApplicationConfig {
     public PasswordEncoder passwordEncoder() {
         return new BCryptPasswordEncoder();
     }
+
+    /**
+     * Allows nested transactions on the auto-configured transaction manager, so a document
+     * can roll back to a savepoint without rolling back the caller's transaction.
+     */
+    @Bean
+    public TransactionManagerCustomizer<AbstractPlatformTransactionManager> nestedTransactionCustomizer() {
+        return transactionManager -> transactionManager.setNestedTransactionAllowed(true);
+    }
 } 
\ No newline at end of file
@@ -1,23 +1,90 @@
 package com.xml.processor.config;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.thread.Threading;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.context.annotation.Bean;
 import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
 
+/**
+ * Executors of the processing pipeline. With spring.threads.virtual.enabled on Java 21,
+ * which also moves the Tomcat request handlers to virtual threads, every file and every
+ * split unit runs on a virtual thread of its own instead of waiting for a pooled
+ * platform thread; the pool settings below then do not apply. Virtual threads are not
+ * reused, so the parsers and compiled expressions otherwise kept per pooled thread are
+ * then shared through bounded {@link com.xml.processor.service.xml.InstancePool}s.
+ */
 @Configuration
 @EnableAsync
 public class AsyncConfig {
 
+    /**
+     * Executor for uploaded files. Files are queued per client in the TenantFairScheduler,
+     * which dispatches no more files than there are threads, so the pool does not queue.
+     * On virtual threads every dispatched file gets a thread of its own.
+     */
     @Bean(name = "xmlProcessorExecutor")
-    public Executor taskExecutor() {
+    public Executor taskExecutor(Environment environment,
+                                 @Value("${app.processing.ingestion.max-pool-size:5}") int maxPoolSize) {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("XmlProcessor-");
+            executor.setVirtualThreads(true);
+            return executor;
+        }
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
-        executor.setCorePoolSize(2);
-        executor.setMaxPoolSize(5);
-        executor.setQueueCapacity(100);
+        executor.setCorePoolSize(maxPoolSize);
+        executor.setMaxPoolSize(maxPoolSize);
+        executor.setAllowCoreThreadTimeOut(true);
+        executor.setQueueCapacity(maxPoolSize);
         executor.setThreadNamePrefix("XmlProcessor-");
         executor.initialize();
         return executor;
     }
-} 
\ No newline at end of file
+
+    /**
+     * Executor for the units of split documents. Units are submitted while the parent
+     * document is still being processed, so a saturated pool runs the unit on the
+     * submitting thread instead of queueing it behind its own parent. On virtual threads
+     * the units in flight are only bounded by the splitter's read-ahead limit.
+     */
+    @Bean(name = "documentSplitExecutor")
+    public Executor documentSplitExecutor(Environment environment,
+                                          @Value("${app.processing.split.pool-size:0}") int poolSize) {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("DocumentSplit-");
+            executor.setVirtualThreads(true);
+            return executor;
+        }
+        int threads = poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(threads);
+        executor.setThreadNamePrefix("DocumentSplit-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Executor for bulk reprocessing runs. A run's thread mostly waits for its jobs, which
+     * run on the xmlProcessorExecutor, so a few platform threads suffice; further runs are
+     * rejected while all of them are busy.
+     */
+    @Bean(name = "bulkReprocessExecutor")
+    public Executor bulkReprocessExecutor(@Value("${app.processing.reprocess.max-runs:2}") int maxRuns) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(maxRuns);
+        executor.setMaxPoolSize(maxRuns);
+        executor.setAllowCoreThreadTimeOut(true);
+        executor.setQueueCapacity(0);
+        executor.setThreadNamePrefix("BulkReprocess-");
+        executor.initialize();
+        return executor;
+    }
+}
@@ -1,12 +1,18 @@
 package com.xml.processor.config;
 
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
-import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Configuration class for caching in the application.
@@ -15,16 +21,23 @@ import java.util.Arrays;
 @Configuration
 @EnableCaching
 public class CacheConfig {
-    
+
     /**
-     * Creates a cache manager with predefined cache names.
+     * Creates a Caffeine cache manager with predefined cache names, each bounded and
+     * expired by its policy under app.cache. Caches configured there under other names
+     * are created as well.
      *
      * @return The configured CacheManager
      */
     @Bean
-    public CacheManager cacheManager() {
-        ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager();
-        cacheManager.setCacheNames(Arrays.asList(
+    public CacheManager cacheManager(CachePolicyProperties cachePolicyProperties,
+                                     ObjectProvider<CacheLoaderRegistration> cacheLoaders,
+                                     ObjectProvider<MeterRegistry> meterRegistry) {
+        Map<String, CacheLoader<Object, Object>> loaders = new HashMap<>();
+        cacheLoaders.orderedStream().forEach(registration ->
+                loaders.put(registration.getCacheName(), registration.getLoader()));
+
+        Set<String> cacheNames = new LinkedHashSet<>(Arrays.asList(
             "clients",
             "interfaces",
             "mappingRules",
@@ -33,8 +46,18 @@ public class CacheConfig {
             "auditLogs",
             "asnHeaders",
             "asnLines",
-            "xsdSchemas"
+            "xsdSchemas",
+            "tenants",
+            "tenantCodes",
+            "unknownTenants",
+            "authPrincipals"
         ));
+        cacheNames.addAll(cachePolicyProperties.getCaches().keySet());
+        cacheNames.addAll(loaders.keySet());
+
+        PolicyCacheManager cacheManager = new PolicyCacheManager(cachePolicyProperties, loaders,
+                meterRegistry.getIfAvailable());
+        cacheManager.setCacheNames(cacheNames);
         return cacheManager;
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,27 @@
+package com.xml.processor.config;
+
+import com.github.benmanes.caffeine.cache.CacheLoader;
+
+/**
+ * Registers the loader of a cache as a bean. A cache with a loader computes missing
+ * entries itself and, given a refresh-after-write policy, reloads entries in the
+ * background before they go stale instead of letting readers wait for the reload.
+ */
+public final class CacheLoaderRegistration {
+
+    private final String cacheName;
+    private final CacheLoader<Object, Object> loader;
+
+    public CacheLoaderRegistration(String cacheName, CacheLoader<Object, Object> loader) {
+        this.cacheName = cacheName;
+        this.loader = loader;
+    }
+
+    public String getCacheName() {
+        return cacheName;
+    }
+
+    public CacheLoader<Object, Object> getLoader() {
+        return loader;
+    }
+}
@@ -0,0 +1,116 @@
+package com.xml.processor.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Eviction and expiry policies of the application caches, bound from app.cache.
+ * The defaults apply to every cache; per-cache policies are keyed by cache name and
+ * override single settings of the defaults.
+ */
+@Component
+@ConfigurationProperties(prefix = "app.cache")
+public class CachePolicyProperties {
+
+    private Policy defaults = new Policy();
+
+    private Map<String, Policy> caches = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+
+    /**
+     * Returns the policy of a cache, its own settings completed by the defaults.
+     */
+    public Policy getPolicy(String cacheName) {
+        Policy policy = caches.get(cacheName);
+        return policy != null ? policy.withDefaults(defaults) : defaults;
+    }
+
+    public Policy getDefaults() {
+        return defaults;
+    }
+
+    public void setDefaults(Policy defaults) {
+        this.defaults = defaults;
+    }
+
+    public Map<String, Policy> getCaches() {
+        return caches;
+    }
+
+    public void setCaches(Map<String, Policy> caches) {
+        this.caches = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        this.caches.putAll(caches);
+    }
+
+    /**
+     * Policy of one cache; unset values fall back to the defaults. A maximum weight takes
+     * precedence over a maximum size, weighing collections by their number of elements.
+     */
+    public static class Policy {
+        /** Entries kept at most. */
+        private Long maximumSize;
+        /** Total weight of the entries kept at most; a cached list weighs its size. */
+        private Long maximumWeight;
+        private Duration expireAfterWrite;
+        private Duration expireAfterAccess;
+        /**
+         * Age after which an entry read is reloaded in the background while the old value
+         * is still served; only applies to caches with a registered loader.
+         */
+        private Duration refreshAfterWrite;
+
+        Policy withDefaults(Policy defaults) {
+            Policy merged = new Policy();
+            boolean ownBound = maximumSize != null || maximumWeight != null;
+            merged.maximumSize = ownBound ? maximumSize : defaults.maximumSize;
+            merged.maximumWeight = ownBound ? maximumWeight : defaults.maximumWeight;
+            merged.expireAfterWrite = expireAfterWrite != null ? expireAfterWrite : defaults.expireAfterWrite;
+            merged.expireAfterAccess = expireAfterAccess != null ? expireAfterAccess : defaults.expireAfterAccess;
+            merged.refreshAfterWrite = refreshAfterWrite != null ? refreshAfterWrite : defaults.refreshAfterWrite;
+            return merged;
+        }
+
+        public Long getMaximumSize() {
+            return maximumSize;
+        }
+
+        public void setMaximumSize(Long maximumSize) {
+            this.maximumSize = maximumSize;
+        }
+
+        public Long getMaximumWeight() {
+            return maximumWeight;
+        }
+
+        public void setMaximumWeight(Long maximumWeight) {
+            this.maximumWeight = maximumWeight;
+        }
+
+        public Duration getExpireAfterWrite() {
+            return expireAfterWrite;
+        }
+
+        public void setExpireAfterWrite(Duration expireAfterWrite) {
+            this.expireAfterWrite = expireAfterWrite;
+        }
+
+        public Duration getExpireAfterAccess() {
+            return expireAfterAccess;
+        }
+
+        public void setExpireAfterAccess(Duration expireAfterAccess) {
+            this.expireAfterAccess = expireAfterAccess;
+        }
+
+        public Duration getRefreshAfterWrite() {
+            return refreshAfterWrite;
+        }
+
+        public void setRefreshAfterWrite(Duration refreshAfterWrite) {
+            this.refreshAfterWrite = refreshAfterWrite;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.xml.processor.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.data.domain.Page;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Caffeine cache manager creating every cache with the policy configured for its name.
+ * <p>
+ * Caffeine bounds caches with W-TinyLFU, which keeps frequently read entries over
+ * entries read once, so a scan through many files does not flush the clients and
+ * interfaces everybody reads. Every cache records statistics, published as the
+ * cache.gets, cache.puts and cache.evictions meters tagged with the cache name when a
+ * MeterRegistry is available.
+ */
+@Slf4j
+public class PolicyCacheManager extends CaffeineCacheManager {
+
+    private final CachePolicyProperties properties;
+    private final Map<String, CacheLoader<Object, Object>> loaders;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * @param loaders Loaders by cache name; caches without one are filled by the callers
+     * @param meterRegistry The registry to publish statistics to, or null
+     */
+    public PolicyCacheManager(CachePolicyProperties properties, Map<String, CacheLoader<Object, Object>> loaders,
+                              MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.loaders = loaders;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected Cache<Object, Object> createNativeCaffeineCache(String name) {
+        CachePolicyProperties.Policy policy = properties.getPolicy(name);
+        Caffeine<Object, Object> builder = Caffeine.newBuilder().recordStats();
+        if (policy.getMaximumWeight() != null) {
+            builder.maximumWeight(policy.getMaximumWeight()).weigher((key, value) -> weigh(value));
+        } else if (policy.getMaximumSize() != null) {
+            builder.maximumSize(policy.getMaximumSize());
+        }
+        if (policy.getExpireAfterWrite() != null) {
+            builder.expireAfterWrite(policy.getExpireAfterWrite());
+        }
+        if (policy.getExpireAfterAccess() != null) {
+            builder.expireAfterAccess(policy.getExpireAfterAccess());
+        }
+
+        CacheLoader<Object, Object> loader = loaders.get(name);
+        Cache<Object, Object> cache;
+        if (loader != null) {
+            if (policy.getRefreshAfterWrite() != null) {
+                builder.refreshAfterWrite(policy.getRefreshAfterWrite());
+            }
+            cache = builder.build(loader);
+        } else {
+            if (policy.getRefreshAfterWrite() != null) {
+                log.warn("Cache '{}' has no loader, ignoring its refresh-after-write policy", name);
+            }
+            cache = builder.build();
+        }
+
+        if (meterRegistry != null) {
+            CaffeineCacheMetrics.monitor(meterRegistry, cache, name);
+        }
+        return cache;
+    }
+
+    /**
+     * Weighs a cached value by its number of elements, so a cached list of all interfaces
+     * counts for as much as the interfaces cached one by one.
+     */
+    static int weigh(Object value) {
+        int weight;
+        if (value instanceof Collection<?> collection) {
+            weight = collection.size();
+        } else if (value instanceof Map<?, ?> map) {
+            weight = map.size();
+        } else if (value instanceof Page<?> page) {
+            weight = page.getNumberOfElements();
+        } else {
+            weight = 1;
+        }
+        return Math.max(1, weight);
+    }
+}
@@ -0,0 +1,107 @@
+package com.xml.processor.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Per-client settings of the fair file scheduler, bound from app.processing.tenant.
+ * The defaults apply to every client; overrides are keyed by client code.
+ */
+@Component
+@ConfigurationProperties(prefix = "app.processing.tenant")
+public class TenantSchedulingProperties {
+
+    /** Share of the processing capacity of a client relative to the others. */
+    private int weight = 1;
+
+    /** Files of one client processed at the same time (0 = unlimited). */
+    private int maxConcurrentFiles = 0;
+
+    /** Files of one client waiting to be processed (0 = unlimited). */
+    private int maxQueuedFiles = 0;
+
+    private Map<String, Limits> overrides = new HashMap<>();
+
+    public int getWeight(String clientCode) {
+        Limits limits = overrides.get(clientCode);
+        return limits != null && limits.getWeight() != null ? limits.getWeight() : weight;
+    }
+
+    public int getMaxConcurrentFiles(String clientCode) {
+        Limits limits = overrides.get(clientCode);
+        return limits != null && limits.getMaxConcurrentFiles() != null ? limits.getMaxConcurrentFiles() : maxConcurrentFiles;
+    }
+
+    public int getMaxQueuedFiles(String clientCode) {
+        Limits limits = overrides.get(clientCode);
+        return limits != null && limits.getMaxQueuedFiles() != null ? limits.getMaxQueuedFiles() : maxQueuedFiles;
+    }
+
+    public int getWeight() {
+        return weight;
+    }
+
+    public void setWeight(int weight) {
+        this.weight = weight;
+    }
+
+    public int getMaxConcurrentFiles() {
+        return maxConcurrentFiles;
+    }
+
+    public void setMaxConcurrentFiles(int maxConcurrentFiles) {
+        this.maxConcurrentFiles = maxConcurrentFiles;
+    }
+
+    public int getMaxQueuedFiles() {
+        return maxQueuedFiles;
+    }
+
+    public void setMaxQueuedFiles(int maxQueuedFiles) {
+        this.maxQueuedFiles = maxQueuedFiles;
+    }
+
+    public Map<String, Limits> getOverrides() {
+        return overrides;
+    }
+
+    public void setOverrides(Map<String, Limits> overrides) {
+        this.overrides = overrides;
+    }
+
+    /**
+     * Settings of one client; unset values fall back to the defaults.
+     */
+    public static class Limits {
+        private Integer weight;
+        private Integer maxConcurrentFiles;
+        private Integer maxQueuedFiles;
+
+        public Integer getWeight() {
+            return weight;
+        }
+
+        public void setWeight(Integer weight) {
+            this.weight = weight;
+        }
+
+        public Integer getMaxConcurrentFiles() {
+            return maxConcurrentFiles;
+        }
+
+        public void setMaxConcurrentFiles(Integer maxConcurrentFiles) {
+            this.maxConcurrentFiles = maxConcurrentFiles;
+        }
+
+        public Integer getMaxQueuedFiles() {
+            return maxQueuedFiles;
+        }
+
+        public void setMaxQueuedFiles(Integer maxQueuedFiles) {
+            this.maxQueuedFiles = maxQueuedFiles;
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.xml.processor.config;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.thread.Threading;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Reports virtual threads pinned to their carrier, typically while blocking inside a
+ * synchronized block such as those of the JDBC driver. Pinned threads hold a carrier for
+ * the whole wait, so enough of them stall every virtual thread of the application.
+ * <p>
+ * The JFR event jdk.VirtualThreadPinned is streamed in-process; the first pinning at each
+ * location is logged with its stack trace and later ones are counted and logged at debug.
+ */
+@Slf4j
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+@ConditionalOnProperty(name = "app.threads.pinning-monitor.enabled", havingValue = "true", matchIfMissing = true)
+public class VirtualThreadPinningMonitor implements InitializingBean, DisposableBean {
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final int MAX_LOGGED_FRAMES = 12;
+
+    private final Duration threshold;
+    private final Map<String, LongAdder> pinnedByLocation = new ConcurrentHashMap<>();
+    private RecordingStream stream;
+
+    public VirtualThreadPinningMonitor(@Value("${app.threads.pinning-monitor.threshold:PT0.02S}") Duration threshold) {
+        this.threshold = threshold;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        stream = new RecordingStream();
+        stream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        stream.onEvent(PINNED_EVENT, this::onPinned);
+        stream.startAsync();
+        log.info("Reporting virtual threads pinned for longer than {} ms", threshold.toMillis());
+    }
+
+    /**
+     * Returns how often a virtual thread was pinned, per location of the blocking call.
+     */
+    public Map<String, Long> getPinnedCounts() {
+        Map<String, Long> counts = new ConcurrentHashMap<>();
+        pinnedByLocation.forEach((location, count) -> counts.put(location, count.sum()));
+        return counts;
+    }
+
+    private void onPinned(RecordedEvent event) {
+        RecordedStackTrace stackTrace = event.getStackTrace();
+        String location = stackTrace == null ? "unknown" : location(stackTrace);
+        LongAdder count = pinnedByLocation.computeIfAbsent(location, key -> new LongAdder());
+        count.increment();
+        if (count.sum() == 1) {
+            log.warn("Virtual thread pinned for {} ms in {}:{}", event.getDuration().toMillis(), location,
+                    stackTrace == null ? "" : frames(stackTrace));
+        } else {
+            log.debug("Virtual thread pinned for {} ms in {} ({} times)", event.getDuration().toMillis(),
+                    location, count.sum());
+        }
+    }
+
+    /**
+     * The first application or driver frame, skipping the JDK frames of the blocking call.
+     */
+    private static String location(RecordedStackTrace stackTrace) {
+        for (RecordedFrame frame : stackTrace.getFrames()) {
+            String type = frame.getMethod().getType().getName();
+            if (!type.startsWith("java.") && !type.startsWith("jdk.") && !type.startsWith("sun.")) {
+                return type + "." + frame.getMethod().getName();
+            }
+        }
+        return stackTrace.getFrames().isEmpty() ? "unknown" : frameName(stackTrace.getFrames().get(0));
+    }
+
+    private static String frames(RecordedStackTrace stackTrace) {
+        StringBuilder frames = new StringBuilder();
+        int logged = 0;
+        for (RecordedFrame frame : stackTrace.getFrames()) {
+            if (logged++ == MAX_LOGGED_FRAMES) {
+                frames.append(System.lineSeparator()).append("\t...");
+                break;
+            }
+            frames.append(System.lineSeparator()).append("\tat ").append(frameName(frame))
+                    .append(':').append(frame.getLineNumber());
+        }
+        return frames.toString();
+    }
+
+    private static String frameName(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName();
+    }
+
+    @Override
+    public void destroy() {
+        if (stream != null) {
+            stream.close();
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.xml.processor.controller;
 
+import com.xml.processor.dto.CursorPage;
 import com.xml.processor.model.AuditLog;
 import com.xml.processor.service.interfaces.AuditLogService;
 import org.springframework.data.domain.Page;
@@ -36,6 +37,27 @@ public class AuditLogController {
         return ResponseEntity.ok(auditLogService.getAuditLogs(pageRequest));
     }
 
+    /**
+     * Returns audit logs ordered by creation time, paged with the cursor of the previous
+     * page instead of an offset. Unset filters match every log.
+     */
+    @GetMapping("/cursor")
+    public ResponseEntity<CursorPage<AuditLog>> getAuditLogsPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "DESC") String direction,
+            @RequestParam(required = false) Long clientId,
+            @RequestParam(required = false) String username,
+            @RequestParam(required = false) String action,
+            @RequestParam(required = false) Integer responseStatus,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+        boolean ascending = Sort.Direction.fromString(direction.toUpperCase()).isAscending();
+        return ResponseEntity.ok(auditLogService.getAuditLogsPage(cursor, size, ascending, clientId, username,
+                action, responseStatus, startDate, endDate, includeTotal));
+    }
+
     @GetMapping("/username/{username}")
     public ResponseEntity<Page<AuditLog>> getAuditLogsByUsername(
             @PathVariable String username,
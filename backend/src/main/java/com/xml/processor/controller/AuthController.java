@@ -2,6 +2,8 @@ package com.xml.processor.controller;
 
 import com.xml.processor.security.service.JwtService;
 import com.xml.processor.model.RefreshTokenRequest;
+import com.xml.processor.security.model.VerifiedToken;
+import com.xml.processor.security.service.AuthenticatedPrincipalCache;
 import com.xml.processor.security.service.JwtBlacklistService;
 import com.xml.processor.service.impl.SecurityLoggerServiceImpl;
 import com.xml.processor.security.RateLimiter;
@@ -43,6 +45,7 @@ public class AuthController {
     private final SecurityLoggerServiceImpl securityLogger;
     private final RateLimiter rateLimiter;
     private final CsrfTokenService csrfTokenService;
+    private final AuthenticatedPrincipalCache principalCache;
 
     @PostMapping("/login")
     public ResponseEntity<Map<String, Object>> login(@RequestBody LoginRequest request, 
@@ -101,10 +104,11 @@ public class AuthController {
             @RequestBody RefreshTokenRequest request,
             HttpServletRequest httpRequest) {
         try {
-            String username = jwtService.extractUsername(request.getRefreshToken());
+            VerifiedToken refreshToken = jwtService.verify(request.getRefreshToken());
+            String username = refreshToken.getSubject();
             UserDetails userDetails = userDetailsService.loadUserByUsername(username);
             
-            if (jwtService.isTokenValid(request.getRefreshToken(), userDetails)) {
+            if (jwtService.isTokenValid(refreshToken, userDetails)) {
                 String newToken = jwtService.generateToken(userDetails);
                 String newRefreshToken = jwtService.generateRefreshToken(userDetails);
                 
@@ -178,7 +182,13 @@ public class AuthController {
                 String authHeader = httpRequest.getHeader("Authorization");
                 if (authHeader != null && authHeader.startsWith("Bearer ")) {
                     String jwt = authHeader.substring(7);
-                    jwtBlacklistService.blacklistToken(jwt);
+                    VerifiedToken verified = (VerifiedToken) httpRequest.getAttribute(VerifiedToken.REQUEST_ATTRIBUTE);
+                    if (verified != null && verified.getExpiration() != null) {
+                        jwtBlacklistService.blacklistToken(jwt, verified.getExpiration());
+                    } else {
+                        jwtBlacklistService.blacklistToken(jwt);
+                    }
+                    principalCache.evict(jwt);
                 }
                 
                 securityLogger.logLogout(username, httpRequest.getRemoteAddr());
@@ -1,29 +1,100 @@
 package com.xml.processor.controller;
 
+import com.xml.processor.dto.BulkReprocessRequest;
+import com.xml.processor.dto.BulkReprocessRun;
+import com.xml.processor.dto.CursorPage;
 import com.xml.processor.model.ProcessedFile;
+import com.xml.processor.model.ProcessingJob;
+import com.xml.processor.service.concurrency.TenantFairScheduler;
+import com.xml.processor.service.concurrency.TenantQueueStats;
+import com.xml.processor.service.interfaces.BulkReprocessService;
+import com.xml.processor.service.interfaces.ProcessingJobService;
 import com.xml.processor.service.interfaces.XmlProcessorService;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/files")
 public class FileUploadController {
 
+    private static final long JOB_EVENTS_TIMEOUT_MS = 30L * 60 * 1000;
+
     private final XmlProcessorService xmlProcessorService;
+    private final ProcessingJobService processingJobService;
+    private final TenantFairScheduler tenantFairScheduler;
+    private final BulkReprocessService bulkReprocessService;
 
-    public FileUploadController(XmlProcessorService xmlProcessorService) {
+    public FileUploadController(XmlProcessorService xmlProcessorService, ProcessingJobService processingJobService,
+                                TenantFairScheduler tenantFairScheduler, BulkReprocessService bulkReprocessService) {
         this.xmlProcessorService = xmlProcessorService;
+        this.processingJobService = processingJobService;
+        this.tenantFairScheduler = tenantFairScheduler;
+        this.bulkReprocessService = bulkReprocessService;
     }
 
+    /**
+     * Accepts the file for background processing and returns its job right away, with the
+     * job's status URL in the Location header. A file that duplicates an earlier upload is
+     * answered with 200 and the job of that upload.
+     */
     @PostMapping("/upload/{interfaceId}")
-    public ResponseEntity<ProcessedFile> uploadFile(
+    public ResponseEntity<ProcessingJob> uploadFile(
             @RequestParam("file") MultipartFile file,
             @PathVariable Long interfaceId) {
-        return ResponseEntity.ok(xmlProcessorService.processXmlFileAsync(file, interfaceId).join());
+        ProcessingJob job = processingJobService.submit(file, interfaceId);
+        ResponseEntity.BodyBuilder response = job.isDuplicate() ? ResponseEntity.ok() : ResponseEntity.accepted();
+        return response.location(jobLocation(job)).body(job);
+    }
+
+    @GetMapping("/jobs/{jobId}")
+    public ResponseEntity<ProcessingJob> getJob(@PathVariable String jobId) {
+        return processingJobService.getJob(jobId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Streams a single "job" event carrying the job once it is COMPLETED or FAILED, then
+     * closes the stream.
+     */
+    @GetMapping("/jobs/{jobId}/events")
+    public ResponseEntity<SseEmitter> streamJobEvents(@PathVariable String jobId) {
+        CompletableFuture<ProcessingJob> completion = processingJobService.getCompletion(jobId).orElse(null);
+        if (completion == null) {
+            return ResponseEntity.notFound().build();
+        }
+        SseEmitter emitter = new SseEmitter(JOB_EVENTS_TIMEOUT_MS);
+        completion.whenComplete((job, error) -> {
+            try {
+                emitter.send(SseEmitter.event().name("job").data(job));
+                emitter.complete();
+            } catch (IOException | IllegalStateException e) {
+                // The client went away or the emitter timed out
+                emitter.completeWithError(e);
+            }
+        });
+        return ResponseEntity.ok(emitter);
+    }
+
+    /**
+     * Returns the queue depth, files in flight and queue wait times per client.
+     */
+    @GetMapping("/queue")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<TenantQueueStats>> getQueueStats() {
+        return ResponseEntity.ok(tenantFairScheduler.getStats());
     }
 
     @GetMapping("/processed")
@@ -37,6 +108,17 @@ public class FileUploadController {
         return ResponseEntity.ok(xmlProcessorService.getProcessedFiles(pageRequest));
     }
 
+    /**
+     * Returns processed files newest first, paged with the cursor of the previous page
+     * instead of an offset.
+     */
+    @GetMapping("/processed/cursor")
+    public ResponseEntity<CursorPage<ProcessedFile>> getProcessedFilesPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size) {
+        return ResponseEntity.ok(xmlProcessorService.getProcessedFilesPage(cursor, size));
+    }
+
     @GetMapping("/errors")
     public ResponseEntity<Page<ProcessedFile>> getErrorFiles(
             @RequestParam(defaultValue = "0") int page,
@@ -48,9 +130,69 @@ public class FileUploadController {
         return ResponseEntity.ok(xmlProcessorService.getErrorFiles(pageRequest));
     }
 
+    /**
+     * Returns error files newest first, paged with the cursor of the previous page.
+     */
+    @GetMapping("/errors/cursor")
+    public ResponseEntity<CursorPage<ProcessedFile>> getErrorFilesPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size) {
+        return ResponseEntity.ok(xmlProcessorService.getErrorFilesPage(cursor, size));
+    }
+
+    /**
+     * Queues a processed file for processing again from its stored upload and returns the job.
+     */
     @PostMapping("/reprocess/{fileId}")
-    public ResponseEntity<Void> reprocessFile(@PathVariable Long fileId) {
-        xmlProcessorService.reprocessFile(fileId);
-        return ResponseEntity.ok().build();
+    public ResponseEntity<ProcessingJob> reprocessFile(@PathVariable Long fileId) {
+        ProcessingJob job = processingJobService.reprocess(fileId);
+        return ResponseEntity.accepted().location(jobLocation(job)).body(job);
+    }
+
+    /**
+     * Starts reprocessing the files matching the filter, by default all ERROR files, and
+     * returns the run with its progress URL in the Location header.
+     */
+    @PostMapping("/reprocess")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<BulkReprocessRun> startBulkReprocess(@RequestBody BulkReprocessRequest request) {
+        BulkReprocessRun run = bulkReprocessService.start(request);
+        URI location = ServletUriComponentsBuilder.fromCurrentContextPath()
+                .path("/api/files/reprocess/runs/{runId}")
+                .buildAndExpand(run.getId())
+                .toUri();
+        return ResponseEntity.accepted().location(location).body(run);
+    }
+
+    @GetMapping("/reprocess/runs")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<BulkReprocessRun>> getBulkReprocessRuns() {
+        return ResponseEntity.ok(bulkReprocessService.getRuns());
+    }
+
+    @GetMapping("/reprocess/runs/{runId}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<BulkReprocessRun> getBulkReprocessRun(@PathVariable String runId) {
+        return bulkReprocessService.getRun(runId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Stops the run from queueing further files; the files already queued are still processed.
+     */
+    @DeleteMapping("/reprocess/runs/{runId}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<BulkReprocessRun> cancelBulkReprocessRun(@PathVariable String runId) {
+        return bulkReprocessService.cancel(runId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    private static URI jobLocation(ProcessingJob job) {
+        return ServletUriComponentsBuilder.fromCurrentContextPath()
+                .path("/api/files/jobs/{jobId}")
+                .buildAndExpand(job.getId())
+                .toUri();
     }
 } 
\ No newline at end of file
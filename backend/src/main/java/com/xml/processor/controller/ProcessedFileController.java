@@ -1,5 +1,6 @@
 package com.xml.processor.controller;
 
+import com.xml.processor.dto.CursorPage;
 import com.xml.processor.model.ProcessedFile;
 import com.xml.processor.service.interfaces.ProcessedFileService;
 import org.springframework.data.domain.Page;
@@ -38,6 +39,27 @@ public class ProcessedFileController {
         return ResponseEntity.ok(processedFiles);
     }
 
+    /**
+     * Returns processed files ordered by processing time, paged with the cursor of the
+     * previous page instead of an offset, so deep pages cost the same as the first. With
+     * direction asc, the next cursor of the last page picks up files processed later.
+     */
+    @GetMapping("/cursor")
+    public ResponseEntity<CursorPage<ProcessedFile>> getProcessedFilesPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "desc") String direction,
+            @RequestParam(required = false) Long clientId,
+            @RequestParam(required = false) String fileNameFilter,
+            @RequestParam(required = false) String statusFilter,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+        boolean ascending = Sort.Direction.fromString(direction.toUpperCase()).isAscending();
+        return ResponseEntity.ok(processedFileService.getProcessedFilesPage(cursor, size, ascending, clientId,
+                statusFilter, fileNameFilter, startDate, endDate, includeTotal));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<ProcessedFile> getProcessedFile(@PathVariable Long id) {
         Optional<ProcessedFile> fileOpt = processedFileService.getProcessedFileById(id);
@@ -0,0 +1,22 @@
+package com.xml.processor.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * Filter selecting the processed files of a bulk reprocessing run. Unset criteria match
+ * every file.
+ */
+@Data
+public class BulkReprocessRequest {
+    private String status = "ERROR";
+    private Long clientId;
+    private Long interfaceId;
+    private LocalDateTime processedFrom;
+    private LocalDateTime processedTo;
+    /** Case-insensitive SQL LIKE pattern on the error message; a pattern without % matches anywhere in it. */
+    private String errorPattern;
+    /** Files reprocessed at the same time, capped at app.processing.reprocess.max-in-flight. */
+    private Integer maxInFlight;
+}
@@ -0,0 +1,151 @@
+package com.xml.processor.dto;
+
+import com.xml.processor.model.JobStatus;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Progress of a bulk reprocessing run. A run is QUEUED until a worker picks it up, RUNNING
+ * while it submits the matching files and waits for their jobs, and ends COMPLETED, also
+ * when it was cancelled, or FAILED if it stopped on an error.
+ * <p>
+ * Only files that existed when the run was started are reprocessed, so files produced by
+ * the run itself are never picked up again.
+ */
+public class BulkReprocessRun {
+
+    private final String id;
+    private final BulkReprocessRequest filter;
+    private final int maxInFlight;
+    private final long maxFileId;
+    private final LocalDateTime submittedAt = LocalDateTime.now();
+
+    private volatile JobStatus status = JobStatus.QUEUED;
+    private volatile boolean cancelled;
+    private volatile Long lastFileId;
+    private volatile String errorMessage;
+    private volatile LocalDateTime startedAt;
+    private volatile LocalDateTime completedAt;
+
+    private final AtomicLong submitted = new AtomicLong();
+    private final AtomicLong succeeded = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong skipped = new AtomicLong();
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    public BulkReprocessRun(String id, BulkReprocessRequest filter, int maxInFlight, long maxFileId) {
+        this.id = id;
+        this.filter = filter;
+        this.maxInFlight = maxInFlight;
+        this.maxFileId = maxFileId;
+    }
+
+    public void start() {
+        startedAt = LocalDateTime.now();
+        status = JobStatus.RUNNING;
+    }
+
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * Records that a job reprocessing the file was queued.
+     */
+    public void fileSubmitted(Long fileId) {
+        lastFileId = fileId;
+        submitted.incrementAndGet();
+        inFlight.incrementAndGet();
+    }
+
+    /**
+     * Records that a file could not be reprocessed, because its upload is no longer stored.
+     */
+    public void fileSkipped(Long fileId) {
+        lastFileId = fileId;
+        skipped.incrementAndGet();
+    }
+
+    /**
+     * Records the outcome of a job queued by the run.
+     *
+     * @param succeeded Whether the file was processed with status SUCCESS this time
+     */
+    public void jobFinished(boolean succeeded) {
+        inFlight.decrementAndGet();
+        (succeeded ? this.succeeded : this.failed).incrementAndGet();
+    }
+
+    public void finish(JobStatus status, String errorMessage) {
+        this.errorMessage = errorMessage;
+        this.completedAt = LocalDateTime.now();
+        this.status = status;
+    }
+
+    // Getters
+    public String getId() {
+        return id;
+    }
+
+    public BulkReprocessRequest getFilter() {
+        return filter;
+    }
+
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    public long getMaxFileId() {
+        return maxFileId;
+    }
+
+    public JobStatus getStatus() {
+        return status;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    public Long getLastFileId() {
+        return lastFileId;
+    }
+
+    public long getSubmitted() {
+        return submitted.get();
+    }
+
+    public long getSucceeded() {
+        return succeeded.get();
+    }
+
+    public long getFailed() {
+        return failed.get();
+    }
+
+    public long getSkipped() {
+        return skipped.get();
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+
+    public LocalDateTime getSubmittedAt() {
+        return submittedAt;
+    }
+
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+
+    public LocalDateTime getCompletedAt() {
+        return completedAt;
+    }
+}
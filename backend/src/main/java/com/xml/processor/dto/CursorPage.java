@@ -0,0 +1,79 @@
+package com.xml.processor.dto;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * A page of a listing read with a {@link SeekCursor}. There is no exact total, as counting
+ * would cost as much as an offset; the approximate total is the table's row count estimate
+ * and only given on request for unfiltered listings.
+ */
+public class CursorPage<T> {
+
+    /** Rows read per page at most, whatever the requested size. */
+    public static final int MAX_SIZE = 500;
+
+    private final List<T> content;
+    private final String nextCursor;
+    private final boolean hasNext;
+    private final Long approximateTotal;
+
+    public CursorPage(List<T> content, String nextCursor, boolean hasNext, Long approximateTotal) {
+        this.content = content;
+        this.nextCursor = nextCursor;
+        this.hasNext = hasNext;
+        this.approximateTotal = approximateTotal;
+    }
+
+    /**
+     * Clamps a requested page size to 1..{@link #MAX_SIZE}. Queries read one row more than
+     * the page size to tell whether there is a next page.
+     */
+    public static int pageSize(int requested) {
+        return Math.max(1, Math.min(requested, MAX_SIZE));
+    }
+
+    /**
+     * Builds a page from rows read with a limit of pageSize + 1.
+     *
+     * @param rows The rows read, at most one more than the page size
+     * @param pageSize The page size
+     * @param requestedCursor The cursor the rows were read after, or null
+     * @param position Returns the position of a row
+     * @param approximateTotal The approximate total, or null
+     */
+    public static <T> CursorPage<T> of(List<T> rows, int pageSize, String requestedCursor,
+                                       Function<T, SeekCursor> position, Long approximateTotal) {
+        boolean hasNext = rows.size() > pageSize;
+        List<T> content = hasNext ? rows.subList(0, pageSize) : rows;
+        String nextCursor = content.isEmpty()
+                ? requestedCursor
+                : position.apply(content.get(content.size() - 1)).encode();
+        return new CursorPage<>(content, nextCursor, hasNext, approximateTotal);
+    }
+
+    public List<T> getContent() {
+        return content;
+    }
+
+    /**
+     * Returns the cursor positioned after the last row of this page, or the requested
+     * cursor if the page is empty. Also given on the last page, so an incremental sync can
+     * come back later for the rows added since.
+     */
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean isHasNext() {
+        return hasNext;
+    }
+
+    public int getSize() {
+        return content.size();
+    }
+
+    public Long getApproximateTotal() {
+        return approximateTotal;
+    }
+}
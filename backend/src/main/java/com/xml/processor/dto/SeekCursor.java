@@ -0,0 +1,69 @@
+package com.xml.processor.dto;
+
+import com.xml.processor.exception.ValidationException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position in a listing ordered by a timestamp and the ID, e.g. processedAt and id. A page
+ * is read by seeking past the position of the last row of the previous page, which costs
+ * the same on every page, where an offset has the database skip all preceding rows.
+ * <p>
+ * Cursors are handed out opaque, as URL-safe Base64 of the timestamp and the ID.
+ */
+public final class SeekCursor {
+
+    private static final LocalDateTime EARLIEST = LocalDateTime.of(1, 1, 1, 0, 0);
+    private static final LocalDateTime LATEST = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+
+    private final LocalDateTime timestamp;
+    private final long id;
+
+    public SeekCursor(LocalDateTime timestamp, long id) {
+        this.timestamp = timestamp;
+        this.id = id;
+    }
+
+    /**
+     * Returns the position before the first row, so the first page is read by the same
+     * seek query as the following ones.
+     */
+    public static SeekCursor start(boolean ascending) {
+        return ascending ? new SeekCursor(EARLIEST, Long.MIN_VALUE) : new SeekCursor(LATEST, Long.MAX_VALUE);
+    }
+
+    /**
+     * Decodes a cursor, or returns the start position if none is given.
+     *
+     * @throws ValidationException if the cursor is not one handed out by {@link #encode()}
+     */
+    public static SeekCursor decode(String cursor, boolean ascending) {
+        if (cursor == null || cursor.isBlank()) {
+            return start(ascending);
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = decoded.lastIndexOf('|');
+            return new SeekCursor(LocalDateTime.parse(decoded.substring(0, separator)),
+                    Long.parseLong(decoded.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException | StringIndexOutOfBoundsException e) {
+            throw new ValidationException("Invalid cursor: " + cursor);
+        }
+    }
+
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((timestamp + "|" + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    public LocalDateTime getTimestamp() {
+        return timestamp;
+    }
+
+    public long getId() {
+        return id;
+    }
+}
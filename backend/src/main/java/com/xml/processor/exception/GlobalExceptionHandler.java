@@ -2,6 +2,7 @@ package com.xml.processor.exception;
 
 import com.xml.processor.model.StandardErrorResponse;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -189,6 +190,36 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
     }
     
+    @ExceptionHandler(ResourceNotFoundException.class)
+    public ResponseEntity<StandardErrorResponse> handleResourceNotFoundException(
+            ResourceNotFoundException ex) {
+        StandardErrorResponse response = StandardErrorResponse.builder()
+            .code(ErrorCodes.BUS_RESOURCE_NOT_FOUND)
+            .message("Resource not found")
+            .detail(ex.getMessage())
+            .timestamp(LocalDateTime.now())
+            .build();
+        
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+    }
+    
+    @ExceptionHandler(TaskRejectedException.class)
+    public ResponseEntity<StandardErrorResponse> handleTaskRejectedException(
+            TaskRejectedException ex) {
+        log.warn("Rejected work, executor saturated: {}", ex.getMessage());
+        
+        StandardErrorResponse response = StandardErrorResponse.builder()
+            .code(ErrorCodes.SYS_SERVICE_UNAVAILABLE)
+            .message("Too many files are being processed")
+            .detail("Please retry later")
+            .timestamp(LocalDateTime.now())
+            .build();
+        
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+            .header("Retry-After", "5")
+            .body(response);
+    }
+    
     @ExceptionHandler(Exception.class)
     public ResponseEntity<StandardErrorResponse> handleGenericException(Exception ex) {
         log.error("Unhandled exception", ex);
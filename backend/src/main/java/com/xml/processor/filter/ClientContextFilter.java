@@ -1,8 +1,8 @@
 package com.xml.processor.filter;
 
 import com.xml.processor.config.ClientContextHolder;
-import com.xml.processor.model.Client;
-import com.xml.processor.service.interfaces.ClientService;
+import com.xml.processor.service.tenant.ClientSnapshot;
+import com.xml.processor.service.tenant.TenantResolver;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -16,6 +16,10 @@ import org.springframework.web.filter.OncePerRequestFilter;
 import java.io.IOException;
 import java.util.Optional;
 
+/**
+ * Sets the client context of requests carrying an X-Client-ID header. The client is
+ * resolved through the TenantResolver's caches, so requests do not query the database.
+ */
 @Component
 @Order(1)
 @RequiredArgsConstructor
@@ -25,7 +29,7 @@ public class ClientContextFilter extends OncePerRequestFilter {
     private static final String CLIENT_ID_HEADER = "X-Client-ID";
     private static final String CLIENT_NAME_HEADER = "X-Client-Name";
     
-    private final ClientService clientService;
+    private final TenantResolver tenantResolver;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
@@ -37,11 +41,11 @@ public class ClientContextFilter extends OncePerRequestFilter {
             if (clientIdHeader != null && !clientIdHeader.isEmpty()) {
                 try {
                     Long clientId = Long.parseLong(clientIdHeader);
-                    Optional<Client> clientOpt = clientService.getClientById(clientId);
+                    Optional<ClientSnapshot> clientOpt = tenantResolver.findById(clientId);
                     
                     if (clientOpt.isPresent()) {
                         // Set client in context
-                        ClientContextHolder.setClient(clientOpt.get());
+                        ClientContextHolder.setClient(clientOpt.get().toClient());
                         log.debug("Set client context: {}", clientOpt.get().getName());
                     } else {
                         log.warn("Client not found for ID: {}", clientId);
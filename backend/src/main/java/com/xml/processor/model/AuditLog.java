@@ -4,7 +4,12 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "audit_logs")
+@Table(name = "audit_logs", indexes = {
+        // Listings seek on (created_at, id), see SeekCursor
+        @Index(name = "idx_audit_logs_created_at_id", columnList = "created_at, id"),
+        @Index(name = "idx_audit_logs_client_created_at_id", columnList = "client_id, created_at, id"),
+        @Index(name = "idx_audit_logs_username_created_at_id", columnList = "username, created_at, id")
+})
 public class AuditLog {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -63,6 +63,14 @@ public class Interface {
     @Column(nullable = false)
     private int priority = 0;
 
+    @Enumerated(EnumType.STRING)
+    @Column(name = "processing_mode", nullable = false, length = 20)
+    private ProcessingMode processingMode = ProcessingMode.DOM;
+
+    @Size(max = 100)
+    @Column(name = "split_element", length = 100)
+    private String splitElement;
+
     @Column(name = "created_at")
     private LocalDateTime createdAt;
 
@@ -161,6 +169,22 @@ public class Interface {
         this.priority = priority;
     }
 
+    public ProcessingMode getProcessingMode() {
+        return processingMode;
+    }
+
+    public void setProcessingMode(ProcessingMode processingMode) {
+        this.processingMode = processingMode;
+    }
+
+    public String getSplitElement() {
+        return splitElement;
+    }
+
+    public void setSplitElement(String splitElement) {
+        this.splitElement = splitElement;
+    }
+
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
@@ -0,0 +1,18 @@
+package com.xml.processor.model;
+
+/**
+ * Enum representing the lifecycle of an asynchronous processing job.
+ * A job is QUEUED until a worker picks it up, RUNNING while its document is processed,
+ * and ends COMPLETED once a result was produced, whatever its status, or FAILED if
+ * processing threw.
+ */
+public enum JobStatus {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    FAILED;
+
+    public boolean isTerminal() {
+        return this == COMPLETED || this == FAILED;
+    }
+}
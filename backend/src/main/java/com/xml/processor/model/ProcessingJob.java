@@ -0,0 +1,229 @@
+package com.xml.processor.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Entity representing a file accepted for asynchronous processing. The submitting request
+ * gets the job right away and polls or subscribes to it for the outcome.
+ * <p>
+ * Jobs are the durable queue of the processing pipeline: a job is owned by the node holding
+ * its lease, which renews it while the job waits or runs. A job whose lease expired, because
+ * its node stopped, is claimed and run again by another node from its stored payload.
+ */
+@Entity
+@Table(name = "processing_jobs")
+public class ProcessingJob {
+    @Id
+    @Column(length = 36)
+    private String id;
+
+    @Column(name = "interface_id", nullable = false)
+    private Long interfaceId;
+
+    @Column(name = "client_id")
+    private Long clientId;
+
+    @Column(name = "payload_id", nullable = false)
+    private Long payloadId;
+
+    @Column(nullable = false, length = 255)
+    private String fileName;
+
+    @Column(nullable = false)
+    private long fileSize;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private JobStatus status = JobStatus.QUEUED;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(length = 100)
+    private String leaseOwner;
+
+    private LocalDateTime leaseExpiresAt;
+
+    /** The processed file this job reprocesses, if any. */
+    @Column(name = "source_processed_file_id")
+    private Long sourceProcessedFileId;
+
+    @Column(name = "processed_file_id")
+    private Long processedFileId;
+
+    @Column(length = 50)
+    private String resultStatus;
+
+    @Column(length = 1000)
+    private String errorMessage;
+
+    @Column(nullable = false)
+    private LocalDateTime submittedAt;
+
+    private LocalDateTime startedAt;
+
+    private LocalDateTime completedAt;
+
+    /** Set on the job an upload was answered with when it duplicates an earlier upload. */
+    @Transient
+    private boolean duplicate;
+
+    public ProcessingJob() {
+    }
+
+    public ProcessingJob(String id, Long interfaceId, Long clientId, Long payloadId, String fileName, long fileSize) {
+        this.id = id;
+        this.interfaceId = interfaceId;
+        this.clientId = clientId;
+        this.payloadId = payloadId;
+        this.fileName = fileName;
+        this.fileSize = fileSize;
+        this.submittedAt = LocalDateTime.now();
+    }
+
+    // Getters and Setters
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public Long getInterfaceId() {
+        return interfaceId;
+    }
+
+    public void setInterfaceId(Long interfaceId) {
+        this.interfaceId = interfaceId;
+    }
+
+    public Long getClientId() {
+        return clientId;
+    }
+
+    public void setClientId(Long clientId) {
+        this.clientId = clientId;
+    }
+
+    public Long getPayloadId() {
+        return payloadId;
+    }
+
+    public void setPayloadId(Long payloadId) {
+        this.payloadId = payloadId;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public void setFileName(String fileName) {
+        this.fileName = fileName;
+    }
+
+    public long getFileSize() {
+        return fileSize;
+    }
+
+    public void setFileSize(long fileSize) {
+        this.fileSize = fileSize;
+    }
+
+    public JobStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(JobStatus status) {
+        this.status = status;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+
+    public String getLeaseOwner() {
+        return leaseOwner;
+    }
+
+    public void setLeaseOwner(String leaseOwner) {
+        this.leaseOwner = leaseOwner;
+    }
+
+    public LocalDateTime getLeaseExpiresAt() {
+        return leaseExpiresAt;
+    }
+
+    public void setLeaseExpiresAt(LocalDateTime leaseExpiresAt) {
+        this.leaseExpiresAt = leaseExpiresAt;
+    }
+
+    public Long getSourceProcessedFileId() {
+        return sourceProcessedFileId;
+    }
+
+    public void setSourceProcessedFileId(Long sourceProcessedFileId) {
+        this.sourceProcessedFileId = sourceProcessedFileId;
+    }
+
+    public Long getProcessedFileId() {
+        return processedFileId;
+    }
+
+    public void setProcessedFileId(Long processedFileId) {
+        this.processedFileId = processedFileId;
+    }
+
+    public String getResultStatus() {
+        return resultStatus;
+    }
+
+    public void setResultStatus(String resultStatus) {
+        this.resultStatus = resultStatus;
+    }
+
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+
+    public void setErrorMessage(String errorMessage) {
+        this.errorMessage = errorMessage;
+    }
+
+    public LocalDateTime getSubmittedAt() {
+        return submittedAt;
+    }
+
+    public void setSubmittedAt(LocalDateTime submittedAt) {
+        this.submittedAt = submittedAt;
+    }
+
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(LocalDateTime startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public LocalDateTime getCompletedAt() {
+        return completedAt;
+    }
+
+    public void setCompletedAt(LocalDateTime completedAt) {
+        this.completedAt = completedAt;
+    }
+
+    public boolean isDuplicate() {
+        return duplicate;
+    }
+
+    public void setDuplicate(boolean duplicate) {
+        this.duplicate = duplicate;
+    }
+}
@@ -0,0 +1,142 @@
+package com.xml.processor.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Entity holding the raw content of an uploaded file, kept so that its jobs can be
+ * resumed after a crash and reprocessed without uploading the file again.
+ * <p>
+ * The fingerprint identifies the upload within its interface and is unique there, so a
+ * file uploaded again is recognized as a duplicate of the stored one.
+ */
+@Entity
+@Table(name = "processing_job_payloads")
+public class ProcessingJobPayload {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "client_id")
+    private Long clientId;
+
+    @Column(name = "interface_id")
+    private Long interfaceId;
+
+    @Column(length = 100)
+    private String contentType;
+
+    /** Hex SHA-256 of the content. */
+    @Column(length = 64)
+    private String contentHash;
+
+    @Column(length = 80)
+    private String fingerprint;
+
+    /** DOCNUM of the first IDoc control record, if any. */
+    @Column(length = 50)
+    private String idocNumber;
+
+    @Lob
+    @Column(nullable = false)
+    private byte[] content;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    public ProcessingJobPayload() {
+    }
+
+    public ProcessingJobPayload(String contentType, byte[] content) {
+        this.contentType = contentType;
+        this.content = content;
+    }
+
+    public ProcessingJobPayload(Long clientId, Long interfaceId, String contentType, byte[] content,
+                                String contentHash, String fingerprint, String idocNumber) {
+        this(contentType, content);
+        this.clientId = clientId;
+        this.interfaceId = interfaceId;
+        this.contentHash = contentHash;
+        this.fingerprint = fingerprint;
+        this.idocNumber = idocNumber;
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getClientId() {
+        return clientId;
+    }
+
+    public void setClientId(Long clientId) {
+        this.clientId = clientId;
+    }
+
+    public Long getInterfaceId() {
+        return interfaceId;
+    }
+
+    public void setInterfaceId(Long interfaceId) {
+        this.interfaceId = interfaceId;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public void setContentType(String contentType) {
+        this.contentType = contentType;
+    }
+
+    public byte[] getContent() {
+        return content;
+    }
+
+    public void setContent(byte[] content) {
+        this.content = content;
+    }
+
+    public String getContentHash() {
+        return contentHash;
+    }
+
+    public void setContentHash(String contentHash) {
+        this.contentHash = contentHash;
+    }
+
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    public void setFingerprint(String fingerprint) {
+        this.fingerprint = fingerprint;
+    }
+
+    public String getIdocNumber() {
+        return idocNumber;
+    }
+
+    public void setIdocNumber(String idocNumber) {
+        this.idocNumber = idocNumber;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
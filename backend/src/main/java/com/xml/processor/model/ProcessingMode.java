@@ -0,0 +1,13 @@
+package com.xml.processor.model;
+
+/**
+ * Enum representing how an interface's documents are parsed during processing.
+ * DOM builds a full document tree, STREAMING evaluates mapping rules in a single
+ * forward StAX pass without materializing the document, and STREAMING_VALIDATED
+ * additionally validates against the interface's XSD within that same pass.
+ */
+public enum ProcessingMode {
+    DOM,
+    STREAMING,
+    STREAMING_VALIDATED
+}
@@ -0,0 +1,218 @@
+package com.xml.processor.repository;
+
+import com.xml.processor.config.ClientContextHolder;
+import com.xml.processor.model.AsnHeader;
+import com.xml.processor.model.AsnLine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes ASN headers and their lines with plain JDBC batches.
+ * <p>
+ * The ASN entities use IDENTITY ids, with which Hibernate inserts every entity in a
+ * statement of its own to read back its id, so saving a delivery through the repositories
+ * costs a round-trip per line. Here the header is inserted with one statement and its
+ * lines are sent in JDBC batches of app.processing.asn.batch-size, without going through
+ * the persistence context. Lines are written without reading back their ids.
+ * <p>
+ * Statements run on the connection of the current transaction, so a delivery written
+ * within a transaction is committed or rolled back as a whole.
+ */
+@Repository
+public class AsnBatchWriter {
+
+    private static final String INSERT_HEADER = "INSERT INTO asn_headers (document_number, document_type, sender_id, "
+            + "receiver_id, document_date, document_time, status, notes, client_id, created_at, updated_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String UPDATE_HEADER = "UPDATE asn_headers SET document_number = ?, document_type = ?, "
+            + "sender_id = ?, receiver_id = ?, document_date = ?, document_time = ?, status = ?, notes = ?, "
+            + "updated_at = ? WHERE id = ?";
+
+    private static final String INSERT_LINE = "INSERT INTO asn_lines (header_id, line_number, item_number, "
+            + "item_description, quantity, unit_of_measure, lot_number, serial_number, status, notes, client_id, "
+            + "created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+
+    public AsnBatchWriter(JdbcTemplate jdbcTemplate,
+                          @Value("${app.processing.asn.batch-size:500}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    /**
+     * Inserts a header and sets its id, client and timestamps. A header without a client
+     * gets the client of the current context.
+     *
+     * @param header The header to insert
+     * @return The inserted header
+     * @throws IllegalStateException if the header has no client and none is set in the context
+     */
+    public AsnHeader insertHeader(AsnHeader header) {
+        if (header.getClient() == null) {
+            header.setClient(ClientContextHolder.getClient());
+        }
+        Long clientId = requireClientId(header.getClientId());
+        LocalDateTime now = LocalDateTime.now();
+        Timestamp timestamp = Timestamp.valueOf(now);
+
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.update(connection -> {
+            PreparedStatement statement = connection.prepareStatement(INSERT_HEADER, new String[] {"id"});
+            statement.setString(1, header.getDocumentNumber());
+            statement.setString(2, header.getDocumentType());
+            statement.setString(3, header.getSenderId());
+            statement.setString(4, header.getReceiverId());
+            statement.setString(5, header.getDocumentDate());
+            statement.setString(6, header.getDocumentTime());
+            statement.setString(7, header.getStatus());
+            statement.setString(8, header.getNotes());
+            statement.setLong(9, clientId);
+            statement.setTimestamp(10, timestamp);
+            statement.setTimestamp(11, timestamp);
+            return statement;
+        }, keyHolder);
+
+        header.setId(keyHolder.getKeyAs(Number.class).longValue());
+        header.setCreatedAt(now);
+        header.setUpdatedAt(now);
+        return header;
+    }
+
+    /**
+     * Updates the fields of an inserted header, for header values that only became known
+     * after its lines were started.
+     *
+     * @param header The inserted header
+     */
+    public void updateHeader(AsnHeader header) {
+        LocalDateTime now = LocalDateTime.now();
+        jdbcTemplate.update(UPDATE_HEADER, header.getDocumentNumber(), header.getDocumentType(), header.getSenderId(),
+                header.getReceiverId(), header.getDocumentDate(), header.getDocumentTime(), header.getStatus(),
+                header.getNotes(), Timestamp.valueOf(now), header.getId());
+        header.setUpdatedAt(now);
+    }
+
+    /**
+     * Opens a batch of lines for an inserted header. Lines are sent once a batch is full and
+     * when the batch is flushed or closed.
+     *
+     * @param header The inserted header the lines belong to
+     * @return The open batch
+     */
+    public LineBatch openLineBatch(AsnHeader header) {
+        if (header.getId() == null) {
+            throw new IllegalStateException("ASN header must be inserted before its lines");
+        }
+        return new LineBatch(header.getId(), requireClientId(header.getClientId()));
+    }
+
+    /**
+     * Inserts a header and all its lines.
+     *
+     * @param header The header to insert
+     * @param lines The lines of the header
+     * @return The inserted header
+     */
+    public AsnHeader insert(AsnHeader header, Iterable<AsnLine> lines) {
+        insertHeader(header);
+        try (LineBatch batch = openLineBatch(header)) {
+            for (AsnLine line : lines) {
+                batch.add(line);
+            }
+        }
+        return header;
+    }
+
+    private static Long requireClientId(Long clientId) {
+        if (clientId == null) {
+            throw new IllegalStateException("ASN documents require a client");
+        }
+        return clientId;
+    }
+
+    /**
+     * Buffers the lines of one header and inserts them in JDBC batches. Not thread-safe.
+     */
+    public final class LineBatch implements AutoCloseable {
+
+        private final long headerId;
+        private final long clientId;
+        private final List<AsnLine> pending = new ArrayList<>(batchSize);
+        private int written;
+
+        private LineBatch(long headerId, long clientId) {
+            this.headerId = headerId;
+            this.clientId = clientId;
+        }
+
+        /**
+         * Adds a line, sending the batch once it is full.
+         */
+        public void add(AsnLine line) {
+            pending.add(line);
+            if (pending.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        /**
+         * Sends the buffered lines.
+         */
+        public void flush() {
+            if (pending.isEmpty()) {
+                return;
+            }
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            jdbcTemplate.batchUpdate(INSERT_LINE, pending, pending.size(), (statement, line) -> {
+                statement.setLong(1, headerId);
+                if (line.getLineNumber() != null) {
+                    statement.setInt(2, line.getLineNumber());
+                } else {
+                    statement.setNull(2, Types.INTEGER);
+                }
+                statement.setString(3, line.getItemNumber());
+                statement.setString(4, line.getItemDescription());
+                if (line.getQuantity() != null) {
+                    statement.setInt(5, line.getQuantity());
+                } else {
+                    statement.setNull(5, Types.INTEGER);
+                }
+                statement.setString(6, line.getUnitOfMeasure());
+                statement.setString(7, line.getLotNumber());
+                statement.setString(8, line.getSerialNumber());
+                statement.setString(9, line.getStatus());
+                statement.setString(10, line.getNotes());
+                statement.setLong(11, clientId);
+                statement.setTimestamp(12, now);
+                statement.setTimestamp(13, now);
+            });
+            written += pending.size();
+            pending.clear();
+        }
+
+        /**
+         * Returns the number of lines sent so far.
+         */
+        public int getWritten() {
+            return written;
+        }
+
+        @Override
+        public void close() {
+            flush();
+        }
+    }
+}
@@ -9,6 +9,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 /**
  * Repository interface for AuditLog entities.
@@ -24,4 +25,55 @@ public interface AuditLogRepository extends JpaRepository<AuditLog, Long> {
     Page<AuditLog> findByResponseStatus(Integer status, Pageable pageable);
     @Query("DELETE FROM AuditLog a WHERE a.createdAt < :date")
     void deleteByCreatedAtBefore(@Param("date") LocalDateTime date);
-} 
\ No newline at end of file
+
+    /**
+     * Finds the audit logs created before the given position, newest first. Seeks on
+     * (createdAt, id) instead of skipping an offset, and runs no count query.
+     *
+     * @param pageable The number of logs to read; its offset and sort are not used
+     */
+    @Query("SELECT a FROM AuditLog a WHERE "
+            + "(:clientId IS NULL OR a.clientId = :clientId) AND "
+            + "(:username IS NULL OR a.username = :username) AND "
+            + "(:action IS NULL OR a.action = :action) AND "
+            + "(:responseStatus IS NULL OR a.responseStatus = :responseStatus) AND "
+            + "(:startDate IS NULL OR a.createdAt >= :startDate) AND "
+            + "(:endDate IS NULL OR a.createdAt <= :endDate) AND "
+            + "a.createdAt <= :afterCreatedAt AND (a.createdAt < :afterCreatedAt OR a.id < :afterId) "
+            + "ORDER BY a.createdAt DESC, a.id DESC")
+    List<AuditLog> findPageBefore(
+            @Param("clientId") Long clientId,
+            @Param("username") String username,
+            @Param("action") String action,
+            @Param("responseStatus") Integer responseStatus,
+            @Param("startDate") LocalDateTime startDate,
+            @Param("endDate") LocalDateTime endDate,
+            @Param("afterCreatedAt") LocalDateTime afterCreatedAt,
+            @Param("afterId") long afterId,
+            Pageable pageable);
+
+    /**
+     * Finds the audit logs created after the given position, oldest first.
+     *
+     * @see #findPageBefore
+     */
+    @Query("SELECT a FROM AuditLog a WHERE "
+            + "(:clientId IS NULL OR a.clientId = :clientId) AND "
+            + "(:username IS NULL OR a.username = :username) AND "
+            + "(:action IS NULL OR a.action = :action) AND "
+            + "(:responseStatus IS NULL OR a.responseStatus = :responseStatus) AND "
+            + "(:startDate IS NULL OR a.createdAt >= :startDate) AND "
+            + "(:endDate IS NULL OR a.createdAt <= :endDate) AND "
+            + "a.createdAt >= :afterCreatedAt AND (a.createdAt > :afterCreatedAt OR a.id > :afterId) "
+            + "ORDER BY a.createdAt ASC, a.id ASC")
+    List<AuditLog> findPageAfter(
+            @Param("clientId") Long clientId,
+            @Param("username") String username,
+            @Param("action") String action,
+            @Param("responseStatus") Integer responseStatus,
+            @Param("startDate") LocalDateTime startDate,
+            @Param("endDate") LocalDateTime endDate,
+            @Param("afterCreatedAt") LocalDateTime afterCreatedAt,
+            @Param("afterId") long afterId,
+            Pageable pageable);
+}
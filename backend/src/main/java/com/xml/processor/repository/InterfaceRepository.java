@@ -4,6 +4,7 @@ import com.xml.processor.model.Interface;
 import com.xml.processor.model.Client;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
     
@@ -130,4 +131,13 @@ public interface InterfaceRepository extends JpaRepository<Interface, Long> {
      * @return List of interfaces for the client
      */
     List<Interface> findByClientId(Long clientId);
-} 
\ No newline at end of file
+
+    /**
+     * Finds an interface by ID with its client loaded, for use outside of a transaction.
+     *
+     * @param id The ID of the interface
+     * @return Optional containing the interface if found
+     */
+    @EntityGraph(attributePaths = "client")
+    Optional<Interface> findWithClientById(Long id);
+}
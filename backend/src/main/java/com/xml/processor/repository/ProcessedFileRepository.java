@@ -3,6 +3,7 @@ package com.xml.processor.repository;
 import com.xml.processor.model.ProcessedFile;
 import com.xml.processor.model.Client;
 import com.xml.processor.model.Interface;
+import com.xml.processor.model.JobStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -11,6 +12,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -84,4 +86,85 @@ public interface ProcessedFileRepository extends JpaRepository<ProcessedFile, Lo
             @Param("startDate") LocalDateTime startDate,
             @Param("endDate") LocalDateTime endDate,
             Pageable pageable);
-} 
\ No newline at end of file
+
+    @Query("SELECT MAX(p.id) FROM ProcessedFile p")
+    Long findMaxId();
+
+    /**
+     * Finds the IDs of files to reprocess in ID order, starting after the given ID, so a bulk
+     * run seeks to its next batch instead of paging with an offset. Files with a
+     * reprocessing job that is still unfinished or that succeeded are left out.
+     *
+     * @param errorPattern Lower-case LIKE pattern on the error message, or null
+     */
+    @Query("SELECT p.id FROM ProcessedFile p WHERE p.status = :status "
+            + "AND p.id > :afterId AND p.id <= :maxId "
+            + "AND (:clientId IS NULL OR p.client.id = :clientId) "
+            + "AND (:interfaceId IS NULL OR p.interfaceEntity.id = :interfaceId) "
+            + "AND (:startDate IS NULL OR p.processedAt >= :startDate) "
+            + "AND (:endDate IS NULL OR p.processedAt <= :endDate) "
+            + "AND (:errorPattern IS NULL OR LOWER(p.errorMessage) LIKE :errorPattern) "
+            + "AND NOT EXISTS (SELECT j.id FROM ProcessingJob j WHERE j.sourceProcessedFileId = p.id "
+            + "AND (j.status IN :unfinished OR j.resultStatus = 'SUCCESS')) "
+            + "ORDER BY p.id")
+    List<Long> findReprocessCandidateIds(
+            @Param("status") String status,
+            @Param("clientId") Long clientId,
+            @Param("interfaceId") Long interfaceId,
+            @Param("startDate") LocalDateTime startDate,
+            @Param("endDate") LocalDateTime endDate,
+            @Param("errorPattern") String errorPattern,
+            @Param("unfinished") Collection<JobStatus> unfinished,
+            @Param("afterId") long afterId,
+            @Param("maxId") long maxId,
+            Pageable pageable);
+
+    /**
+     * Finds the files processed before the given position, newest first. Seeks on
+     * (processedAt, id) instead of skipping an offset, and runs no count query.
+     *
+     * @param fileNamePattern Lower-case LIKE pattern on the file name, or null
+     * @param pageable The number of files to read; its offset and sort are not used
+     */
+    @Query("SELECT p FROM ProcessedFile p WHERE "
+            + "(:clientId IS NULL OR p.client.id = :clientId) AND "
+            + "(:status IS NULL OR p.status = :status) AND "
+            + "(:fileNamePattern IS NULL OR LOWER(p.fileName) LIKE :fileNamePattern) AND "
+            + "(:startDate IS NULL OR p.processedAt >= :startDate) AND "
+            + "(:endDate IS NULL OR p.processedAt <= :endDate) AND "
+            + "p.processedAt <= :afterProcessedAt AND (p.processedAt < :afterProcessedAt OR p.id < :afterId) "
+            + "ORDER BY p.processedAt DESC, p.id DESC")
+    List<ProcessedFile> findPageBefore(
+            @Param("clientId") Long clientId,
+            @Param("status") String status,
+            @Param("fileNamePattern") String fileNamePattern,
+            @Param("startDate") LocalDateTime startDate,
+            @Param("endDate") LocalDateTime endDate,
+            @Param("afterProcessedAt") LocalDateTime afterProcessedAt,
+            @Param("afterId") long afterId,
+            Pageable pageable);
+
+    /**
+     * Finds the files processed after the given position, oldest first, e.g. to sync the
+     * files added since the last call.
+     *
+     * @see #findPageBefore
+     */
+    @Query("SELECT p FROM ProcessedFile p WHERE "
+            + "(:clientId IS NULL OR p.client.id = :clientId) AND "
+            + "(:status IS NULL OR p.status = :status) AND "
+            + "(:fileNamePattern IS NULL OR LOWER(p.fileName) LIKE :fileNamePattern) AND "
+            + "(:startDate IS NULL OR p.processedAt >= :startDate) AND "
+            + "(:endDate IS NULL OR p.processedAt <= :endDate) AND "
+            + "p.processedAt >= :afterProcessedAt AND (p.processedAt > :afterProcessedAt OR p.id > :afterId) "
+            + "ORDER BY p.processedAt ASC, p.id ASC")
+    List<ProcessedFile> findPageAfter(
+            @Param("clientId") Long clientId,
+            @Param("status") String status,
+            @Param("fileNamePattern") String fileNamePattern,
+            @Param("startDate") LocalDateTime startDate,
+            @Param("endDate") LocalDateTime endDate,
+            @Param("afterProcessedAt") LocalDateTime afterProcessedAt,
+            @Param("afterId") long afterId,
+            Pageable pageable);
+}
@@ -0,0 +1,67 @@
+package com.xml.processor.repository;
+
+import com.xml.processor.model.ProcessingJobPayload;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+/**
+ * Repository interface for ProcessingJobPayload entities.
+ */
+@Repository
+public interface ProcessingJobPayloadRepository extends JpaRepository<ProcessingJobPayload, Long> {
+
+    /**
+     * Finds the ID of the payload of an interface with the given content hash, without
+     * loading its content.
+     */
+    @Query("SELECT MIN(p.id) FROM ProcessingJobPayload p WHERE p.clientId = :clientId "
+            + "AND p.interfaceId = :interfaceId AND p.contentHash = :contentHash")
+    Optional<Long> findIdByContentHash(@Param("clientId") Long clientId, @Param("interfaceId") Long interfaceId,
+                                       @Param("contentHash") String contentHash);
+
+    /**
+     * Finds the ID of the payload of an interface with the given fingerprint, without
+     * loading its content.
+     */
+    @Query("SELECT p.id FROM ProcessingJobPayload p WHERE p.clientId = :clientId "
+            + "AND p.interfaceId = :interfaceId AND p.fingerprint = :fingerprint")
+    Optional<Long> findIdByFingerprint(@Param("clientId") Long clientId, @Param("interfaceId") Long interfaceId,
+                                       @Param("fingerprint") String fingerprint);
+
+    /**
+     * Clears the fingerprint of a payload that a later upload with the same fingerprint
+     * supersedes. The payload stays with the jobs that processed it.
+     *
+     * @return 1 if the payload was updated, 0 otherwise
+     */
+    @Modifying
+    @Query("UPDATE ProcessingJobPayload p SET p.fingerprint = NULL WHERE p.id = :id")
+    int clearFingerprint(@Param("id") Long id);
+
+    /**
+     * Deletes the payloads no job refers to anymore.
+     *
+     * @return The number of deleted payloads
+     */
+    @Modifying
+    @Query("DELETE FROM ProcessingJobPayload p WHERE NOT EXISTS "
+            + "(SELECT j.id FROM ProcessingJob j WHERE j.payloadId = p.id)")
+    int deleteUnreferenced();
+
+    /**
+     * Deletes a payload if no job refers to it anymore.
+     *
+     * @return 1 if the payload was deleted, 0 otherwise
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM ProcessingJobPayload p WHERE p.id = :id AND NOT EXISTS "
+            + "(SELECT j.id FROM ProcessingJob j WHERE j.payloadId = p.id)")
+    int deleteIfUnreferenced(@Param("id") Long id);
+}
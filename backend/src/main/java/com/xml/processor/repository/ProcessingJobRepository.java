@@ -0,0 +1,117 @@
+package com.xml.processor.repository;
+
+import com.xml.processor.model.JobStatus;
+import com.xml.processor.model.ProcessingJob;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository interface for ProcessingJob entities.
+ * <p>
+ * Jobs are claimed with a conditional update that only succeeds while the job has no
+ * live lease. Nodes competing for the same job never wait on each other's row locks:
+ * the losers update nothing and move on to the next job, as with SELECT ... FOR UPDATE
+ * SKIP LOCKED, but on any database. Updates of a claimed job are conditional on the
+ * lease owner, so a node that lost its lease cannot overwrite the new owner's state.
+ */
+@Repository
+public interface ProcessingJobRepository extends JpaRepository<ProcessingJob, String> {
+
+    /**
+     * Finds the IDs of jobs in the given statuses that no node holds a live lease on,
+     * oldest first.
+     */
+    @Query("SELECT j.id FROM ProcessingJob j WHERE j.status IN :statuses "
+            + "AND (j.leaseOwner IS NULL OR j.leaseExpiresAt < :now) ORDER BY j.submittedAt")
+    List<String> findClaimable(@Param("statuses") Collection<JobStatus> statuses,
+                               @Param("now") LocalDateTime now, Pageable pageable);
+
+    /**
+     * Takes the lease of a job if no node holds a live lease on it.
+     *
+     * @return 1 if the job was claimed, 0 if another node holds it or it finished
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE ProcessingJob j SET j.leaseOwner = :owner, j.leaseExpiresAt = :expiresAt "
+            + "WHERE j.id = :id AND j.status IN :statuses "
+            + "AND (j.leaseOwner IS NULL OR j.leaseExpiresAt < :now)")
+    int claim(@Param("id") String id, @Param("statuses") Collection<JobStatus> statuses,
+              @Param("owner") String owner, @Param("expiresAt") LocalDateTime expiresAt,
+              @Param("now") LocalDateTime now);
+
+    /**
+     * Extends the leases of all unfinished jobs held by a node.
+     *
+     * @return The number of renewed leases
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE ProcessingJob j SET j.leaseExpiresAt = :expiresAt "
+            + "WHERE j.leaseOwner = :owner AND j.status IN :statuses")
+    int renewLeases(@Param("owner") String owner, @Param("statuses") Collection<JobStatus> statuses,
+                    @Param("expiresAt") LocalDateTime expiresAt);
+
+    /**
+     * Gives up the lease of a job so that any node may claim it.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE ProcessingJob j SET j.leaseOwner = NULL, j.leaseExpiresAt = NULL "
+            + "WHERE j.id = :id AND j.leaseOwner = :owner")
+    int release(@Param("id") String id, @Param("owner") String owner);
+
+    /**
+     * Marks a held job as running and counts the attempt.
+     *
+     * @return 1 if the node still held the job, 0 otherwise
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE ProcessingJob j SET j.status = com.xml.processor.model.JobStatus.RUNNING, "
+            + "j.startedAt = :now, j.attempts = j.attempts + 1 WHERE j.id = :id AND j.leaseOwner = :owner")
+    int markRunning(@Param("id") String id, @Param("owner") String owner, @Param("now") LocalDateTime now);
+
+    /**
+     * Records the outcome of a held job and releases its lease.
+     *
+     * @return 1 if the node still held the job, 0 otherwise
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE ProcessingJob j SET j.status = :status, j.completedAt = :now, "
+            + "j.processedFileId = :processedFileId, j.resultStatus = :resultStatus, j.errorMessage = :errorMessage, "
+            + "j.leaseOwner = NULL, j.leaseExpiresAt = NULL WHERE j.id = :id AND j.leaseOwner = :owner")
+    int complete(@Param("id") String id, @Param("owner") String owner, @Param("status") JobStatus status,
+                 @Param("now") LocalDateTime now, @Param("processedFileId") Long processedFileId,
+                 @Param("resultStatus") String resultStatus, @Param("errorMessage") String errorMessage);
+
+    /**
+     * Finds the latest job that produced a processed file.
+     */
+    Optional<ProcessingJob> findFirstByProcessedFileIdOrderBySubmittedAtDesc(Long processedFileId);
+
+    /**
+     * Finds the latest upload job of a payload, leaving out the jobs reprocessing its files.
+     */
+    Optional<ProcessingJob> findFirstByPayloadIdAndSourceProcessedFileIdIsNullOrderBySubmittedAtDesc(Long payloadId);
+
+    /**
+     * Deletes the jobs that finished before the cutoff.
+     *
+     * @return The number of deleted jobs
+     */
+    @Modifying
+    @Query("DELETE FROM ProcessingJob j WHERE j.status IN :statuses AND j.completedAt < :cutoff")
+    int deleteFinishedBefore(@Param("statuses") Collection<JobStatus> statuses, @Param("cutoff") LocalDateTime cutoff);
+}
@@ -0,0 +1,38 @@
+package com.xml.processor.repository;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Reads table statistics the database keeps anyway, for totals that need not be exact.
+ */
+@Slf4j
+@Repository
+public class TableStatistics {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public TableStatistics(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Returns the database's estimate of the number of rows of a table, read from
+     * INFORMATION_SCHEMA instead of counting the rows.
+     *
+     * @param tableName The table name
+     * @return The estimate, or null if the database does not provide one
+     */
+    public Long estimateRowCount(String tableName) {
+        try {
+            return jdbcTemplate.query("SELECT ROW_COUNT_ESTIMATE FROM INFORMATION_SCHEMA.TABLES "
+                            + "WHERE TABLE_SCHEMA = CURRENT_SCHEMA AND UPPER(TABLE_NAME) = UPPER(?)",
+                    rs -> rs.next() ? rs.getLong(1) : null, tableName);
+        } catch (DataAccessException e) {
+            log.debug("No row count estimate for table {}: {}", tableName, e.getMessage());
+            return null;
+        }
+    }
+}
@@ -1,5 +1,8 @@
 package com.xml.processor.security.filter;
 
+import com.xml.processor.security.model.VerifiedToken;
+import com.xml.processor.security.service.AuthenticatedPrincipalCache;
+import com.xml.processor.security.service.JwtBlacklistService;
 import com.xml.processor.security.service.JwtService;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -27,6 +30,8 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private static final Logger logger = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
     private final JwtService jwtService;
     private final UserDetailsService userDetailsService;
+    private final JwtBlacklistService jwtBlacklistService;
+    private final AuthenticatedPrincipalCache principalCache;
 
     @Override
     protected void doFilterInternal(
@@ -40,7 +45,6 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         logger.debug("Authorization header: " + (authHeader != null ? authHeader.substring(0, Math.min(20, authHeader.length())) + "..." : "null"));
         
         final String jwt;
-        final String username;
         
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
             logger.debug("No valid Authorization header found, continuing filter chain");
@@ -52,15 +56,14 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         logger.debug("JWT token extracted, length: " + jwt.length());
         
         try {
-            username = jwtService.extractUsername(jwt);
-            logger.debug("Username extracted from token: " + username);
-            
-            if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
-                logger.debug("User details loaded: " + userDetails.getUsername() + ", Authorities: " + userDetails.getAuthorities());
-                
-                if (jwtService.isTokenValid(jwt, userDetails)) {
-                    logger.debug("Token is valid");
+            if (SecurityContextHolder.getContext().getAuthentication() != null) {
+                logger.debug("No authentication created: authentication already exists");
+            } else if (jwtBlacklistService.isBlacklisted(jwt)) {
+                logger.warn("Rejected revoked token");
+            } else {
+                AuthenticatedPrincipalCache.CachedPrincipal principal = authenticate(jwt);
+                if (principal != null) {
+                    UserDetails userDetails = principal.getUserDetails();
                     UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                         userDetails,
                         null,
@@ -69,12 +72,9 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                     
                     authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                     SecurityContextHolder.getContext().setAuthentication(authToken);
+                    request.setAttribute(VerifiedToken.REQUEST_ATTRIBUTE, principal.getToken());
                     logger.debug("Authentication set in SecurityContextHolder");
-                } else {
-                    logger.warn("Token validation failed for user: " + username);
                 }
-            } else {
-                logger.debug("No authentication created: username null or authentication already exists");
             }
         } catch (Exception e) {
             logger.error("Error processing JWT token: " + e.getMessage(), e);
@@ -82,4 +82,34 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         
         filterChain.doFilter(request, response);
     }
-} 
\ No newline at end of file
+
+    /**
+     * Returns the principal of a token, from the principal cache if the token was verified
+     * before. Otherwise the token is verified once and its user loaded. Only the fingerprint
+     * depends on the request and is checked every time.
+     */
+    private AuthenticatedPrincipalCache.CachedPrincipal authenticate(String jwt) {
+        String tokenHash = AuthenticatedPrincipalCache.hash(jwt);
+        AuthenticatedPrincipalCache.CachedPrincipal principal = principalCache.get(tokenHash);
+        if (principal == null) {
+            VerifiedToken token = jwtService.verify(jwt);
+            String username = token.getSubject();
+            logger.debug("Username extracted from token: " + username);
+            if (username == null) {
+                return null;
+            }
+            UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
+            logger.debug("User details loaded: " + userDetails.getUsername() + ", Authorities: " + userDetails.getAuthorities());
+            if (!jwtService.isTokenValid(token, userDetails)) {
+                logger.warn("Token validation failed for user: " + username);
+                return null;
+            }
+            return principalCache.put(tokenHash, token, userDetails);
+        }
+        if (!jwtService.isFingerprintValid(principal.getToken())) {
+            logger.warn("Token fingerprint mismatch for user: " + principal.getUsername());
+            return null;
+        }
+        return principal;
+    }
+}
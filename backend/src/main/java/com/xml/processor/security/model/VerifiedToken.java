@@ -0,0 +1,122 @@
+package com.xml.processor.security.model;
+
+import io.jsonwebtoken.Claims;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * The claims of a JWT token whose signature was verified, read once when it was parsed.
+ * <p>
+ * Instances are immutable and may be cached and shared between requests. The filter keeps
+ * the token of the current request in the request attribute {@link #REQUEST_ATTRIBUTE}.
+ */
+public final class VerifiedToken {
+
+    public static final String REQUEST_ATTRIBUTE = VerifiedToken.class.getName();
+
+    private final String subject;
+    private final TokenType type;
+    private final List<String> roles;
+    private final Long clientId;
+    private final String fingerprint;
+    private final String id;
+    private final Instant issuedAt;
+    private final Instant expiration;
+
+    private VerifiedToken(String subject, TokenType type, List<String> roles, Long clientId,
+                          String fingerprint, String id, Instant issuedAt, Instant expiration) {
+        this.subject = subject;
+        this.type = type;
+        this.roles = roles;
+        this.clientId = clientId;
+        this.fingerprint = fingerprint;
+        this.id = id;
+        this.issuedAt = issuedAt;
+        this.expiration = expiration;
+    }
+
+    /**
+     * Reads the claims of a verified token.
+     *
+     * @param claims The claims returned by the parser
+     * @return The verified token
+     */
+    public static VerifiedToken of(Claims claims) {
+        Object roles = claims.get("roles");
+        List<String> roleNames = roles instanceof List<?> list
+                ? list.stream().map(String::valueOf).collect(Collectors.toUnmodifiableList())
+                : Collections.emptyList();
+        return new VerifiedToken(
+                claims.getSubject(),
+                typeOf(claims.get("type")),
+                roleNames,
+                claims.get("clientId", Long.class),
+                claims.get("fingerprint", String.class),
+                claims.getId(),
+                claims.getIssuedAt() != null ? claims.getIssuedAt().toInstant() : null,
+                claims.getExpiration() != null ? claims.getExpiration().toInstant() : null);
+    }
+
+    private static TokenType typeOf(Object type) {
+        if (type == null) {
+            return null;
+        }
+        try {
+            return TokenType.valueOf(type.toString());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    public String getSubject() {
+        return subject;
+    }
+
+    /**
+     * @return The type of the token, or null if it has none or an unknown one
+     */
+    public TokenType getType() {
+        return type;
+    }
+
+    public List<String> getRoles() {
+        return roles;
+    }
+
+    public Long getClientId() {
+        return clientId;
+    }
+
+    /**
+     * @return The fingerprint of the request context the token was issued for, or null
+     */
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    /**
+     * @return The jti claim of the token, or null if it has none
+     */
+    public String getId() {
+        return id;
+    }
+
+    public Instant getIssuedAt() {
+        return issuedAt;
+    }
+
+    public Instant getExpiration() {
+        return expiration;
+    }
+
+    public boolean isAccessToken() {
+        return type == TokenType.ACCESS;
+    }
+
+    public boolean isExpired() {
+        return expiration == null || !Instant.now().isBefore(expiration);
+    }
+}
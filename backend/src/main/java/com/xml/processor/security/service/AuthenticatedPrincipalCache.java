@@ -0,0 +1,155 @@
+package com.xml.processor.security.service;
+
+import com.xml.processor.security.model.VerifiedToken;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Caches the principals of verified tokens, so an authenticated request costs a hash
+ * lookup instead of verifying its token and loading its user from the database.
+ * <p>
+ * Entries are keyed by the SHA-256 of the token, never by the token itself, and hold a
+ * snapshot of the user without its password along with the verified token, whose
+ * fingerprint the filter still checks per request. An entry is used until the token
+ * expires, or the expire-after-write of "authPrincipals" under app.cache, whichever comes
+ * first. The entry of a token is dropped on logout, and the entries of a user once a
+ * change to the user is committed.
+ */
+@Slf4j
+@Component
+public class AuthenticatedPrincipalCache {
+
+    static final String AUTH_PRINCIPALS = "authPrincipals";
+
+    private final Cache principals;
+
+    public AuthenticatedPrincipalCache(CacheManager cacheManager) {
+        Cache cache = cacheManager.getCache(AUTH_PRINCIPALS);
+        if (cache == null) {
+            throw new IllegalStateException("Cache '" + AUTH_PRINCIPALS + "' is not configured");
+        }
+        this.principals = cache;
+    }
+
+    /**
+     * Returns the hash a token is cached under.
+     *
+     * @param token The JWT token
+     * @return The hex SHA-256 of the token
+     */
+    public static String hash(String token) {
+        return DigestUtils.sha256Hex(token);
+    }
+
+    /**
+     * Finds the principal of a token verified before.
+     *
+     * @param tokenHash The hash of the token
+     * @return The cached principal, or null if the token is not cached or has expired
+     */
+    public CachedPrincipal get(String tokenHash) {
+        CachedPrincipal principal = principals.get(tokenHash, CachedPrincipal.class);
+        if (principal != null && principal.isExpired()) {
+            principals.evict(tokenHash);
+            return null;
+        }
+        return principal;
+    }
+
+    /**
+     * Caches the principal of a verified token.
+     *
+     * @param tokenHash The hash of the token
+     * @param token The verified token
+     * @param userDetails The user the token was verified for
+     * @return The cached principal
+     */
+    public CachedPrincipal put(String tokenHash, VerifiedToken token, UserDetails userDetails) {
+        CachedPrincipal principal = new CachedPrincipal(snapshot(userDetails), token);
+        principals.put(tokenHash, principal);
+        return principal;
+    }
+
+    /**
+     * Drops the entry of a token, e.g. on logout.
+     *
+     * @param token The JWT token
+     */
+    public void evict(String token) {
+        principals.evict(hash(token));
+    }
+
+    /**
+     * Drops the entries of a changed user once the change is committed, so new roles take
+     * effect with the user's next request. Without access to the entries of the cache
+     * every entry is dropped.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        Map<?, ?> entries = entries();
+        if (entries == null) {
+            principals.clear();
+        } else {
+            entries.values().removeIf(value -> value instanceof CachedPrincipal principal
+                    && principal.getUsername().equals(event.getUsername()));
+        }
+        log.debug("Dropped cached principals of user {}", event.getUsername());
+    }
+
+    private Map<?, ?> entries() {
+        Object nativeCache = principals.getNativeCache();
+        if (nativeCache instanceof com.github.benmanes.caffeine.cache.Cache<?, ?> caffeine) {
+            return caffeine.asMap();
+        }
+        return nativeCache instanceof ConcurrentMap<?, ?> map ? map : null;
+    }
+
+    private static UserDetails snapshot(UserDetails userDetails) {
+        return User.withUsername(userDetails.getUsername())
+                .password("")
+                .authorities(userDetails.getAuthorities())
+                .disabled(!userDetails.isEnabled())
+                .accountExpired(!userDetails.isAccountNonExpired())
+                .accountLocked(!userDetails.isAccountNonLocked())
+                .credentialsExpired(!userDetails.isCredentialsNonExpired())
+                .build();
+    }
+
+    /**
+     * The principal of a verified token: a snapshot of its user and the token.
+     */
+    public static final class CachedPrincipal {
+        private final UserDetails userDetails;
+        private final VerifiedToken token;
+
+        CachedPrincipal(UserDetails userDetails, VerifiedToken token) {
+            this.userDetails = userDetails;
+            this.token = token;
+        }
+
+        public UserDetails getUserDetails() {
+            return userDetails;
+        }
+
+        public String getUsername() {
+            return userDetails.getUsername();
+        }
+
+        public VerifiedToken getToken() {
+            return token;
+        }
+
+        boolean isExpired() {
+            return token.isExpired();
+        }
+    }
+}
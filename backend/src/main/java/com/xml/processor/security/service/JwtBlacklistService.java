@@ -1,6 +1,17 @@
 package com.xml.processor.security.service;
 
+import java.time.Instant;
+
 public interface JwtBlacklistService {
+    /**
+     * Revokes a token until the expiry it carries.
+     */
     void blacklistToken(String token);
+
+    /**
+     * Revokes a token until the given expiry, for callers that verified the token already.
+     */
+    void blacklistToken(String token, Instant expiresAt);
+
     boolean isBlacklisted(String token);
-} 
\ No newline at end of file
+}
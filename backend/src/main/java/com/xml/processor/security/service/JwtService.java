@@ -3,8 +3,10 @@ package com.xml.processor.security.service;
 import com.xml.processor.config.ClientContextHolder;
 import com.xml.processor.exception.TokenException;
 import com.xml.processor.security.model.TokenType;
+import com.xml.processor.security.model.VerifiedToken;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.MalformedJwtException;
 import io.jsonwebtoken.SignatureAlgorithm;
@@ -12,6 +14,7 @@ import io.jsonwebtoken.SignatureException;
 import io.jsonwebtoken.UnsupportedJwtException;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.codec.digest.DigestUtils;
@@ -29,7 +32,6 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 import java.util.function.Function;
 import java.util.stream.Collectors;
@@ -45,7 +47,10 @@ import java.util.stream.Collectors;
  *   <li>Extracting claims from tokens</li>
  * </ul>
  * <p>
- * Token expiration times are configured via application properties.
+ * Token expiration times are configured via application properties. The signing key is
+ * decoded once at startup; {@link #verify(String)} verifies a token's signature once and
+ * returns its claims as a {@link VerifiedToken}, which callers should prefer over
+ * extracting single claims, as each extraction verifies the token again.
  */
 @Slf4j
 @Service
@@ -60,6 +65,30 @@ public class JwtService {
     @Value("${application.security.jwt.refresh-token.expiration}")
     private long refreshExpiration;
 
+    private Key signingKey;
+    private JwtParser parser;
+
+    /**
+     * Decodes the signing key and builds the parser, both thread-safe and shared by all
+     * requests.
+     */
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secretKey));
+        parser = Jwts.parserBuilder().setSigningKey(signingKey).build();
+    }
+
+    /**
+     * Verifies a JWT token and reads its claims.
+     *
+     * @param token the JWT token
+     * @return the verified token
+     * @throws TokenException if the token is expired or invalid
+     */
+    public VerifiedToken verify(String token) {
+        return VerifiedToken.of(extractAllClaims(token));
+    }
+
     /**
      * Extracts the username from a JWT token.
      *
@@ -172,41 +201,45 @@ public class JwtService {
      */
     public boolean isTokenValid(String token, UserDetails userDetails) {
         try {
-            final String username = extractUsername(token);
-            log.debug("Validating token for user: " + username);
-            
-            if (!username.equals(userDetails.getUsername())) {
-                log.warn("Token username doesn't match UserDetails username");
-                return false;
-            }
-            
-            if (isTokenExpired(token)) {
-                log.warn("Token is expired");
-                return false;
-            }
-            
-            // For access tokens, validate fingerprint if present
-            Claims claims = extractAllClaims(token);
-            if (claims.containsKey("type") && "ACCESS".equals(claims.get("type"))) {
-                if (claims.containsKey("fingerprint")) {
-                    String expectedFingerprint = generateFingerprint(userDetails);
-                    String tokenFingerprint = claims.get("fingerprint", String.class);
-                    
-                    if (!expectedFingerprint.equals(tokenFingerprint)) {
-                        log.warn("Token fingerprint mismatch for user: {}", username);
-                        return false;
-                    }
-                }
-            }
-            
-            log.debug("Token is valid");
-            return true;
+            return isTokenValid(verify(token), userDetails);
         } catch (Exception e) {
             log.error("Error validating token: " + e.getMessage(), e);
             return false;
         }
     }
 
+    /**
+     * Validates a verified token for the specified user: the token must belong to the
+     * user, must not have expired and, for access tokens, must have been issued to the
+     * current request context.
+     *
+     * @param token the verified token
+     * @param userDetails the user details
+     * @return true if the token is valid, false otherwise
+     */
+    public boolean isTokenValid(VerifiedToken token, UserDetails userDetails) {
+        final String username = token.getSubject();
+        log.debug("Validating token for user: " + username);
+
+        if (username == null || !username.equals(userDetails.getUsername())) {
+            log.warn("Token username doesn't match UserDetails username");
+            return false;
+        }
+
+        if (token.isExpired()) {
+            log.warn("Token is expired");
+            return false;
+        }
+
+        if (!isFingerprintValid(token)) {
+            log.warn("Token fingerprint mismatch for user: {}", username);
+            return false;
+        }
+
+        log.debug("Token is valid");
+        return true;
+    }
+
     /**
      * Extracts the expiration date from a JWT token.
      *
@@ -244,12 +277,7 @@ public class JwtService {
      */
     public Claims extractAllClaims(String token) {
         try {
-            return Jwts
-                    .parserBuilder()
-                    .setSigningKey(getSignInKey())
-                    .build()
-                    .parseClaimsJws(token)
-                    .getBody();
+            return parser.parseClaimsJws(token).getBody();
         } catch (ExpiredJwtException e) {
             throw TokenException.expired();
         } catch (UnsupportedJwtException | MalformedJwtException | SignatureException | IllegalArgumentException e) {
@@ -263,8 +291,7 @@ public class JwtService {
      * @return the signing key
      */
     private Key getSignInKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secretKey);
-        return Keys.hmacShaKeyFor(keyBytes);
+        return signingKey;
     }
 
     /**
@@ -294,6 +321,21 @@ public class JwtService {
         return authHeader.substring(7);
     }
 
+    /**
+     * Checks the fingerprint of an access token against the current request context. This
+     * is the only check of a token that depends on the request.
+     *
+     * @param token the verified token
+     * @return true if the token is no access token, has no fingerprint or it matches the
+     *         current request
+     */
+    public boolean isFingerprintValid(VerifiedToken token) {
+        if (!token.isAccessToken() || token.getFingerprint() == null) {
+            return true;
+        }
+        return token.getFingerprint().equals(generateFingerprint(token.getSubject()));
+    }
+
     /**
      * Generates a fingerprint for the current request context.
      *
@@ -301,6 +343,10 @@ public class JwtService {
      * @return the fingerprint
      */
     private String generateFingerprint(UserDetails userDetails) {
+        return generateFingerprint(userDetails.getUsername());
+    }
+
+    private String generateFingerprint(String username) {
         ServletRequestAttributes attributes = (ServletRequestAttributes) RequestContextHolder.getRequestAttributes();
         if (attributes == null) {
             return null;
@@ -309,7 +355,6 @@ public class JwtService {
         HttpServletRequest request = attributes.getRequest();
         String userAgent = request.getHeader("User-Agent");
         String ipAddress = request.getRemoteAddr();
-        String username = userDetails.getUsername();
 
         String fingerprintData = String.format("%s:%s:%s", username, userAgent, ipAddress);
         return DigestUtils.sha256Hex(fingerprintData);
@@ -367,9 +412,9 @@ public class JwtService {
      */
     public boolean validateTestToken(String token) {
         try {
-            Claims claims = extractAllClaims(token);
-            return "test".equals(claims.getSubject()) &&
-                   claims.get("roles", List.class).contains("ROLE_TEST");
+            VerifiedToken verified = verify(token);
+            return "test".equals(verified.getSubject()) &&
+                   verified.getRoles().contains("ROLE_TEST");
         } catch (Exception e) {
             return false;
         }
@@ -0,0 +1,18 @@
+package com.xml.processor.security.service;
+
+/**
+ * Published when a user is updated or deleted, so cached principals of the user are
+ * dropped once the change is committed.
+ */
+public class UserChangedEvent {
+
+    private final String username;
+
+    public UserChangedEvent(String username) {
+        this.username = username;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+}
@@ -0,0 +1,119 @@
+package com.xml.processor.security.service.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * A hierarchical timing wheel expiring keys at their expiry time, in ticks of one second.
+ * <p>
+ * Four levels of 64 slots cover 64, 4096, 262144 and 16777216 ticks. A key is scheduled in
+ * O(1) into the level whose span covers its expiry and moves down a level each time its
+ * slot comes round, until it expires from the lowest level; keys further out than the
+ * highest level are rescheduled there each time round. Advancing costs one slot per tick
+ * plus the keys it expires or moves, however many keys are scheduled.
+ * <p>
+ * Not thread-safe; callers synchronize.
+ */
+class ExpiryWheel<K> {
+
+    static final long TICK_MILLIS = 1000;
+
+    private static final int LEVELS = 4;
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+
+    private final List<List<Entry<K>>> slots = new ArrayList<>(LEVELS * SLOTS);
+    private long currentTick;
+    private int size;
+
+    ExpiryWheel(long nowMillis) {
+        for (int i = 0; i < LEVELS * SLOTS; i++) {
+            slots.add(new ArrayList<>());
+        }
+        this.currentTick = nowMillis / TICK_MILLIS;
+    }
+
+    /**
+     * Schedules a key to expire at the given time.
+     *
+     * @param key The key
+     * @param expiresAtMillis The expiry time in epoch milliseconds
+     * @return false if the time has passed already and the key was not scheduled
+     */
+    boolean schedule(K key, long expiresAtMillis) {
+        long expiryTick = (expiresAtMillis + TICK_MILLIS - 1) / TICK_MILLIS;
+        if (expiryTick <= currentTick) {
+            return false;
+        }
+        place(new Entry<>(key, expiryTick));
+        size++;
+        return true;
+    }
+
+    /**
+     * Advances the wheel to the given time, passing every key expired by then to the consumer.
+     *
+     * @param nowMillis The current time in epoch milliseconds
+     * @param expired Receives the expired keys
+     */
+    void advance(long nowMillis, Consumer<K> expired) {
+        long targetTick = nowMillis / TICK_MILLIS;
+        while (currentTick < targetTick) {
+            if (size == 0) {
+                currentTick = targetTick;
+                return;
+            }
+            currentTick++;
+            for (int level = LEVELS - 1; level > 0; level--) {
+                if ((currentTick & ((1L << (level * SLOT_BITS)) - 1)) == 0) {
+                    for (Entry<K> entry : take(level, currentTick)) {
+                        place(entry);
+                    }
+                }
+            }
+            for (Entry<K> entry : take(0, currentTick)) {
+                size--;
+                expired.accept(entry.key);
+            }
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    private void place(Entry<K> entry) {
+        long delta = entry.expiryTick - currentTick;
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= 1L << ((level + 1) * SLOT_BITS)) {
+            level++;
+        }
+        slots.get(slotIndex(level, entry.expiryTick)).add(entry);
+    }
+
+    private List<Entry<K>> take(int level, long tick) {
+        int index = slotIndex(level, tick);
+        List<Entry<K>> entries = slots.get(index);
+        if (entries.isEmpty()) {
+            return entries;
+        }
+        slots.set(index, new ArrayList<>());
+        return entries;
+    }
+
+    private static int slotIndex(int level, long tick) {
+        return level * SLOTS + (int) ((tick >>> (level * SLOT_BITS)) & SLOT_MASK);
+    }
+
+    private static final class Entry<K> {
+        private final K key;
+        private final long expiryTick;
+
+        private Entry(K key, long expiryTick) {
+            this.key = key;
+            this.expiryTick = expiryTick;
+        }
+    }
+}
@@ -1,37 +1,233 @@
 package com.xml.processor.security.service.impl;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.xml.processor.security.service.JwtBlacklistService;
-import org.springframework.stereotype.Service;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Primary;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
 
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 
+/**
+ * Keeps revoked tokens in memory until they expire.
+ * <p>
+ * Revocations are keyed by the SHA-256 of the token and kept until the token's own expiry,
+ * after which the token is rejected anyway. An {@link ExpiryWheel} drops them in O(1) each,
+ * whether or not the token is ever presented again. Lookups first ask a
+ * {@link TokenBloomFilter} over a cheap hash of the token, so a token that was never
+ * revoked, the token of almost every request, is neither SHA-256 hashed nor looked up.
+ * <p>
+ * With app.security.token-blacklist-snapshot set, revocations are saved to that file after
+ * each expiry run that follows a change, and on shutdown, and loaded from it at startup,
+ * so they survive restarts of a single node.
+ */
+@Slf4j
 @Service
 @Primary
 public class InMemoryJwtBlacklistService implements JwtBlacklistService {
-    
-    private final ConcurrentMap<String, Long> blacklist = new ConcurrentHashMap<>();
-    
+
+    private static final long DEFAULT_LIFETIME_MILLIS = 3600000;
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private final ConcurrentMap<String, Revocation> revocations = new ConcurrentHashMap<>();
+    private final ExpiryWheel<String> wheel = new ExpiryWheel<>(System.currentTimeMillis());
+    private final int expectedSize;
+    private final Path snapshot;
+    private volatile TokenBloomFilter bloomFilter;
+    private int expiredSinceRebuild;
+    private boolean dirty;
+
+    public InMemoryJwtBlacklistService() {
+        this(10000, "");
+    }
+
+    @Autowired
+    public InMemoryJwtBlacklistService(
+            @Value("${app.security.token-blacklist-expected-size:10000}") int expectedSize,
+            @Value("${app.security.token-blacklist-snapshot:}") String snapshot) {
+        this.expectedSize = expectedSize;
+        this.snapshot = snapshot == null || snapshot.isBlank() ? null : Path.of(snapshot);
+        this.bloomFilter = TokenBloomFilter.create(expectedSize, FALSE_POSITIVE_RATE);
+        if (this.snapshot != null) {
+            loadSnapshot();
+        }
+    }
+
+    /**
+     * Revokes a token until the expiry read from its payload, or for an hour if it has none.
+     * The signature is not checked here: the token is only hashed, so a forged expiry only
+     * decides how long that forged token stays revoked.
+     */
     @Override
     public void blacklistToken(String token) {
-        // Store token with current time + 1 hour (default expiration)
-        blacklist.put(token, System.currentTimeMillis() + 3600000);
+        blacklistToken(token, readExpiry(token));
+    }
+
+    @Override
+    public synchronized void blacklistToken(String token, Instant expiresAt) {
+        if (add(key(token), TokenBloomFilter.hash(token), expiresAt.toEpochMilli())) {
+            dirty = true;
+        }
     }
-    
+
     @Override
     public boolean isBlacklisted(String token) {
-        Long expirationTime = blacklist.get(token);
-        if (expirationTime == null) {
+        if (!bloomFilter.mightContain(TokenBloomFilter.hash(token))) {
             return false;
         }
-        
-        // Remove expired tokens
-        if (System.currentTimeMillis() > expirationTime) {
-            blacklist.remove(token);
+        Revocation revocation = revocations.get(key(token));
+        return revocation != null && revocation.expiresAt > System.currentTimeMillis();
+    }
+
+    /**
+     * Drops the revocations of expired tokens, then saves the snapshot if anything changed.
+     */
+    @Scheduled(fixedDelayString = "${app.security.token-blacklist-expiry-interval:PT1S}")
+    public void expireTokens() {
+        expireTokens(System.currentTimeMillis());
+    }
+
+    synchronized void expireTokens(long nowMillis) {
+        wheel.advance(nowMillis, key -> {
+            if (revocations.computeIfPresent(key, (k, revocation) ->
+                    revocation.expiresAt <= nowMillis ? null : revocation) == null) {
+                expiredSinceRebuild++;
+                dirty = true;
+            }
+        });
+        // Expired revocations keep their bits; rebuild once they are as many as the live ones
+        if (expiredSinceRebuild > 0 && expiredSinceRebuild >= revocations.size()) {
+            rebuildBloomFilter();
+        }
+        if (dirty && snapshot != null) {
+            saveSnapshot();
+        }
+    }
+
+    int size() {
+        return revocations.size();
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        if (dirty && snapshot != null) {
+            saveSnapshot();
+        }
+    }
+
+    private boolean add(String key, long bloomHash, long expiresAtMillis) {
+        if (!wheel.schedule(key, expiresAtMillis)) {
             return false;
         }
-        
+        revocations.merge(key, new Revocation(bloomHash, expiresAtMillis),
+                (current, added) -> current.expiresAt >= added.expiresAt ? current : added);
+        if (revocations.size() > bloomFilter.capacity()) {
+            rebuildBloomFilter();
+        } else {
+            bloomFilter.put(bloomHash);
+        }
         return true;
     }
-} 
\ No newline at end of file
+
+    private void rebuildBloomFilter() {
+        TokenBloomFilter rebuilt = TokenBloomFilter.create(
+                Math.max(expectedSize, revocations.size() * 2), FALSE_POSITIVE_RATE);
+        revocations.values().forEach(revocation -> rebuilt.put(revocation.bloomHash));
+        bloomFilter = rebuilt;
+        expiredSinceRebuild = 0;
+    }
+
+    private void loadSnapshot() {
+        if (!Files.exists(snapshot)) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        int loaded = 0;
+        try (BufferedReader reader = Files.newBufferedReader(snapshot)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] fields = line.split(" ");
+                try {
+                    long expiresAt = Long.parseLong(fields[2]);
+                    if (fields[0].length() == 64 && expiresAt > now
+                            && add(fields[0], Long.parseLong(fields[1]), expiresAt)) {
+                        loaded++;
+                    }
+                } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+                    log.warn("Skipping malformed line in token blacklist {}", snapshot);
+                }
+            }
+            log.info("Loaded {} revoked tokens from {}", loaded, snapshot);
+        } catch (IOException e) {
+            log.warn("Could not load token blacklist from {}: {}", snapshot, e.getMessage());
+        }
+    }
+
+    private void saveSnapshot() {
+        Path temp = snapshot.resolveSibling(snapshot.getFileName() + ".tmp");
+        try {
+            if (snapshot.getParent() != null) {
+                Files.createDirectories(snapshot.getParent());
+            }
+            try (BufferedWriter writer = Files.newBufferedWriter(temp)) {
+                for (Map.Entry<String, Revocation> entry : revocations.entrySet()) {
+                    writer.write(entry.getKey() + " " + entry.getValue().bloomHash + " " + entry.getValue().expiresAt);
+                    writer.newLine();
+                }
+            }
+            try {
+                Files.move(temp, snapshot, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, snapshot, StandardCopyOption.REPLACE_EXISTING);
+            }
+            dirty = false;
+        } catch (IOException e) {
+            log.warn("Could not save token blacklist to {}: {}", snapshot, e.getMessage());
+        }
+    }
+
+    private static String key(String token) {
+        return DigestUtils.sha256Hex(token);
+    }
+
+    private static Instant readExpiry(String token) {
+        try {
+            String[] parts = token.split("\\.");
+            JsonNode exp = OBJECT_MAPPER.readTree(Base64.getUrlDecoder().decode(parts[1])).get("exp");
+            if (exp != null && exp.canConvertToLong()) {
+                return Instant.ofEpochSecond(exp.asLong());
+            }
+        } catch (IOException | RuntimeException e) {
+            log.debug("Could not read the expiry of a revoked token: {}", e.getMessage());
+        }
+        return Instant.now().plusMillis(DEFAULT_LIFETIME_MILLIS);
+    }
+
+    private static final class Revocation {
+        private final long bloomHash;
+        private final long expiresAt;
+
+        private Revocation(long bloomHash, long expiresAt) {
+            this.bloomHash = bloomHash;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.xml.processor.security.service.impl;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A Bloom filter over 64-bit token hashes, answering "definitely not revoked" for the
+ * tokens of almost every request without touching the revocation map.
+ * <p>
+ * Bits are derived from the hash and a remix of it by double hashing. Reads are lock-free;
+ * entries cannot be removed, so the blacklist builds a new filter once enough revocations
+ * have expired.
+ */
+class TokenBloomFilter {
+
+    private final AtomicLongArray bits;
+    private final long bitCount;
+    private final int hashCount;
+    private final int capacity;
+
+    private TokenBloomFilter(long bitCount, int hashCount, int capacity) {
+        this.bits = new AtomicLongArray((int) ((bitCount + 63) >>> 6));
+        this.bitCount = bitCount;
+        this.hashCount = hashCount;
+        this.capacity = capacity;
+    }
+
+    /**
+     * Creates a filter for the given number of entries at the given false positive rate.
+     *
+     * @param capacity The number of entries the rate holds for
+     * @param falsePositiveRate The false positive rate, e.g. 0.01
+     * @return An empty filter
+     */
+    static TokenBloomFilter create(int capacity, double falsePositiveRate) {
+        int entries = Math.max(capacity, 64);
+        long bitCount = Math.max(64, (long) Math.ceil(-entries * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2))));
+        int hashCount = Math.max(1, (int) Math.round((double) bitCount / entries * Math.log(2)));
+        return new TokenBloomFilter(bitCount, hashCount, entries);
+    }
+
+    /**
+     * Hashes a token with 64-bit FNV-1a, far cheaper than the SHA-256 revocations are
+     * keyed by.
+     *
+     * @param token The JWT token
+     * @return The hash of the token
+     */
+    static long hash(String token) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < token.length(); i++) {
+            hash ^= token.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    void put(long hash) {
+        long h2 = remix(hash);
+        for (int i = 0; i < hashCount; i++) {
+            long bit = index(hash + i * h2);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long current;
+            do {
+                current = bits.get(word);
+            } while ((current & mask) == 0 && !bits.compareAndSet(word, current, current | mask));
+        }
+    }
+
+    boolean mightContain(long hash) {
+        long h2 = remix(hash);
+        for (int i = 0; i < hashCount; i++) {
+            long bit = index(hash + i * h2);
+            if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    int capacity() {
+        return capacity;
+    }
+
+    private long index(long combined) {
+        return Math.floorMod(combined, bitCount);
+    }
+
+    private static long remix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash | 1;
+    }
+}
@@ -0,0 +1,271 @@
+package com.xml.processor.service.concurrency;
+
+import com.xml.processor.config.TenantSchedulingProperties;
+import com.xml.processor.model.Client;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Queues files per client and hands them to the xmlProcessorExecutor in weighted fair
+ * order, so a client bulk-loading thousands of files does not delay the files of the
+ * others. Only as many files as the executor can run are dispatched; the rest wait here
+ * rather than in the executor's FIFO queue.
+ * <p>
+ * Clients are scheduled by stride: every dispatched file advances its client's pass by
+ * the inverse of the client's weight, and the next file comes from the client with the
+ * lowest pass that is below its concurrency limit. A client that was idle resumes at the
+ * current pass, so it cannot bank capacity while idle. Within a client, files of
+ * interfaces with a higher priority go first, then in submission order.
+ */
+@Slf4j
+@Component
+public class TenantFairScheduler {
+
+    private static final String WAIT_TIMER = "xml.processing.queue.wait";
+
+    private final Executor executor;
+    private final TenantSchedulingProperties properties;
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+    private final int maxInFlight;
+    private final int maxQueued;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<Long, TenantQueue> tenants = new HashMap<>();
+    private int inFlight;
+    private int queued;
+    private long sequence;
+    private double virtualTime;
+
+    public TenantFairScheduler(@Qualifier("xmlProcessorExecutor") Executor executor,
+                               TenantSchedulingProperties properties,
+                               ObjectProvider<MeterRegistry> meterRegistry,
+                               Environment environment,
+                               @Value("${app.processing.ingestion.max-pool-size:5}") int maxPoolSize,
+                               @Value("${app.processing.ingestion.virtual-max-in-flight:1000}") int virtualMaxInFlight,
+                               @Value("${app.processing.ingestion.queue-capacity:100}") int queueCapacity) {
+        this.executor = executor;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.maxInFlight = Threading.VIRTUAL.isActive(environment) ? virtualMaxInFlight : maxPoolSize;
+        this.maxQueued = queueCapacity;
+    }
+
+    /**
+     * Queues a file of a client for processing.
+     *
+     * @param client The client owning the file, its ID and code must be loaded; null for files without a client
+     * @param priority The priority of the file's interface, higher first
+     * @param task Processes the file
+     * @throws TaskRejectedException if the queue of the client or the overall queue is full
+     */
+    public void submit(Client client, int priority, Runnable task) {
+        submit(client, priority, task, e -> log.error("Executor rejected a file of client {}, dropping it",
+                client != null ? client.getCode() : null, e));
+    }
+
+    /**
+     * Queues a file of a client for processing.
+     *
+     * @param client The client owning the file, its ID and code must be loaded; null for files without a client
+     * @param priority The priority of the file's interface, higher first
+     * @param task Processes the file
+     * @param onRejected Called instead of the task if the executor rejects the file once it
+     *                   is dispatched, e.g. while shutting down, so its owner can fail it
+     * @throws TaskRejectedException if the queue of the client or the overall queue is full
+     */
+    public void submit(Client client, int priority, Runnable task, Consumer<RejectedExecutionException> onRejected) {
+        List<QueuedFile> dispatched;
+        lock.lock();
+        try {
+            Long clientId = client != null ? client.getId() : null;
+            String code = client != null ? client.getCode() : null;
+            TenantQueue tenant = tenants.computeIfAbsent(clientId, id -> new TenantQueue(id, code));
+            int maxQueuedFiles = properties.getMaxQueuedFiles(tenant.code);
+            if (queued >= maxQueued || (maxQueuedFiles > 0 && tenant.files.size() >= maxQueuedFiles)) {
+                tenant.rejected++;
+                throw new TaskRejectedException("Processing queue full for client " + tenant.code
+                        + " (" + tenant.files.size() + " queued, " + queued + " overall)");
+            }
+            if (tenant.isIdle()) {
+                tenant.pass = Math.max(tenant.pass, virtualTime);
+            }
+            tenant.files.add(new QueuedFile(tenant, priority, sequence++, task, onRejected));
+            queued++;
+            dispatched = dispatch();
+        } finally {
+            lock.unlock();
+        }
+        execute(dispatched);
+    }
+
+    /**
+     * Returns the queue state and wait times of every client that submitted files.
+     */
+    public List<TenantQueueStats> getStats() {
+        lock.lock();
+        try {
+            List<TenantQueueStats> stats = new ArrayList<>(tenants.size());
+            for (TenantQueue tenant : tenants.values()) {
+                stats.add(new TenantQueueStats(tenant.clientId, tenant.code,
+                        properties.getWeight(tenant.code), tenant.files.size(), tenant.inFlight,
+                        tenant.dispatched, tenant.rejected,
+                        tenant.dispatched == 0 ? 0 : tenant.totalWaitNanos / tenant.dispatched / 1_000_000.0,
+                        tenant.maxWaitNanos / 1_000_000.0));
+            }
+            stats.sort(Comparator.comparing(TenantQueueStats::getClientCode, Comparator.nullsLast(Comparator.naturalOrder())));
+            return stats;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Takes files off the client queues while capacity is free. Called with the lock held.
+     */
+    private List<QueuedFile> dispatch() {
+        List<QueuedFile> dispatched = new ArrayList<>();
+        while (inFlight < maxInFlight) {
+            TenantQueue next = null;
+            for (TenantQueue tenant : tenants.values()) {
+                if (tenant.files.isEmpty()) {
+                    continue;
+                }
+                int maxConcurrentFiles = properties.getMaxConcurrentFiles(tenant.code);
+                if (maxConcurrentFiles > 0 && tenant.inFlight >= maxConcurrentFiles) {
+                    continue;
+                }
+                if (next == null || tenant.pass < next.pass) {
+                    next = tenant;
+                }
+            }
+            if (next == null) {
+                break;
+            }
+            QueuedFile file = next.files.poll();
+            queued--;
+            inFlight++;
+            next.inFlight++;
+            virtualTime = next.pass;
+            next.pass += 1.0 / Math.max(1, properties.getWeight(next.code));
+            dispatched.add(file);
+        }
+        return dispatched;
+    }
+
+    private void execute(List<QueuedFile> files) {
+        for (QueuedFile file : files) {
+            try {
+                executor.execute(() -> run(file));
+            } catch (RejectedExecutionException e) {
+                complete(file.tenant);
+                try {
+                    file.onRejected.accept(e);
+                } catch (RuntimeException callbackError) {
+                    log.error("Failed to handle a rejected file of client {}", file.tenant.code, callbackError);
+                }
+            }
+        }
+    }
+
+    private void run(QueuedFile file) {
+        recordWait(file.tenant, System.nanoTime() - file.queuedAt);
+        try {
+            file.task.run();
+        } finally {
+            complete(file.tenant);
+        }
+    }
+
+    private void recordWait(TenantQueue tenant, long waitNanos) {
+        lock.lock();
+        try {
+            tenant.dispatched++;
+            tenant.totalWaitNanos += waitNanos;
+            tenant.maxWaitNanos = Math.max(tenant.maxWaitNanos, waitNanos);
+        } finally {
+            lock.unlock();
+        }
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        if (registry != null) {
+            Timer.builder(WAIT_TIMER)
+                    .description("Time files wait in the fair scheduler before processing")
+                    .tag("client", String.valueOf(tenant.code))
+                    .publishPercentiles(0.5, 0.9, 0.99)
+                    .register(registry)
+                    .record(waitNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void complete(TenantQueue tenant) {
+        List<QueuedFile> dispatched;
+        lock.lock();
+        try {
+            inFlight--;
+            tenant.inFlight--;
+            dispatched = dispatch();
+        } finally {
+            lock.unlock();
+        }
+        execute(dispatched);
+    }
+
+    private static final class TenantQueue {
+        private final Long clientId;
+        private final String code;
+        private final PriorityQueue<QueuedFile> files = new PriorityQueue<>(
+                Comparator.comparingInt((QueuedFile file) -> -file.priority).thenComparingLong(file -> file.sequence));
+        private int inFlight;
+        private double pass;
+        private long dispatched;
+        private long rejected;
+        private long totalWaitNanos;
+        private long maxWaitNanos;
+
+        private TenantQueue(Long clientId, String code) {
+            this.clientId = clientId;
+            this.code = code;
+        }
+
+        private boolean isIdle() {
+            return files.isEmpty() && inFlight == 0;
+        }
+    }
+
+    private static final class QueuedFile {
+        private final TenantQueue tenant;
+        private final int priority;
+        private final long sequence;
+        private final Runnable task;
+        private final Consumer<RejectedExecutionException> onRejected;
+        private final long queuedAt = System.nanoTime();
+
+        private QueuedFile(TenantQueue tenant, int priority, long sequence, Runnable task,
+                           Consumer<RejectedExecutionException> onRejected) {
+            this.tenant = tenant;
+            this.priority = priority;
+            this.sequence = sequence;
+            this.task = task;
+            this.onRejected = onRejected;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.xml.processor.service.concurrency;
+
+/**
+ * Snapshot of one client's queue in the {@link TenantFairScheduler}. Wait times run from
+ * submission until a worker picks the file up, in milliseconds.
+ */
+public final class TenantQueueStats {
+
+    private final Long clientId;
+    private final String clientCode;
+    private final int weight;
+    private final int queued;
+    private final int inFlight;
+    private final long dispatched;
+    private final long rejected;
+    private final double meanWaitMillis;
+    private final double maxWaitMillis;
+
+    public TenantQueueStats(Long clientId, String clientCode, int weight, int queued, int inFlight,
+                            long dispatched, long rejected, double meanWaitMillis, double maxWaitMillis) {
+        this.clientId = clientId;
+        this.clientCode = clientCode;
+        this.weight = weight;
+        this.queued = queued;
+        this.inFlight = inFlight;
+        this.dispatched = dispatched;
+        this.rejected = rejected;
+        this.meanWaitMillis = meanWaitMillis;
+        this.maxWaitMillis = maxWaitMillis;
+    }
+
+    public Long getClientId() {
+        return clientId;
+    }
+
+    public String getClientCode() {
+        return clientCode;
+    }
+
+    public int getWeight() {
+        return weight;
+    }
+
+    public int getQueued() {
+        return queued;
+    }
+
+    public int getInFlight() {
+        return inFlight;
+    }
+
+    public long getDispatched() {
+        return dispatched;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    public double getMeanWaitMillis() {
+        return meanWaitMillis;
+    }
+
+    public double getMaxWaitMillis() {
+        return maxWaitMillis;
+    }
+}
@@ -3,6 +3,7 @@ package com.xml.processor.service.impl;
 import com.xml.processor.config.ClientContextHolder;
 import com.xml.processor.model.AsnHeader;
 import com.xml.processor.model.AsnLine;
+import com.xml.processor.repository.AsnBatchWriter;
 import com.xml.processor.repository.AsnHeaderRepository;
 import com.xml.processor.repository.AsnLineRepository;
 import com.xml.processor.service.interfaces.AsnService;
@@ -25,6 +26,9 @@ public class AsnServiceImpl implements AsnService {
     @Autowired
     private AsnLineRepository asnLineRepository;
 
+    @Autowired
+    private AsnBatchWriter asnBatchWriter;
+
     // ASN Header operations
     @Override
     @Transactional
@@ -109,6 +113,12 @@ public class AsnServiceImpl implements AsnService {
         }
     }
 
+    @Override
+    @Transactional
+    public AsnHeader createAsn(AsnHeader header, List<AsnLine> lines) {
+        return asnBatchWriter.insert(header, lines);
+    }
+
     // ASN Line operations
     @Override
     @Transactional
@@ -1,10 +1,14 @@
 package com.xml.processor.service.impl;
 
+import com.xml.processor.dto.CursorPage;
+import com.xml.processor.dto.SeekCursor;
 import com.xml.processor.model.AuditLog;
 import com.xml.processor.repository.AuditLogRepository;
+import com.xml.processor.repository.TableStatistics;
 import com.xml.processor.service.interfaces.AuditLogService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
@@ -12,6 +16,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.List;
 
 @Service
 public class AuditLogServiceImpl implements AuditLogService {
@@ -19,6 +24,9 @@ public class AuditLogServiceImpl implements AuditLogService {
     @Autowired
     private AuditLogRepository auditLogRepository;
 
+    @Autowired
+    private TableStatistics tableStatistics;
+
     @Override
     @Transactional
     public AuditLog createAuditLog(AuditLog auditLog) {
@@ -92,6 +100,27 @@ public class AuditLogServiceImpl implements AuditLogService {
         return auditLogRepository.findByResponseStatus(status, pageable);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<AuditLog> getAuditLogsPage(String cursor, int size, boolean ascending, Long clientId,
+                                                 String username, String action, Integer responseStatus,
+                                                 LocalDateTime startDate, LocalDateTime endDate, boolean includeTotal) {
+        SeekCursor after = SeekCursor.decode(cursor, ascending);
+        int pageSize = CursorPage.pageSize(size);
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+
+        List<AuditLog> rows = ascending
+                ? auditLogRepository.findPageAfter(clientId, username, action, responseStatus, startDate, endDate,
+                        after.getTimestamp(), after.getId(), limit)
+                : auditLogRepository.findPageBefore(clientId, username, action, responseStatus, startDate, endDate,
+                        after.getTimestamp(), after.getId(), limit);
+        boolean unfiltered = clientId == null && username == null && action == null && responseStatus == null
+                && startDate == null && endDate == null;
+        Long approximateTotal = includeTotal && unfiltered ? tableStatistics.estimateRowCount("audit_logs") : null;
+        return CursorPage.of(rows, pageSize, cursor,
+                auditLog -> new SeekCursor(auditLog.getCreatedAt(), auditLog.getId()), approximateTotal);
+    }
+
     @Override
     @Transactional
     public void deleteAuditLogsOlderThan(LocalDateTime date) {
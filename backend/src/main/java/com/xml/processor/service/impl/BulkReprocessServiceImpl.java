@@ -0,0 +1,226 @@
+package com.xml.processor.service.impl;
+
+import com.xml.processor.dto.BulkReprocessRequest;
+import com.xml.processor.dto.BulkReprocessRun;
+import com.xml.processor.exception.ResourceNotFoundException;
+import com.xml.processor.exception.ValidationException;
+import com.xml.processor.model.JobStatus;
+import com.xml.processor.model.ProcessingJob;
+import com.xml.processor.repository.ProcessedFileRepository;
+import com.xml.processor.service.interfaces.BulkReprocessService;
+import com.xml.processor.service.interfaces.ProcessingJobService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Implementation of BulkReprocessService.
+ * A run seeks through the IDs of the matching files in batches, never loading the files
+ * themselves, and queues a reprocessing job per file through the ProcessingJobService. A
+ * semaphore bounds the run's jobs in flight; when the scheduler is full anyway the run
+ * waits and retries instead of failing. Files whose upload is no longer stored are skipped.
+ * A run whose last jobs do not finish within the drain timeout fails with their count.
+ */
+@Slf4j
+@Service
+public class BulkReprocessServiceImpl implements BulkReprocessService {
+
+    private static final Set<JobStatus> UNFINISHED = EnumSet.of(JobStatus.QUEUED, JobStatus.RUNNING);
+
+    private final Map<String, BulkReprocessRun> runs = new ConcurrentHashMap<>();
+
+    private final ProcessedFileRepository processedFileRepository;
+    private final ProcessingJobService processingJobService;
+    private final Executor executor;
+    private final int maxInFlight;
+    private final int batchSize;
+    private final Duration retryDelay;
+    private final Duration drainTimeout;
+    private final int retainedRuns;
+
+    public BulkReprocessServiceImpl(ProcessedFileRepository processedFileRepository,
+                                    ProcessingJobService processingJobService,
+                                    @Qualifier("bulkReprocessExecutor") Executor executor,
+                                    @Value("${app.processing.reprocess.max-in-flight:20}") int maxInFlight,
+                                    @Value("${app.processing.reprocess.batch-size:500}") int batchSize,
+                                    @Value("${app.processing.reprocess.retry-delay:PT1S}") Duration retryDelay,
+                                    @Value("${app.processing.reprocess.drain-timeout:PT1H}") Duration drainTimeout,
+                                    @Value("${app.processing.reprocess.retained-runs:50}") int retainedRuns) {
+        this.processedFileRepository = processedFileRepository;
+        this.processingJobService = processingJobService;
+        this.executor = executor;
+        this.maxInFlight = maxInFlight;
+        this.batchSize = batchSize;
+        this.retryDelay = retryDelay;
+        this.drainTimeout = drainTimeout;
+        this.retainedRuns = retainedRuns;
+    }
+
+    @Override
+    public BulkReprocessRun start(BulkReprocessRequest request) {
+        if (request.getStatus() == null || request.getStatus().isBlank()) {
+            throw new ValidationException("Status is required");
+        }
+        if (request.getProcessedFrom() != null && request.getProcessedTo() != null
+                && request.getProcessedFrom().isAfter(request.getProcessedTo())) {
+            throw new ValidationException("processedFrom must not be after processedTo");
+        }
+        int runMaxInFlight = request.getMaxInFlight() != null
+                ? Math.max(1, Math.min(request.getMaxInFlight(), maxInFlight))
+                : maxInFlight;
+        Long maxFileId = processedFileRepository.findMaxId();
+
+        BulkReprocessRun run = new BulkReprocessRun(UUID.randomUUID().toString(), request, runMaxInFlight,
+                maxFileId != null ? maxFileId : 0);
+        evictFinishedRuns();
+        runs.put(run.getId(), run);
+        try {
+            executor.execute(() -> execute(run));
+        } catch (TaskRejectedException e) {
+            runs.remove(run.getId());
+            throw e;
+        }
+        log.info("Queued bulk reprocess run {} for {} files up to id {}", run.getId(), request.getStatus(), run.getMaxFileId());
+        return run;
+    }
+
+    @Override
+    public Optional<BulkReprocessRun> getRun(String runId) {
+        return Optional.ofNullable(runs.get(runId));
+    }
+
+    @Override
+    public List<BulkReprocessRun> getRuns() {
+        return runs.values().stream()
+                .sorted(Comparator.comparing(BulkReprocessRun::getSubmittedAt).reversed())
+                .toList();
+    }
+
+    @Override
+    public Optional<BulkReprocessRun> cancel(String runId) {
+        BulkReprocessRun run = runs.get(runId);
+        if (run != null && !run.getStatus().isTerminal()) {
+            run.cancel();
+            log.info("Cancelling bulk reprocess run {}", runId);
+        }
+        return Optional.ofNullable(run);
+    }
+
+    private void execute(BulkReprocessRun run) {
+        run.start();
+        BulkReprocessRequest filter = run.getFilter();
+        String errorPattern = toLikePattern(filter.getErrorPattern());
+        Semaphore permits = new Semaphore(run.getMaxInFlight());
+        try {
+            long afterId = 0;
+            List<Long> fileIds;
+            do {
+                fileIds = processedFileRepository.findReprocessCandidateIds(filter.getStatus(), filter.getClientId(),
+                        filter.getInterfaceId(), filter.getProcessedFrom(), filter.getProcessedTo(), errorPattern,
+                        UNFINISHED, afterId, run.getMaxFileId(), PageRequest.of(0, batchSize));
+                for (Long fileId : fileIds) {
+                    if (run.isCancelled()) {
+                        break;
+                    }
+                    permits.acquire();
+                    submit(run, fileId, permits);
+                    afterId = fileId;
+                }
+                log.debug("Bulk reprocess run {}: {} submitted, {} succeeded, {} failed, {} skipped", run.getId(),
+                        run.getSubmitted(), run.getSucceeded(), run.getFailed(), run.getSkipped());
+            } while (fileIds.size() == batchSize && !run.isCancelled());
+
+            // Wait for the jobs still in flight, so the run ends with its final counts
+            if (!permits.tryAcquire(run.getMaxInFlight(), drainTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                int outstanding = run.getMaxInFlight() - permits.availablePermits();
+                log.warn("Bulk reprocess run {} gave up waiting for {} jobs after {}", run.getId(), outstanding, drainTimeout);
+                run.finish(JobStatus.FAILED, outstanding + " jobs still in flight after " + drainTimeout);
+                return;
+            }
+            run.finish(JobStatus.COMPLETED, null);
+            log.info("Bulk reprocess run {} {}: {} submitted, {} succeeded, {} failed, {} skipped", run.getId(),
+                    run.isCancelled() ? "cancelled" : "completed", run.getSubmitted(), run.getSucceeded(),
+                    run.getFailed(), run.getSkipped());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            run.finish(JobStatus.FAILED, "Interrupted");
+        } catch (RuntimeException e) {
+            log.error("Bulk reprocess run {} failed", run.getId(), e);
+            run.finish(JobStatus.FAILED, e.getMessage());
+        }
+    }
+
+    /**
+     * Queues a reprocessing job for the file, holding a permit until the job finished.
+     */
+    private void submit(BulkReprocessRun run, Long fileId, Semaphore permits) throws InterruptedException {
+        while (true) {
+            ProcessingJob job;
+            try {
+                job = processingJobService.reprocess(fileId);
+            } catch (ResourceNotFoundException e) {
+                run.fileSkipped(fileId);
+                permits.release();
+                return;
+            } catch (TaskRejectedException e) {
+                if (run.isCancelled()) {
+                    permits.release();
+                    return;
+                }
+                Thread.sleep(retryDelay.toMillis());
+                continue;
+            }
+            run.fileSubmitted(fileId);
+            processingJobService.getCompletion(job.getId()).ifPresentOrElse(
+                    completion -> completion.whenComplete((done, error) -> {
+                        run.jobFinished(error == null && done.getStatus() == JobStatus.COMPLETED
+                                && "SUCCESS".equals(done.getResultStatus()));
+                        permits.release();
+                    }),
+                    () -> {
+                        run.jobFinished(false);
+                        permits.release();
+                    });
+            return;
+        }
+    }
+
+    private void evictFinishedRuns() {
+        List<BulkReprocessRun> finished = runs.values().stream()
+                .filter(run -> run.getStatus().isTerminal())
+                .sorted(Comparator.comparing(BulkReprocessRun::getSubmittedAt))
+                .toList();
+        for (int i = 0; i < finished.size() - retainedRuns + 1; i++) {
+            runs.remove(finished.get(i).getId());
+        }
+    }
+
+    /**
+     * Lower-cases the error pattern and makes a pattern without wildcards match anywhere in
+     * the message.
+     */
+    static String toLikePattern(String errorPattern) {
+        if (errorPattern == null || errorPattern.isBlank()) {
+            return null;
+        }
+        String pattern = errorPattern.toLowerCase(Locale.ROOT);
+        return pattern.contains("%") ? pattern : "%" + pattern + "%";
+    }
+}
@@ -5,10 +5,12 @@ import com.xml.processor.model.Interface;
 import com.xml.processor.repository.ClientRepository;
 import com.xml.processor.repository.InterfaceRepository;
 import com.xml.processor.service.interfaces.ClientService;
+import com.xml.processor.service.tenant.ClientChangedEvent;
 import com.xml.processor.dto.ClientOnboardingDTO;
 import jakarta.validation.ValidationException;
 import jakarta.validation.Validator;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -25,12 +27,15 @@ public class ClientServiceImpl implements ClientService {
     private final ClientRepository clientRepository;
     private final InterfaceRepository interfaceRepository;
     private final Validator validator;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Autowired
-    public ClientServiceImpl(ClientRepository clientRepository, InterfaceRepository interfaceRepository, Validator validator) {
+    public ClientServiceImpl(ClientRepository clientRepository, InterfaceRepository interfaceRepository, Validator validator,
+                             ApplicationEventPublisher eventPublisher) {
         this.clientRepository = clientRepository;
         this.interfaceRepository = interfaceRepository;
         this.validator = validator;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
@@ -62,7 +67,9 @@ public class ClientServiceImpl implements ClientService {
             throw new ValidationException("Client with code " + client.getCode() + " already exists");
         }
         
-        return clientRepository.save(client);
+        Client savedClient = clientRepository.save(client);
+        eventPublisher.publishEvent(new ClientChangedEvent(savedClient.getId()));
+        return savedClient;
     }
 
     @Override
@@ -72,6 +79,7 @@ public class ClientServiceImpl implements ClientService {
             throw new IllegalArgumentException("Client not found with id: " + id);
         }
         clientRepository.deleteById(id);
+        eventPublisher.publishEvent(new ClientChangedEvent(id));
     }
 
     @Override
@@ -132,7 +140,9 @@ public class ClientServiceImpl implements ClientService {
         client.setDescription(clientData.getDescription());
         client.setActive(clientData.getActive() != null ? clientData.getActive() : true);
         client.setCreatedDate(LocalDateTime.now());
-        return clientRepository.save(client);
+        Client savedClient = clientRepository.save(client);
+        eventPublisher.publishEvent(new ClientChangedEvent(savedClient.getId()));
+        return savedClient;
     }
 
     @Override
@@ -149,6 +159,7 @@ public class ClientServiceImpl implements ClientService {
         
         // Save the new client first to get an ID
         Client savedClient = clientRepository.save(newClient);
+        eventPublisher.publishEvent(new ClientChangedEvent(savedClient.getId()));
         
         // Clone interfaces if needed
         List<Interface> sourceInterfaces = interfaceRepository.findByClientId(sourceClientId);
@@ -4,24 +4,56 @@ import com.xml.processor.exception.ValidationException;
 import com.xml.processor.model.Interface;
 import com.xml.processor.model.ProcessedFile;
 import com.xml.processor.service.interfaces.DocumentProcessingStrategyService;
+import com.xml.processor.service.interfaces.ProcessedFileService;
 import com.xml.processor.service.strategy.DocumentProcessingStrategy;
+import com.xml.processor.service.xml.ByteArrayMultipartFile;
+import com.xml.processor.service.xml.IdocSplitter;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
 
 /**
  * Implementation of DocumentProcessingStrategyService.
  * Manages different document processing strategies and routes documents to the appropriate strategy.
+ * Documents of interfaces with a split element are split into units that are processed in parallel.
  */
+@Slf4j
 @Service
 public class DocumentProcessingStrategyServiceImpl implements DocumentProcessingStrategyService {
 
+    private static final int MAX_REPORTED_ERRORS = 10;
+
     private final Map<String, DocumentProcessingStrategy> strategyMap = new ConcurrentHashMap<>();
 
+    @Autowired
+    private IdocSplitter idocSplitter;
+
+    @Autowired
+    private ProcessedFileService processedFileService;
+
+    @Autowired
+    @Qualifier("documentSplitExecutor")
+    private Executor documentSplitExecutor;
+
+    @Value("${app.processing.split.pool-size:0}")
+    private int splitPoolSize;
+
+    @Value("${app.processing.split.max-in-flight:0}")
+    private int maxUnitsInFlight;
+
     @Autowired
     public DocumentProcessingStrategyServiceImpl(List<DocumentProcessingStrategy> strategies) {
         strategies.forEach(strategy -> strategyMap.put(strategy.getDocumentType(), strategy));
@@ -33,6 +65,10 @@ public class DocumentProcessingStrategyServiceImpl implements DocumentProcessing
         if (strategy == null) {
             throw new ValidationException("No processing strategy found for interface type: " + interfaceEntity.getType());
         }
+        String splitElement = interfaceEntity.getSplitElement();
+        if (splitElement != null && !splitElement.isBlank()) {
+            return processSplitDocument(file, interfaceEntity, strategy, splitElement.trim());
+        }
         return strategy.processDocument(file, interfaceEntity);
     }
 
@@ -40,4 +76,84 @@ public class DocumentProcessingStrategyServiceImpl implements DocumentProcessing
     public DocumentProcessingStrategy getStrategy(String interfaceType) {
         return strategyMap.get(interfaceType);
     }
-} 
\ No newline at end of file
+
+    /**
+     * Streams the document through the splitter and processes every unit as a document of
+     * its own. Only a bounded number of units is read ahead of processing, so memory stays
+     * proportional to the unit size rather than the file size. Each unit is stored by its
+     * strategy; the returned summary of the whole file is stored as well.
+     */
+    private ProcessedFile processSplitDocument(MultipartFile file, Interface interfaceEntity,
+                                               DocumentProcessingStrategy strategy, String splitElement) {
+        int threads = splitPoolSize > 0 ? splitPoolSize : Runtime.getRuntime().availableProcessors();
+        int permits = maxUnitsInFlight > 0 ? maxUnitsInFlight : threads * 2;
+        Semaphore inFlight = new Semaphore(permits);
+        List<CompletableFuture<ProcessedFile>> results = new ArrayList<>();
+        String fileName = file.getOriginalFilename();
+
+        int units;
+        try (InputStream inputStream = file.getInputStream()) {
+            units = idocSplitter.split(inputStream, splitElement, (index, unit) -> {
+                inFlight.acquire();
+                MultipartFile unitFile = new ByteArrayMultipartFile(fileName + "#" + index, file.getContentType(), unit);
+                try {
+                    results.add(CompletableFuture
+                            .supplyAsync(() -> strategy.processDocument(unitFile, interfaceEntity), documentSplitExecutor)
+                            .whenComplete((result, error) -> inFlight.release()));
+                } catch (RuntimeException e) {
+                    inFlight.release();
+                    throw e;
+                }
+            });
+        } catch (Exception e) {
+            log.error("Failed to split document {} on element {}", fileName, splitElement, e);
+            // Let the units already handed out finish; their outcome is in their own files
+            results.forEach(future -> future.handle((result, error) -> result).join());
+            return createSummary(file, interfaceEntity, "ERROR", null,
+                    "Failed to split document on element " + splitElement + ": " + e.getMessage());
+        }
+
+        if (units == 0) {
+            log.debug("Split element {} not found in {}, processing it as a single document", splitElement, fileName);
+            return strategy.processDocument(file, interfaceEntity);
+        }
+
+        int failed = 0;
+        List<String> errors = new ArrayList<>();
+        for (CompletableFuture<ProcessedFile> future : results) {
+            ProcessedFile result;
+            try {
+                result = future.join();
+            } catch (Exception e) {
+                result = null;
+                if (errors.size() < MAX_REPORTED_ERRORS) {
+                    errors.add(e.getMessage());
+                }
+            }
+            if (result == null || !"SUCCESS".equals(result.getStatus())) {
+                failed++;
+                if (result != null && errors.size() < MAX_REPORTED_ERRORS) {
+                    errors.add(result.getFileName() + ": " + result.getErrorMessage());
+                }
+            }
+        }
+
+        String summary = "Split into " + units + " units on " + splitElement + ": "
+                + (units - failed) + " succeeded, " + failed + " failed";
+        return createSummary(file, interfaceEntity, failed == 0 ? "SUCCESS" : "ERROR", summary,
+                errors.isEmpty() ? null : String.join("; ", errors));
+    }
+
+    private ProcessedFile createSummary(MultipartFile file, Interface interfaceEntity, String status,
+                                        String content, String errorMessage) {
+        ProcessedFile summary = new ProcessedFile();
+        summary.setFileName(file.getOriginalFilename());
+        summary.setStatus(status);
+        summary.setContent(content);
+        summary.setErrorMessage(errorMessage);
+        summary.setInterfaceEntity(interfaceEntity);
+        summary.setClient(interfaceEntity.getClient());
+        summary.setProcessedAt(LocalDateTime.now());
+        return processedFileService.createProcessedFile(summary);
+    }
+}
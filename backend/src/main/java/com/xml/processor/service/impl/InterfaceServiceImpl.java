@@ -8,6 +8,8 @@ import com.xml.processor.model.MappingRule;
 import com.xml.processor.repository.InterfaceRepository;
 import com.xml.processor.repository.MappingRuleRepository;
 import com.xml.processor.service.interfaces.InterfaceService;
+import com.xml.processor.service.mapping.MappingPlanCache;
+import com.xml.processor.service.xml.XmlInfrastructure;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
@@ -22,8 +24,6 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 import org.xml.sax.InputSource;
@@ -39,11 +39,16 @@ public class InterfaceServiceImpl implements InterfaceService {
     
     private final InterfaceRepository interfaceRepository;
     private final MappingRuleRepository mappingRuleRepository;
+    private final MappingPlanCache mappingPlanCache;
+    private final XmlInfrastructure xmlInfrastructure;
     
     @Autowired
-    public InterfaceServiceImpl(InterfaceRepository interfaceRepository, MappingRuleRepository mappingRuleRepository) {
+    public InterfaceServiceImpl(InterfaceRepository interfaceRepository, MappingRuleRepository mappingRuleRepository,
+                                MappingPlanCache mappingPlanCache, XmlInfrastructure xmlInfrastructure) {
         this.interfaceRepository = interfaceRepository;
         this.mappingRuleRepository = mappingRuleRepository;
+        this.mappingPlanCache = mappingPlanCache;
+        this.xmlInfrastructure = xmlInfrastructure;
     }
     
     @Override
@@ -173,10 +178,7 @@ public class InterfaceServiceImpl implements InterfaceService {
     @Override
     public Interface detectInterface(String xmlContent, Long clientId) {
         try {
-            DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-            factory.setNamespaceAware(true);
-            DocumentBuilder builder = factory.newDocumentBuilder();
-            Document document = builder.parse(new InputSource(new StringReader(xmlContent)));
+            Document document = xmlInfrastructure.parse(new InputSource(new StringReader(xmlContent)));
             Element root = document.getDocumentElement();
             
             // Check root element name
@@ -272,6 +274,7 @@ public class InterfaceServiceImpl implements InterfaceService {
             mapping.setInterfaceEntity(interfaceEntity);
             savedMappings.add(mappingRuleRepository.save(mapping));
         }
+        mappingPlanCache.evict(interfaceId);
         
         return savedMappings;
     }
@@ -7,6 +7,7 @@ import com.xml.processor.model.MappingRule;
 import com.xml.processor.repository.InterfaceRepository;
 import com.xml.processor.repository.MappingRuleRepository;
 import com.xml.processor.service.interfaces.MappingRuleService;
+import com.xml.processor.service.mapping.MappingPlanCache;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -29,6 +30,9 @@ public class MappingRuleServiceImpl implements MappingRuleService {
     @Autowired
     private InterfaceRepository interfaceRepository;
 
+    @Autowired
+    private MappingPlanCache mappingPlanCache;
+
     @Override
     @Transactional
     public MappingRule createMappingRule(MappingRule mappingRule) {
@@ -36,7 +40,9 @@ public class MappingRuleServiceImpl implements MappingRuleService {
         if (mappingRule.getClient() == null && ClientContextHolder.getClient() != null) {
             mappingRule.setClient(ClientContextHolder.getClient());
         }
-        return mappingRuleRepository.save(mappingRule);
+        MappingRule savedRule = mappingRuleRepository.save(mappingRule);
+        mappingPlanCache.evict(savedRule.getInterfaceId());
+        return savedRule;
     }
 
     @Override
@@ -81,7 +87,9 @@ public class MappingRuleServiceImpl implements MappingRuleService {
         mappingRule.setIsAttribute(mappingRuleDetails.getIsAttribute());
         mappingRule.setXsdElement(mappingRuleDetails.getXsdElement());
         
-        return mappingRuleRepository.save(mappingRule);
+        MappingRule savedRule = mappingRuleRepository.save(mappingRule);
+        mappingPlanCache.evict(savedRule.getInterfaceId());
+        return savedRule;
     }
 
     @Override
@@ -94,18 +102,21 @@ public class MappingRuleServiceImpl implements MappingRuleService {
         } else {
             mappingRuleRepository.deleteById(id);
         }
+        mappingPlanCache.evictAll();
     }
     
     @Override
     @Transactional
     public void saveMappingConfiguration(List<MappingRule> rules) {
         mappingRuleRepository.saveAll(rules);
+        mappingPlanCache.evictAll();
     }
     
     @Override
     @Transactional
     public void deleteByClient_IdAndTableName(Long clientId, String tableName) {
         mappingRuleRepository.deleteByClient_IdAndTableName(clientId, tableName);
+        mappingPlanCache.evictAll();
     }
 
     @Override
@@ -1,11 +1,14 @@
 package com.xml.processor.service.impl;
 
+import com.xml.processor.dto.CursorPage;
+import com.xml.processor.dto.SeekCursor;
 import com.xml.processor.exception.ResourceNotFoundException;
 import com.xml.processor.exception.ValidationException;
 import com.xml.processor.model.ProcessedFile;
 import com.xml.processor.model.Client;
 import com.xml.processor.model.Interface;
 import com.xml.processor.repository.ProcessedFileRepository;
+import com.xml.processor.repository.TableStatistics;
 import com.xml.processor.service.interfaces.ProcessedFileService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.annotation.CacheEvict;
@@ -19,6 +22,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
 
 /**
@@ -31,6 +35,9 @@ public class ProcessedFileServiceImpl implements ProcessedFileService {
     @Autowired
     private ProcessedFileRepository processedFileRepository;
 
+    @Autowired
+    private TableStatistics tableStatistics;
+
     @Override
     @Transactional(readOnly = true)
     public Page<ProcessedFile> getAllProcessedFiles(Pageable pageable) {
@@ -147,6 +154,32 @@ public class ProcessedFileServiceImpl implements ProcessedFileService {
         }
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<ProcessedFile> getProcessedFilesPage(String cursor, int size, boolean ascending, Long clientId,
+                                                           String statusFilter, String fileNameFilter,
+                                                           LocalDateTime startDate, LocalDateTime endDate,
+                                                           boolean includeTotal) {
+        SeekCursor after = SeekCursor.decode(cursor, ascending);
+        int pageSize = CursorPage.pageSize(size);
+        String status = statusFilter == null || statusFilter.isBlank() ? null : statusFilter;
+        String fileNamePattern = fileNameFilter == null || fileNameFilter.isBlank()
+                ? null
+                : "%" + fileNameFilter.toLowerCase(Locale.ROOT) + "%";
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+
+        List<ProcessedFile> rows = ascending
+                ? processedFileRepository.findPageAfter(clientId, status, fileNamePattern, startDate, endDate,
+                        after.getTimestamp(), after.getId(), limit)
+                : processedFileRepository.findPageBefore(clientId, status, fileNamePattern, startDate, endDate,
+                        after.getTimestamp(), after.getId(), limit);
+        boolean unfiltered = clientId == null && status == null && fileNamePattern == null
+                && startDate == null && endDate == null;
+        Long approximateTotal = includeTotal && unfiltered ? tableStatistics.estimateRowCount("processed_files") : null;
+        return CursorPage.of(rows, pageSize, cursor,
+                file -> new SeekCursor(file.getProcessedAt(), file.getId()), approximateTotal);
+    }
+
     @Override
     @Transactional(readOnly = true)
     public Page<ProcessedFile> getProcessedFilesByClient(Long clientId, int page, int size, String sortBy, String sortDirection) {
@@ -0,0 +1,415 @@
+package com.xml.processor.service.impl;
+
+import com.xml.processor.exception.ResourceNotFoundException;
+import com.xml.processor.exception.ValidationException;
+import com.xml.processor.model.Interface;
+import com.xml.processor.model.JobStatus;
+import com.xml.processor.model.ProcessedFile;
+import com.xml.processor.model.ProcessingJob;
+import com.xml.processor.model.ProcessingJobPayload;
+import com.xml.processor.repository.InterfaceRepository;
+import com.xml.processor.repository.ProcessingJobPayloadRepository;
+import com.xml.processor.repository.ProcessingJobRepository;
+import com.xml.processor.service.concurrency.TenantFairScheduler;
+import com.xml.processor.service.interfaces.ProcessingJobService;
+import com.xml.processor.service.interfaces.XmlProcessorService;
+import com.xml.processor.service.xml.ByteArrayMultipartFile;
+import com.xml.processor.service.xml.IngestionFingerprinter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Implementation of ProcessingJobService.
+ * Jobs and their payloads are stored before they are queued in the TenantFairScheduler,
+ * which runs them on the xmlProcessorExecutor. The submitting node holds the job's lease
+ * and renews it until the job finished; jobs whose lease expired, because their node
+ * stopped, are claimed by the recovery poll of any node and run again from their payload.
+ * A job may therefore run more than once, but only the lease owner records its outcome.
+ * <p>
+ * Uploads are fingerprinted by the IngestionFingerprinter. An upload whose fingerprint is
+ * already stored for the interface, such as an IDoc SAP resends, gets the job of the first
+ * upload back instead of being processed again, for as long as that job is retained. An
+ * upload whose first job did not succeed is processed again, with its own content when
+ * it differs from the stored one.
+ */
+@Slf4j
+@Service
+public class ProcessingJobServiceImpl implements ProcessingJobService {
+
+    private static final Set<JobStatus> UNFINISHED = EnumSet.of(JobStatus.QUEUED, JobStatus.RUNNING);
+    private static final Set<JobStatus> FINISHED = EnumSet.of(JobStatus.COMPLETED, JobStatus.FAILED);
+    private static final int MAX_ERROR_MESSAGE_LENGTH = 1000;
+
+    /** Completions of the jobs held by this node. */
+    private final Map<String, CompletableFuture<ProcessingJob>> localJobs = new ConcurrentHashMap<>();
+    /** Completions awaited for jobs held by other nodes, resolved by the recovery poll. */
+    private final Map<String, CompletableFuture<ProcessingJob>> remoteJobs = new ConcurrentHashMap<>();
+
+    private final String nodeId;
+    private final TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private XmlProcessorService xmlProcessorService;
+
+    @Autowired
+    private InterfaceRepository interfaceRepository;
+
+    @Autowired
+    private ProcessingJobRepository jobRepository;
+
+    @Autowired
+    private ProcessingJobPayloadRepository payloadRepository;
+
+    @Autowired
+    private TenantFairScheduler tenantFairScheduler;
+
+    @Autowired
+    private IngestionFingerprinter fingerprinter;
+
+    @Value("${app.processing.jobs.retention:P7D}")
+    private Duration retention;
+
+    @Value("${app.processing.jobs.lease-duration:PT1M}")
+    private Duration leaseDuration;
+
+    @Value("${app.processing.jobs.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${app.processing.jobs.recovery-batch-size:50}")
+    private int recoveryBatchSize;
+
+    public ProcessingJobServiceImpl(PlatformTransactionManager transactionManager,
+                                    @Value("${app.processing.jobs.node-id:}") String nodeId) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.nodeId = nodeId.isBlank() ? defaultNodeId() : nodeId;
+    }
+
+    @Override
+    public ProcessingJob submit(MultipartFile file, Long interfaceId) {
+        Interface interfaceEntity = interfaceRepository.findWithClientById(interfaceId)
+                .orElseThrow(() -> new ResourceNotFoundException("Interface not found with id: " + interfaceId));
+        IngestionFingerprinter.Upload upload;
+        try {
+            upload = fingerprinter.read(file);
+        } catch (IOException e) {
+            throw new ValidationException("Failed to read uploaded file: " + e.getMessage());
+        }
+        byte[] content = upload.getContent();
+        Long clientId = clientId(interfaceEntity);
+
+        // A file sent again with the same content is found without looking into it
+        Optional<Long> duplicateOf = payloadRepository.findIdByContentHash(clientId, interfaceId, upload.getContentHash());
+        if (duplicateOf.isPresent()) {
+            return submitDuplicate(duplicateOf.get(), interfaceEntity, file);
+        }
+        IngestionFingerprinter.Fingerprint fingerprint = fingerprinter.fingerprint(upload);
+        duplicateOf = payloadRepository.findIdByFingerprint(clientId, interfaceId, fingerprint.getValue());
+        if (duplicateOf.isPresent()) {
+            Optional<ProcessingJob> original = findOriginal(duplicateOf.get());
+            if (original.isEmpty() || !isUnsuccessful(original.get())) {
+                return submitDuplicate(duplicateOf.get(), interfaceEntity, file);
+            }
+            // A resend with other content may correct the failed upload, so it replaces the stored one
+            log.info("File {} on interface {} resends the failed upload of job {} with other content, processing it",
+                    file.getOriginalFilename(), interfaceId, original.get().getId());
+        }
+        Optional<Long> superseded = duplicateOf;
+
+        ProcessingJob job;
+        try {
+            job = transactionTemplate.execute(status -> {
+                superseded.ifPresent(payloadRepository::clearFingerprint);
+                ProcessingJobPayload payload = payloadRepository.save(new ProcessingJobPayload(clientId, interfaceId,
+                        file.getContentType(), content, upload.getContentHash(), fingerprint.getValue(),
+                        fingerprint.getIdocNumber()));
+                return jobRepository.save(newJob(interfaceEntity, payload.getId(), file.getOriginalFilename(), content.length, null));
+            });
+        } catch (DataIntegrityViolationException e) {
+            // The same file was stored by a concurrent upload in the meantime
+            Long payloadId = payloadRepository.findIdByFingerprint(clientId, interfaceId, fingerprint.getValue())
+                    .orElseThrow(() -> e);
+            return submitDuplicate(payloadId, interfaceEntity, file);
+        }
+        enqueue(job, interfaceEntity, new ByteArrayMultipartFile(job.getFileName(), file.getContentType(), content), true);
+        log.debug("Queued job {} for file {} on interface {}", job.getId(), job.getFileName(), interfaceId);
+        return job;
+    }
+
+    /**
+     * Answers an upload that duplicates a stored one with the job of the stored upload, be
+     * it queued, running or completed, so the file is processed once. If that job failed,
+     * or completed with a processed file that is not SUCCESS, e.g. because its interface
+     * was misconfigured, the stored payload is processed again by a new job. A resend
+     * matching a failed upload by its IDoc fingerprint only but not by its content is not a
+     * duplicate; {@link #submit} stores and processes it in place of the failed one.
+     */
+    private ProcessingJob submitDuplicate(Long payloadId, Interface interfaceEntity, MultipartFile file) {
+        Optional<ProcessingJob> original = findOriginal(payloadId);
+        if (original.isPresent() && !isUnsuccessful(original.get())) {
+            ProcessingJob job = original.get();
+            job.setDuplicate(true);
+            log.info("File {} on interface {} duplicates the upload of job {}, not processing it again",
+                    file.getOriginalFilename(), interfaceEntity.getId(), job.getId());
+            return job;
+        }
+        ProcessingJob job = jobRepository.save(newJob(interfaceEntity, payloadId, file.getOriginalFilename(),
+                file.getSize(), null));
+        enqueue(job, interfaceEntity, null, true);
+        log.debug("Queued job {} for file {} again, the earlier upload failed", job.getId(), job.getFileName());
+        return job;
+    }
+
+    private Optional<ProcessingJob> findOriginal(Long payloadId) {
+        return jobRepository.findFirstByPayloadIdAndSourceProcessedFileIdIsNullOrderBySubmittedAtDesc(payloadId);
+    }
+
+    private static boolean isUnsuccessful(ProcessingJob job) {
+        return job.getStatus() == JobStatus.FAILED
+                || job.getStatus() == JobStatus.COMPLETED && !"SUCCESS".equals(job.getResultStatus());
+    }
+
+    @Override
+    public ProcessingJob reprocess(Long processedFileId) {
+        ProcessingJob source = jobRepository.findFirstByProcessedFileIdOrderBySubmittedAtDesc(processedFileId)
+                .orElseThrow(() -> new ResourceNotFoundException("No stored upload found for processed file with id: " + processedFileId));
+        Interface interfaceEntity = interfaceRepository.findWithClientById(source.getInterfaceId())
+                .orElseThrow(() -> new ResourceNotFoundException("Interface not found with id: " + source.getInterfaceId()));
+
+        // The new job shares the stored payload, so reprocessing copies no content
+        ProcessingJob job = jobRepository.save(newJob(interfaceEntity, source.getPayloadId(), source.getFileName(),
+                source.getFileSize(), processedFileId));
+        enqueue(job, interfaceEntity, null, true);
+        log.debug("Queued job {} reprocessing file {}", job.getId(), processedFileId);
+        return job;
+    }
+
+    @Override
+    public Optional<ProcessingJob> getJob(String jobId) {
+        return jobRepository.findById(jobId);
+    }
+
+    @Override
+    public Optional<CompletableFuture<ProcessingJob>> getCompletion(String jobId) {
+        CompletableFuture<ProcessingJob> local = localJobs.get(jobId);
+        if (local != null) {
+            return Optional.of(local);
+        }
+        return jobRepository.findById(jobId).map(job -> job.getStatus().isTerminal()
+                ? CompletableFuture.completedFuture(job)
+                : remoteJobs.computeIfAbsent(jobId, id -> new CompletableFuture<>()));
+    }
+
+    private ProcessingJob newJob(Interface interfaceEntity, Long payloadId, String fileName, long fileSize,
+                                 Long sourceProcessedFileId) {
+        ProcessingJob job = new ProcessingJob(UUID.randomUUID().toString(), interfaceEntity.getId(),
+                clientId(interfaceEntity), payloadId, fileName, fileSize);
+        job.setSourceProcessedFileId(sourceProcessedFileId);
+        job.setLeaseOwner(nodeId);
+        job.setLeaseExpiresAt(LocalDateTime.now().plus(leaseDuration));
+        return job;
+    }
+
+    /**
+     * Queues a job held by this node in the scheduler. A job the scheduler has no room for
+     * is deleted when it was just submitted, so the caller can retry, and otherwise given
+     * back for another node or a later poll to claim. A job the executor rejects once the
+     * scheduler dispatches it is failed, so neither its lease nor its waiters are left
+     * hanging.
+     *
+     * @param content The content of the job, or null to read it from the stored payload
+     */
+    private void enqueue(ProcessingJob job, Interface interfaceEntity, MultipartFile content, boolean newlySubmitted) {
+        localJobs.put(job.getId(), new CompletableFuture<>());
+        try {
+            tenantFairScheduler.submit(interfaceEntity.getClient(), interfaceEntity.getPriority(),
+                    () -> run(job, interfaceEntity, content),
+                    rejected -> reject(job, rejected));
+        } catch (TaskRejectedException e) {
+            localJobs.remove(job.getId());
+            if (newlySubmitted) {
+                jobRepository.deleteById(job.getId());
+                payloadRepository.deleteIfUnreferenced(job.getPayloadId());
+            } else {
+                jobRepository.release(job.getId(), nodeId);
+            }
+            throw e;
+        }
+    }
+
+    private void run(ProcessingJob job, Interface interfaceEntity, MultipartFile content) {
+        String jobId = job.getId();
+        try {
+            if (jobRepository.markRunning(jobId, nodeId, LocalDateTime.now()) == 0) {
+                log.warn("Lost the lease of job {} before it started, leaving it to its new owner", jobId);
+                return;
+            }
+            JobStatus status = JobStatus.COMPLETED;
+            ProcessedFile result = null;
+            String errorMessage;
+            try {
+                MultipartFile file = content != null ? content : loadPayload(job);
+                result = xmlProcessorService.processXmlFile(file, interfaceEntity);
+                errorMessage = result.getErrorMessage();
+            } catch (Exception e) {
+                log.error("Job {} failed to process file {}", jobId, job.getFileName(), e);
+                status = JobStatus.FAILED;
+                errorMessage = e.getMessage();
+            }
+            if (jobRepository.complete(jobId, nodeId, status, LocalDateTime.now(),
+                    result != null ? result.getId() : null, result != null ? result.getStatus() : null,
+                    truncate(errorMessage)) == 0) {
+                log.warn("Lost the lease of job {} while it ran, its outcome is left to its new owner", jobId);
+            }
+        } finally {
+            resolveCompletion(jobId);
+        }
+    }
+
+    private void reject(ProcessingJob job, RejectedExecutionException e) {
+        String jobId = job.getId();
+        log.error("Executor rejected job {} for file {}, failing it", jobId, job.getFileName(), e);
+        try {
+            jobRepository.complete(jobId, nodeId, JobStatus.FAILED, LocalDateTime.now(), null, null,
+                    truncate("Rejected by the processing executor: " + e.getMessage()));
+        } finally {
+            resolveCompletion(jobId);
+        }
+    }
+
+    /**
+     * Completes the local completion of a job once it is finished, or leaves it to the
+     * recovery poll if another node took the job over.
+     */
+    private void resolveCompletion(String jobId) {
+        CompletableFuture<ProcessingJob> completion = localJobs.remove(jobId);
+        if (completion != null) {
+            jobRepository.findById(jobId)
+                    .filter(done -> done.getStatus().isTerminal())
+                    .ifPresentOrElse(completion::complete,
+                            () -> remoteJobs.put(jobId, completion));
+        }
+    }
+
+    private MultipartFile loadPayload(ProcessingJob job) {
+        ProcessingJobPayload payload = payloadRepository.findById(job.getPayloadId())
+                .orElseThrow(() -> new ResourceNotFoundException("Payload of job " + job.getId() + " not found"));
+        return new ByteArrayMultipartFile(job.getFileName(), payload.getContentType(), payload.getContent());
+    }
+
+    /**
+     * Claims the jobs no node holds a live lease on: jobs left by a stopped node and jobs
+     * given back when the scheduler was full. Jobs that already used up their attempts are
+     * failed instead of being run again, so a file crashing its node cannot take down the
+     * whole cluster in turn. Also resolves the awaited completions of other nodes' jobs.
+     */
+    @Scheduled(fixedDelayString = "${app.processing.jobs.recovery-interval:PT15S}")
+    public void recoverJobs() {
+        LocalDateTime now = LocalDateTime.now();
+        List<String> claimable = jobRepository.findClaimable(UNFINISHED, now, PageRequest.of(0, recoveryBatchSize));
+        for (String jobId : claimable) {
+            if (jobRepository.claim(jobId, UNFINISHED, nodeId, now.plus(leaseDuration), now) == 0) {
+                continue;
+            }
+            ProcessingJob job = jobRepository.findById(jobId).orElse(null);
+            if (job == null) {
+                continue;
+            }
+            if (job.getAttempts() >= maxAttempts) {
+                log.warn("Job {} for file {} was abandoned {} times, failing it", jobId, job.getFileName(), job.getAttempts());
+                jobRepository.complete(jobId, nodeId, JobStatus.FAILED, now, null, null,
+                        "Processing abandoned after " + job.getAttempts() + " attempts");
+                continue;
+            }
+            Optional<Interface> interfaceEntity = interfaceRepository.findWithClientById(job.getInterfaceId());
+            if (interfaceEntity.isEmpty()) {
+                jobRepository.complete(jobId, nodeId, JobStatus.FAILED, now, null, null,
+                        "Interface not found with id: " + job.getInterfaceId());
+                continue;
+            }
+            try {
+                log.info("Resuming job {} for file {} (attempt {})", jobId, job.getFileName(), job.getAttempts() + 1);
+                enqueue(job, interfaceEntity.get(), null, false);
+            } catch (TaskRejectedException e) {
+                log.debug("Scheduler full, resuming the remaining jobs on the next poll");
+                break;
+            }
+        }
+
+        remoteJobs.forEach((jobId, completion) -> jobRepository.findById(jobId).ifPresentOrElse(job -> {
+            if (job.getStatus().isTerminal() && remoteJobs.remove(jobId, completion)) {
+                completion.complete(job);
+            }
+        }, () -> {
+            if (remoteJobs.remove(jobId, completion)) {
+                completion.completeExceptionally(new ResourceNotFoundException("Job " + jobId + " no longer exists"));
+            }
+        }));
+    }
+
+    /**
+     * Extends the leases of the jobs this node holds, queued or running.
+     */
+    @Scheduled(fixedDelayString = "${app.processing.jobs.lease-renewal-interval:PT20S}")
+    public void renewLeases() {
+        jobRepository.renewLeases(nodeId, UNFINISHED, LocalDateTime.now().plus(leaseDuration));
+    }
+
+    /**
+     * Deletes finished jobs older than the retention period, and the payloads no job
+     * refers to anymore. Files processed by deleted jobs can no longer be reprocessed.
+     */
+    @Scheduled(fixedDelayString = "${app.processing.jobs.eviction-interval:PT1H}")
+    public void evictFinishedJobs() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(retention);
+        transactionTemplate.executeWithoutResult(status -> {
+            int jobs = jobRepository.deleteFinishedBefore(FINISHED, cutoff);
+            int payloads = payloadRepository.deleteUnreferenced();
+            if (jobs > 0) {
+                log.info("Deleted {} finished jobs and {} payloads older than {}", jobs, payloads, retention);
+            }
+        });
+    }
+
+    private static Long clientId(Interface interfaceEntity) {
+        return interfaceEntity.getClient() != null ? interfaceEntity.getClient().getId() : null;
+    }
+
+    private static String truncate(String message) {
+        return message != null && message.length() > MAX_ERROR_MESSAGE_LENGTH
+                ? message.substring(0, MAX_ERROR_MESSAGE_LENGTH)
+                : message;
+    }
+
+    private static String defaultNodeId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (IOException e) {
+            host = "node";
+        }
+        return host + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+}
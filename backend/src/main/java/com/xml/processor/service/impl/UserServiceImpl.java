@@ -2,8 +2,10 @@ package com.xml.processor.service.impl;
 
 import com.xml.processor.model.User;
 import com.xml.processor.repository.UserRepository;
+import com.xml.processor.security.service.UserChangedEvent;
 import com.xml.processor.service.interfaces.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Primary;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -24,11 +26,14 @@ public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Autowired
-    public UserServiceImpl(UserRepository userRepository, PasswordEncoder passwordEncoder) {
+    public UserServiceImpl(UserRepository userRepository, PasswordEncoder passwordEncoder,
+                           ApplicationEventPublisher eventPublisher) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
@@ -67,6 +72,7 @@ public class UserServiceImpl implements UserService {
     public Optional<User> updateUser(Long id, User userDetails) {
         return userRepository.findById(id)
             .map(existingUser -> {
+                eventPublisher.publishEvent(new UserChangedEvent(existingUser.getUsername()));
                 existingUser.setUsername(userDetails.getUsername());
                 if (userDetails.getPassword() != null && !userDetails.getPassword().isEmpty()) {
                     existingUser.setPassword(passwordEncoder.encode(userDetails.getPassword()));
@@ -79,6 +85,8 @@ public class UserServiceImpl implements UserService {
 
     @Override
     public void deleteUser(Long id) {
+        userRepository.findById(id).ifPresent(user ->
+            eventPublisher.publishEvent(new UserChangedEvent(user.getUsername())));
         userRepository.deleteById(id);
     }
 
@@ -1,13 +1,18 @@
 package com.xml.processor.service.impl;
 
+import com.xml.processor.dto.CursorPage;
+import com.xml.processor.exception.ResourceNotFoundException;
 import com.xml.processor.exception.ValidationException;
 import com.xml.processor.model.Interface;
 import com.xml.processor.model.ProcessedFile;
-import com.xml.processor.repository.InterfaceRepository;
+import com.xml.processor.model.JobStatus;
+import com.xml.processor.model.ProcessingJob;
 import com.xml.processor.service.interfaces.ProcessedFileService;
+import com.xml.processor.service.interfaces.ProcessingJobService;
 import com.xml.processor.service.interfaces.XmlProcessorService;
 import com.xml.processor.service.interfaces.DocumentProcessingStrategyService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -29,10 +34,12 @@ public class XmlProcessorServiceImpl implements XmlProcessorService {
     private ProcessedFileService processedFileService;
 
     @Autowired
-    private InterfaceRepository interfaceRepository;
+    private DocumentProcessingStrategyService strategyService;
 
+    // Lazy, the job service processes its jobs through this service
     @Autowired
-    private DocumentProcessingStrategyService strategyService;
+    @Lazy
+    private ProcessingJobService processingJobService;
 
     @Override
     @Transactional
@@ -67,16 +74,28 @@ public class XmlProcessorServiceImpl implements XmlProcessorService {
     }
 
     @Override
-    @Transactional
     public CompletableFuture<ProcessedFile> processXmlFileAsync(MultipartFile file, Long interfaceId) {
-        return CompletableFuture.supplyAsync(() -> processXmlFile(file, interfaceRepository.findById(interfaceId).orElse(null)));
+        ProcessingJob job = processingJobService.submit(file, interfaceId);
+        return processingJobService.getCompletion(job.getId())
+                .orElseThrow(() -> new IllegalStateException("Job " + job.getId() + " disappeared"))
+                .thenApply(this::toProcessedFile);
     }
 
     @Override
-    @Transactional
     public void reprocessFile(Long fileId) {
-        // For now, throw UnsupportedOperationException as this method needs to be implemented
-        throw new UnsupportedOperationException("Method not implemented");
+        processingJobService.reprocess(fileId);
+    }
+
+    /**
+     * Returns the file a finished job produced. Every strategy stores its result, split
+     * documents their summary, so a completed job always refers to a stored file.
+     */
+    private ProcessedFile toProcessedFile(ProcessingJob job) {
+        if (job.getStatus() == JobStatus.FAILED) {
+            throw new ValidationException("Failed to process XML file: " + job.getErrorMessage());
+        }
+        return processedFileService.getProcessedFileById(job.getProcessedFileId())
+                .orElseThrow(() -> new ResourceNotFoundException("ProcessedFile not found with id: " + job.getProcessedFileId()));
     }
 
     @Override
@@ -102,4 +121,16 @@ public class XmlProcessorServiceImpl implements XmlProcessorService {
     public Page<ProcessedFile> getErrorFiles(Pageable pageable) {
         return processedFileService.getProcessedFilesByStatus("ERROR", pageable);
     }
-} 
\ No newline at end of file
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<ProcessedFile> getProcessedFilesPage(String cursor, int size) {
+        return processedFileService.getProcessedFilesPage(cursor, size, false, null, "SUCCESS", null, null, null, false);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<ProcessedFile> getErrorFilesPage(String cursor, int size) {
+        return processedFileService.getProcessedFilesPage(cursor, size, false, null, "ERROR", null, null, null, false);
+    }
+}
@@ -1,6 +1,9 @@
 package com.xml.processor.service.impl;
 
 import com.xml.processor.service.interfaces.XmlValidationService;
+import com.xml.processor.service.xml.SchemaCache;
+import com.xml.processor.service.xml.ValidationIssueCollector;
+import com.xml.processor.service.xml.ValidationResult;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.w3c.dom.Document;
@@ -8,13 +11,11 @@ import org.w3c.dom.Element;
 import org.w3c.dom.NodeList;
 import org.xml.sax.SAXException;
 
-import javax.xml.XMLConstants;
 import javax.xml.transform.dom.DOMSource;
 import javax.xml.validation.Schema;
-import javax.xml.validation.SchemaFactory;
 import javax.xml.validation.Validator;
-import java.io.File;
 import java.io.IOException;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -22,58 +23,60 @@ import java.util.List;
 @Service
 public class XmlValidationServiceImpl implements XmlValidationService {
 
-    private String validationErrorMessage;
+    private final SchemaCache schemaCache;
+
+    public XmlValidationServiceImpl(SchemaCache schemaCache) {
+        this.schemaCache = schemaCache;
+    }
 
     @Override
-    public boolean validateXmlAgainstXsd(Document document, String xsdPath) {
+    public ValidationResult validateXmlAgainstXsd(Document document, String xsdPath) {
+        long start = System.nanoTime();
+        ValidationIssueCollector collector = new ValidationIssueCollector();
         try {
-            SchemaFactory factory = SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI);
-            Schema schema = factory.newSchema(new File(xsdPath));
+            Schema schema = schemaCache.getSchema(xsdPath);
             Validator validator = schema.newValidator();
+            validator.setErrorHandler(collector);
             validator.validate(new DOMSource(document));
-            validationErrorMessage = null;
-            return true;
         } catch (SAXException | IOException e) {
-            validationErrorMessage = "XML validation failed against XSD: " + e.getMessage();
-            log.error(validationErrorMessage, e);
-            return false;
+            log.error("XML validation failed against XSD {}: {}", xsdPath, e.getMessage(), e);
+            collector.addError("XML validation failed against XSD: " + e.getMessage());
         }
+        return collector.toResult(elapsedSince(start));
     }
 
     @Override
-    public boolean validateXmlStructure(Document document) {
+    public ValidationResult validateXmlStructure(Document document) {
+        long start = System.nanoTime();
         try {
             // Check if document has a root element
             Element root = document.getDocumentElement();
             if (root == null) {
-                validationErrorMessage = "XML document has no root element";
-                return false;
+                return ValidationResult.invalid("XML document has no root element", elapsedSince(start));
             }
 
             // Check for required namespace declarations
             String namespaceURI = root.getNamespaceURI();
             if (namespaceURI == null || namespaceURI.isEmpty()) {
-                validationErrorMessage = "XML document must have a namespace declaration";
-                return false;
+                return ValidationResult.invalid("XML document must have a namespace declaration", elapsedSince(start));
             }
 
             // Check for required attributes
             if (!root.hasAttribute("version")) {
-                validationErrorMessage = "Root element must have a version attribute";
-                return false;
+                return ValidationResult.invalid("Root element must have a version attribute", elapsedSince(start));
             }
 
-            validationErrorMessage = null;
-            return true;
+            return ValidationResult.valid(elapsedSince(start));
         } catch (Exception e) {
-            validationErrorMessage = "XML structure validation failed: " + e.getMessage();
-            log.error(validationErrorMessage, e);
-            return false;
+            String message = "XML structure validation failed: " + e.getMessage();
+            log.error(message, e);
+            return ValidationResult.invalid(message, elapsedSince(start));
         }
     }
 
     @Override
-    public boolean validateXmlContent(Document document, String interfaceType) {
+    public ValidationResult validateXmlContent(Document document, String interfaceType) {
+        long start = System.nanoTime();
         try {
             Element root = document.getDocumentElement();
             List<String> errors = new ArrayList<>();
@@ -90,27 +93,21 @@ public class XmlValidationServiceImpl implements XmlValidationService {
                     validateShipmentContent(root, errors);
                     break;
                 default:
-                    validationErrorMessage = "Unknown interface type: " + interfaceType;
-                    return false;
+                    return ValidationResult.invalid("Unknown interface type: " + interfaceType, elapsedSince(start));
             }
 
-            if (!errors.isEmpty()) {
-                validationErrorMessage = String.join(", ", errors);
-                return false;
-            }
-
-            validationErrorMessage = null;
-            return true;
+            List<ValidationResult.Issue> issues = new ArrayList<>();
+            errors.forEach(error -> issues.add(ValidationResult.Issue.error(error)));
+            return new ValidationResult(issues, elapsedSince(start));
         } catch (Exception e) {
-            validationErrorMessage = "XML content validation failed: " + e.getMessage();
-            log.error(validationErrorMessage, e);
-            return false;
+            String message = "XML content validation failed: " + e.getMessage();
+            log.error(message, e);
+            return ValidationResult.invalid(message, elapsedSince(start));
         }
     }
 
-    @Override
-    public String getValidationErrorMessage() {
-        return validationErrorMessage;
+    private static Duration elapsedSince(long startNanos) {
+        return Duration.ofNanos(System.nanoTime() - startNanos);
     }
 
     private void validateInvoiceContent(Element root, List<String> errors) {
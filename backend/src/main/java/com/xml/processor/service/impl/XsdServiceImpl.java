@@ -7,6 +7,8 @@ import com.xml.processor.model.Interface;
 import com.xml.processor.model.MappingRule;
 import com.xml.processor.repository.MappingRuleRepository;
 import com.xml.processor.service.interfaces.XsdService;
+import com.xml.processor.service.xml.SchemaCache;
+import com.xml.processor.service.xml.XmlInfrastructure;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -16,11 +18,9 @@ import org.springframework.web.multipart.MultipartFile;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 import org.w3c.dom.NodeList;
+import org.xml.sax.InputSource;
 import org.xml.sax.SAXException;
 
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.parsers.ParserConfigurationException;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
@@ -36,16 +36,18 @@ public class XsdServiceImpl implements XsdService {
     @Autowired
     private MappingRuleRepository mappingRuleRepository;
 
+    @Autowired
+    private XmlInfrastructure xmlInfrastructure;
+
+    @Autowired
+    private SchemaCache schemaCache;
+
     @Override
     public boolean validateXsdSchema(MultipartFile file) {
         try {
-            DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-            factory.setNamespaceAware(true);
-            factory.setValidating(true);
-            DocumentBuilder builder = factory.newDocumentBuilder();
-            builder.parse(file.getInputStream());
+            xmlInfrastructure.parseValidating(file.getInputStream());
             return true;
-        } catch (ParserConfigurationException | SAXException | IOException e) {
+        } catch (SAXException | IOException e) {
             return false;
         }
     }
@@ -61,7 +63,9 @@ public class XsdServiceImpl implements XsdService {
 
         interfaceEntity.setRootElement(rootElement);
         interfaceEntity.setNamespace(namespace);
+        schemaCache.invalidate(interfaceEntity.getSchemaPath());
         interfaceEntity.setSchemaPath(file.getOriginalFilename());
+        schemaCache.invalidate(interfaceEntity.getSchemaPath());
 
         return interfaceEntity;
     }
@@ -69,13 +73,10 @@ public class XsdServiceImpl implements XsdService {
     @Override
     public String getRootElement(MultipartFile file) {
         try {
-            DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-            factory.setNamespaceAware(true);
-            DocumentBuilder builder = factory.newDocumentBuilder();
-            Document document = builder.parse(file.getInputStream());
+            Document document = xmlInfrastructure.parse(file.getInputStream());
             Element root = document.getDocumentElement();
             return root.getLocalName();
-        } catch (ParserConfigurationException | SAXException | IOException e) {
+        } catch (SAXException | IOException e) {
             throw new ValidationException("Failed to get root element from XSD schema", e);
         }
     }
@@ -83,13 +84,10 @@ public class XsdServiceImpl implements XsdService {
     @Override
     public String getNamespace(MultipartFile file) {
         try {
-            DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-            factory.setNamespaceAware(true);
-            DocumentBuilder builder = factory.newDocumentBuilder();
-            Document document = builder.parse(file.getInputStream());
+            Document document = xmlInfrastructure.parse(file.getInputStream());
             Element root = document.getDocumentElement();
             return root.getNamespaceURI();
-        } catch (ParserConfigurationException | SAXException | IOException e) {
+        } catch (SAXException | IOException e) {
             throw new ValidationException("Failed to get namespace from XSD schema", e);
         }
     }
@@ -97,10 +95,7 @@ public class XsdServiceImpl implements XsdService {
     @Override
     public List<Map<String, Object>> getXsdStructure(String xsdPath) {
         try {
-            DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-            factory.setNamespaceAware(true);
-            DocumentBuilder builder = factory.newDocumentBuilder();
-            Document document = builder.parse(xsdPath);
+            Document document = xmlInfrastructure.parse(new InputSource(xsdPath));
             Element root = document.getDocumentElement();
             
             List<Map<String, Object>> structure = new ArrayList<>();
@@ -125,7 +120,7 @@ public class XsdServiceImpl implements XsdService {
             }
             
             return structure;
-        } catch (ParserConfigurationException | SAXException | IOException e) {
+        } catch (SAXException | IOException e) {
             throw new ValidationException("Failed to analyze XSD structure", e);
         }
     }
@@ -202,10 +197,7 @@ public class XsdServiceImpl implements XsdService {
     @Override
     public String analyzeXsdStructure(MultipartFile file) {
         try {
-            DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-            factory.setNamespaceAware(true);
-            DocumentBuilder builder = factory.newDocumentBuilder();
-            Document document = builder.parse(file.getInputStream());
+            Document document = xmlInfrastructure.parse(file.getInputStream());
             Element root = document.getDocumentElement();
             
             StringBuilder analysis = new StringBuilder();
@@ -234,7 +226,7 @@ public class XsdServiceImpl implements XsdService {
             }
             
             return analysis.toString();
-        } catch (ParserConfigurationException | SAXException | IOException e) {
+        } catch (SAXException | IOException e) {
             throw new ValidationException("Failed to analyze XSD structure", e);
         }
     }
@@ -249,10 +241,7 @@ public class XsdServiceImpl implements XsdService {
         clientAnalysis.append("\nClient-specific Analysis (Client ID: ").append(clientId).append("):\n");
         
         try {
-            DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-            factory.setNamespaceAware(true);
-            DocumentBuilder builder = factory.newDocumentBuilder();
-            builder.parse(file.getInputStream());
+            xmlInfrastructure.parse(file.getInputStream());
             
             // Add client-specific validation rules or customizations
             List<MappingRule> clientRules = mappingRuleRepository.findByClient_Id(clientId);
@@ -264,7 +253,7 @@ public class XsdServiceImpl implements XsdService {
                     .append(")\n");
             }
             
-        } catch (ParserConfigurationException | SAXException | IOException e) {
+        } catch (SAXException | IOException e) {
             throw new ValidationException("Failed to analyze XSD structure with client context", e);
         }
         
@@ -80,6 +80,16 @@ public interface AsnService {
      * @param id The ID of the ASN header to delete
      */
     void deleteAsnHeader(Long id);
+
+    /**
+     * Create an ASN header together with its lines, in a handful of batched statements.
+     * The ids of the lines are not read back.
+     *
+     * @param header The ASN header to create
+     * @param lines The lines of the header
+     * @return The created ASN header
+     */
+    AsnHeader createAsn(AsnHeader header, List<AsnLine> lines);
     
     /**
      * Create a new ASN line.
@@ -1,5 +1,6 @@
 package com.xml.processor.service.interfaces;
 
+import com.xml.processor.dto.CursorPage;
 import com.xml.processor.model.AuditLog;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -119,6 +120,27 @@ public interface AuditLogService {
      */
     Page<AuditLog> getAuditLogsByDateRange(String startDate, String endDate, Pageable pageable);
 
+    /**
+     * Retrieves a page of audit logs ordered by creation time, read after a cursor instead
+     * of an offset. Unset criteria match every log.
+     *
+     * @param cursor The next cursor of the previous page, or null for the first page
+     * @param size The page size, at most CursorPage.MAX_SIZE
+     * @param ascending True for oldest first, false for newest first
+     * @param clientId The client to filter by
+     * @param username The username to filter by
+     * @param action The action to filter by
+     * @param responseStatus The response status to filter by
+     * @param startDate The start of the range
+     * @param endDate The end of the range
+     * @param includeTotal Whether to estimate the total of an unfiltered listing
+     * @return A page of audit logs matching the criteria
+     * @throws com.xml.processor.exception.ValidationException if the cursor is invalid
+     */
+    CursorPage<AuditLog> getAuditLogsPage(String cursor, int size, boolean ascending, Long clientId, String username,
+                                          String action, Integer responseStatus, LocalDateTime startDate,
+                                          LocalDateTime endDate, boolean includeTotal);
+
     /**
      * Retrieves audit logs by ID.
      *
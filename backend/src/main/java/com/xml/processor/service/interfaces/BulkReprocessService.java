@@ -0,0 +1,49 @@
+package com.xml.processor.service.interfaces;
+
+import com.xml.processor.dto.BulkReprocessRequest;
+import com.xml.processor.dto.BulkReprocessRun;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Service interface for reprocessing many processed files at once, typically the ERROR
+ * files of an interface after its mapping was fixed. A run walks the matching files in
+ * batches of IDs and queues a reprocessing job for each, with a bounded number of jobs in
+ * flight, so the files are processed in parallel with the current mapping rules without
+ * crowding out uploads. Runs are executed and tracked by the node they were started on.
+ */
+public interface BulkReprocessService {
+    /**
+     * Start reprocessing the files matching a filter.
+     *
+     * @param request The filter selecting the files
+     * @return The queued run
+     * @throws com.xml.processor.exception.ValidationException if the filter is invalid
+     * @throws org.springframework.core.task.TaskRejectedException if too many runs are active
+     */
+    BulkReprocessRun start(BulkReprocessRequest request);
+
+    /**
+     * Get a run by its ID.
+     *
+     * @param runId The ID of the run
+     * @return Optional containing the run if it is known
+     */
+    Optional<BulkReprocessRun> getRun(String runId);
+
+    /**
+     * Get the active runs and the most recently finished ones, newest first.
+     *
+     * @return List of runs
+     */
+    List<BulkReprocessRun> getRuns();
+
+    /**
+     * Stop a run from queueing further files. Jobs already queued still complete.
+     *
+     * @param runId The ID of the run
+     * @return Optional containing the run if it is known
+     */
+    Optional<BulkReprocessRun> cancel(String runId);
+}
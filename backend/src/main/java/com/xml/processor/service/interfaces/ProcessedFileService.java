@@ -1,5 +1,6 @@
 package com.xml.processor.service.interfaces;
     
+import com.xml.processor.dto.CursorPage;
 import com.xml.processor.model.ProcessedFile;
 import com.xml.processor.model.Client;
 import com.xml.processor.model.Interface;
@@ -126,6 +127,27 @@ public interface ProcessedFileService {
                                         String fileNameFilter, String statusFilter,
                                         LocalDateTime startDate, LocalDateTime endDate);
 
+    /**
+     * Get a page of processed files ordered by processing time, read after a cursor
+     * instead of an offset. Unset criteria match every file.
+     *
+     * @param cursor The next cursor of the previous page, or null for the first page
+     * @param size The page size, at most CursorPage.MAX_SIZE
+     * @param ascending True for oldest first, e.g. to sync new files, false for newest first
+     * @param clientId The client to filter by
+     * @param statusFilter The status to filter by
+     * @param fileNameFilter Case-insensitive part of the file name
+     * @param startDate The start date
+     * @param endDate The end date
+     * @param includeTotal Whether to estimate the total of an unfiltered listing
+     * @return Page of processed files matching the criteria
+     * @throws com.xml.processor.exception.ValidationException if the cursor is invalid
+     */
+    CursorPage<ProcessedFile> getProcessedFilesPage(String cursor, int size, boolean ascending, Long clientId,
+                                                    String statusFilter, String fileNameFilter,
+                                                    LocalDateTime startDate, LocalDateTime endDate,
+                                                    boolean includeTotal);
+
     /**
      * Get processed files by client with pagination and sorting.
      *
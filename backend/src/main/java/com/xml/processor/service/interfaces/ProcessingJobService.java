@@ -0,0 +1,53 @@
+package com.xml.processor.service.interfaces;
+
+import com.xml.processor.model.ProcessingJob;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Service interface for processing uploaded files in the background.
+ * Files are accepted as jobs and processed on the bounded ingestion executor, so the
+ * request that submitted a file does not wait for its processing. Jobs and their payloads
+ * are stored, so queued and running jobs survive a restart and files can be reprocessed.
+ */
+public interface ProcessingJobService {
+    /**
+     * Accept a file for processing. A file duplicating an earlier upload of the interface
+     * is not processed again; the job of that upload is returned, flagged as duplicate.
+     *
+     * @param file The uploaded XML file
+     * @param interfaceId The ID of the interface to process the file for
+     * @return The queued job, or the job of the earlier upload
+     * @throws com.xml.processor.exception.ResourceNotFoundException if the interface is not found
+     * @throws org.springframework.core.task.TaskRejectedException if the ingestion queue is full
+     */
+    ProcessingJob submit(MultipartFile file, Long interfaceId);
+
+    /**
+     * Queue a processed file for processing again, from the payload stored when it was uploaded.
+     *
+     * @param processedFileId The ID of the processed file
+     * @return The queued job
+     * @throws com.xml.processor.exception.ResourceNotFoundException if no stored upload produced the file
+     * @throws org.springframework.core.task.TaskRejectedException if the ingestion queue is full
+     */
+    ProcessingJob reprocess(Long processedFileId);
+
+    /**
+     * Get a job by its ID.
+     *
+     * @param jobId The ID of the job
+     * @return Optional containing the job if it is known
+     */
+    Optional<ProcessingJob> getJob(String jobId);
+
+    /**
+     * Get a future completing with the job once it is COMPLETED or FAILED.
+     *
+     * @param jobId The ID of the job
+     * @return Optional containing the completion of the job if it is known
+     */
+    Optional<CompletableFuture<ProcessingJob>> getCompletion(String jobId);
+}
@@ -1,5 +1,6 @@
 package com.xml.processor.service.interfaces;
 
+import com.xml.processor.dto.CursorPage;
 import com.xml.processor.model.Interface;
 import com.xml.processor.model.ProcessedFile;
 import org.springframework.data.domain.Page;
@@ -93,4 +94,22 @@ public interface XmlProcessorService {
      * @return Page of error files
      */
     Page<ProcessedFile> getErrorFiles(Pageable pageable);
+
+    /**
+     * Get a page of processed files, newest first, read after a cursor instead of an offset.
+     *
+     * @param cursor The next cursor of the previous page, or null for the first page
+     * @param size The page size
+     * @return Page of processed files
+     */
+    CursorPage<ProcessedFile> getProcessedFilesPage(String cursor, int size);
+
+    /**
+     * Get a page of error files, newest first, read after a cursor instead of an offset.
+     *
+     * @param cursor The next cursor of the previous page, or null for the first page
+     * @param size The page size
+     * @return Page of error files
+     */
+    CursorPage<ProcessedFile> getErrorFilesPage(String cursor, int size);
 } 
\ No newline at end of file
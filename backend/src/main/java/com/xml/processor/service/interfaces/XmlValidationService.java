@@ -1,28 +1,26 @@
 package com.xml.processor.service.interfaces;
 
+import com.xml.processor.service.xml.ValidationResult;
 import org.w3c.dom.Document;
 
 /**
  * Service interface for XML validation operations.
+ * Implementations are stateless; every call returns its own immutable result, so
+ * documents can be validated concurrently.
  */
 public interface XmlValidationService {
     /**
      * Validates an XML document against an XSD schema.
      */
-    boolean validateXmlAgainstXsd(Document document, String xsdContent);
+    ValidationResult validateXmlAgainstXsd(Document document, String xsdPath);
 
     /**
      * Validates the structure of an XML document.
      */
-    boolean validateXmlStructure(Document document);
+    ValidationResult validateXmlStructure(Document document);
 
     /**
      * Validates the content of an XML document against business rules.
      */
-    boolean validateXmlContent(Document document, String interfaceType);
-
-    /**
-     * Gets the validation error message from the last validation operation.
-     */
-    String getValidationErrorMessage();
-} 
\ No newline at end of file
+    ValidationResult validateXmlContent(Document document, String interfaceType);
+}
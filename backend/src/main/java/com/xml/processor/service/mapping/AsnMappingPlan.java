@@ -0,0 +1,317 @@
+package com.xml.processor.service.mapping;
+
+import com.xml.processor.model.AsnHeader;
+import com.xml.processor.model.AsnLine;
+import com.xml.processor.model.MappingRule;
+import lombok.extern.slf4j.Slf4j;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * The rules of a compiled plan that target the ASN tables, split into header and line
+ * rules. A rule targets a table through {@link MappingRule#getTableName()} and a field
+ * through {@link MappingRule#getDatabaseField()}, given as column or property name, e.g.
+ * table asn_lines with field item_number or itemNumber.
+ * <p>
+ * Lines are the repeated record element the line rules have in common, e.g. E1EDL24 for
+ * rules on /DELVRY07/IDOC/E1EDL20/E1EDL24/MATNR and .../E1EDL24/LFIMG. Line rules are
+ * compiled into a trie rebased onto that element, which is evaluated afresh for each
+ * record. The parent of the line record is the header record, e.g. E1EDL20, of which a
+ * DELVRY IDoc may carry several: header rules below it are rebased onto it in the same
+ * way and evaluated afresh for each header, while the other header rules, e.g. on the
+ * EDI_DC40 control record, hold for every header of the document. Rules on other tables
+ * and rules that need XPath are not part of the plan.
+ */
+@Slf4j
+public final class AsnMappingPlan {
+
+    private static final Map<String, BiConsumer<AsnHeader, String>> HEADER_FIELDS = new HashMap<>();
+    private static final Map<String, BiConsumer<AsnLine, String>> LINE_FIELDS = new HashMap<>();
+
+    static {
+        HEADER_FIELDS.put("documentnumber", AsnHeader::setDocumentNumber);
+        HEADER_FIELDS.put("documenttype", AsnHeader::setDocumentType);
+        HEADER_FIELDS.put("senderid", AsnHeader::setSenderId);
+        HEADER_FIELDS.put("receiverid", AsnHeader::setReceiverId);
+        HEADER_FIELDS.put("documentdate", AsnHeader::setDocumentDate);
+        HEADER_FIELDS.put("documenttime", AsnHeader::setDocumentTime);
+        HEADER_FIELDS.put("status", AsnHeader::setStatus);
+        HEADER_FIELDS.put("notes", AsnHeader::setNotes);
+
+        LINE_FIELDS.put("linenumber", AsnLine::setLineNumber);
+        LINE_FIELDS.put("itemnumber", AsnLine::setItemNumber);
+        LINE_FIELDS.put("itemdescription", AsnLine::setItemDescription);
+        LINE_FIELDS.put("quantity", (line, value) -> line.setQuantity(new BigDecimal(value.trim()).intValueExact()));
+        LINE_FIELDS.put("unitofmeasure", AsnLine::setUnitOfMeasure);
+        LINE_FIELDS.put("lotnumber", AsnLine::setLotNumber);
+        LINE_FIELDS.put("serialnumber", AsnLine::setSerialNumber);
+        LINE_FIELDS.put("status", AsnLine::setStatus);
+        LINE_FIELDS.put("notes", AsnLine::setNotes);
+    }
+
+    private final CompiledRulePlan source;
+    private final ValueTransformer[] transformers;
+
+    private final PathTrie headerTrie;
+    private final List<MappingRule> headerRules = new ArrayList<>();
+    private final List<ValueTransformer> headerTransformers = new ArrayList<>();
+    private final List<BiConsumer<AsnHeader, String>> headerFields = new ArrayList<>();
+
+    private final String[] headerRecordPath;
+    private final PathTrie headerRecordTrie;
+    private final List<MappingRule> headerRecordRules = new ArrayList<>();
+    private final List<ValueTransformer> headerRecordTransformers = new ArrayList<>();
+    private final List<BiConsumer<AsnHeader, String>> headerRecordFields = new ArrayList<>();
+
+    private final String[] recordPath;
+    private final PathTrie lineTrie;
+    private final List<MappingRule> lineRules = new ArrayList<>();
+    private final List<ValueTransformer> lineTransformers = new ArrayList<>();
+    private final List<BiConsumer<AsnLine, String>> lineFields = new ArrayList<>();
+
+    AsnMappingPlan(CompiledRulePlan source, TransformationRegistry registry) {
+        this.source = source;
+        this.transformers = source.getTransformers(registry);
+
+        List<MappingRule> allHeaderRules = new ArrayList<>();
+        List<ValueTransformer> allHeaderTransformers = new ArrayList<>();
+        List<BiConsumer<AsnHeader, String>> allHeaderFields = new ArrayList<>();
+        List<String[]> lineSteps = new ArrayList<>();
+        String[] commonContainer = null;
+        for (int i = 0; i < source.getRules().size(); i++) {
+            MappingRule rule = source.getRules().get(i);
+            String table = normalize(rule.getTableName());
+            boolean header = table.equals("asnheaders") || table.equals("asnheader");
+            boolean line = table.equals("asnlines") || table.equals("asnline");
+            if (!header && !line) {
+                continue;
+            }
+            if (!source.getTrie().isCompiled(i)) {
+                log.warn("ASN mapping rule '{}' uses path '{}' which cannot be evaluated while streaming, ignoring it",
+                        rule.getName(), rule.getXmlPath());
+                continue;
+            }
+            String field = normalize(rule.getDatabaseField());
+            if (header) {
+                BiConsumer<AsnHeader, String> setter = HEADER_FIELDS.get(field);
+                if (setter == null) {
+                    log.warn("ASN mapping rule '{}' targets unknown header field '{}', ignoring it", rule.getName(), rule.getDatabaseField());
+                    continue;
+                }
+                allHeaderRules.add(rule);
+                allHeaderTransformers.add(transformers[i]);
+                allHeaderFields.add(setter);
+            } else {
+                BiConsumer<AsnLine, String> setter = LINE_FIELDS.get(field);
+                if (setter == null) {
+                    log.warn("ASN mapping rule '{}' targets unknown line field '{}', ignoring it", rule.getName(), rule.getDatabaseField());
+                    continue;
+                }
+                String[] steps = rule.getXmlPath().substring(1).split("/");
+                // The element holding the value, or carrying the attribute
+                String[] container = Arrays.copyOf(steps,
+                        "text()".equals(steps[steps.length - 1]) ? steps.length - 2 : steps.length - 1);
+                commonContainer = commonContainer == null ? container : commonPrefix(commonContainer, container);
+                lineRules.add(rule);
+                lineTransformers.add(transformers[i]);
+                lineFields.add(setter);
+                lineSteps.add(steps);
+            }
+        }
+        if (commonContainer == null || commonContainer.length == 0) {
+            if (!lineRules.isEmpty()) {
+                log.warn("ASN line rules of interface {} share no record element, ignoring them", source.getInterfaceId());
+                lineRules.clear();
+                lineTransformers.clear();
+                lineFields.clear();
+            }
+            this.recordPath = null;
+            this.lineTrie = PathTrie.compilePaths(List.of());
+        } else {
+            this.recordPath = commonContainer;
+            List<String> rebased = new ArrayList<>(lineSteps.size());
+            for (String[] steps : lineSteps) {
+                rebased.add("/" + String.join("/", Arrays.copyOfRange(steps, recordPath.length - 1, steps.length)));
+            }
+            this.lineTrie = PathTrie.compilePaths(rebased);
+        }
+
+        this.headerRecordPath = recordPath != null && recordPath.length > 1
+                ? Arrays.copyOf(recordPath, recordPath.length - 1)
+                : null;
+        List<String> headerPaths = new ArrayList<>();
+        List<String> headerRecordPaths = new ArrayList<>();
+        for (int i = 0; i < allHeaderRules.size(); i++) {
+            MappingRule rule = allHeaderRules.get(i);
+            String[] steps = rule.getXmlPath().substring(1).split("/");
+            if (headerRecordPath != null && steps.length > headerRecordPath.length
+                    && Arrays.equals(headerRecordPath, Arrays.copyOf(steps, headerRecordPath.length))) {
+                headerRecordRules.add(rule);
+                headerRecordTransformers.add(allHeaderTransformers.get(i));
+                headerRecordFields.add(allHeaderFields.get(i));
+                headerRecordPaths.add("/" + String.join("/",
+                        Arrays.copyOfRange(steps, headerRecordPath.length - 1, steps.length)));
+            } else {
+                headerRules.add(rule);
+                headerTransformers.add(allHeaderTransformers.get(i));
+                headerFields.add(allHeaderFields.get(i));
+                headerPaths.add(rule.getXmlPath());
+            }
+        }
+        this.headerTrie = PathTrie.compilePaths(headerPaths);
+        this.headerRecordTrie = PathTrie.compilePaths(headerRecordPaths);
+    }
+
+    CompiledRulePlan getSource() {
+        return source;
+    }
+
+    /**
+     * Returns the trie of the header rules that hold for the whole document.
+     */
+    PathTrie getHeaderTrie() {
+        return headerTrie;
+    }
+
+    /**
+     * Returns the trie of the header rules below the header record, rebased onto it.
+     */
+    PathTrie getHeaderRecordTrie() {
+        return headerRecordTrie;
+    }
+
+    /**
+     * Returns the element steps of the header record element, or null if the whole
+     * document is one header.
+     */
+    String[] getHeaderRecordPath() {
+        return headerRecordPath;
+    }
+
+    PathTrie getLineTrie() {
+        return lineTrie;
+    }
+
+    /**
+     * Returns the element steps of the line record element, or null if there are no line rules.
+     */
+    String[] getRecordPath() {
+        return recordPath;
+    }
+
+    boolean hasLineRules() {
+        return recordPath != null;
+    }
+
+    /**
+     * Sets the header fields of the document-wide header rules from their first match,
+     * falling back to the rules' default values.
+     *
+     * @throws IllegalArgumentException if complete and a required header rule did not match
+     */
+    void applyHeader(AsnHeader header, RuleMatches matches, boolean complete) {
+        apply(header, matches, complete, headerRules, headerTransformers, headerFields);
+    }
+
+    /**
+     * Sets the header fields of the header record rules from their first match within one
+     * header record, falling back to the rules' default values.
+     *
+     * @throws IllegalArgumentException if complete and a required header rule did not match
+     */
+    void applyHeaderRecord(AsnHeader header, RuleMatches matches, boolean complete) {
+        apply(header, matches, complete, headerRecordRules, headerRecordTransformers, headerRecordFields);
+    }
+
+    private static void apply(AsnHeader header, RuleMatches matches, boolean complete, List<MappingRule> rules,
+                              List<ValueTransformer> transformers, List<BiConsumer<AsnHeader, String>> fields) {
+        for (int i = 0; i < rules.size(); i++) {
+            String value = value(rules.get(i), transformers.get(i), matches != null ? matches.first(i) : null);
+            if (value != null) {
+                fields.get(i).accept(header, value);
+            } else if (complete && rules.get(i).isRequired()) {
+                throw new IllegalArgumentException("Required element '" + rules.get(i).getXmlPath() + "' is missing");
+            }
+        }
+    }
+
+    /**
+     * Creates a line from the matches of one record element.
+     *
+     * @throws IllegalArgumentException if a required line rule did not match or a value does not fit its field
+     */
+    AsnLine createLine(RuleMatches matches, int lineIndex) {
+        AsnLine line = new AsnLine();
+        for (int i = 0; i < lineRules.size(); i++) {
+            MappingRule rule = lineRules.get(i);
+            String value = value(rule, lineTransformers.get(i), matches.first(i));
+            if (value == null) {
+                if (rule.isRequired()) {
+                    throw new IllegalArgumentException("Required element '" + rule.getXmlPath()
+                            + "' is missing in line " + lineIndex);
+                }
+                continue;
+            }
+            try {
+                lineFields.get(i).accept(line, value);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Value '" + value + "' of element '" + rule.getXmlPath()
+                        + "' in line " + lineIndex + " is not a number");
+            } catch (ArithmeticException e) {
+                throw new IllegalArgumentException("Value '" + value + "' of element '" + rule.getXmlPath()
+                        + "' in line " + lineIndex + " is not a whole number");
+            }
+        }
+        return line;
+    }
+
+    /**
+     * Returns the number of header values matched so far, to tell whether header values
+     * turned up after the first line.
+     */
+    int headerMatchCount(RuleMatches matches) {
+        return matchCount(matches, headerRules.size());
+    }
+
+    /**
+     * Returns the number of header record values matched so far within one header record.
+     */
+    int headerRecordMatchCount(RuleMatches matches) {
+        return matchCount(matches, headerRecordRules.size());
+    }
+
+    private static int matchCount(RuleMatches matches, int ruleCount) {
+        int count = 0;
+        for (int i = 0; matches != null && i < ruleCount; i++) {
+            count += matches.count(i);
+        }
+        return count;
+    }
+
+    private static String value(MappingRule rule, ValueTransformer transformer, String matched) {
+        if (matched != null) {
+            return transformer.apply(matched);
+        }
+        String defaultValue = rule.getDefaultValue();
+        return defaultValue != null && !defaultValue.isEmpty() ? defaultValue : null;
+    }
+
+    private static String[] commonPrefix(String[] a, String[] b) {
+        int length = 0;
+        while (length < a.length && length < b.length && a[length].equals(b[length])) {
+            length++;
+        }
+        return Arrays.copyOf(a, length);
+    }
+
+    private static String normalize(String name) {
+        return name == null ? "" : name.replace("_", "").toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,83 @@
+package com.xml.processor.service.mapping;
+
+import com.xml.processor.model.AsnHeader;
+
+import java.util.List;
+
+/**
+ * Outcome of streaming an ASN document through {@link AsnStreamingMapper}: one
+ * {@link Delivery} per header record of the document, in document order.
+ */
+public class AsnMappingResult {
+
+    private final List<Delivery> deliveries;
+    private final int lineCount;
+
+    public AsnMappingResult(List<Delivery> deliveries) {
+        this.deliveries = List.copyOf(deliveries);
+        this.lineCount = deliveries.stream().mapToInt(Delivery::getLineCount).sum();
+    }
+
+    /**
+     * Returns the headers of the document with the lines mapped onto each of them.
+     */
+    public List<Delivery> getDeliveries() {
+        return deliveries;
+    }
+
+    /**
+     * Returns the header of the first delivery.
+     */
+    public AsnHeader getHeader() {
+        return deliveries.get(0).getHeader();
+    }
+
+    /**
+     * Returns the number of lines over all deliveries.
+     */
+    public int getLineCount() {
+        return lineCount;
+    }
+
+    /**
+     * Returns true if any header needs to be updated after its first line was handed out.
+     */
+    public boolean isHeaderChangedAfterLines() {
+        return deliveries.stream().anyMatch(Delivery::isHeaderChangedAfterLines);
+    }
+
+    /**
+     * One header of the document and the number of lines handed out with it.
+     */
+    public static class Delivery {
+
+        private final AsnHeader header;
+        private final int lineCount;
+        private final boolean headerChangedAfterLines;
+
+        public Delivery(AsnHeader header, int lineCount, boolean headerChangedAfterLines) {
+            this.header = header;
+            this.lineCount = lineCount;
+            this.headerChangedAfterLines = headerChangedAfterLines;
+        }
+
+        /**
+         * Returns the header with all values matched in the document.
+         */
+        public AsnHeader getHeader() {
+            return header;
+        }
+
+        public int getLineCount() {
+            return lineCount;
+        }
+
+        /**
+         * Returns true if header values were matched after the first line of this header
+         * was handed out, so a header stored with that line needs to be updated.
+         */
+        public boolean isHeaderChangedAfterLines() {
+            return headerChangedAfterLines;
+        }
+    }
+}
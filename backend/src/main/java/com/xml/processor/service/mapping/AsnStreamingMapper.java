@@ -0,0 +1,208 @@
+package com.xml.processor.service.mapping;
+
+import com.xml.processor.model.AsnHeader;
+import com.xml.processor.model.AsnLine;
+import com.xml.processor.service.xml.XmlInfrastructure;
+import org.springframework.stereotype.Component;
+
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Maps an ASN document onto {@link AsnHeader}s and their {@link AsnLine}s in a single StAX
+ * pass. Every line record is handed to the consumer as soon as its element ends, so only
+ * the current line and the headers are held in memory, whatever the number of lines.
+ * <p>
+ * Each header record, the parent of the line record such as E1EDL20, opens a new header,
+ * and the lines within it are handed out with that header; a document without line rules
+ * maps onto a single header. The header passed along with a line carries the header
+ * values matched so far. Header values usually precede the lines, as E1EDL20 fields
+ * precede its E1EDL24 segments; the result tells whether any turned up after the first
+ * line of their header.
+ */
+@Component
+public class AsnStreamingMapper {
+
+    private final ConcurrentMap<Long, AsnMappingPlan> plans = new ConcurrentHashMap<>();
+    private final XmlInfrastructure xmlInfrastructure;
+
+    public AsnStreamingMapper(XmlInfrastructure xmlInfrastructure) {
+        this.xmlInfrastructure = xmlInfrastructure;
+    }
+
+    /**
+     * Consumes the lines of a document as they are mapped.
+     */
+    @FunctionalInterface
+    public interface LineConsumer {
+        void accept(AsnHeader header, AsnLine line);
+    }
+
+    /**
+     * Streams the document and maps it with the ASN rules of the plan.
+     *
+     * @param inputStream The ASN document
+     * @param rulePlan The compiled rule plan of the interface
+     * @param lineConsumer Receives every line in document order, with the header it belongs to
+     * @return The mapped headers and the number of lines of each
+     * @throws XMLStreamException if the document is not well-formed
+     * @throws IllegalArgumentException if a required value is missing or a value does not fit its field
+     */
+    public AsnMappingResult map(InputStream inputStream, CompiledRulePlan rulePlan, LineConsumer lineConsumer)
+            throws XMLStreamException {
+        AsnMappingPlan plan = getPlan(rulePlan);
+        String[] recordPath = plan.getRecordPath();
+        String[] headerRecordPath = plan.getHeaderRecordPath();
+        TrieEventHandler headerHandler = new TrieEventHandler(plan.getHeaderTrie());
+        TrieEventHandler headerRecordHandler = null;
+        TrieEventHandler lineHandler = null;
+        String[] path = new String[16];
+        int depth = 0;
+        int headerRecordDepth = 0;
+        int recordDepth = 0;
+
+        List<OpenHeader> headers = new ArrayList<>();
+        OpenHeader header = headerRecordPath == null ? open(headers) : null;
+        int lines = 0;
+
+        XMLStreamReader reader = xmlInfrastructure.inputFactory().createXMLStreamReader(inputStream);
+        try {
+            TrieEventHandler.Attributes attributes = name -> reader.getAttributeValue(null, name);
+            while (reader.hasNext()) {
+                switch (reader.next()) {
+                    case XMLStreamConstants.START_ELEMENT:
+                        if (depth == path.length) {
+                            String[] grown = new String[path.length * 2];
+                            System.arraycopy(path, 0, grown, 0, path.length);
+                            path = grown;
+                        }
+                        path[depth++] = reader.getLocalName();
+                        headerHandler.startElement(reader.getLocalName(), reader.getNamespaceURI(), attributes);
+                        if (headerRecordHandler == null && headerRecordPath != null
+                                && isRecord(path, depth, headerRecordPath)) {
+                            headerRecordHandler = new TrieEventHandler(plan.getHeaderRecordTrie());
+                            headerRecordDepth = depth;
+                            header = open(headers);
+                        }
+                        if (headerRecordHandler != null) {
+                            headerRecordHandler.startElement(reader.getLocalName(), reader.getNamespaceURI(), attributes);
+                        }
+                        if (lineHandler == null && recordPath != null && isRecord(path, depth, recordPath)) {
+                            lineHandler = new TrieEventHandler(plan.getLineTrie());
+                            recordDepth = depth;
+                        }
+                        if (lineHandler != null) {
+                            lineHandler.startElement(reader.getLocalName(), reader.getNamespaceURI(), attributes);
+                        }
+                        break;
+                    case XMLStreamConstants.CHARACTERS:
+                    case XMLStreamConstants.CDATA:
+                    case XMLStreamConstants.SPACE:
+                        headerHandler.characters(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+                        if (headerRecordHandler != null) {
+                            headerRecordHandler.characters(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+                        }
+                        if (lineHandler != null) {
+                            lineHandler.characters(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+                        }
+                        break;
+                    case XMLStreamConstants.END_ELEMENT:
+                        headerHandler.endElement();
+                        if (lineHandler != null) {
+                            lineHandler.endElement();
+                            if (depth == recordDepth) {
+                                RuleMatches recordMatches = headerRecordHandler != null ? headerRecordHandler.getMatches() : null;
+                                if (header.lines == 0) {
+                                    plan.applyHeader(header.header, headerHandler.getMatches(), false);
+                                    plan.applyHeaderRecord(header.header, recordMatches, false);
+                                    header.headerMatchesAtFirstLine = plan.headerMatchCount(headerHandler.getMatches());
+                                    header.recordMatchesAtFirstLine = plan.headerRecordMatchCount(recordMatches);
+                                }
+                                header.lines++;
+                                lineConsumer.accept(header.header, plan.createLine(lineHandler.getMatches(), ++lines));
+                                lineHandler = null;
+                            }
+                        }
+                        if (headerRecordHandler != null) {
+                            headerRecordHandler.endElement();
+                            if (depth == headerRecordDepth) {
+                                RuleMatches recordMatches = headerRecordHandler.getMatches();
+                                plan.applyHeaderRecord(header.header, recordMatches, true);
+                                header.changedAfterLines = header.lines > 0
+                                        && plan.headerRecordMatchCount(recordMatches) != header.recordMatchesAtFirstLine;
+                                headerRecordHandler = null;
+                            }
+                        }
+                        depth--;
+                        break;
+                    default:
+                        break;
+                }
+            }
+        } finally {
+            reader.close();
+        }
+
+        if (headers.isEmpty()) {
+            // No header record in the document: the document values make up its only header
+            plan.applyHeaderRecord(open(headers).header, null, true);
+        }
+        List<AsnMappingResult.Delivery> deliveries = new ArrayList<>(headers.size());
+        int headerMatches = plan.headerMatchCount(headerHandler.getMatches());
+        for (OpenHeader open : headers) {
+            plan.applyHeader(open.header, headerHandler.getMatches(), true);
+            boolean changedAfterLines = open.changedAfterLines
+                    || open.lines > 0 && headerMatches != open.headerMatchesAtFirstLine;
+            deliveries.add(new AsnMappingResult.Delivery(open.header, open.lines, changedAfterLines));
+        }
+        return new AsnMappingResult(deliveries);
+    }
+
+    /**
+     * Returns the ASN plan of a compiled rule plan, building it once per rule plan.
+     */
+    AsnMappingPlan getPlan(CompiledRulePlan rulePlan) {
+        AsnMappingPlan plan = plans.get(rulePlan.getInterfaceId());
+        if (plan != null && plan.getSource() == rulePlan) {
+            return plan;
+        }
+        AsnMappingPlan built = new AsnMappingPlan(rulePlan, TransformationRegistry.ASN);
+        plans.put(rulePlan.getInterfaceId(), built);
+        return built;
+    }
+
+    private static OpenHeader open(List<OpenHeader> headers) {
+        OpenHeader header = new OpenHeader();
+        headers.add(header);
+        return header;
+    }
+
+    private static boolean isRecord(String[] path, int depth, String[] recordPath) {
+        if (depth != recordPath.length) {
+            return false;
+        }
+        for (int i = depth - 1; i >= 0; i--) {
+            if (!path[i].equals(recordPath[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * A header being mapped, with what was matched for it when its first line was handed out.
+     */
+    private static final class OpenHeader {
+        private final AsnHeader header = new AsnHeader();
+        private int lines;
+        private int headerMatchesAtFirstLine;
+        private int recordMatchesAtFirstLine;
+        private boolean changedAfterLines;
+    }
+}
@@ -0,0 +1,189 @@
+package com.xml.processor.service.mapping;
+
+import com.xml.processor.model.MappingRule;
+import com.xml.processor.service.xml.InstancePool;
+import com.xml.processor.service.xml.XmlInfrastructure;
+import org.w3c.dom.Document;
+import org.w3c.dom.NodeList;
+
+import javax.xml.xpath.XPathConstants;
+import javax.xml.xpath.XPathExpression;
+import javax.xml.xpath.XPathExpressionException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Mapping rules of one interface compiled for evaluation: a {@link PathTrie} resolving all
+ * simple location paths in one traversal, and XPath expressions for the remaining rules.
+ * Both evaluators match elements on their local name in any namespace, the XPath rules
+ * through {@link LocalNameXPath}, so a rule selects the same nodes whichever evaluates it
+ * and whether or not the document declares a namespace.
+ * XPathExpression instances are not thread-safe, so the plan's expressions are compiled
+ * into sets that one document at a time acquires from an {@link InstancePool} and reuses
+ * for later documents, per thread or shared by virtual threads. Rule transformations are
+ * resolved once per {@link TransformationRegistry} profile.
+ */
+public class CompiledRulePlan {
+
+    private final Long interfaceId;
+    private final long version;
+    private final List<MappingRule> rules;
+    private final PathTrie trie;
+    private final List<MappingRule> unsupportedRules;
+    private final XmlInfrastructure xmlInfrastructure;
+    private final InstancePool<XPathExpression[]> expressions;
+    private final Map<TransformationRegistry, ValueTransformer[]> transformers = new ConcurrentHashMap<>();
+
+    CompiledRulePlan(Long interfaceId, long version, List<MappingRule> rules, XmlInfrastructure xmlInfrastructure) {
+        this.interfaceId = interfaceId;
+        this.version = version;
+        this.rules = Collections.unmodifiableList(rules);
+        this.trie = PathTrie.compile(rules);
+        this.unsupportedRules = unsupportedRules(this.rules, trie);
+        this.xmlInfrastructure = xmlInfrastructure;
+        this.expressions = xmlInfrastructure.newPool(this::compileAll);
+    }
+
+    public Long getInterfaceId() {
+        return interfaceId;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public List<MappingRule> getRules() {
+        return rules;
+    }
+
+    public PathTrie getTrie() {
+        return trie;
+    }
+
+    /**
+     * Rules whose xmlPath is not a simple location path. They are only resolved by
+     * {@link #evaluate(Document)} and cannot be evaluated in streaming mode.
+     */
+    public List<MappingRule> getUnsupportedRules() {
+        return unsupportedRules;
+    }
+
+    /**
+     * Resolves every rule against a DOM: trie-compiled rules in a single traversal, the
+     * rest through their XPath expression, keeping the text of each matching node.
+     * Failing expressions are recorded per rule instead of aborting the evaluation.
+     *
+     * @param document The parsed document
+     * @return The matched values per rule
+     */
+    public RuleMatches evaluate(Document document) {
+        RuleMatches matches = trie.evaluate(document);
+        XPathExpression[] compiled = expressions.acquire();
+        try {
+            for (int i = 0; i < rules.size(); i++) {
+                if (trie.isCompiled(i)) {
+                    continue;
+                }
+                try {
+                    NodeList nodes = (NodeList) expression(compiled, i).evaluate(document, XPathConstants.NODESET);
+                    for (int n = 0; n < nodes.getLength(); n++) {
+                        matches.record(i, nodes.item(n).getTextContent());
+                    }
+                } catch (Exception e) {
+                    matches.fail(i, e);
+                }
+            }
+        } finally {
+            expressions.release(compiled);
+        }
+        return matches;
+    }
+
+    /**
+     * Returns the compiled expression for the rule at the given index.
+     *
+     * @throws XPathExpressionException if the rule's xmlPath is not a valid XPath expression
+     */
+    private XPathExpression expression(XPathExpression[] compiled, int ruleIndex) throws XPathExpressionException {
+        XPathExpression expression = compiled[ruleIndex];
+        if (expression == null) {
+            // Invalid expressions are not cached; compiling again surfaces the original error
+            return compile(rules.get(ruleIndex).getXmlPath());
+        }
+        return expression;
+    }
+
+    /**
+     * Returns the transformers of all rules, by rule index, resolved against the given
+     * profile. Rules without a transformation get {@link ValueTransformer#IDENTITY}.
+     *
+     * @param registry The transformation profile of the calling strategy
+     * @return The shared, resolved transformers; must not be modified
+     */
+    public ValueTransformer[] getTransformers(TransformationRegistry registry) {
+        return transformers.computeIfAbsent(registry, this::resolveAll);
+    }
+
+    private ValueTransformer[] resolveAll(TransformationRegistry registry) {
+        ValueTransformer[] resolved = new ValueTransformer[rules.size()];
+        for (int i = 0; i < resolved.length; i++) {
+            resolved[i] = registry.resolve(rules.get(i).getTransformation());
+        }
+        return resolved;
+    }
+
+    private static List<MappingRule> unsupportedRules(List<MappingRule> rules, PathTrie trie) {
+        List<MappingRule> unsupported = new ArrayList<>();
+        for (int i = 0; i < rules.size(); i++) {
+            if (!trie.isCompiled(i)) {
+                unsupported.add(rules.get(i));
+            }
+        }
+        return Collections.unmodifiableList(unsupported);
+    }
+
+    private XPathExpression[] compileAll() {
+        XPathExpression[] compiled = new XPathExpression[rules.size()];
+        for (int i = 0; i < compiled.length; i++) {
+            if (trie.isCompiled(i)) {
+                continue;
+            }
+            String xmlPath = rules.get(i).getXmlPath();
+            if (xmlPath == null) {
+                continue;
+            }
+            try {
+                compiled[i] = compile(xmlPath);
+            } catch (XPathExpressionException e) {
+                compiled[i] = null;
+            }
+        }
+        return compiled;
+    }
+
+    private XPathExpression compile(String xmlPath) throws XPathExpressionException {
+        if (xmlPath == null) {
+            throw new XPathExpressionException("Mapping rule has no xmlPath");
+        }
+        return xmlInfrastructure.compileXPath(LocalNameXPath.rewrite(xmlPath));
+    }
+
+    /**
+     * Computes a version for a rule set from rule ids, paths, transformations and last
+     * update times, so a plan is never reused after any of its rules has been changed,
+     * added or removed.
+     */
+    static long versionOf(List<MappingRule> rules) {
+        long version = rules.size();
+        for (MappingRule rule : rules) {
+            version = 31 * version + (rule.getId() != null ? rule.getId() : 0L);
+            version = 31 * version + (rule.getXmlPath() != null ? rule.getXmlPath().hashCode() : 0);
+            version = 31 * version + (rule.getTransformation() != null ? rule.getTransformation().hashCode() : 0);
+            version = 31 * version + (rule.getUpdatedAt() != null ? rule.getUpdatedAt().hashCode() : 0);
+        }
+        return version;
+    }
+}
@@ -0,0 +1,149 @@
+package com.xml.processor.service.mapping;
+
+/**
+ * Rewrites the element name tests of an XPath expression to match on local names, the
+ * semantics of {@link PathTrie}, so rules left to XPath evaluation see the same elements
+ * in a namespaced document as trie-compiled rules do. An unprefixed name test NAME on an
+ * element axis becomes *[local-name()='NAME']; attribute name tests, prefixed names,
+ * functions, axes, operators and literals are kept as written.
+ * <p>
+ * Tokens are told apart by the lexical rules of XPath 1.0 (section 3.7); the expression
+ * is not validated, compiling the result reports any syntax error.
+ */
+final class LocalNameXPath {
+
+    private LocalNameXPath() {
+    }
+
+    /**
+     * Returns the expression with every unprefixed element name test matching on local name.
+     *
+     * @param expression The XPath expression as written in the rule
+     * @return The rewritten expression
+     */
+    static String rewrite(String expression) {
+        StringBuilder out = new StringBuilder(expression.length() + 32);
+        // After an operand, a name is an operator (and, or, mod, div) and '*' multiplies
+        boolean afterOperand = false;
+        boolean attributeAxis = false;
+        String axis = null;
+        int i = 0;
+        while (i < expression.length()) {
+            char c = expression.charAt(i);
+            if (Character.isWhitespace(c)) {
+                out.append(c);
+                i++;
+            } else if (c == '\'' || c == '"') {
+                int end = expression.indexOf(c, i + 1);
+                end = end < 0 ? expression.length() : end + 1;
+                out.append(expression, i, end);
+                i = end;
+                afterOperand = true;
+            } else if (Character.isDigit(c) || (c == '.' && i + 1 < expression.length()
+                    && Character.isDigit(expression.charAt(i + 1)))) {
+                int end = i + 1;
+                while (end < expression.length()
+                        && (Character.isDigit(expression.charAt(end)) || expression.charAt(end) == '.')) {
+                    end++;
+                }
+                out.append(expression, i, end);
+                i = end;
+                afterOperand = true;
+            } else if (c == '$') {
+                int end = qNameEnd(expression, i + 1);
+                out.append(expression, i, end);
+                i = end;
+                afterOperand = true;
+            } else if (isNameStart(c)) {
+                int end = nameEnd(expression, i);
+                String name = expression.substring(i, end);
+                if (end + 1 < expression.length() && expression.charAt(end) == ':' && expression.charAt(end + 1) != ':') {
+                    // Prefixed name test or prefix:*, left to the expression's namespace context
+                    end = expression.charAt(end + 1) == '*' ? end + 2 : qNameEnd(expression, end + 1);
+                    out.append(expression, i, end);
+                    afterOperand = true;
+                    attributeAxis = false;
+                } else if (afterOperand) {
+                    out.append(name);
+                    afterOperand = false;
+                } else {
+                    int next = skipWhitespace(expression, end);
+                    if (expression.startsWith("(", next)) {
+                        // Function call or node type test
+                        out.append(name);
+                    } else if (expression.startsWith("::", next)) {
+                        out.append(name);
+                        axis = name;
+                    } else if (attributeAxis) {
+                        out.append(name);
+                        afterOperand = true;
+                    } else {
+                        out.append("*[local-name()='").append(name).append("']");
+                        afterOperand = true;
+                    }
+                    attributeAxis = false;
+                }
+                i = end;
+            } else if (c == ':' && expression.startsWith("::", i)) {
+                out.append("::");
+                i += 2;
+                attributeAxis = "attribute".equals(axis);
+                axis = null;
+                afterOperand = false;
+            } else if (c == '@') {
+                out.append(c);
+                i++;
+                attributeAxis = true;
+                afterOperand = false;
+            } else if (c == '*') {
+                out.append(c);
+                i++;
+                // A wildcard name test is an operand, a multiplication is not
+                afterOperand = !afterOperand;
+                attributeAxis = false;
+            } else if (c == ')' || c == ']' || c == '.') {
+                out.append(c);
+                i++;
+                afterOperand = true;
+            } else {
+                out.append(c);
+                i++;
+                afterOperand = false;
+                attributeAxis = false;
+            }
+        }
+        return out.toString();
+    }
+
+    private static boolean isNameStart(char c) {
+        return Character.isLetter(c) || c == '_';
+    }
+
+    private static int nameEnd(String expression, int start) {
+        int end = start;
+        while (end < expression.length()) {
+            char c = expression.charAt(end);
+            if (!(Character.isLetterOrDigit(c) || c == '_' || c == '-' || c == '.')) {
+                break;
+            }
+            end++;
+        }
+        return end;
+    }
+
+    private static int qNameEnd(String expression, int start) {
+        int end = nameEnd(expression, start);
+        if (end + 1 < expression.length() && expression.charAt(end) == ':' && expression.charAt(end + 1) != ':') {
+            end = nameEnd(expression, end + 1);
+        }
+        return end;
+    }
+
+    private static int skipWhitespace(String expression, int start) {
+        int next = start;
+        while (next < expression.length() && Character.isWhitespace(expression.charAt(next))) {
+            next++;
+        }
+        return next;
+    }
+}
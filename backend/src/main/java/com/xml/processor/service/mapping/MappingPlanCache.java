@@ -0,0 +1,85 @@
+package com.xml.processor.service.mapping;
+
+import com.xml.processor.model.MappingRule;
+import com.xml.processor.service.xml.XmlInfrastructure;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Cache of compiled rule plans keyed by interface id and rule version.
+ * A plan is compiled the first time an interface's current rule set is seen and reused
+ * until the rules change; rule updates also evict the interface's plan explicitly.
+ */
+@Slf4j
+@Component
+public class MappingPlanCache {
+
+    private final ConcurrentMap<Long, CompiledRulePlan> plans = new ConcurrentHashMap<>();
+    private final XmlInfrastructure xmlInfrastructure;
+
+    public MappingPlanCache(XmlInfrastructure xmlInfrastructure) {
+        this.xmlInfrastructure = xmlInfrastructure;
+    }
+
+    /**
+     * Returns the compiled plan for the given interface and its current active rules.
+     *
+     * @param interfaceId The interface ID
+     * @param rules The interface's active mapping rules
+     * @return The compiled plan
+     */
+    public CompiledRulePlan getPlan(Long interfaceId, List<MappingRule> rules) {
+        long version = CompiledRulePlan.versionOf(rules);
+        CompiledRulePlan plan = plans.get(interfaceId);
+        if (plan != null && plan.getVersion() == version) {
+            return plan;
+        }
+        log.debug("Compiling mapping plan for interface {} ({} rules)", interfaceId, rules.size());
+        CompiledRulePlan compiled = new CompiledRulePlan(interfaceId, version, new ArrayList<>(rules), xmlInfrastructure);
+        for (MappingRule rule : compiled.getUnsupportedRules()) {
+            log.warn("Mapping rule '{}' of interface {} uses path '{}' which cannot be evaluated in streaming mode",
+                    rule.getName(), interfaceId, rule.getXmlPath());
+        }
+        plans.put(interfaceId, compiled);
+        return compiled;
+    }
+
+    /**
+     * Evicts the plan of an interface. When called inside a transaction the plan is
+     * evicted again after commit, so a concurrent reader cannot keep the old rules cached.
+     *
+     * @param interfaceId The interface ID
+     */
+    public void evict(Long interfaceId) {
+        if (interfaceId == null) {
+            return;
+        }
+        runAfterCommit(() -> plans.remove(interfaceId));
+    }
+
+    /**
+     * Evicts all plans, used when rules are changed without a known interface.
+     */
+    public void evictAll() {
+        runAfterCommit(plans::clear);
+    }
+
+    private void runAfterCommit(Runnable action) {
+        action.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package com.xml.processor.service.mapping;
+
+import com.xml.processor.model.MappingRule;
+import org.w3c.dom.Attr;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Trie of the simple location paths of a rule set, used to resolve all rules in a single
+ * traversal of a document (DOM or StAX) instead of one XPath evaluation per rule.
+ * <p>
+ * Compilable paths are absolute child-axis paths such as /DELVRY07/IDOC/E1EDL20/VBELN,
+ * optionally ending in text() or @attribute. Steps are matched on the element's local name
+ * in any namespace, since rules are written without prefixes while documents may declare
+ * a default namespace; attributes are matched on their unqualified name. Rules with any
+ * other expression are left for XPath evaluation, which {@link CompiledRulePlan} gives
+ * the same semantics.
+ */
+public final class PathTrie {
+
+    private static final int[] NO_RULES = new int[0];
+
+    private final Node root = new Node();
+    private final boolean[] compiled;
+
+    private PathTrie(int ruleCount) {
+        this.compiled = new boolean[ruleCount];
+    }
+
+    /**
+     * Compiles the xmlPath of every rule that is a simple location path.
+     *
+     * @param rules The mapping rules, in plan order
+     * @return The compiled trie
+     */
+    public static PathTrie compile(List<MappingRule> rules) {
+        PathTrie trie = new PathTrie(rules.size());
+        for (int i = 0; i < rules.size(); i++) {
+            trie.add(i, rules.get(i).getXmlPath());
+        }
+        return trie;
+    }
+
+    /**
+     * Compiles plain paths, indexed in list order, for tries over a subset of a rule set or
+     * over paths rebased onto an inner element.
+     *
+     * @param xmlPaths The paths to compile
+     * @return The compiled trie
+     */
+    static PathTrie compilePaths(List<String> xmlPaths) {
+        PathTrie trie = new PathTrie(xmlPaths.size());
+        for (int i = 0; i < xmlPaths.size(); i++) {
+            trie.add(i, xmlPaths.get(i));
+        }
+        return trie;
+    }
+
+    /**
+     * Returns true if the rule at the given index is resolved by the trie, false if it
+     * needs XPath evaluation.
+     */
+    public boolean isCompiled(int ruleIndex) {
+        return compiled[ruleIndex];
+    }
+
+    Node getRoot() {
+        return root;
+    }
+
+    int getRuleCount() {
+        return compiled.length;
+    }
+
+    /**
+     * Resolves all compiled rules against a DOM in one traversal. Only subtrees that can
+     * still lead to a rule are visited.
+     *
+     * @param document The parsed document
+     * @return The matched values per rule
+     */
+    public RuleMatches evaluate(Document document) {
+        RuleMatches matches = new RuleMatches(compiled.length);
+        Element documentElement = document.getDocumentElement();
+        if (documentElement != null) {
+            Node node = root.child(localName(documentElement));
+            if (node != null) {
+                visit(documentElement, node, matches);
+            }
+        }
+        return matches;
+    }
+
+    private void visit(Element element, Node node, RuleMatches matches) {
+        for (int i = 0; i < node.attributeNames.length; i++) {
+            Attr attribute = element.getAttributeNode(node.attributeNames[i]);
+            if (attribute != null) {
+                matches.record(node.attributeRules[i], attribute.getValue());
+            }
+        }
+        if (node.textRules.length > 0) {
+            String text = element.getTextContent();
+            for (int rule : node.textRules) {
+                matches.record(rule, text);
+            }
+        }
+        if (node.children.isEmpty()) {
+            return;
+        }
+        for (org.w3c.dom.Node child = element.getFirstChild(); child != null; child = child.getNextSibling()) {
+            if (child.getNodeType() == org.w3c.dom.Node.ELEMENT_NODE) {
+                Node childNode = node.child(localName(child));
+                if (childNode != null) {
+                    visit((Element) child, childNode, matches);
+                }
+            }
+        }
+    }
+
+    private static String localName(org.w3c.dom.Node node) {
+        String localName = node.getLocalName();
+        if (localName != null) {
+            return localName;
+        }
+        String nodeName = node.getNodeName();
+        return nodeName.substring(nodeName.indexOf(':') + 1);
+    }
+
+    private void add(int ruleIndex, String xmlPath) {
+        if (xmlPath == null || xmlPath.length() < 2 || xmlPath.charAt(0) != '/' || xmlPath.startsWith("//")) {
+            return;
+        }
+        String[] steps = xmlPath.substring(1).split("/", -1);
+        int elementSteps = steps.length;
+        String attribute = null;
+        String lastStep = steps[steps.length - 1];
+        if (steps.length > 1 && "text()".equals(lastStep)) {
+            elementSteps--;
+        } else if (steps.length > 1 && lastStep.length() > 1 && lastStep.charAt(0) == '@') {
+            attribute = lastStep.substring(1);
+            if (!isName(attribute)) {
+                return;
+            }
+            elementSteps--;
+        }
+        for (int i = 0; i < elementSteps; i++) {
+            if (!isName(steps[i])) {
+                return;
+            }
+        }
+
+        Node node = root;
+        for (int i = 0; i < elementSteps; i++) {
+            node = node.children.computeIfAbsent(steps[i], step -> new Node());
+        }
+        if (attribute != null) {
+            node.addAttributeRule(attribute, ruleIndex);
+        } else {
+            node.addTextRule(ruleIndex);
+        }
+        compiled[ruleIndex] = true;
+    }
+
+    private static boolean isName(String step) {
+        if (step.isEmpty() || step.indexOf(':') >= 0) {
+            return false;
+        }
+        for (int i = 0; i < step.length(); i++) {
+            char c = step.charAt(i);
+            if (!(Character.isLetterOrDigit(c) || c == '_' || c == '-' || c == '.')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * One element step of the trie with the rules that end at it.
+     */
+    static final class Node {
+        private final Map<String, Node> children = new HashMap<>();
+        private int[] textRules = NO_RULES;
+        private String[] attributeNames = new String[0];
+        private int[] attributeRules = NO_RULES;
+
+        Node child(String localName) {
+            return children.isEmpty() ? null : children.get(localName);
+        }
+
+        boolean hasChildren() {
+            return !children.isEmpty();
+        }
+
+        int[] getTextRules() {
+            return textRules;
+        }
+
+        String[] getAttributeNames() {
+            return attributeNames;
+        }
+
+        int[] getAttributeRules() {
+            return attributeRules;
+        }
+
+        private void addTextRule(int ruleIndex) {
+            textRules = Arrays.copyOf(textRules, textRules.length + 1);
+            textRules[textRules.length - 1] = ruleIndex;
+        }
+
+        private void addAttributeRule(String name, int ruleIndex) {
+            attributeNames = Arrays.copyOf(attributeNames, attributeNames.length + 1);
+            attributeNames[attributeNames.length - 1] = name;
+            attributeRules = Arrays.copyOf(attributeRules, attributeRules.length + 1);
+            attributeRules[attributeRules.length - 1] = ruleIndex;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.xml.processor.service.mapping;
+
+/**
+ * Values matched for each rule of a compiled plan during one document traversal,
+ * indexed like {@link CompiledRulePlan#getRules()}.
+ */
+public class RuleMatches {
+
+    private final String[] first;
+    private final String[] last;
+    private final int[] counts;
+    private Exception[] errors;
+
+    RuleMatches(int ruleCount) {
+        this.first = new String[ruleCount];
+        this.last = new String[ruleCount];
+        this.counts = new int[ruleCount];
+    }
+
+    void record(int ruleIndex, String value) {
+        if (counts[ruleIndex]++ == 0) {
+            first[ruleIndex] = value;
+        }
+        last[ruleIndex] = value;
+    }
+
+    void fail(int ruleIndex, Exception error) {
+        if (errors == null) {
+            errors = new Exception[counts.length];
+        }
+        errors[ruleIndex] = error;
+    }
+
+    /**
+     * Returns the value of the first match in document order, or null if the rule did not match.
+     */
+    public String first(int ruleIndex) {
+        return first[ruleIndex];
+    }
+
+    /**
+     * Returns the value of the last match in document order, or null if the rule did not match.
+     */
+    public String last(int ruleIndex) {
+        return last[ruleIndex];
+    }
+
+    public int count(int ruleIndex) {
+        return counts[ruleIndex];
+    }
+
+    /**
+     * Returns the error raised while evaluating the rule, or null if it evaluated cleanly.
+     */
+    public Exception getError(int ruleIndex) {
+        return errors != null ? errors[ruleIndex] : null;
+    }
+}
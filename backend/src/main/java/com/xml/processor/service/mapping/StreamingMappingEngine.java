@@ -0,0 +1,138 @@
+package com.xml.processor.service.mapping;
+
+import com.xml.processor.service.xml.ValidationIssueCollector;
+import com.xml.processor.service.xml.XmlInfrastructure;
+import org.springframework.stereotype.Component;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.helpers.DefaultHandler;
+
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.validation.Schema;
+import javax.xml.validation.ValidatorHandler;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+
+/**
+ * Evaluates a compiled rule plan against an XML stream in a single forward pass.
+ * Rules are resolved through the plan's {@link PathTrie}; rules whose paths the trie cannot
+ * compile are reported with the plan's unsupported rules since they would need a DOM for XPath
+ * evaluation.
+ * Memory use is bounded by document depth and captured values, not by document size.
+ * <p>
+ * When a schema is given, the document is read through a SAX parser feeding a
+ * {@link ValidatorHandler}, which forwards the validated events to the rule matcher. The
+ * file is thus tokenized once for both XSD validation and mapping.
+ */
+@Component
+public class StreamingMappingEngine {
+
+    private final XmlInfrastructure xmlInfrastructure;
+
+    public StreamingMappingEngine(XmlInfrastructure xmlInfrastructure) {
+        this.xmlInfrastructure = xmlInfrastructure;
+    }
+
+    /**
+     * Streams the document once with StAX and resolves every compiled rule of the plan.
+     *
+     * @param inputStream The XML document
+     * @param plan The compiled rule plan of the interface
+     * @return The matched values and root element details
+     * @throws XMLStreamException if the document is not well-formed
+     */
+    public StreamingMappingResult process(InputStream inputStream, CompiledRulePlan plan) throws XMLStreamException {
+        TrieEventHandler handler = new TrieEventHandler(plan.getTrie());
+
+        XMLStreamReader reader = xmlInfrastructure.inputFactory().createXMLStreamReader(inputStream);
+        try {
+            TrieEventHandler.Attributes attributes = name -> reader.getAttributeValue(null, name);
+            while (reader.hasNext()) {
+                switch (reader.next()) {
+                    case XMLStreamConstants.START_ELEMENT:
+                        handler.startElement(reader.getLocalName(), reader.getNamespaceURI(), attributes);
+                        break;
+                    case XMLStreamConstants.CHARACTERS:
+                    case XMLStreamConstants.CDATA:
+                    case XMLStreamConstants.SPACE:
+                        handler.characters(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+                        break;
+                    case XMLStreamConstants.END_ELEMENT:
+                        handler.endElement();
+                        break;
+                    default:
+                        break;
+                }
+            }
+        } finally {
+            reader.close();
+        }
+        return new StreamingMappingResult(handler.getRootElement(), handler.getRootNamespace(),
+                handler.getRootVersion(), handler.getMatches(), plan.getUnsupportedRules(), null);
+    }
+
+    /**
+     * Streams the document once, validating it against the schema while resolving every
+     * compiled rule of the plan. Schema violations are collected with their line and column
+     * into the result's validation instead of aborting the pass; only well-formedness errors
+     * stop the parse.
+     *
+     * @param inputStream The XML document
+     * @param plan The compiled rule plan of the interface
+     * @param schema The compiled XSD to validate against
+     * @return The matched values, root element details and validation errors
+     * @throws SAXException if the document is not well-formed
+     * @throws IOException if the document cannot be read
+     */
+    public StreamingMappingResult process(InputStream inputStream, CompiledRulePlan plan, Schema schema)
+            throws SAXException, IOException {
+        long start = System.nanoTime();
+        TrieEventHandler handler = new TrieEventHandler(plan.getTrie());
+        ValidationIssueCollector errors = new ValidationIssueCollector();
+
+        ValidatorHandler validatorHandler = schema.newValidatorHandler();
+        validatorHandler.setErrorHandler(errors);
+        validatorHandler.setContentHandler(new TrieContentHandler(handler));
+
+        xmlInfrastructure.parse(new InputSource(inputStream), validatorHandler, errors);
+
+        return new StreamingMappingResult(handler.getRootElement(), handler.getRootNamespace(),
+                handler.getRootVersion(), handler.getMatches(), plan.getUnsupportedRules(),
+                errors.toResult(Duration.ofNanos(System.nanoTime() - start)));
+    }
+
+    /**
+     * Adapts SAX content events to the trie matcher.
+     */
+    private static final class TrieContentHandler extends DefaultHandler {
+        private final TrieEventHandler handler;
+
+        private TrieContentHandler(TrieEventHandler handler) {
+            this.handler = handler;
+        }
+
+        @Override
+        public void startElement(String uri, String localName, String qName, Attributes attributes) {
+            handler.startElement(localName, uri, name -> attributes.getValue("", name));
+        }
+
+        @Override
+        public void characters(char[] ch, int start, int length) {
+            handler.characters(ch, start, length);
+        }
+
+        @Override
+        public void ignorableWhitespace(char[] ch, int start, int length) {
+            handler.characters(ch, start, length);
+        }
+
+        @Override
+        public void endElement(String uri, String localName, String qName) {
+            handler.endElement();
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.xml.processor.service.mapping;
+
+import com.xml.processor.model.MappingRule;
+import com.xml.processor.service.xml.ValidationResult;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Outcome of a single streaming pass over an XML document: root element details,
+ * the values matched for each rule of the plan and, when validated, the XSD violations.
+ */
+public class StreamingMappingResult {
+
+    private final String rootElement;
+    private final String rootNamespace;
+    private final String rootVersion;
+    private final RuleMatches matches;
+    private final List<MappingRule> unsupportedRules;
+    private final ValidationResult validation;
+
+    StreamingMappingResult(String rootElement, String rootNamespace, String rootVersion,
+                           RuleMatches matches, List<MappingRule> unsupportedRules,
+                           ValidationResult validation) {
+        this.rootElement = rootElement;
+        this.rootNamespace = rootNamespace;
+        this.rootVersion = rootVersion;
+        this.matches = matches;
+        this.unsupportedRules = Collections.unmodifiableList(unsupportedRules);
+        this.validation = validation;
+    }
+
+    public String getRootElement() {
+        return rootElement;
+    }
+
+    public String getRootNamespace() {
+        return rootNamespace;
+    }
+
+    public String getRootVersion() {
+        return rootVersion;
+    }
+
+    public RuleMatches getMatches() {
+        return matches;
+    }
+
+    /**
+     * Rules whose xmlPath is not a simple location path and therefore cannot be
+     * evaluated in streaming mode.
+     */
+    public List<MappingRule> getUnsupportedRules() {
+        return unsupportedRules;
+    }
+
+    /**
+     * Returns the XSD validation result of the pass, or null if the document was not validated.
+     */
+    public ValidationResult getValidation() {
+        return validation;
+    }
+}
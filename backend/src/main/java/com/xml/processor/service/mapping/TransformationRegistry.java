@@ -0,0 +1,198 @@
+package com.xml.processor.service.mapping;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.ResolverStyle;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Resolves the transformation names used in mapping rules to {@link ValueTransformer}s.
+ * A rule's transformation is resolved once when its plan is compiled rather than looked
+ * up by name for every value. All transformers are built on immutable java.time
+ * formatters and BigDecimal, so they can be shared by concurrently processed documents.
+ * <p>
+ * Each document strategy uses one of three profiles: {@link #STANDARD}, {@link #ASN}
+ * (standard plus the ASN specific transformations) and {@link #XML}.
+ */
+public final class TransformationRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(TransformationRegistry.class);
+
+    private static final DateTimeFormatter ISO_DATE_INPUT = strict("uuuu-M-d");
+    private static final DateTimeFormatter ISO_TIME_INPUT = strict("H:m:s");
+    private static final DateTimeFormatter ISO_DATETIME_INPUT = strict("uuuu-M-d'T'H:m:s");
+    private static final DateTimeFormatter ASN_DATE_INPUT = strict("uuuuMMdd");
+    private static final DateTimeFormatter ASN_TIME_INPUT = strict("HHmmss");
+
+    private static final DateTimeFormatter DATE_OUTPUT = strict("uuuu-MM-dd");
+    private static final DateTimeFormatter TIME_OUTPUT = strict("HH:mm:ss");
+    private static final DateTimeFormatter DATETIME_OUTPUT = strict("uuuu-MM-dd'T'HH:mm:ss");
+
+    private static final Pattern US_SLASH_DATE = Pattern.compile("(\\d{2})/(\\d{2})/(\\d{4})");
+    private static final Pattern US_DASH_DATE = Pattern.compile("(\\d{2})-(\\d{2})-(\\d{4})");
+    private static final Pattern ISO_DATE = Pattern.compile("\\d{4}-\\d{2}-\\d{2}");
+    private static final Pattern NON_NUMERIC = Pattern.compile("[^\\d.-]");
+
+    public static final TransformationRegistry STANDARD = new TransformationRegistry("standard", standardTransformers(), true);
+    public static final TransformationRegistry ASN = new TransformationRegistry("ASN", asnTransformers(), true);
+    public static final TransformationRegistry XML = new TransformationRegistry("XML", xmlTransformers(), false);
+
+    private final String name;
+    private final Map<String, ValueTransformer> transformers;
+    private final boolean strict;
+
+    /**
+     * @param strict Whether blank values are passed through untouched and unknown
+     *               transformations and failures are logged; otherwise transformers are
+     *               applied to every value and fail silently
+     */
+    private TransformationRegistry(String name, Map<String, ValueTransformer> transformers, boolean strict) {
+        this.name = name;
+        this.transformers = Collections.unmodifiableMap(transformers);
+        this.strict = strict;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Resolves a transformation name, case-insensitively.
+     *
+     * @param transformation The rule's transformation, may be null or empty
+     * @return The transformer; {@link ValueTransformer#IDENTITY} when there is no
+     *         transformation or it is not known to this profile
+     */
+    public ValueTransformer resolve(String transformation) {
+        if (transformation == null || transformation.isEmpty()) {
+            return ValueTransformer.IDENTITY;
+        }
+        ValueTransformer transformer = transformers.get(transformation.toLowerCase(Locale.ROOT));
+        if (transformer == null) {
+            if (strict) {
+                logger.warn("Unknown transformation type: {}", transformation);
+            }
+            return ValueTransformer.IDENTITY;
+        }
+        return guarded(transformation, transformer);
+    }
+
+    /**
+     * Wraps a transformer so a value it cannot handle is kept as it is.
+     */
+    private ValueTransformer guarded(String transformation, ValueTransformer transformer) {
+        if (!strict) {
+            return value -> {
+                try {
+                    return transformer.apply(value);
+                } catch (RuntimeException e) {
+                    return value;
+                }
+            };
+        }
+        return value -> {
+            if (value == null || value.trim().isEmpty()) {
+                return value;
+            }
+            try {
+                return transformer.apply(value);
+            } catch (DateTimeException e) {
+                logger.error("Error parsing date/time value: {}", value, e);
+                return value;
+            } catch (NumberFormatException e) {
+                logger.error("Error parsing number value: {}", value, e);
+                return value;
+            } catch (RuntimeException e) {
+                logger.error("Error applying {} transformation {} to value {}: {}", name, transformation, value, e.getMessage());
+                return value;
+            }
+        };
+    }
+
+    private static Map<String, ValueTransformer> standardTransformers() {
+        Map<String, ValueTransformer> transformers = new HashMap<>();
+        transformers.put("uppercase", String::toUpperCase);
+        transformers.put("lowercase", String::toLowerCase);
+        transformers.put("trim", String::trim);
+        // Normalize to ISO date (YYYY-MM-DD), time (HH:MM:SS) and datetime formats
+        transformers.put("date", value -> DATE_OUTPUT.format(LocalDate.parse(value, ISO_DATE_INPUT)));
+        transformers.put("time", value -> TIME_OUTPUT.format(LocalTime.parse(value, ISO_TIME_INPUT)));
+        transformers.put("datetime", value -> DATETIME_OUTPUT.format(LocalDateTime.parse(value, ISO_DATETIME_INPUT)));
+        transformers.put("number", value -> scaled(value.trim(), 2));
+        // Convert to integer and remove decimal places
+        transformers.put("integer", value -> String.valueOf((int) Double.parseDouble(value)));
+        transformers.put("currency", value -> scaled(value.trim(), 2));
+        return transformers;
+    }
+
+    private static Map<String, ValueTransformer> asnTransformers() {
+        Map<String, ValueTransformer> transformers = standardTransformers();
+        // Convert ASN date (YYYYMMDD) and time (HHMMSS) to standard formats
+        transformers.put("asn_date", value -> DATE_OUTPUT.format(LocalDate.parse(value, ASN_DATE_INPUT)));
+        transformers.put("asn_time", value -> TIME_OUTPUT.format(LocalTime.parse(value, ASN_TIME_INPUT)));
+        // ASN numbers are zero padded
+        transformers.put("asn_number", value -> String.valueOf(Long.parseLong(value)));
+        transformers.put("asn_quantity", value -> scaled(value.trim(), 3));
+        transformers.put("asn_status", TransformationRegistry::asnStatus);
+        return transformers;
+    }
+
+    private static Map<String, ValueTransformer> xmlTransformers() {
+        Map<String, ValueTransformer> transformers = new HashMap<>();
+        transformers.put("uppercase", String::toUpperCase);
+        transformers.put("lowercase", String::toLowerCase);
+        transformers.put("trim", String::trim);
+        transformers.put("date", TransformationRegistry::usDateToIso);
+        // Remove currency symbols and thousands separators before formatting
+        transformers.put("number", value -> scaled(NON_NUMERIC.matcher(value).replaceAll(""), 2));
+        return transformers;
+    }
+
+    private static String asnStatus(String value) {
+        switch (value.trim()) {
+            case "01": return "NEW";
+            case "02": return "PROCESSING";
+            case "03": return "COMPLETED";
+            case "04": return "ERROR";
+            default: return value;
+        }
+    }
+
+    /**
+     * Converts MM/DD/YYYY and MM-DD-YYYY dates to ISO, leaving any other value unchanged.
+     */
+    private static String usDateToIso(String value) {
+        if (ISO_DATE.matcher(value).matches()) {
+            return value;
+        }
+        Matcher matcher = US_SLASH_DATE.matcher(value);
+        if (!matcher.matches()) {
+            matcher = US_DASH_DATE.matcher(value);
+            if (!matcher.matches()) {
+                return value;
+            }
+        }
+        return matcher.group(3) + "-" + matcher.group(1) + "-" + matcher.group(2);
+    }
+
+    private static String scaled(String value, int scale) {
+        return new BigDecimal(value).setScale(scale, RoundingMode.HALF_UP).toPlainString();
+    }
+
+    private static DateTimeFormatter strict(String pattern) {
+        return DateTimeFormatter.ofPattern(pattern, Locale.ROOT).withResolverStyle(ResolverStyle.STRICT);
+    }
+}
@@ -0,0 +1,121 @@
+package com.xml.processor.service.mapping;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Walks a {@link PathTrie} along a stream of element events and records the values of
+ * matching rules. Subtrees that cannot lead to a rule are skipped by depth counting only.
+ * The events come from a StAX reader or, when validating, from a SAX validator pipeline.
+ */
+class TrieEventHandler {
+
+    /**
+     * Looks up an unqualified attribute of the current start element.
+     */
+    interface Attributes {
+        String getValue(String localName);
+    }
+
+    private final RuleMatches matches;
+    private final List<Capture> captures = new ArrayList<>();
+    private PathTrie.Node[] nodes = new PathTrie.Node[16];
+    private int depth;
+    private int skippedDepth;
+    private String rootElement;
+    private String rootNamespace;
+    private String rootVersion;
+
+    TrieEventHandler(PathTrie trie) {
+        this.matches = new RuleMatches(trie.getRuleCount());
+        this.nodes[0] = trie.getRoot();
+    }
+
+    void startElement(String localName, String namespaceUri, Attributes attributes) {
+        if (depth == 0 && skippedDepth == 0) {
+            rootElement = localName;
+            rootNamespace = namespaceUri;
+            rootVersion = attributes.getValue("version");
+        }
+        if (skippedDepth > 0) {
+            skippedDepth++;
+            return;
+        }
+        PathTrie.Node node = nodes[depth].child(localName);
+        if (node == null) {
+            skippedDepth = 1;
+            return;
+        }
+        String[] attributeNames = node.getAttributeNames();
+        for (int i = 0; i < attributeNames.length; i++) {
+            String value = attributes.getValue(attributeNames[i]);
+            if (value != null) {
+                matches.record(node.getAttributeRules()[i], value);
+            }
+        }
+        push(node);
+    }
+
+    void characters(char[] text, int start, int length) {
+        for (int i = 0; i < captures.size(); i++) {
+            captures.get(i).text.append(text, start, length);
+        }
+    }
+
+    void endElement() {
+        if (skippedDepth > 0) {
+            skippedDepth--;
+            return;
+        }
+        if (!captures.isEmpty()) {
+            Capture last = captures.get(captures.size() - 1);
+            if (last.depth == depth) {
+                captures.remove(captures.size() - 1);
+                String value = last.text.toString();
+                for (int rule : last.rules) {
+                    matches.record(rule, value);
+                }
+            }
+        }
+        depth--;
+    }
+
+    private void push(PathTrie.Node node) {
+        if (++depth == nodes.length) {
+            PathTrie.Node[] grown = new PathTrie.Node[nodes.length * 2];
+            System.arraycopy(nodes, 0, grown, 0, nodes.length);
+            nodes = grown;
+        }
+        nodes[depth] = node;
+        if (node.getTextRules().length > 0) {
+            captures.add(new Capture(depth, node.getTextRules()));
+        }
+    }
+
+    RuleMatches getMatches() {
+        return matches;
+    }
+
+    String getRootElement() {
+        return rootElement;
+    }
+
+    String getRootNamespace() {
+        return rootNamespace;
+    }
+
+    String getRootVersion() {
+        return rootVersion;
+    }
+
+    private static final class Capture {
+        private final int depth;
+        private final int[] rules;
+        private final StringBuilder text = new StringBuilder();
+
+        private Capture(int depth, int[] rules) {
+            this.depth = depth;
+            this.rules = rules;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.xml.processor.service.mapping;
+
+/**
+ * A mapping rule's transformation resolved to a function. Implementations are stateless
+ * and safe to share between threads processing documents in parallel.
+ */
+@FunctionalInterface
+public interface ValueTransformer {
+
+    ValueTransformer IDENTITY = value -> value;
+
+    /**
+     * Transforms a single mapped value.
+     *
+     * @param value The value matched in the document
+     * @return The transformed value
+     */
+    String apply(String value);
+}
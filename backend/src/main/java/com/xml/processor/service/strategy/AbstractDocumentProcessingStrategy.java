@@ -4,19 +4,17 @@ import com.xml.processor.model.Interface;
 import com.xml.processor.model.MappingRule;
 import com.xml.processor.model.ProcessedFile;
 import com.xml.processor.service.interfaces.MappingRuleService;
+import com.xml.processor.service.mapping.CompiledRulePlan;
+import com.xml.processor.service.mapping.MappingPlanCache;
+import com.xml.processor.service.mapping.RuleMatches;
+import com.xml.processor.service.mapping.TransformationRegistry;
+import com.xml.processor.service.mapping.ValueTransformer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Pageable;
 import org.w3c.dom.Document;
-import org.w3c.dom.Node;
-import org.w3c.dom.NodeList;
 
-import javax.xml.xpath.XPath;
-import javax.xml.xpath.XPathConstants;
-import javax.xml.xpath.XPathFactory;
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
@@ -26,41 +24,39 @@ public abstract class AbstractDocumentProcessingStrategy implements DocumentProc
     
     private static final Logger logger = LoggerFactory.getLogger(AbstractDocumentProcessingStrategy.class);
     
-    // Common date formats
-    protected static final SimpleDateFormat ISO_DATE_FORMAT = new SimpleDateFormat("yyyy-MM-dd");
-    protected static final SimpleDateFormat ISO_TIME_FORMAT = new SimpleDateFormat("HH:mm:ss");
-    protected static final SimpleDateFormat ISO_DATETIME_FORMAT = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss");
-    
     @Autowired
     protected MappingRuleService mappingRuleService;
     
+    @Autowired
+    protected MappingPlanCache mappingPlanCache;
+    
     @Override
     public ProcessedFile processDocument(Document document, Interface interfaceEntity, Long clientId) {
         try {
             Map<String, Object> result = new HashMap<>();
             List<MappingRule> rules = mappingRuleService.getActiveMappingRules(interfaceEntity.getId(), Pageable.unpaged()).getContent();
+            CompiledRulePlan plan = mappingPlanCache.getPlan(interfaceEntity.getId(), rules);
             
-            XPath xPath = XPathFactory.newInstance().newXPath();
+            // Resolve all rules in a single traversal of the document
+            RuleMatches matches = plan.evaluate(document);
+            ValueTransformer[] transformers = plan.getTransformers(getTransformationRegistry());
             
-            for (MappingRule rule : rules) {
+            for (int i = 0; i < plan.getRules().size(); i++) {
+                MappingRule rule = plan.getRules().get(i);
                 try {
-                    String xmlPath = rule.getXmlPath();
                     String databaseField = rule.getDatabaseField();
-                    String transformation = rule.getTransformation();
                     String defaultValue = rule.getDefaultValue();
                     
-                    // Evaluate XPath expression
-                    NodeList nodes = (NodeList) xPath.evaluate(xmlPath, document, XPathConstants.NODESET);
+                    if (matches.getError(i) != null) {
+                        throw matches.getError(i);
+                    }
                     String value = null;
                     
-                    if (nodes != null && nodes.getLength() > 0) {
-                        Node node = nodes.item(0);
-                        value = node.getTextContent();
+                    if (matches.count(i) > 0) {
+                        value = matches.first(i);
                         
                         // Apply transformation if specified
-                        if (transformation != null && !transformation.isEmpty()) {
-                            value = applyTransformation(value, transformation);
-                        }
+                        value = transformers[i].apply(value);
                     } else if (defaultValue != null && !defaultValue.isEmpty()) {
                         value = defaultValue;
                     }
@@ -100,62 +96,12 @@ public abstract class AbstractDocumentProcessingStrategy implements DocumentProc
         }
     }
     
-    protected String applyTransformation(String value, String transformation) {
-        if (value == null || value.trim().isEmpty()) {
-            return value;
-        }
-        
-        try {
-            switch (transformation.toLowerCase()) {
-                case "uppercase":
-                    return value.toUpperCase();
-                    
-                case "lowercase":
-                    return value.toLowerCase();
-                    
-                case "trim":
-                    return value.trim();
-                    
-                case "date":
-                    // Convert to ISO date format (YYYY-MM-DD)
-                    return ISO_DATE_FORMAT.format(ISO_DATE_FORMAT.parse(value));
-                    
-                case "time":
-                    // Convert to ISO time format (HH:MM:SS)
-                    return ISO_TIME_FORMAT.format(ISO_TIME_FORMAT.parse(value));
-                    
-                case "datetime":
-                    // Convert to ISO datetime format (YYYY-MM-DD'T'HH:MM:SS)
-                    return ISO_DATETIME_FORMAT.format(ISO_DATETIME_FORMAT.parse(value));
-                    
-                case "number":
-                    // Format number with 2 decimal places
-                    double number = Double.parseDouble(value);
-                    return String.format("%.2f", number);
-                    
-                case "integer":
-                    // Convert to integer and remove decimal places
-                    return String.valueOf((int) Double.parseDouble(value));
-                    
-                case "currency":
-                    // Format as currency with 2 decimal places
-                    double amount = Double.parseDouble(value);
-                    return String.format("%.2f", amount);
-                    
-                default:
-                    logger.warn("Unknown transformation type: {}", transformation);
-                    return value;
-            }
-        } catch (ParseException e) {
-            logger.error("Error parsing date/time value: {}", value, e);
-            return value;
-        } catch (NumberFormatException e) {
-            logger.error("Error parsing number value: {}", value, e);
-            return value;
-        } catch (Exception e) {
-            logger.error("Error applying transformation {} to value {}: {}", transformation, value, e.getMessage());
-            return value;
-        }
+    /**
+     * Returns the transformation profile used to resolve the mapping rules' transformations.
+     * Strategies with document specific transformations override this.
+     */
+    protected TransformationRegistry getTransformationRegistry() {
+        return TransformationRegistry.STANDARD;
     }
     
     @Override
@@ -1,29 +1,57 @@
 package com.xml.processor.service.strategy;
 
+import com.xml.processor.exception.ValidationException;
+import com.xml.processor.model.AsnHeader;
+import com.xml.processor.model.AsnLine;
 import com.xml.processor.model.Interface;
+import com.xml.processor.model.MappingRule;
 import com.xml.processor.model.ProcessedFile;
+import com.xml.processor.repository.AsnBatchWriter;
+import com.xml.processor.service.interfaces.ProcessedFileService;
+import com.xml.processor.service.mapping.AsnMappingResult;
+import com.xml.processor.service.mapping.AsnStreamingMapper;
+import com.xml.processor.service.mapping.CompiledRulePlan;
+import com.xml.processor.service.mapping.TransformationRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
-import org.w3c.dom.Document;
 
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
+import java.io.InputStream;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.util.Map;
+import java.util.List;
 
 @Component
 public class AsnDocumentProcessingStrategy extends AbstractDocumentProcessingStrategy {
     
     private static final Logger logger = LoggerFactory.getLogger(AsnDocumentProcessingStrategy.class);
     private static final String ASN_TYPE = "ASN";
-    
-    // ASN-specific date formats
-    private static final SimpleDateFormat ASN_DATE_FORMAT = new SimpleDateFormat("yyyyMMdd");
-    private static final SimpleDateFormat ASN_TIME_FORMAT = new SimpleDateFormat("HHmmss");
-    private static final SimpleDateFormat OUTPUT_DATE_FORMAT = new SimpleDateFormat("yyyy-MM-dd");
-    private static final SimpleDateFormat OUTPUT_TIME_FORMAT = new SimpleDateFormat("HH:mm:ss");
+    private static final String DEFAULT_STATUS = "RECEIVED";
+
+    @Autowired
+    private AsnStreamingMapper asnStreamingMapper;
+
+    @Autowired
+    private AsnBatchWriter asnBatchWriter;
+
+    @Autowired
+    private ProcessedFileService processedFileService;
+
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    public void setTransactionManager(PlatformTransactionManager transactionManager) {
+        // A savepoint in the caller's transaction, so a failed document rolls back its own rows
+        // without marking that transaction rollback-only
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_NESTED);
+    }
     
     @Override
     public String getDocumentType() {
@@ -40,78 +68,126 @@ public class AsnDocumentProcessingStrategy extends AbstractDocumentProcessingStr
         return "ASN Document Processor";
     }
 
+    /**
+     * Streams the document into asn_headers and asn_lines, one header per delivery. A header
+     * is inserted when its first line is complete and the lines follow in JDBC batches, so a
+     * delivery is never held in memory as a whole. A document that fails part way is rolled
+     * back to a savepoint taken before its first row and then recorded as an ERROR file.
+     */
     @Override
     public ProcessedFile processDocument(MultipartFile file, Interface interfaceEntity) {
         try {
-            ProcessedFile processedFile = new ProcessedFile();
-            processedFile.setFileName(file.getOriginalFilename());
-            processedFile.setInterfaceEntity(interfaceEntity);
-            processedFile.setClient(interfaceEntity.getClient());
-            processedFile.setProcessedAt(LocalDateTime.now());
-            processedFile.setStatus("SUCCESS");
-            return processedFile;
+            List<MappingRule> rules = mappingRuleService.getActiveMappingRules(interfaceEntity.getId(), Pageable.unpaged()).getContent();
+            CompiledRulePlan plan = mappingPlanCache.getPlan(interfaceEntity.getId(), rules);
+            return transactionTemplate.execute(status -> {
+                try {
+                    return ingest(file, interfaceEntity, plan);
+                } catch (RuntimeException e) {
+                    throw e;
+                } catch (Exception e) {
+                    // Checked failures must leave the callback to roll back to the savepoint too
+                    throw new ValidationException(e.getMessage(), e);
+                }
+            });
         } catch (Exception e) {
             logger.error("Error processing ASN document: {}", e.getMessage(), e);
-            ProcessedFile errorFile = new ProcessedFile();
-            errorFile.setFileName(file.getOriginalFilename());
-            errorFile.setInterfaceEntity(interfaceEntity);
-            errorFile.setClient(interfaceEntity.getClient());
-            errorFile.setProcessedAt(LocalDateTime.now());
-            errorFile.setStatus("ERROR");
-            errorFile.setErrorMessage(e.getMessage());
-            return errorFile;
+            return createErrorFile(file, interfaceEntity, e.getMessage());
         }
     }
-    
-    @Override
-    protected String applyTransformation(String value, String transformation) {
-        if (value == null || value.trim().isEmpty()) {
-            return value;
+
+    private ProcessedFile ingest(MultipartFile file, Interface interfaceEntity, CompiledRulePlan plan) throws Exception {
+        AsnWriter writer = new AsnWriter(interfaceEntity);
+        AsnMappingResult result;
+        try (InputStream inputStream = file.getInputStream()) {
+            result = asnStreamingMapper.map(inputStream, plan, writer);
         }
-        
-        try {
-            switch (transformation.toLowerCase()) {
-                case "asn_date":
-                    // Convert ASN date format (YYYYMMDD) to standard format (YYYY-MM-DD)
-                    return OUTPUT_DATE_FORMAT.format(ASN_DATE_FORMAT.parse(value));
-                    
-                case "asn_time":
-                    // Convert ASN time format (HHMMSS) to standard format (HH:MM:SS)
-                    return OUTPUT_TIME_FORMAT.format(ASN_TIME_FORMAT.parse(value));
-                    
-                case "asn_number":
-                    // Handle ASN-specific number format (remove leading zeros)
-                    return String.valueOf(Long.parseLong(value));
-                    
-                case "asn_quantity":
-                    // Handle ASN quantity format (decimal with 3 decimal places)
-                    double quantity = Double.parseDouble(value);
-                    return String.format("%.3f", quantity);
-                    
-                case "asn_status":
-                    // Map ASN status codes to readable values
-                    switch (value.trim()) {
-                        case "01": return "NEW";
-                        case "02": return "PROCESSING";
-                        case "03": return "COMPLETED";
-                        case "04": return "ERROR";
-                        default: return value;
-                    }
-                    
-                default:
-                    // Fall back to parent class transformation
-                    return super.applyTransformation(value, transformation);
+        writer.closeBatch();
+        StringBuilder content = new StringBuilder();
+        for (AsnMappingResult.Delivery delivery : result.getDeliveries()) {
+            AsnHeader header = delivery.getHeader();
+            if (delivery.getLineCount() == 0) {
+                // No lines, or no line rules
+                writer.insertHeader(header);
+            } else if (delivery.isHeaderChangedAfterLines()) {
+                asnBatchWriter.updateHeader(header);
             }
-        } catch (ParseException e) {
-            logger.error("Error parsing ASN date/time value: {}", value, e);
-            return value;
-        } catch (NumberFormatException e) {
-            logger.error("Error parsing ASN number value: {}", value, e);
-            return value;
-        } catch (Exception e) {
-            logger.error("Error applying ASN transformation {} to value {}: {}", transformation, value, e.getMessage());
-            return value;
+            content.append(content.length() == 0 ? "ASN " : "; ASN ").append(header.getDocumentNumber())
+                    .append(": header ").append(header.getId())
+                    .append(", ").append(delivery.getLineCount()).append(" lines");
         }
+
+        ProcessedFile processedFile = new ProcessedFile();
+        processedFile.setFileName(file.getOriginalFilename());
+        processedFile.setInterfaceEntity(interfaceEntity);
+        processedFile.setClient(interfaceEntity.getClient());
+        processedFile.setProcessedAt(LocalDateTime.now());
+        processedFile.setStatus("SUCCESS");
+        processedFile.setContent(content.toString());
+        return processedFileService.createProcessedFile(processedFile);
+    }
+
+    private ProcessedFile createErrorFile(MultipartFile file, Interface interfaceEntity, String errorMessage) {
+        ProcessedFile errorFile = new ProcessedFile();
+        errorFile.setFileName(file.getOriginalFilename());
+        errorFile.setInterfaceEntity(interfaceEntity);
+        errorFile.setClient(interfaceEntity.getClient());
+        errorFile.setProcessedAt(LocalDateTime.now());
+        errorFile.setStatus("ERROR");
+        errorFile.setErrorMessage(errorMessage != null && errorMessage.length() > 1000
+                ? errorMessage.substring(0, 1000) : errorMessage);
+        return processedFileService.createProcessedFile(errorFile);
+    }
+
+    /**
+     * Inserts each header once its first line arrives and hands its lines to a batch.
+     */
+    private final class AsnWriter implements AsnStreamingMapper.LineConsumer {
+        private final Interface interfaceEntity;
+        private AsnHeader batchHeader;
+        private AsnBatchWriter.LineBatch batch;
+
+        private AsnWriter(Interface interfaceEntity) {
+            this.interfaceEntity = interfaceEntity;
+        }
+
+        @Override
+        public void accept(AsnHeader mappedHeader, AsnLine line) {
+            if (mappedHeader != batchHeader) {
+                closeBatch();
+                insertHeader(mappedHeader);
+                batch = asnBatchWriter.openLineBatch(mappedHeader);
+                batchHeader = mappedHeader;
+            }
+            batch.add(line);
+        }
+
+        private void closeBatch() {
+            if (batch != null) {
+                batch.close();
+                batch = null;
+            }
+        }
+
+        private void insertHeader(AsnHeader mappedHeader) {
+            if (mappedHeader.getDocumentNumber() == null || mappedHeader.getDocumentNumber().isBlank()) {
+                throw new ValidationException("ASN document number not found; map asn_headers.document_number "
+                        + "to an element that precedes the lines");
+            }
+            if (mappedHeader.getDocumentDate() == null) {
+                mappedHeader.setDocumentDate(LocalDate.now().toString());
+            }
+            if (mappedHeader.getStatus() == null) {
+                mappedHeader.setStatus(DEFAULT_STATUS);
+            }
+            mappedHeader.setClient(interfaceEntity.getClient());
+            asnBatchWriter.insertHeader(mappedHeader);
+        }
+    }
+    
+    @Override
+    protected TransformationRegistry getTransformationRegistry() {
+        // Standard transformations plus asn_date, asn_time, asn_number, asn_quantity and asn_status
+        return TransformationRegistry.ASN;
     }
     
     @Override
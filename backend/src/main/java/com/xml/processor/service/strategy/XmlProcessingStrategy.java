@@ -4,32 +4,35 @@ import com.xml.processor.exception.ValidationException;
 import com.xml.processor.model.Interface;
 import com.xml.processor.model.ProcessedFile;
 import com.xml.processor.model.MappingRule;
+import com.xml.processor.model.ProcessingMode;
 import com.xml.processor.repository.MappingRuleRepository;
 import com.xml.processor.service.interfaces.ProcessedFileService;
 import com.xml.processor.service.interfaces.XmlValidationService;
+import com.xml.processor.service.mapping.CompiledRulePlan;
+import com.xml.processor.service.mapping.MappingPlanCache;
+import com.xml.processor.service.mapping.RuleMatches;
+import com.xml.processor.service.mapping.StreamingMappingEngine;
+import com.xml.processor.service.mapping.StreamingMappingResult;
+import com.xml.processor.service.mapping.TransformationRegistry;
+import com.xml.processor.service.mapping.ValueTransformer;
+import com.xml.processor.service.xml.SchemaCache;
+import com.xml.processor.service.xml.ValidationResult;
+import com.xml.processor.service.xml.XmlInfrastructure;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import org.springframework.web.multipart.MultipartFile;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
-import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
-import org.xml.sax.SAXException;
-import javax.xml.xpath.XPath;
-import javax.xml.xpath.XPathConstants;
-import javax.xml.xpath.XPathFactory;
-
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.parsers.ParserConfigurationException;
-import javax.xml.transform.Transformer;
-import javax.xml.transform.TransformerFactory;
-import javax.xml.transform.dom.DOMSource;
-import javax.xml.transform.stream.StreamResult;
-import java.io.IOException;
-import java.io.StringWriter;
+
+import javax.xml.validation.Schema;
+import java.io.InputStream;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 /**
  * Strategy implementation for processing XML documents.
@@ -46,43 +49,55 @@ public class XmlProcessingStrategy implements DocumentProcessingStrategy {
     @Autowired
     private MappingRuleRepository mappingRuleRepository;
 
-    private final XPath xPath;
+    @Autowired
+    private StreamingMappingEngine streamingMappingEngine;
 
-    public XmlProcessingStrategy() {
-        this.xPath = XPathFactory.newInstance().newXPath();
-    }
+    @Autowired
+    private MappingPlanCache mappingPlanCache;
+
+    @Autowired
+    private XmlInfrastructure xmlInfrastructure;
+
+    @Autowired
+    private SchemaCache schemaCache;
 
     @Override
     public ProcessedFile processDocument(MultipartFile file, Interface interfaceEntity) {
+        if (interfaceEntity.getProcessingMode() == ProcessingMode.STREAMING
+                || interfaceEntity.getProcessingMode() == ProcessingMode.STREAMING_VALIDATED) {
+            return processStreaming(file, interfaceEntity);
+        }
         try {
-            DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-            factory.setNamespaceAware(true);
-            DocumentBuilder builder = factory.newDocumentBuilder();
-            Document document = builder.parse(file.getInputStream());
+            Document document;
+            try (InputStream inputStream = file.getInputStream()) {
+                document = xmlInfrastructure.parse(inputStream);
+            }
 
-            if (!xmlValidationService.validateXmlStructure(document)) {
+            ValidationResult structureResult = xmlValidationService.validateXmlStructure(document);
+            if (!structureResult.isValid()) {
                 ProcessedFile errorFile = new ProcessedFile();
                 errorFile.setFileName(file.getOriginalFilename());
                 errorFile.setStatus("ERROR");
-                errorFile.setErrorMessage(xmlValidationService.getValidationErrorMessage());
+                errorFile.setErrorMessage(structureResult.getErrorMessage());
                 errorFile.setInterfaceEntity(interfaceEntity);
                 errorFile.setClient(interfaceEntity.getClient());
                 errorFile.setProcessedAt(LocalDateTime.now());
                 return processedFileService.createProcessedFile(errorFile);
             }
 
-            if (!xmlValidationService.validateXmlContent(document, interfaceEntity.getType())) {
+            ValidationResult contentResult = xmlValidationService.validateXmlContent(document, interfaceEntity.getType());
+            if (!contentResult.isValid()) {
                 ProcessedFile errorFile = new ProcessedFile();
                 errorFile.setFileName(file.getOriginalFilename());
                 errorFile.setStatus("ERROR");
-                errorFile.setErrorMessage(xmlValidationService.getValidationErrorMessage());
+                errorFile.setErrorMessage(contentResult.getErrorMessage());
                 errorFile.setInterfaceEntity(interfaceEntity);
                 errorFile.setClient(interfaceEntity.getClient());
                 errorFile.setProcessedAt(LocalDateTime.now());
                 return processedFileService.createProcessedFile(errorFile);
             }
 
-            String transformedXml = transformXmlFile(file, interfaceEntity);
+            String transformedXml = transformXmlFile(document, interfaceEntity);
 
             ProcessedFile processedFile = new ProcessedFile();
             processedFile.setFileName(file.getOriginalFilename());
@@ -108,23 +123,25 @@ public class XmlProcessingStrategy implements DocumentProcessingStrategy {
     @Override
     public ProcessedFile processDocument(Document document, Interface interfaceEntity, Long clientId) {
         try {
-            if (!xmlValidationService.validateXmlStructure(document)) {
+            ValidationResult structureResult = xmlValidationService.validateXmlStructure(document);
+            if (!structureResult.isValid()) {
                 ProcessedFile errorFile = new ProcessedFile();
                 errorFile.setFileName("document.xml");
                 errorFile.setInterfaceEntity(interfaceEntity);
                 errorFile.setProcessedAt(LocalDateTime.now());
                 errorFile.setStatus("ERROR");
-                errorFile.setErrorMessage(xmlValidationService.getValidationErrorMessage());
+                errorFile.setErrorMessage(structureResult.getErrorMessage());
                 return errorFile;
             }
 
-            if (!xmlValidationService.validateXmlContent(document, interfaceEntity.getType())) {
+            ValidationResult contentResult = xmlValidationService.validateXmlContent(document, interfaceEntity.getType());
+            if (!contentResult.isValid()) {
                 ProcessedFile errorFile = new ProcessedFile();
                 errorFile.setFileName("document.xml");
                 errorFile.setInterfaceEntity(interfaceEntity);
                 errorFile.setProcessedAt(LocalDateTime.now());
                 errorFile.setStatus("ERROR");
-                errorFile.setErrorMessage(xmlValidationService.getValidationErrorMessage());
+                errorFile.setErrorMessage(contentResult.getErrorMessage());
                 return errorFile;
             }
 
@@ -145,48 +162,134 @@ public class XmlProcessingStrategy implements DocumentProcessingStrategy {
         }
     }
 
-    private String transformXmlFile(MultipartFile file, Interface interfaceEntity) {
+    /**
+     * Processes the upload in a single pass without building a DOM. The root element
+     * checks of validateXmlStructure are applied inline and required mapping rules take the
+     * place of the DOM based content validation. In STREAMING_VALIDATED mode the same pass
+     * also validates the document against the interface's XSD. Interfaces with rules the
+     * trie cannot compile fail instead of mapping differently than in DOM mode.
+     */
+    private ProcessedFile processStreaming(MultipartFile file, Interface interfaceEntity) {
         try {
-            DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-            factory.setNamespaceAware(true);
-            DocumentBuilder builder = factory.newDocumentBuilder();
-            Document document = builder.parse(file.getInputStream());
+            List<MappingRule> mappingRules = mappingRuleRepository.findByInterfaceIdAndIsActiveTrue(interfaceEntity.getId());
+            CompiledRulePlan plan = mappingPlanCache.getPlan(interfaceEntity.getId(), mappingRules);
+            if (!plan.getUnsupportedRules().isEmpty()) {
+                return createErrorFile(file, interfaceEntity, plan.getUnsupportedRules().stream()
+                        .map(rule -> "Mapping rule '" + rule.getName() + "' uses path '" + rule.getXmlPath()
+                                + "' which is not streamable")
+                        .collect(Collectors.joining(", ")));
+            }
+
+            Schema schema = null;
+            if (interfaceEntity.getProcessingMode() == ProcessingMode.STREAMING_VALIDATED) {
+                if (interfaceEntity.getSchemaPath() == null || interfaceEntity.getSchemaPath().isBlank()) {
+                    return createErrorFile(file, interfaceEntity, "Interface has no XSD schema to validate against");
+                }
+                schema = schemaCache.getSchema(interfaceEntity.getSchemaPath());
+            }
+
+            StreamingMappingResult result;
+            try (InputStream inputStream = file.getInputStream()) {
+                result = schema != null
+                        ? streamingMappingEngine.process(inputStream, plan, schema)
+                        : streamingMappingEngine.process(inputStream, plan);
+            }
+
+            if (result.getValidation() != null && !result.getValidation().isValid()) {
+                return createErrorFile(file, interfaceEntity,
+                        "XML validation failed against XSD: " + result.getValidation().getErrorMessage());
+            }
+
+            if (result.getRootNamespace() == null || result.getRootNamespace().isEmpty()) {
+                return createErrorFile(file, interfaceEntity, "XML document must have a namespace declaration");
+            }
+            if (result.getRootVersion() == null) {
+                return createErrorFile(file, interfaceEntity, "Root element must have a version attribute");
+            }
 
+            ValueTransformer[] transformers = plan.getTransformers(TransformationRegistry.XML);
+            Map<String, String> mappedValues = new LinkedHashMap<>();
+            List<String> errors = new ArrayList<>();
+            for (int ruleIndex = 0; ruleIndex < plan.getRules().size(); ruleIndex++) {
+                MappingRule rule = plan.getRules().get(ruleIndex);
+                // Like the DOM path, the last of repeated elements wins
+                String value = result.getMatches().last(ruleIndex);
+                if (value == null) {
+                    value = rule.getDefaultValue();
+                }
+                if (value == null) {
+                    if (Boolean.TRUE.equals(rule.getRequired())) {
+                        errors.add("Required element '" + rule.getXmlPath() + "' is missing");
+                    }
+                    continue;
+                }
+                value = transformers[ruleIndex].apply(value);
+                String targetField = rule.getTargetField() != null ? rule.getTargetField() : rule.getDatabaseField();
+                mappedValues.put(targetField, value);
+            }
+
+            if (!errors.isEmpty()) {
+                return createErrorFile(file, interfaceEntity, String.join(", ", errors));
+            }
+
+            ProcessedFile processedFile = new ProcessedFile();
+            processedFile.setFileName(file.getOriginalFilename());
+            processedFile.setStatus("SUCCESS");
+            processedFile.setInterfaceEntity(interfaceEntity);
+            processedFile.setClient(interfaceEntity.getClient());
+            processedFile.setProcessedAt(LocalDateTime.now());
+            processedFile.setContent(mappedValues.toString());
+
+            return processedFileService.createProcessedFile(processedFile);
+        } catch (Exception e) {
+            return createErrorFile(file, interfaceEntity, "Failed to process XML file: " + e.getMessage());
+        }
+    }
+
+    private ProcessedFile createErrorFile(MultipartFile file, Interface interfaceEntity, String errorMessage) {
+        ProcessedFile errorFile = new ProcessedFile();
+        errorFile.setFileName(file.getOriginalFilename());
+        errorFile.setStatus("ERROR");
+        errorFile.setErrorMessage(errorMessage);
+        errorFile.setInterfaceEntity(interfaceEntity);
+        errorFile.setClient(interfaceEntity.getClient());
+        errorFile.setProcessedAt(LocalDateTime.now());
+        return processedFileService.createProcessedFile(errorFile);
+    }
+
+    /**
+     * Applies the interface's mapping rules to the already validated document. Validation
+     * does not modify the DOM, so it is transformed in place instead of being parsed again.
+     */
+    private String transformXmlFile(Document document, Interface interfaceEntity) {
+        try {
             // Get mapping rules for the interface
             List<MappingRule> mappingRules = mappingRuleRepository.findByInterfaceIdAndIsActiveTrue(interfaceEntity.getId());
+            CompiledRulePlan plan = mappingPlanCache.getPlan(interfaceEntity.getId(), mappingRules);
             
+            // Resolve all rules in a single traversal before writing target elements
+            RuleMatches matches = plan.evaluate(document);
+            ValueTransformer[] transformers = plan.getTransformers(TransformationRegistry.XML);
+
             // Apply mapping rules to transform the XML
-            for (MappingRule rule : mappingRules) {
-                String xmlPath = rule.getXmlPath();
-                String targetField = rule.getTargetField();
-                String transformation = rule.getTransformation();
-                
-                // Find the source element using XPath
-                NodeList sourceNodes = (NodeList) xPath.evaluate(xmlPath, document, XPathConstants.NODESET);
-                if (sourceNodes != null && sourceNodes.getLength() > 0) {
-                    for (int i = 0; i < sourceNodes.getLength(); i++) {
-                        Node sourceNode = sourceNodes.item(i);
-                        String value = sourceNode.getTextContent();
-                        
-                        // Apply transformation if specified
-                        if (transformation != null && !transformation.isEmpty()) {
-                            value = applyTransformation(value, transformation);
-                        }
-                        
-                        // Create or update target element
-                        Element targetElement = findOrCreateElement(document, targetField);
-                        targetElement.setTextContent(value);
-                    }
+            for (int ruleIndex = 0; ruleIndex < plan.getRules().size(); ruleIndex++) {
+                MappingRule rule = plan.getRules().get(ruleIndex);
+                if (matches.getError(ruleIndex) != null) {
+                    throw matches.getError(ruleIndex);
                 }
+                if (matches.count(ruleIndex) == 0) {
+                    continue;
+                }
+
+                // Every match is written to the same target element, so the last one wins
+                String value = transformers[ruleIndex].apply(matches.last(ruleIndex));
+
+                // Create or update target element
+                Element targetElement = findOrCreateElement(document, rule.getTargetField());
+                targetElement.setTextContent(value);
             }
 
-            TransformerFactory transformerFactory = TransformerFactory.newInstance();
-            Transformer transformer = transformerFactory.newTransformer();
-            DOMSource source = new DOMSource(document);
-            StringWriter writer = new StringWriter();
-            StreamResult result = new StreamResult(writer);
-            transformer.transform(source, result);
-            return writer.toString();
+            return xmlInfrastructure.serialize(document);
         } catch (Exception e) {
             throw new ValidationException("Failed to transform XML file", e);
         }
@@ -210,46 +313,6 @@ public class XmlProcessingStrategy implements DocumentProcessingStrategy {
         return current;
     }
 
-    private String applyTransformation(String value, String transformation) {
-        // Apply basic transformations
-        switch (transformation.toLowerCase()) {
-            case "uppercase":
-                return value.toUpperCase();
-            case "lowercase":
-                return value.toLowerCase();
-            case "trim":
-                return value.trim();
-            case "date":
-                try {
-                    // Handle common date formats
-                    if (value.matches("\\d{4}-\\d{2}-\\d{2}")) {
-                        return value; // Already in ISO format
-                    } else if (value.matches("\\d{2}/\\d{2}/\\d{4}")) {
-                        String[] parts = value.split("/");
-                        return parts[2] + "-" + parts[0] + "-" + parts[1];
-                    } else if (value.matches("\\d{2}-\\d{2}-\\d{4}")) {
-                        String[] parts = value.split("-");
-                        return parts[2] + "-" + parts[0] + "-" + parts[1];
-                    }
-                    return value; // Return original if format not recognized
-                } catch (Exception e) {
-                    return value; // Return original if transformation fails
-                }
-            case "number":
-                try {
-                    // Remove currency symbols and commas
-                    String cleanValue = value.replaceAll("[^\\d.-]", "");
-                    // Convert to double and format with 2 decimal places
-                    double number = Double.parseDouble(cleanValue);
-                    return String.format("%.2f", number);
-                } catch (Exception e) {
-                    return value; // Return original if transformation fails
-                }
-            default:
-                return value;
-        }
-    }
-
     @Override
     public String getDocumentType() {
         return "XML";
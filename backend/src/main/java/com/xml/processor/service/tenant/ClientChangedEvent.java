@@ -0,0 +1,18 @@
+package com.xml.processor.service.tenant;
+
+/**
+ * Published when a client is created, updated or deleted, so cached copies of it are
+ * dropped once the change is committed.
+ */
+public class ClientChangedEvent {
+
+    private final Long clientId;
+
+    public ClientChangedEvent(Long clientId) {
+        this.clientId = clientId;
+    }
+
+    public Long getClientId() {
+        return clientId;
+    }
+}
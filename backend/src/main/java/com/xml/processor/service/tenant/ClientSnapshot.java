@@ -0,0 +1,65 @@
+package com.xml.processor.service.tenant;
+
+import com.xml.processor.model.Client;
+import com.xml.processor.model.ClientStatus;
+
+/**
+ * Immutable copy of the fields of a client needed to resolve the tenant of a request.
+ * Snapshots are shared between threads through the tenant cache; every request gets a
+ * Client entity of its own from {@link #toClient()}.
+ */
+public final class ClientSnapshot {
+
+    private final Long id;
+    private final String name;
+    private final String code;
+    private final ClientStatus status;
+    private final String description;
+
+    private ClientSnapshot(Long id, String name, String code, ClientStatus status, String description) {
+        this.id = id;
+        this.name = name;
+        this.code = code;
+        this.status = status;
+        this.description = description;
+    }
+
+    public static ClientSnapshot of(Client client) {
+        return new ClientSnapshot(client.getId(), client.getName(), client.getCode(), client.getStatus(),
+                client.getDescription());
+    }
+
+    /**
+     * Returns a new detached Client carrying the snapshot's fields, without its
+     * interfaces and mapping rules.
+     */
+    public Client toClient() {
+        Client client = new Client();
+        client.setId(id);
+        client.setName(name);
+        client.setCode(code);
+        client.setStatus(status);
+        client.setDescription(description);
+        return client;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    public ClientStatus getStatus() {
+        return status;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+}
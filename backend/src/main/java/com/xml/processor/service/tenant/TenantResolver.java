@@ -0,0 +1,110 @@
+package com.xml.processor.service.tenant;
+
+import com.xml.processor.repository.ClientRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Optional;
+
+/**
+ * Resolves the client of a request from the tenant caches instead of the database.
+ * <p>
+ * Clients are cached as {@link ClientSnapshot}s by id in "tenants", codes are mapped to
+ * ids in "tenantCodes", and ids and codes without a client are remembered for a short
+ * while in "unknownTenants", so requests with a stale or forged client header do not
+ * reach the database either. Loads of the same id are collapsed into one query.
+ * <p>
+ * The entries of a client are dropped when ClientServiceImpl commits a change to it. Other
+ * nodes pick the change up once their entries expire, after the expire-after-write of the
+ * tenant caches under app.cache.
+ */
+@Slf4j
+@Component
+public class TenantResolver {
+
+    static final String TENANTS = "tenants";
+    static final String TENANT_CODES = "tenantCodes";
+    static final String UNKNOWN_TENANTS = "unknownTenants";
+
+    private final ClientRepository clientRepository;
+    private final Cache tenants;
+    private final Cache tenantCodes;
+    private final Cache unknownTenants;
+
+    public TenantResolver(ClientRepository clientRepository, CacheManager cacheManager) {
+        this.clientRepository = clientRepository;
+        this.tenants = requireCache(cacheManager, TENANTS);
+        this.tenantCodes = requireCache(cacheManager, TENANT_CODES);
+        this.unknownTenants = requireCache(cacheManager, UNKNOWN_TENANTS);
+    }
+
+    /**
+     * Finds the client with the given id.
+     *
+     * @param clientId The client id
+     * @return The snapshot of the client, or empty if there is no such client
+     */
+    public Optional<ClientSnapshot> findById(Long clientId) {
+        if (unknownTenants.get(clientId) != null) {
+            return Optional.empty();
+        }
+        ClientSnapshot snapshot = tenants.get(clientId,
+                () -> clientRepository.findById(clientId).map(ClientSnapshot::of).orElse(null));
+        if (snapshot == null) {
+            tenants.evict(clientId);
+            unknownTenants.put(clientId, Boolean.TRUE);
+        }
+        return Optional.ofNullable(snapshot);
+    }
+
+    /**
+     * Finds the client with the given code.
+     *
+     * @param code The client code
+     * @return The snapshot of the client, or empty if there is no such client
+     */
+    public Optional<ClientSnapshot> findByCode(String code) {
+        String unknownKey = "code:" + code;
+        if (unknownTenants.get(unknownKey) != null) {
+            return Optional.empty();
+        }
+        Long clientId = tenantCodes.get(code, () -> clientRepository.findByCode(code)
+                .map(client -> {
+                    tenants.put(client.getId(), ClientSnapshot.of(client));
+                    return client.getId();
+                })
+                .orElse(null));
+        if (clientId == null) {
+            tenantCodes.evict(code);
+            unknownTenants.put(unknownKey, Boolean.TRUE);
+            return Optional.empty();
+        }
+        return findById(clientId);
+    }
+
+    /**
+     * Drops the cached entries of a changed client once its change is committed. Codes
+     * and unknown entries are dropped altogether, as the client's former code is not
+     * known here and client changes are rare.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onClientChanged(ClientChangedEvent event) {
+        if (event.getClientId() != null) {
+            tenants.evict(event.getClientId());
+        }
+        tenantCodes.clear();
+        unknownTenants.clear();
+        log.debug("Dropped cached tenant {}", event.getClientId());
+    }
+
+    private static Cache requireCache(CacheManager cacheManager, String name) {
+        Cache cache = cacheManager.getCache(name);
+        if (cache == null) {
+            throw new IllegalStateException("Cache '" + name + "' is not configured");
+        }
+        return cache;
+    }
+}
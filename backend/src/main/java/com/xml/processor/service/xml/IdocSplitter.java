@@ -0,0 +1,105 @@
+package com.xml.processor.service.xml;
+
+import org.springframework.stereotype.Component;
+
+import javax.xml.stream.XMLEventFactory;
+import javax.xml.stream.XMLEventReader;
+import javax.xml.stream.XMLEventWriter;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.events.StartElement;
+import javax.xml.stream.events.XMLEvent;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+
+/**
+ * Streams an IDoc (or any XML document) and emits one standalone document per occurrence
+ * of a split element, e.g. every IDOC of a batched DELVRY07 file.
+ * <p>
+ * Each unit keeps the start tags of the split element's ancestors, so absolute mapping
+ * paths such as /DELVRY07/IDOC/E1EDL20/VBELN still resolve against it. Siblings of those
+ * ancestors are not copied: when splitting below IDOC level the EDI_DC40 control record
+ * is not part of the units.
+ */
+@Component
+public class IdocSplitter {
+
+    private final XmlInfrastructure xmlInfrastructure;
+
+    public IdocSplitter(XmlInfrastructure xmlInfrastructure) {
+        this.xmlInfrastructure = xmlInfrastructure;
+    }
+
+    /**
+     * Callback receiving each split unit as soon as it has been read.
+     */
+    @FunctionalInterface
+    public interface UnitHandler {
+        void onUnit(int index, byte[] unit) throws Exception;
+    }
+
+    /**
+     * Splits the document on every element with the given local name.
+     *
+     * @param inputStream The XML document
+     * @param splitElement Local name of the element that delimits a unit (e.g. IDOC)
+     * @param handler Receives each unit, numbered from 1
+     * @return The number of units emitted; 0 if the split element does not occur
+     * @throws Exception if the document is not well-formed or the handler fails
+     */
+    public int split(InputStream inputStream, String splitElement, UnitHandler handler) throws Exception {
+        XMLEventReader reader = xmlInfrastructure.inputFactory().createXMLEventReader(inputStream);
+        Deque<StartElement> ancestors = new ArrayDeque<>();
+        int units = 0;
+        try {
+            while (reader.hasNext()) {
+                XMLEvent event = reader.nextEvent();
+                if (event.isStartElement()) {
+                    StartElement start = event.asStartElement();
+                    if (splitElement.equals(start.getName().getLocalPart())) {
+                        handler.onUnit(++units, copyUnit(reader, start, ancestors));
+                    } else {
+                        ancestors.push(start);
+                    }
+                } else if (event.isEndElement()) {
+                    ancestors.pop();
+                }
+            }
+        } finally {
+            reader.close();
+        }
+        return units;
+    }
+
+    private byte[] copyUnit(XMLEventReader reader, StartElement unitStart, Deque<StartElement> ancestors)
+            throws XMLStreamException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        XMLEventFactory eventFactory = xmlInfrastructure.eventFactory();
+        XMLEventWriter writer = xmlInfrastructure.outputFactory().createXMLEventWriter(out, "UTF-8");
+        writer.add(eventFactory.createStartDocument("UTF-8", "1.0"));
+        for (Iterator<StartElement> it = ancestors.descendingIterator(); it.hasNext(); ) {
+            writer.add(it.next());
+        }
+        writer.add(unitStart);
+
+        int depth = 1;
+        while (depth > 0 && reader.hasNext()) {
+            XMLEvent event = reader.nextEvent();
+            if (event.isStartElement()) {
+                depth++;
+            } else if (event.isEndElement()) {
+                depth--;
+            }
+            writer.add(event);
+        }
+
+        for (StartElement ancestor : ancestors) {
+            writer.add(eventFactory.createEndElement(ancestor.getName(), null));
+        }
+        writer.add(eventFactory.createEndDocument());
+        writer.close();
+        return out.toByteArray();
+    }
+}
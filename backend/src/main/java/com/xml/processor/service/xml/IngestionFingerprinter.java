@@ -0,0 +1,170 @@
+package com.xml.processor.service.xml;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
+
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Fingerprints uploads so that a file sent twice is recognized before it is processed.
+ * <p>
+ * The content is hashed with SHA-256 while the upload is read. IDocs are fingerprinted by
+ * the client, sender port and partner, DOCNUM and SERIAL of their EDI_DC40 control records
+ * instead, so an IDoc SAP sends again is a duplicate even if the resent file differs in
+ * formatting or in control record fields such as the creation time, while IDocs of two
+ * sending systems that happen to share a DOCNUM are not. Any other document is
+ * fingerprinted by its content hash.
+ */
+@Component
+public class IngestionFingerprinter {
+
+    private static final String CONTROL_RECORD = "EDI_DC40";
+    /** DOCNUM is only unique within the client of one sending system. */
+    private static final List<String> CONTROL_KEYS = List.of("MANDT", "SNDPOR", "SNDPRN", "DOCNUM", "SERIAL");
+    private static final long MAX_PRESIZE = 64L * 1024 * 1024;
+    private static final int MAX_IDOC_NUMBER_LENGTH = 50;
+
+    private final XmlInfrastructure xmlInfrastructure;
+
+    public IngestionFingerprinter(XmlInfrastructure xmlInfrastructure) {
+        this.xmlInfrastructure = xmlInfrastructure;
+    }
+
+    /**
+     * Reads an upload, hashing its content on the way.
+     *
+     * @param file The uploaded file
+     * @return The content and its hash
+     * @throws IOException if the upload cannot be read
+     */
+    public Upload read(MultipartFile file) throws IOException {
+        MessageDigest digest = sha256();
+        ByteArrayOutputStream out = new ByteArrayOutputStream((int) Math.min(Math.max(file.getSize(), 32), MAX_PRESIZE));
+        try (InputStream in = new DigestInputStream(file.getInputStream(), digest)) {
+            in.transferTo(out);
+        }
+        return new Upload(out.toByteArray(), HexFormat.of().formatHex(digest.digest()));
+    }
+
+    /**
+     * Returns the fingerprint of an upload: "IDOC:" with the hash of its IDoc control keys
+     * if it carries control records with a DOCNUM, otherwise "SHA256:" with its content hash.
+     * Only the elements are scanned, the document is neither built nor mapped; a document
+     * that is not well-formed is fingerprinted by its content.
+     *
+     * @param upload The upload read by {@link #read(MultipartFile)}
+     * @return The fingerprint
+     */
+    public Fingerprint fingerprint(Upload upload) {
+        StringBuilder keys = new StringBuilder();
+        String firstNumber = null;
+        try {
+            XMLStreamReader reader = xmlInfrastructure.inputFactory()
+                    .createXMLStreamReader(new ByteArrayInputStream(upload.getContent()));
+            try {
+                Map<String, String> control = new HashMap<>();
+                boolean inControlRecord = false;
+                while (reader.hasNext()) {
+                    int event = reader.next();
+                    if (event == XMLStreamConstants.START_ELEMENT) {
+                        String name = reader.getLocalName();
+                        if (CONTROL_RECORD.equals(name)) {
+                            inControlRecord = true;
+                            control.clear();
+                        } else if (inControlRecord && CONTROL_KEYS.contains(name)) {
+                            control.put(name, reader.getElementText().trim());
+                        }
+                    } else if (event == XMLStreamConstants.END_ELEMENT && inControlRecord
+                            && CONTROL_RECORD.equals(reader.getLocalName())) {
+                        inControlRecord = false;
+                        String docnum = control.get("DOCNUM");
+                        if (docnum != null && !docnum.isEmpty()) {
+                            for (String key : CONTROL_KEYS) {
+                                keys.append(control.getOrDefault(key, "")).append('/');
+                            }
+                            keys.append('\n');
+                            if (firstNumber == null) {
+                                firstNumber = docnum.length() > MAX_IDOC_NUMBER_LENGTH
+                                        ? docnum.substring(0, MAX_IDOC_NUMBER_LENGTH)
+                                        : docnum;
+                            }
+                        }
+                    }
+                }
+            } finally {
+                reader.close();
+            }
+        } catch (XMLStreamException e) {
+            return new Fingerprint("SHA256:" + upload.getContentHash(), null);
+        }
+        if (keys.length() == 0) {
+            return new Fingerprint("SHA256:" + upload.getContentHash(), null);
+        }
+        byte[] hash = sha256().digest(keys.toString().getBytes(StandardCharsets.UTF_8));
+        return new Fingerprint("IDOC:" + HexFormat.of().formatHex(hash), firstNumber);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * The content of an upload and its hex SHA-256 hash.
+     */
+    public static final class Upload {
+        private final byte[] content;
+        private final String contentHash;
+
+        Upload(byte[] content, String contentHash) {
+            this.content = content;
+            this.contentHash = contentHash;
+        }
+
+        public byte[] getContent() {
+            return content;
+        }
+
+        public String getContentHash() {
+            return contentHash;
+        }
+    }
+
+    /**
+     * The fingerprint of an upload and the DOCNUM of its first IDoc, if any.
+     */
+    public static final class Fingerprint {
+        private final String value;
+        private final String idocNumber;
+
+        Fingerprint(String value, String idocNumber) {
+            this.value = value;
+            this.idocNumber = idocNumber;
+        }
+
+        public String getValue() {
+            return value;
+        }
+
+        public String getIdocNumber() {
+            return idocNumber;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.xml.processor.service.xml;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Reuses instances that are expensive to create and not thread-safe, such as parsers and
+ * compiled XPath expressions. Callers acquire an instance, use it on one thread and release
+ * it in a finally block.
+ * <p>
+ * On platform threads each pooled thread keeps an instance of its own, so acquiring and
+ * releasing cost nothing. Virtual threads run a single task each and are never reused, so
+ * an instance confined to one would be created for every task; there a bounded queue shared
+ * by all threads hands instances from task to task instead.
+ */
+public abstract class InstancePool<T> {
+
+    /**
+     * Returns a pool keeping one instance per thread.
+     */
+    public static <T> InstancePool<T> perThread(Supplier<T> factory) {
+        return new PerThread<>(factory);
+    }
+
+    /**
+     * Returns a pool shared by all threads, keeping up to the given number of idle instances.
+     * Acquiring never blocks: an instance is created when none is idle.
+     */
+    public static <T> InstancePool<T> shared(Supplier<T> factory, int maxIdle) {
+        return new Shared<>(factory, maxIdle);
+    }
+
+    /**
+     * Returns an instance for the exclusive use of the calling thread until it is released.
+     */
+    public abstract T acquire();
+
+    /**
+     * Hands an acquired instance back for reuse.
+     */
+    public abstract void release(T instance);
+
+    private static final class PerThread<T> extends InstancePool<T> {
+        private final ThreadLocal<T> instances;
+
+        private PerThread(Supplier<T> factory) {
+            this.instances = ThreadLocal.withInitial(factory);
+        }
+
+        @Override
+        public T acquire() {
+            return instances.get();
+        }
+
+        @Override
+        public void release(T instance) {
+            // Stays with its thread
+        }
+    }
+
+    private static final class Shared<T> extends InstancePool<T> {
+        private final Supplier<T> factory;
+        private final int maxIdle;
+        private final Queue<T> idle = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger idleCount = new AtomicInteger();
+
+        private Shared(Supplier<T> factory, int maxIdle) {
+            this.factory = factory;
+            this.maxIdle = maxIdle;
+        }
+
+        @Override
+        public T acquire() {
+            T instance = idle.poll();
+            if (instance == null) {
+                return factory.get();
+            }
+            idleCount.decrementAndGet();
+            return instance;
+        }
+
+        @Override
+        public void release(T instance) {
+            if (idleCount.incrementAndGet() <= maxIdle) {
+                idle.offer(instance);
+            } else {
+                idleCount.decrementAndGet();
+            }
+        }
+    }
+}
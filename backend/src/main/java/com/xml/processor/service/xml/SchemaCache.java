@@ -0,0 +1,184 @@
+package com.xml.processor.service.xml;
+
+import com.xml.processor.model.Interface;
+import com.xml.processor.repository.InterfaceRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+import org.xml.sax.SAXException;
+
+import javax.xml.transform.stream.StreamSource;
+import javax.xml.validation.Schema;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Collectors;
+
+/**
+ * Cache of compiled XSD schemas keyed by schema path and content hash.
+ * Compiled Schema objects are immutable and thread-safe; callers create a cheap Validator
+ * per validation. Schema paths are resolved on the file system first and then on the
+ * classpath. File based schemas are recompiled only when their content hash changes, which
+ * is checked whenever the file's size or modification time differs from the cached one.
+ */
+@Slf4j
+@Component
+public class SchemaCache {
+
+    private final XmlInfrastructure xmlInfrastructure;
+    private final InterfaceRepository interfaceRepository;
+    private final ConcurrentMap<String, CachedSchema> schemas = new ConcurrentHashMap<>();
+
+    public SchemaCache(XmlInfrastructure xmlInfrastructure, InterfaceRepository interfaceRepository) {
+        this.xmlInfrastructure = xmlInfrastructure;
+        this.interfaceRepository = interfaceRepository;
+    }
+
+    /**
+     * Returns the compiled schema for the given path, compiling it on first use or when the
+     * schema file has changed.
+     *
+     * @param schemaPath File system path or classpath location of the XSD
+     * @return The compiled schema
+     * @throws SAXException if the schema is invalid
+     * @throws IOException if the schema cannot be read
+     */
+    public Schema getSchema(String schemaPath) throws SAXException, IOException {
+        CachedSchema cached = schemas.get(schemaPath);
+        if (cached != null && cached.isCurrent()) {
+            return cached.schema;
+        }
+        try {
+            return schemas.compute(schemaPath, (path, existing) -> {
+                try {
+                    return load(path, existing);
+                } catch (SAXException | IOException e) {
+                    throw new SchemaLoadException(e);
+                }
+            }).schema;
+        } catch (SchemaLoadException e) {
+            if (e.getCause() instanceof SAXException) {
+                throw (SAXException) e.getCause();
+            }
+            throw (IOException) e.getCause();
+        }
+    }
+
+    /**
+     * Drops the compiled schema for the given path so the next lookup recompiles it.
+     *
+     * @param schemaPath The schema path
+     */
+    public void invalidate(String schemaPath) {
+        if (schemaPath != null) {
+            schemas.remove(schemaPath);
+        }
+    }
+
+    /**
+     * Compiles the schemas of all interfaces once the application has started, so the
+     * first file of an interface does not pay for schema compilation.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        Set<String> schemaPaths = interfaceRepository.findAll().stream()
+                .map(Interface::getSchemaPath)
+                .filter(Objects::nonNull)
+                .filter(path -> !path.isBlank())
+                .collect(Collectors.toSet());
+        for (String schemaPath : schemaPaths) {
+            try {
+                getSchema(schemaPath);
+                log.info("Compiled XSD schema {}", schemaPath);
+            } catch (SAXException | IOException e) {
+                log.warn("Could not compile XSD schema {}: {}", schemaPath, e.getMessage());
+            }
+        }
+    }
+
+    private CachedSchema load(String schemaPath, CachedSchema existing) throws SAXException, IOException {
+        File file = new File(schemaPath);
+        if (file.isFile()) {
+            long lastModified = file.lastModified();
+            long length = file.length();
+            if (existing != null && existing.file != null
+                    && existing.lastModified == lastModified && existing.length == length) {
+                return existing;
+            }
+            byte[] content = Files.readAllBytes(file.toPath());
+            String contentHash = sha256(content);
+            if (existing != null && contentHash.equals(existing.contentHash)) {
+                return new CachedSchema(existing.schema, contentHash, file, lastModified, length);
+            }
+            Schema schema = compile(content, file.toURI().toString());
+            return new CachedSchema(schema, contentHash, file, lastModified, length);
+        }
+
+        if (existing != null) {
+            return existing;
+        }
+        ClassPathResource resource = new ClassPathResource(schemaPath);
+        if (!resource.exists()) {
+            throw new FileNotFoundException("XSD schema not found: " + schemaPath);
+        }
+        byte[] content;
+        try (InputStream inputStream = resource.getInputStream()) {
+            content = inputStream.readAllBytes();
+        }
+        Schema schema = compile(content, resource.getURL().toString());
+        return new CachedSchema(schema, sha256(content), null, 0L, 0L);
+    }
+
+    private Schema compile(byte[] content, String systemId) throws SAXException {
+        long start = System.nanoTime();
+        Schema schema = xmlInfrastructure.newSchema(new StreamSource(new ByteArrayInputStream(content), systemId));
+        log.debug("Compiled XSD schema {} in {} ms", systemId, (System.nanoTime() - start) / 1_000_000);
+        return schema;
+    }
+
+    private static String sha256(byte[] content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static final class CachedSchema {
+        private final Schema schema;
+        private final String contentHash;
+        private final File file;
+        private final long lastModified;
+        private final long length;
+
+        private CachedSchema(Schema schema, String contentHash, File file, long lastModified, long length) {
+            this.schema = schema;
+            this.contentHash = contentHash;
+            this.file = file;
+            this.lastModified = lastModified;
+            this.length = length;
+        }
+
+        private boolean isCurrent() {
+            return file == null || (file.lastModified() == lastModified && file.length() == length);
+        }
+    }
+
+    private static final class SchemaLoadException extends RuntimeException {
+        private SchemaLoadException(Exception cause) {
+            super(cause);
+        }
+    }
+}
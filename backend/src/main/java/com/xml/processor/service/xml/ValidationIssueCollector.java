@@ -0,0 +1,71 @@
+package com.xml.processor.service.xml;
+
+import lombok.extern.slf4j.Slf4j;
+import org.xml.sax.ErrorHandler;
+import org.xml.sax.SAXException;
+import org.xml.sax.SAXParseException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * SAX error handler collecting schema errors and warnings with their line and column, so
+ * a single validation pass reports every violation instead of only the first one. Fatal
+ * (well-formedness) errors still abort the parse. One instance per validation.
+ */
+@Slf4j
+public class ValidationIssueCollector implements ErrorHandler {
+
+    private static final int MAX_ISSUES = 100;
+
+    private final List<ValidationResult.Issue> issues = new ArrayList<>();
+    private int dropped;
+
+    @Override
+    public void warning(SAXParseException exception) {
+        add(ValidationResult.Severity.WARNING, exception);
+    }
+
+    @Override
+    public void error(SAXParseException exception) {
+        add(ValidationResult.Severity.ERROR, exception);
+    }
+
+    @Override
+    public void fatalError(SAXParseException exception) throws SAXException {
+        throw exception;
+    }
+
+    /**
+     * Adds an issue that was not reported through the SAX callbacks.
+     */
+    public void addError(String message) {
+        issues.add(ValidationResult.Issue.error(message));
+    }
+
+    /**
+     * Builds the immutable result of the validation.
+     *
+     * @param duration Time the validation took
+     */
+    public ValidationResult toResult(Duration duration) {
+        if (dropped == 0) {
+            return new ValidationResult(issues, duration);
+        }
+        List<ValidationResult.Issue> all = new ArrayList<>(issues);
+        all.add(ValidationResult.Issue.warning("... and " + dropped + " more validation issues"));
+        return new ValidationResult(all, duration);
+    }
+
+    private void add(ValidationResult.Severity severity, SAXParseException exception) {
+        if (issues.size() >= MAX_ISSUES) {
+            dropped++;
+            return;
+        }
+        log.debug("XSD validation {} at line {}, column {}: {}", severity,
+                exception.getLineNumber(), exception.getColumnNumber(), exception.getMessage());
+        issues.add(new ValidationResult.Issue(severity, exception.getMessage(),
+                exception.getLineNumber(), exception.getColumnNumber()));
+    }
+}
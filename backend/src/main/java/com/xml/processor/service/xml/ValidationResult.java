@@ -0,0 +1,122 @@
+package com.xml.processor.service.xml;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Immutable outcome of an XML validation: errors and warnings with their position in the
+ * document when known, and the time the validation took. Instances are safe to share
+ * between threads.
+ */
+public final class ValidationResult {
+
+    /**
+     * Severity of a validation issue.
+     */
+    public enum Severity {
+        ERROR,
+        WARNING
+    }
+
+    /**
+     * A single validation issue. Line and column are -1 when the position is unknown,
+     * e.g. for checks that run against a DOM.
+     */
+    public static final class Issue {
+        private final Severity severity;
+        private final String message;
+        private final int line;
+        private final int column;
+
+        public Issue(Severity severity, String message, int line, int column) {
+            this.severity = severity;
+            this.message = message;
+            this.line = line;
+            this.column = column;
+        }
+
+        public static Issue error(String message) {
+            return new Issue(Severity.ERROR, message, -1, -1);
+        }
+
+        public static Issue warning(String message) {
+            return new Issue(Severity.WARNING, message, -1, -1);
+        }
+
+        public Severity getSeverity() {
+            return severity;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        public int getLine() {
+            return line;
+        }
+
+        public int getColumn() {
+            return column;
+        }
+
+        @Override
+        public String toString() {
+            if (line < 0) {
+                return message;
+            }
+            return "Line " + line + ", column " + column + ": " + message;
+        }
+    }
+
+    private final List<Issue> errors;
+    private final List<Issue> warnings;
+    private final Duration duration;
+
+    public ValidationResult(List<Issue> issues, Duration duration) {
+        List<Issue> errorList = new ArrayList<>();
+        List<Issue> warningList = new ArrayList<>();
+        for (Issue issue : issues) {
+            (issue.getSeverity() == Severity.ERROR ? errorList : warningList).add(issue);
+        }
+        this.errors = Collections.unmodifiableList(errorList);
+        this.warnings = Collections.unmodifiableList(warningList);
+        this.duration = duration;
+    }
+
+    public static ValidationResult valid(Duration duration) {
+        return new ValidationResult(List.of(), duration);
+    }
+
+    public static ValidationResult invalid(String message, Duration duration) {
+        return new ValidationResult(List.of(Issue.error(message)), duration);
+    }
+
+    public boolean isValid() {
+        return errors.isEmpty();
+    }
+
+    public List<Issue> getErrors() {
+        return errors;
+    }
+
+    public List<Issue> getWarnings() {
+        return warnings;
+    }
+
+    public Duration getDuration() {
+        return duration;
+    }
+
+    /**
+     * Returns all error messages joined into one string, or null if the result is valid.
+     */
+    public String getErrorMessage() {
+        if (errors.isEmpty()) {
+            return null;
+        }
+        return errors.stream().map(Issue::toString).collect(Collectors.joining(", "));
+    }
+}
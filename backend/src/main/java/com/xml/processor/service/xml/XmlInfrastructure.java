@@ -0,0 +1,315 @@
+package com.xml.processor.service.xml;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import org.w3c.dom.Document;
+import org.xml.sax.ContentHandler;
+import org.xml.sax.ErrorHandler;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+
+import javax.xml.XMLConstants;
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.parsers.SAXParser;
+import javax.xml.parsers.SAXParserFactory;
+import javax.xml.stream.XMLEventFactory;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.transform.Source;
+import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerConfigurationException;
+import javax.xml.transform.TransformerException;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.stream.StreamResult;
+import javax.xml.validation.Schema;
+import javax.xml.validation.SchemaFactory;
+import javax.xml.xpath.XPath;
+import javax.xml.xpath.XPathExpression;
+import javax.xml.xpath.XPathExpressionException;
+import javax.xml.xpath.XPathFactory;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringWriter;
+import java.util.function.Supplier;
+
+/**
+ * Shared XML infrastructure: factories are looked up and configured once, and the
+ * non-thread-safe DocumentBuilder, SAXParser, Transformer, SchemaFactory and XPath instances are
+ * reused through {@link InstancePool}s and reset before reuse. The pools keep an instance per
+ * thread, or with spring.threads.virtual.enabled a bounded set shared by all threads, so the
+ * instances still outlive the virtual thread of a single file.
+ * <p>
+ * All factories use secure processing: DOCTYPE declarations are rejected for parsed
+ * documents, and external DTDs and entities are never resolved. Schemas may import other
+ * schemas from the local file system only.
+ */
+@Slf4j
+@Component
+public class XmlInfrastructure {
+
+    private static final String MAX_OCCUR_LIMIT = "jdk.xml.maxOccurLimit";
+
+    private final DocumentBuilderFactory documentBuilderFactory;
+    private final DocumentBuilderFactory validatingBuilderFactory;
+    private final TransformerFactory transformerFactory;
+    private final SAXParserFactory saxParserFactory;
+    private final XMLInputFactory inputFactory;
+    private final XMLOutputFactory outputFactory;
+    private final XMLEventFactory eventFactory;
+
+    private final boolean shared;
+    private final int maxIdle;
+    private final InstancePool<DocumentBuilder> documentBuilders;
+    private final InstancePool<DocumentBuilder> validatingBuilders;
+    private final InstancePool<Transformer> transformers;
+    private final InstancePool<SAXParser> saxParsers;
+    private final InstancePool<SchemaFactory> schemaFactories;
+    private final InstancePool<XPath> xPaths;
+
+    public XmlInfrastructure() {
+        this(false, 0);
+    }
+
+    @Autowired
+    public XmlInfrastructure(Environment environment,
+                             @Value("${app.threads.instance-pool.max-idle:0}") int maxIdle) {
+        this(Threading.VIRTUAL.isActive(environment), maxIdle);
+    }
+
+    /**
+     * @param shared Whether to share instances between threads instead of keeping one per thread
+     * @param maxIdle Instances of each kind kept for reuse when shared (0 = four per CPU core)
+     */
+    XmlInfrastructure(boolean shared, int maxIdle) {
+        this.shared = shared;
+        this.maxIdle = maxIdle > 0 ? maxIdle : Runtime.getRuntime().availableProcessors() * 4;
+        this.documentBuilderFactory = createDocumentBuilderFactory(false);
+        this.validatingBuilderFactory = createDocumentBuilderFactory(true);
+        this.transformerFactory = createTransformerFactory();
+        this.saxParserFactory = createSaxParserFactory();
+
+        this.inputFactory = XMLInputFactory.newInstance();
+        this.inputFactory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, true);
+        this.inputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        this.inputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        this.outputFactory = XMLOutputFactory.newInstance();
+        this.eventFactory = XMLEventFactory.newInstance();
+
+        this.documentBuilders = newPool(() -> newDocumentBuilder(documentBuilderFactory));
+        this.validatingBuilders = newPool(() -> newDocumentBuilder(validatingBuilderFactory));
+        this.transformers = newPool(this::newTransformer);
+        this.saxParsers = newPool(this::newSaxParser);
+        this.schemaFactories = newPool(XmlInfrastructure::createSchemaFactory);
+        this.xPaths = newPool(() -> XPathFactory.newInstance().newXPath());
+    }
+
+    /**
+     * Returns a pool for instances of another non-thread-safe type, per thread or shared
+     * like the pools of this infrastructure.
+     */
+    public <T> InstancePool<T> newPool(Supplier<T> factory) {
+        return shared ? InstancePool.shared(factory, maxIdle) : InstancePool.perThread(factory);
+    }
+
+    /**
+     * Parses a document with a namespace-aware DocumentBuilder.
+     */
+    public Document parse(InputStream inputStream) throws SAXException, IOException {
+        return parse(new InputSource(inputStream));
+    }
+
+    /**
+     * Parses a document with a namespace-aware DocumentBuilder.
+     */
+    public Document parse(InputSource inputSource) throws SAXException, IOException {
+        DocumentBuilder builder = documentBuilders.acquire();
+        try {
+            builder.reset();
+            return builder.parse(inputSource);
+        } finally {
+            documentBuilders.release(builder);
+        }
+    }
+
+    /**
+     * Parses a document with a DTD-validating DocumentBuilder.
+     */
+    public Document parseValidating(InputStream inputStream) throws SAXException, IOException {
+        DocumentBuilder builder = validatingBuilders.acquire();
+        try {
+            builder.reset();
+            return builder.parse(inputStream);
+        } finally {
+            validatingBuilders.release(builder);
+        }
+    }
+
+    /**
+     * Parses a document with a namespace-aware SAXParser, passing its events to the handlers.
+     */
+    public void parse(InputSource inputSource, ContentHandler contentHandler, ErrorHandler errorHandler)
+            throws SAXException, IOException {
+        SAXParser parser = saxParsers.acquire();
+        try {
+            parser.reset();
+            XMLReader xmlReader = parser.getXMLReader();
+            xmlReader.setContentHandler(contentHandler);
+            xmlReader.setErrorHandler(errorHandler);
+            xmlReader.parse(inputSource);
+        } finally {
+            saxParsers.release(parser);
+        }
+    }
+
+    /**
+     * Serializes a DOM document to a string.
+     */
+    public String serialize(Document document) throws TransformerException {
+        Transformer transformer = transformers.acquire();
+        try {
+            transformer.reset();
+            StringWriter writer = new StringWriter();
+            transformer.transform(new DOMSource(document), new StreamResult(writer));
+            return writer.toString();
+        } finally {
+            transformers.release(transformer);
+        }
+    }
+
+    /**
+     * Compiles a W3C XML Schema.
+     */
+    public Schema newSchema(Source source) throws SAXException {
+        SchemaFactory factory = schemaFactories.acquire();
+        try {
+            return factory.newSchema(source);
+        } finally {
+            schemaFactories.release(factory);
+        }
+    }
+
+    /**
+     * Compiles an XPath expression. The expression is not thread-safe either.
+     */
+    public XPathExpression compileXPath(String expression) throws XPathExpressionException {
+        XPath xPath = xPaths.acquire();
+        try {
+            xPath.reset();
+            return xPath.compile(expression);
+        } finally {
+            xPaths.release(xPath);
+        }
+    }
+
+    /**
+     * StAX input factory; thread-safe once configured.
+     */
+    public XMLInputFactory inputFactory() {
+        return inputFactory;
+    }
+
+    /**
+     * StAX output factory; thread-safe once configured.
+     */
+    public XMLOutputFactory outputFactory() {
+        return outputFactory;
+    }
+
+    public XMLEventFactory eventFactory() {
+        return eventFactory;
+    }
+
+    private static DocumentBuilderFactory createDocumentBuilderFactory(boolean validating) {
+        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+        factory.setNamespaceAware(true);
+        factory.setValidating(validating);
+        factory.setExpandEntityReferences(false);
+        factory.setXIncludeAware(false);
+        try {
+            factory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+            if (!validating) {
+                factory.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
+            }
+            factory.setFeature("http://xml.org/sax/features/external-general-entities", false);
+            factory.setFeature("http://xml.org/sax/features/external-parameter-entities", false);
+        } catch (ParserConfigurationException e) {
+            log.warn("XML parser does not support a secure processing feature: {}", e.getMessage());
+        }
+        factory.setAttribute(XMLConstants.ACCESS_EXTERNAL_DTD, "");
+        factory.setAttribute(XMLConstants.ACCESS_EXTERNAL_SCHEMA, "");
+        return factory;
+    }
+
+    private static SAXParserFactory createSaxParserFactory() {
+        SAXParserFactory factory = SAXParserFactory.newInstance();
+        factory.setNamespaceAware(true);
+        factory.setXIncludeAware(false);
+        try {
+            factory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+            factory.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
+            factory.setFeature("http://xml.org/sax/features/external-general-entities", false);
+            factory.setFeature("http://xml.org/sax/features/external-parameter-entities", false);
+        } catch (ParserConfigurationException | SAXException e) {
+            log.warn("SAX parser does not support a secure processing feature: {}", e.getMessage());
+        }
+        return factory;
+    }
+
+    private static TransformerFactory createTransformerFactory() {
+        TransformerFactory factory = TransformerFactory.newInstance();
+        try {
+            factory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+        } catch (TransformerConfigurationException e) {
+            log.warn("XML transformer does not support secure processing: {}", e.getMessage());
+        }
+        factory.setAttribute(XMLConstants.ACCESS_EXTERNAL_DTD, "");
+        factory.setAttribute(XMLConstants.ACCESS_EXTERNAL_STYLESHEET, "");
+        return factory;
+    }
+
+    private static SchemaFactory createSchemaFactory() {
+        SchemaFactory factory = SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI);
+        try {
+            factory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+            factory.setProperty(XMLConstants.ACCESS_EXTERNAL_DTD, "");
+            factory.setProperty(XMLConstants.ACCESS_EXTERNAL_SCHEMA, "file");
+            // SAP IDoc schemas such as DELVRY07 declare large maxOccurs values on their segments
+            factory.setProperty(MAX_OCCUR_LIMIT, 0);
+        } catch (SAXException e) {
+            log.warn("Schema factory does not support a secure processing feature: {}", e.getMessage());
+        }
+        return factory;
+    }
+
+    private static DocumentBuilder newDocumentBuilder(DocumentBuilderFactory factory) {
+        try {
+            return factory.newDocumentBuilder();
+        } catch (ParserConfigurationException e) {
+            throw new IllegalStateException("Failed to create XML document builder", e);
+        }
+    }
+
+    private SAXParser newSaxParser() {
+        try {
+            return saxParserFactory.newSAXParser();
+        } catch (ParserConfigurationException | SAXException e) {
+            throw new IllegalStateException("Failed to create SAX parser", e);
+        }
+    }
+
+    private Transformer newTransformer() {
+        try {
+            return transformerFactory.newTransformer();
+        } catch (TransformerConfigurationException e) {
+            throw new IllegalStateException("Failed to create XML transformer", e);
+        }
+    }
+}
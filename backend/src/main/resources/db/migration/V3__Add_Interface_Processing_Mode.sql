@@ -0,0 +1,2 @@
+-- Adds the per-interface processing mode (DOM or STREAMING)
+ALTER TABLE interfaces ADD COLUMN IF NOT EXISTS processing_mode VARCHAR(20) NOT NULL DEFAULT 'DOM';
@@ -0,0 +1,2 @@
+-- Adds the optional element on which interface documents are split into units of work
+ALTER TABLE interfaces ADD COLUMN IF NOT EXISTS split_element VARCHAR(100);
@@ -0,0 +1,35 @@
+-- Durable queue of uploaded files. A job is owned by the node holding its lease; jobs whose
+-- lease expired are claimed by another node. Payloads are kept for recovery and reprocessing
+-- and shared by the jobs reprocessing the same file.
+CREATE TABLE IF NOT EXISTS processing_job_payloads (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    content_type VARCHAR(100),
+    content BLOB NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE IF NOT EXISTS processing_jobs (
+    id VARCHAR(36) PRIMARY KEY,
+    interface_id BIGINT NOT NULL,
+    client_id BIGINT,
+    payload_id BIGINT NOT NULL,
+    file_name VARCHAR(255) NOT NULL,
+    file_size BIGINT NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    attempts INT NOT NULL DEFAULT 0,
+    lease_owner VARCHAR(100),
+    lease_expires_at TIMESTAMP,
+    source_processed_file_id BIGINT,
+    processed_file_id BIGINT,
+    result_status VARCHAR(50),
+    error_message VARCHAR(1000),
+    submitted_at TIMESTAMP NOT NULL,
+    started_at TIMESTAMP,
+    completed_at TIMESTAMP,
+    FOREIGN KEY (interface_id) REFERENCES interfaces(id),
+    FOREIGN KEY (payload_id) REFERENCES processing_job_payloads(id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_processing_jobs_status_lease ON processing_jobs(status, lease_expires_at);
+CREATE INDEX IF NOT EXISTS idx_processing_jobs_processed_file_id ON processing_jobs(processed_file_id);
+CREATE INDEX IF NOT EXISTS idx_processing_jobs_payload_id ON processing_jobs(payload_id);
@@ -0,0 +1,4 @@
+-- Bulk reprocessing walks the files of a status in id order and skips files that already
+-- have a reprocessing job
+CREATE INDEX IF NOT EXISTS idx_processed_files_status_id ON processed_files(status, id);
+CREATE INDEX IF NOT EXISTS idx_processing_jobs_source_processed_file_id ON processing_jobs(source_processed_file_id);
@@ -0,0 +1,13 @@
+-- Uploads are fingerprinted so that a file sent again, e.g. an IDoc SAP resends after a
+-- timeout, is answered with the job of the first upload instead of being processed twice
+ALTER TABLE processing_job_payloads ADD COLUMN IF NOT EXISTS client_id BIGINT;
+ALTER TABLE processing_job_payloads ADD COLUMN IF NOT EXISTS interface_id BIGINT;
+ALTER TABLE processing_job_payloads ADD COLUMN IF NOT EXISTS content_hash VARCHAR(64);
+ALTER TABLE processing_job_payloads ADD COLUMN IF NOT EXISTS fingerprint VARCHAR(80);
+ALTER TABLE processing_job_payloads ADD COLUMN IF NOT EXISTS idoc_number VARCHAR(50);
+
+-- Payloads stored before fingerprinting have NULL fingerprints and never collide
+CREATE UNIQUE INDEX IF NOT EXISTS uk_processing_job_payloads_fingerprint
+    ON processing_job_payloads(client_id, interface_id, fingerprint);
+CREATE INDEX IF NOT EXISTS idx_processing_job_payloads_content_hash
+    ON processing_job_payloads(client_id, interface_id, content_hash);
@@ -0,0 +1,6 @@
+-- Listings seek on (processed_at, id) and (created_at, id) instead of paging with an
+-- offset; the indexes serve both the seek predicate and the ordering. The audit_logs
+-- table is generated from its entity, which declares its indexes itself
+CREATE INDEX IF NOT EXISTS idx_processed_files_processed_at_id ON processed_files(processed_at, id);
+CREATE INDEX IF NOT EXISTS idx_processed_files_status_processed_at_id ON processed_files(status, processed_at, id);
+CREATE INDEX IF NOT EXISTS idx_processed_files_client_processed_at_id ON processed_files(client_id, processed_at, id);
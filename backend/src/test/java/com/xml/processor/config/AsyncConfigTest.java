@@ -0,0 +1,55 @@
+package com.xml.processor.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+public class AsyncConfigTest {
+
+    private final AsyncConfig config = new AsyncConfig();
+
+    @Test
+    void testUsesBoundedPoolsOnPlatformThreads() {
+        MockEnvironment environment = new MockEnvironment();
+
+        ThreadPoolTaskExecutor files = assertInstanceOf(ThreadPoolTaskExecutor.class, config.taskExecutor(environment, 3));
+        ThreadPoolTaskExecutor units = assertInstanceOf(ThreadPoolTaskExecutor.class,
+                config.documentSplitExecutor(environment, 2));
+        try {
+            assertEquals(3, files.getMaxPoolSize());
+            assertEquals(2, units.getMaxPoolSize());
+        } finally {
+            files.shutdown();
+            units.shutdown();
+        }
+    }
+
+    @Test
+    void testRunsEveryTaskOnAVirtualThreadWhenEnabled() throws Exception {
+        assumeTrue(Runtime.version().feature() >= 21, "Virtual threads need Java 21");
+        MockEnvironment environment = new MockEnvironment().withProperty("spring.threads.virtual.enabled", "true");
+
+        Executor files = config.taskExecutor(environment, 3);
+        Executor units = config.documentSplitExecutor(environment, 2);
+
+        assertInstanceOf(SimpleAsyncTaskExecutor.class, files);
+        assertInstanceOf(SimpleAsyncTaskExecutor.class, units);
+        assertTrue(runsOnVirtualThread(files));
+        assertTrue(runsOnVirtualThread(units));
+    }
+
+    private static boolean runsOnVirtualThread(Executor executor) throws Exception {
+        CompletableFuture<Thread> thread = new CompletableFuture<>();
+        executor.execute(() -> thread.complete(Thread.currentThread()));
+        // Thread.isVirtual is not available on the Java 17 the application is compiled for
+        return (Boolean) Thread.class.getMethod("isVirtual").invoke(thread.get(5, TimeUnit.SECONDS));
+    }
+}
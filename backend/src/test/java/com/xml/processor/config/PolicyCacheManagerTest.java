@@ -0,0 +1,83 @@
+package com.xml.processor.config;
+
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.caffeine.CaffeineCache;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PolicyCacheManagerTest {
+
+    @Test
+    void testAppliesPerCachePolicyOverDefaults() {
+        CachePolicyProperties properties = new CachePolicyProperties();
+        properties.getDefaults().setMaximumSize(100L);
+        properties.getDefaults().setExpireAfterWrite(Duration.ofMinutes(10));
+        CachePolicyProperties.Policy interfaces = new CachePolicyProperties.Policy();
+        interfaces.setMaximumWeight(50L);
+        interfaces.setExpireAfterAccess(Duration.ofMinutes(1));
+        properties.setCaches(Map.of("Interfaces", interfaces));
+
+        PolicyCacheManager manager = new PolicyCacheManager(properties, Map.of(), null);
+        manager.setCacheNames(List.of("clients", "interfaces"));
+
+        var clients = nativeCache(manager, "clients").policy();
+        assertEquals(100L, clients.eviction().orElseThrow().getMaximum());
+        assertEquals(Duration.ofMinutes(10), clients.expireAfterWrite().orElseThrow().getExpiresAfter());
+
+        var interfacesPolicy = nativeCache(manager, "interfaces").policy();
+        assertTrue(interfacesPolicy.eviction().orElseThrow().isWeighted());
+        assertEquals(50L, interfacesPolicy.eviction().orElseThrow().getMaximum());
+        assertEquals(Duration.ofMinutes(10), interfacesPolicy.expireAfterWrite().orElseThrow().getExpiresAfter());
+        assertEquals(Duration.ofMinutes(1), interfacesPolicy.expireAfterAccess().orElseThrow().getExpiresAfter());
+    }
+
+    @Test
+    void testRecordsStatisticsAndPublishesThem() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        PolicyCacheManager manager = new PolicyCacheManager(new CachePolicyProperties(), Map.of(), registry);
+        manager.setCacheNames(List.of("clients"));
+
+        var cache = manager.getCache("clients");
+        cache.put(1L, "ACME");
+        cache.get(1L);
+        cache.get(2L);
+
+        var stats = nativeCache(manager, "clients").stats();
+        assertEquals(1, stats.hitCount());
+        assertEquals(1, stats.missCount());
+        assertNotNull(registry.find("cache.gets").tag("cache", "clients").tag("result", "hit").functionCounter());
+    }
+
+    @Test
+    void testRefreshesCachesWithLoader() throws Exception {
+        CachePolicyProperties properties = new CachePolicyProperties();
+        properties.getDefaults().setRefreshAfterWrite(Duration.ofMinutes(1));
+        CacheLoader<Object, Object> loader = key -> "loaded-" + key;
+        PolicyCacheManager manager = new PolicyCacheManager(properties, Map.of("tenants", loader), null);
+        manager.setCacheNames(List.of("tenants", "clients"));
+
+        var tenants = nativeCache(manager, "tenants");
+        assertInstanceOf(LoadingCache.class, tenants);
+        assertTrue(tenants.policy().refreshAfterWrite().isPresent());
+        assertEquals("loaded-7", manager.getCache("tenants").get(7L).get());
+        assertFalse(nativeCache(manager, "clients").policy().refreshAfterWrite().isPresent());
+    }
+
+    @Test
+    void testWeighsCollectionsByTheirSize() {
+        assertEquals(3, PolicyCacheManager.weigh(List.of(1, 2, 3)));
+        assertEquals(1, PolicyCacheManager.weigh(List.of()));
+        assertEquals(1, PolicyCacheManager.weigh("value"));
+    }
+
+    private static com.github.benmanes.caffeine.cache.Cache<Object, Object> nativeCache(PolicyCacheManager manager, String name) {
+        return ((CaffeineCache) manager.getCache(name)).getNativeCache();
+    }
+}
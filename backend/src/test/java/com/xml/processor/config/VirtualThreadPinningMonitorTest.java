@@ -0,0 +1,63 @@
+package com.xml.processor.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+public class VirtualThreadPinningMonitorTest {
+
+    private static final Object LOCK = new Object();
+
+    @Test
+    void testStartsAndStopsWithoutPinnedThreads() {
+        VirtualThreadPinningMonitor monitor = new VirtualThreadPinningMonitor(Duration.ofMillis(20));
+
+        monitor.afterPropertiesSet();
+        try {
+            assertTrue(monitor.getPinnedCounts().isEmpty());
+        } finally {
+            monitor.destroy();
+        }
+    }
+
+    @Test
+    void testCountsPinnedVirtualThreadsByLocation() throws Exception {
+        int feature = Runtime.version().feature();
+        assumeTrue(feature >= 21 && feature < 24, "synchronized pins virtual threads on Java 21 to 23");
+        VirtualThreadPinningMonitor monitor = new VirtualThreadPinningMonitor(Duration.ZERO);
+        monitor.afterPropertiesSet();
+        try {
+            // Executors.newVirtualThreadPerTaskExecutor is not available on Java 17
+            ExecutorService executor = (ExecutorService) Executors.class
+                    .getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+            executor.submit(VirtualThreadPinningMonitorTest::sleepWhileHoldingLock).get(5, TimeUnit.SECONDS);
+            executor.submit(VirtualThreadPinningMonitorTest::sleepWhileHoldingLock).get(5, TimeUnit.SECONDS);
+            executor.shutdown();
+
+            String location = VirtualThreadPinningMonitorTest.class.getName() + ".sleepWhileHoldingLock";
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (monitor.getPinnedCounts().getOrDefault(location, 0L) < 2 && System.nanoTime() < deadline) {
+                Thread.sleep(50);
+            }
+            assertEquals(2L, monitor.getPinnedCounts().get(location), monitor.getPinnedCounts().toString());
+        } finally {
+            monitor.destroy();
+        }
+    }
+
+    private static void sleepWhileHoldingLock() {
+        synchronized (LOCK) {
+            try {
+                Thread.sleep(30);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
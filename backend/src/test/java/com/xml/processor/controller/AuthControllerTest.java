@@ -3,10 +3,14 @@ package com.xml.processor.controller;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.xml.processor.dto.LoginRequest;
 import com.xml.processor.security.RateLimiter;
+import com.xml.processor.security.model.VerifiedToken;
+import com.xml.processor.security.service.AuthenticatedPrincipalCache;
 import com.xml.processor.security.service.CsrfTokenService;
 import com.xml.processor.security.service.JwtService;
 import com.xml.processor.security.service.impl.InMemoryJwtBlacklistService;
 import com.xml.processor.service.impl.SecurityLoggerServiceImpl;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -65,6 +69,9 @@ public class AuthControllerTest {
     @MockBean
     private CsrfTokenService csrfTokenService;
 
+    @MockBean
+    private AuthenticatedPrincipalCache principalCache;
+
     private UserDetails userDetails;
     private String testToken;
     private Authentication authentication;
@@ -77,7 +84,8 @@ public class AuthControllerTest {
 
         when(userDetailsService.loadUserByUsername("testuser")).thenReturn(userDetails);
         when(jwtService.generateToken(any(UserDetails.class))).thenReturn(testToken);
-        when(jwtService.isTokenValid(any(), any())).thenReturn(true);
+        when(jwtService.isTokenValid(any(String.class), any())).thenReturn(true);
+        when(jwtService.isTokenValid(any(VerifiedToken.class), any())).thenReturn(true);
         when(authenticationManager.authenticate(any())).thenReturn(authentication);
         when(rateLimiter.checkRateLimit(any())).thenReturn(true);
         when(jwtBlacklistService.isBlacklisted(any())).thenReturn(false);
@@ -131,6 +139,9 @@ public class AuthControllerTest {
     @Test
     void testRefreshToken() throws Exception {
         String newToken = "new-test-token";
+        Claims claims = Jwts.claims().setSubject("testuser");
+        claims.put("type", "REFRESH");
+        when(jwtService.verify(testToken)).thenReturn(VerifiedToken.of(claims));
         when(jwtService.generateToken(userDetails)).thenReturn(newToken);
 
         mockMvc.perform(post("/api/auth/refresh")
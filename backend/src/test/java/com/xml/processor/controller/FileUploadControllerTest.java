@@ -0,0 +1,105 @@
+package com.xml.processor.controller;
+
+import com.xml.processor.model.JobStatus;
+import com.xml.processor.model.ProcessingJob;
+import com.xml.processor.service.concurrency.TenantFairScheduler;
+import com.xml.processor.service.interfaces.BulkReprocessService;
+import com.xml.processor.service.interfaces.ProcessingJobService;
+import com.xml.processor.service.interfaces.XmlProcessorService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+public class FileUploadControllerTest {
+
+    private static final String JOB_ID = "5f0c6a4e-2d1b-4c8e-9a57-0b3e7f1d2c44";
+
+    private ProcessingJobService processingJobService;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        processingJobService = mock(ProcessingJobService.class);
+        FileUploadController controller = new FileUploadController(mock(XmlProcessorService.class), processingJobService,
+                mock(TenantFairScheduler.class), mock(BulkReprocessService.class));
+        mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+    }
+
+    @Test
+    void testAcceptsUploadWithItsJobBeforeItIsProcessed() throws Exception {
+        when(processingJobService.submit(any(), eq(3L))).thenReturn(job(JobStatus.QUEUED));
+
+        mockMvc.perform(multipart("/api/files/upload/3").file(upload()))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "http://localhost/api/files/jobs/" + JOB_ID))
+                .andExpect(jsonPath("$.id").value(JOB_ID))
+                .andExpect(jsonPath("$.status").value("QUEUED"));
+    }
+
+    @Test
+    void testAnswersDuplicateUploadWithJobOfEarlierUpload() throws Exception {
+        ProcessingJob job = job(JobStatus.COMPLETED);
+        job.setDuplicate(true);
+        when(processingJobService.submit(any(), eq(3L))).thenReturn(job);
+
+        mockMvc.perform(multipart("/api/files/upload/3").file(upload()))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Location", "http://localhost/api/files/jobs/" + JOB_ID))
+                .andExpect(jsonPath("$.status").value("COMPLETED"));
+    }
+
+    @Test
+    void testReturnsJobStatus() throws Exception {
+        when(processingJobService.getJob(JOB_ID)).thenReturn(Optional.of(job(JobStatus.RUNNING)));
+
+        mockMvc.perform(get("/api/files/jobs/" + JOB_ID))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("RUNNING"));
+        mockMvc.perform(get("/api/files/jobs/unknown"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testStreamsJobOnceItIsFinished() throws Exception {
+        CompletableFuture<ProcessingJob> completion = new CompletableFuture<>();
+        when(processingJobService.getCompletion(JOB_ID)).thenReturn(Optional.of(completion));
+
+        MvcResult result = mockMvc.perform(get("/api/files/jobs/" + JOB_ID + "/events"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        assertEquals("", result.getResponse().getContentAsString(), "Nothing is sent while the job runs");
+
+        completion.complete(job(JobStatus.COMPLETED));
+
+        String events = result.getResponse().getContentAsString();
+        assertTrue(events.startsWith("event:job\n"), events);
+        assertTrue(events.contains("\"status\":\"COMPLETED\""), events);
+        mockMvc.perform(get("/api/files/jobs/unknown/events"))
+                .andExpect(status().isNotFound());
+    }
+
+    private static ProcessingJob job(JobStatus status) {
+        ProcessingJob job = new ProcessingJob(JOB_ID, 3L, 1L, 7L, "delivery.xml", 28);
+        job.setStatus(status);
+        return job;
+    }
+
+    private static MockMultipartFile upload() {
+        return new MockMultipartFile("file", "delivery.xml", "application/xml",
+                "<DELVRY07><IDOC/></DELVRY07>".getBytes(StandardCharsets.UTF_8));
+    }
+}
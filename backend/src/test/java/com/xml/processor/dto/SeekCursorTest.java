@@ -0,0 +1,54 @@
+package com.xml.processor.dto;
+
+import com.xml.processor.exception.ValidationException;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SeekCursorTest {
+
+    @Test
+    void testRoundTripsPosition() {
+        LocalDateTime processedAt = LocalDateTime.of(2024, 3, 1, 10, 15, 30, 123456000);
+        String encoded = new SeekCursor(processedAt, 42L).encode();
+
+        SeekCursor decoded = SeekCursor.decode(encoded, false);
+
+        assertEquals(processedAt, decoded.getTimestamp());
+        assertEquals(42L, decoded.getId());
+        assertFalse(encoded.contains("="), "Cursors are URL-safe without padding");
+    }
+
+    @Test
+    void testStartsBeforeFirstRowAndRejectsForeignCursors() {
+        assertEquals(Long.MAX_VALUE, SeekCursor.decode(null, false).getId());
+        assertEquals(Long.MIN_VALUE, SeekCursor.decode(" ", true).getId());
+        assertTrue(SeekCursor.start(true).getTimestamp().isBefore(SeekCursor.start(false).getTimestamp()));
+
+        assertThrows(ValidationException.class, () -> SeekCursor.decode("not-a-cursor", false));
+        assertThrows(ValidationException.class, () -> SeekCursor.decode("MjAyNA", false));
+    }
+
+    @Test
+    void testPageTellsNextFromExtraRow() {
+        LocalDateTime now = LocalDateTime.of(2024, 3, 1, 10, 0);
+        List<Long> rows = List.of(5L, 4L, 3L);
+
+        CursorPage<Long> page = CursorPage.of(rows, 2, null, id -> new SeekCursor(now, id), null);
+        assertEquals(List.of(5L, 4L), page.getContent());
+        assertTrue(page.isHasNext());
+        assertEquals(4L, SeekCursor.decode(page.getNextCursor(), false).getId());
+
+        CursorPage<Long> last = CursorPage.of(List.of(3L), 2, page.getNextCursor(), id -> new SeekCursor(now, id), null);
+        assertFalse(last.isHasNext());
+        assertEquals(3L, SeekCursor.decode(last.getNextCursor(), false).getId());
+
+        CursorPage<Long> empty = CursorPage.of(List.of(), 2, last.getNextCursor(), id -> new SeekCursor(now, id), null);
+        assertEquals(last.getNextCursor(), empty.getNextCursor(), "An empty page keeps the requested cursor");
+        assertEquals(1, CursorPage.pageSize(0));
+        assertEquals(CursorPage.MAX_SIZE, CursorPage.pageSize(100_000));
+    }
+}
@@ -0,0 +1,100 @@
+package com.xml.processor.repository;
+
+import com.xml.processor.model.AsnHeader;
+import com.xml.processor.model.AsnLine;
+import com.xml.processor.model.Client;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AsnBatchWriterTest {
+
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:asn-batch;DB_CLOSE_DELAY=-1", "sa", "");
+        dataSource.setDriverClassName("org.h2.Driver");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE asn_headers (id BIGINT AUTO_INCREMENT PRIMARY KEY, "
+                + "document_number VARCHAR(50) NOT NULL, document_type VARCHAR(50), sender_id VARCHAR(50), "
+                + "receiver_id VARCHAR(50), document_date VARCHAR(255) NOT NULL, document_time VARCHAR(255), "
+                + "status VARCHAR(20) NOT NULL, notes VARCHAR(1000), client_id BIGINT NOT NULL, "
+                + "created_at TIMESTAMP NOT NULL, updated_at TIMESTAMP NOT NULL)");
+        jdbcTemplate.execute("CREATE TABLE asn_lines (id BIGINT AUTO_INCREMENT PRIMARY KEY, "
+                + "header_id BIGINT NOT NULL REFERENCES asn_headers(id), line_number INT, item_number VARCHAR(50), "
+                + "item_description VARCHAR(255), quantity INT, unit_of_measure VARCHAR(50), lot_number VARCHAR(50), "
+                + "serial_number VARCHAR(50), status VARCHAR(20), notes VARCHAR(500), client_id BIGINT NOT NULL, "
+                + "created_at TIMESTAMP NOT NULL, updated_at TIMESTAMP NOT NULL)");
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DROP ALL OBJECTS");
+    }
+
+    @Test
+    void testInsertsHeaderAndAllLines() {
+        AsnBatchWriter writer = new AsnBatchWriter(jdbcTemplate, 3);
+        List<AsnLine> lines = new ArrayList<>();
+        for (int i = 1; i <= 7; i++) {
+            AsnLine line = new AsnLine();
+            line.setLineNumber(String.valueOf(i));
+            line.setItemNumber("ITEM-" + i);
+            line.setQuantity(i * 10);
+            lines.add(line);
+        }
+
+        AsnHeader header = writer.insert(header("DELV-1"), lines);
+
+        assertNotNull(header.getId());
+        assertNotNull(header.getCreatedAt());
+        assertEquals(7, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM asn_lines WHERE header_id = ? AND client_id = 42", Integer.class, header.getId()));
+        Map<String, Object> last = jdbcTemplate.queryForMap("SELECT * FROM asn_lines WHERE line_number = 7");
+        assertEquals("ITEM-7", last.get("ITEM_NUMBER"));
+        assertEquals(70, last.get("QUANTITY"));
+    }
+
+    @Test
+    void testLineBatchSendsFullBatchesAndRemainderOnClose() {
+        AsnBatchWriter writer = new AsnBatchWriter(jdbcTemplate, 2);
+        AsnHeader header = writer.insertHeader(header("DELV-2"));
+
+        AsnBatchWriter.LineBatch batch = writer.openLineBatch(header);
+        for (int i = 0; i < 3; i++) {
+            batch.add(new AsnLine());
+        }
+        assertEquals(2, batch.getWritten());
+        batch.close();
+
+        assertEquals(3, batch.getWritten());
+        assertEquals(3, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM asn_lines", Integer.class));
+    }
+
+    @Test
+    void testRejectsLinesOfUninsertedHeader() {
+        AsnBatchWriter writer = new AsnBatchWriter(jdbcTemplate, 2);
+
+        assertThrows(IllegalStateException.class, () -> writer.openLineBatch(header("DELV-3")));
+    }
+
+    private static AsnHeader header(String documentNumber) {
+        Client client = new Client();
+        client.setId(42L);
+        AsnHeader header = new AsnHeader();
+        header.setClient(client);
+        header.setDocumentNumber(documentNumber);
+        header.setDocumentDate("20240101");
+        header.setStatus("RECEIVED");
+        return header;
+    }
+}
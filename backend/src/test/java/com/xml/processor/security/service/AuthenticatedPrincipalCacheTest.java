@@ -0,0 +1,67 @@
+package com.xml.processor.security.service;
+
+import com.xml.processor.security.model.VerifiedToken;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AuthenticatedPrincipalCacheTest {
+
+    private final AuthenticatedPrincipalCache cache = new AuthenticatedPrincipalCache(
+            new ConcurrentMapCacheManager(AuthenticatedPrincipalCache.AUTH_PRINCIPALS));
+
+    @Test
+    void testCachesSnapshotUntilTokenExpires() {
+        String hash = AuthenticatedPrincipalCache.hash("token-1");
+        cache.put(hash, token("ACCESS", "fp", 60_000), user("alice", "ROLE_ADMIN"));
+
+        AuthenticatedPrincipalCache.CachedPrincipal principal = cache.get(hash);
+        assertEquals("alice", principal.getUsername());
+        assertEquals("fp", principal.getToken().getFingerprint());
+        assertEquals("", principal.getUserDetails().getPassword(), "The password hash is not cached");
+        assertEquals(List.of(new SimpleGrantedAuthority("ROLE_ADMIN")),
+                List.copyOf(principal.getUserDetails().getAuthorities()));
+
+        String expired = AuthenticatedPrincipalCache.hash("token-2");
+        cache.put(expired, token("ACCESS", "fp", -1_000), user("alice", "ROLE_ADMIN"));
+        assertNull(cache.get(expired));
+    }
+
+    @Test
+    void testDropsEntriesOnLogoutAndUserChange() {
+        cache.put(AuthenticatedPrincipalCache.hash("a1"), token("ACCESS", null, 60_000), user("alice", "ROLE_USER"));
+        cache.put(AuthenticatedPrincipalCache.hash("a2"), token("ACCESS", null, 60_000), user("alice", "ROLE_USER"));
+        cache.put(AuthenticatedPrincipalCache.hash("b1"), token("ACCESS", null, 60_000), user("bob", "ROLE_USER"));
+
+        cache.evict("a1");
+        assertNull(cache.get(AuthenticatedPrincipalCache.hash("a1")));
+        assertNotNull(cache.get(AuthenticatedPrincipalCache.hash("a2")));
+
+        cache.onUserChanged(new UserChangedEvent("alice"));
+        assertNull(cache.get(AuthenticatedPrincipalCache.hash("a2")));
+        assertNotNull(cache.get(AuthenticatedPrincipalCache.hash("b1")));
+    }
+
+    private static VerifiedToken token(String type, String fingerprint, long expiresIn) {
+        Claims claims = Jwts.claims();
+        claims.put("type", type);
+        if (fingerprint != null) {
+            claims.put("fingerprint", fingerprint);
+        }
+        claims.setExpiration(new Date(System.currentTimeMillis() + expiresIn));
+        return VerifiedToken.of(claims);
+    }
+
+    private static UserDetails user(String username, String role) {
+        return User.withUsername(username).password("{bcrypt}hash").authorities(role).build();
+    }
+}
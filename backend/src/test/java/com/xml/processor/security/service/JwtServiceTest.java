@@ -0,0 +1,81 @@
+package com.xml.processor.security.service;
+
+import com.xml.processor.exception.TokenException;
+import com.xml.processor.security.model.TokenType;
+import com.xml.processor.security.model.VerifiedToken;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JwtServiceTest {
+
+    private static final String SECRET = "404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970";
+
+    private final JwtService jwtService = new JwtService();
+    private final UserDetails alice = User.withUsername("alice").password("x").roles("ADMIN").build();
+    private MockHttpServletRequest request;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(jwtService, "secretKey", SECRET);
+        ReflectionTestUtils.setField(jwtService, "jwtExpiration", 60_000L);
+        ReflectionTestUtils.setField(jwtService, "refreshExpiration", 120_000L);
+        jwtService.init();
+
+        request = new MockHttpServletRequest();
+        request.addHeader("User-Agent", "test-agent");
+        request.setRemoteAddr("10.0.0.1");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void testVerifiesOnceIntoImmutableToken() {
+        VerifiedToken token = jwtService.verify(jwtService.generateToken(alice));
+
+        assertEquals("alice", token.getSubject());
+        assertEquals(TokenType.ACCESS, token.getType());
+        assertEquals(List.of("ROLE_ADMIN"), token.getRoles());
+        assertNotNull(token.getFingerprint());
+        assertFalse(token.isExpired());
+        assertThrows(UnsupportedOperationException.class, () -> token.getRoles().add("ROLE_USER"));
+        assertTrue(jwtService.isTokenValid(token, alice));
+    }
+
+    @Test
+    void testRejectsTamperedTokens() {
+        String jwt = jwtService.generateToken(alice);
+        String tampered = jwt.substring(0, jwt.length() - 2) + (jwt.endsWith("A") ? "BB" : "AA");
+
+        assertThrows(TokenException.class, () -> jwtService.verify(tampered));
+        assertFalse(jwtService.isTokenValid(tampered, alice));
+    }
+
+    @Test
+    void testChecksFingerprintOfAccessTokensAgainstRequest() {
+        VerifiedToken access = jwtService.verify(jwtService.generateToken(alice));
+        VerifiedToken refresh = jwtService.verify(jwtService.generateRefreshToken(alice));
+        assertTrue(jwtService.isFingerprintValid(access));
+
+        request.setRemoteAddr("10.0.0.2");
+        assertFalse(jwtService.isFingerprintValid(access));
+        assertFalse(jwtService.isTokenValid(access, alice));
+        assertTrue(jwtService.isFingerprintValid(refresh));
+        assertFalse(jwtService.isTokenValid(refresh,
+                User.withUsername("bob").password("x").roles("ADMIN").build()));
+    }
+}
@@ -0,0 +1,47 @@
+package com.xml.processor.security.service.impl;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ExpiryWheelTest {
+
+    private static final long START = 1_700_000_000_000L;
+
+    @Test
+    void testExpiresKeysAtTheirTimeAcrossLevels() {
+        ExpiryWheel<String> wheel = new ExpiryWheel<>(START);
+        wheel.schedule("soon", START + 5_000);
+        wheel.schedule("hour", START + 3_600_000);
+        wheel.schedule("week", START + 7L * 24 * 3_600_000);
+        List<String> expired = new ArrayList<>();
+
+        wheel.advance(START + 4_000, expired::add);
+        assertTrue(expired.isEmpty());
+        wheel.advance(START + 5_000, expired::add);
+        assertEquals(List.of("soon"), expired);
+
+        wheel.advance(START + 3_599_000, expired::add);
+        assertEquals(List.of("soon"), expired);
+        wheel.advance(START + 3_600_000, expired::add);
+        assertEquals(List.of("soon", "hour"), expired);
+
+        wheel.advance(START + 7L * 24 * 3_600_000 - 1_000, expired::add);
+        assertEquals(1, wheel.size());
+        wheel.advance(START + 7L * 24 * 3_600_000, expired::add);
+        assertEquals(List.of("soon", "hour", "week"), expired);
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void testDoesNotScheduleExpiredKeys() {
+        ExpiryWheel<String> wheel = new ExpiryWheel<>(START);
+
+        assertFalse(wheel.schedule("past", START - 1_000));
+        assertTrue(wheel.schedule("next", START + 1));
+        assertEquals(1, wheel.size());
+    }
+}
@@ -0,0 +1,80 @@
+package com.xml.processor.security.service.impl;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class InMemoryJwtBlacklistServiceTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testRevokesUntilTokenExpiry() {
+        InMemoryJwtBlacklistService blacklist = new InMemoryJwtBlacklistService();
+        long now = System.currentTimeMillis();
+        String token = jwt(now / 1000 + 60);
+
+        blacklist.blacklistToken(token);
+
+        assertTrue(blacklist.isBlacklisted(token));
+        assertFalse(blacklist.isBlacklisted(jwt(now / 1000 + 61)));
+
+        blacklist.expireTokens(now + 30_000);
+        assertEquals(1, blacklist.size());
+        blacklist.expireTokens(now + 61_000);
+        assertEquals(0, blacklist.size(), "Expired revocations are dropped without a lookup");
+    }
+
+    @Test
+    void testIgnoresExpiredTokens() {
+        InMemoryJwtBlacklistService blacklist = new InMemoryJwtBlacklistService();
+
+        blacklist.blacklistToken("a.b.c", Instant.now().minusSeconds(1));
+
+        assertFalse(blacklist.isBlacklisted("a.b.c"));
+        assertEquals(0, blacklist.size());
+    }
+
+    @Test
+    void testKeepsRevocationsBeyondExpectedSize() {
+        InMemoryJwtBlacklistService blacklist = new InMemoryJwtBlacklistService(64, "");
+        Instant expiry = Instant.now().plusSeconds(60);
+        for (int i = 0; i < 500; i++) {
+            blacklist.blacklistToken("token-" + i, expiry);
+        }
+
+        for (int i = 0; i < 500; i++) {
+            assertTrue(blacklist.isBlacklisted("token-" + i));
+        }
+    }
+
+    @Test
+    void testRestoresRevocationsFromSnapshot() {
+        String snapshot = tempDir.resolve("blacklist.txt").toString();
+        InMemoryJwtBlacklistService blacklist = new InMemoryJwtBlacklistService(1000, snapshot);
+        blacklist.blacklistToken("revoked", Instant.now().plusSeconds(60));
+        blacklist.blacklistToken("short-lived", Instant.now().plusSeconds(2));
+        blacklist.close();
+
+        assertTrue(Files.exists(Path.of(snapshot)));
+        InMemoryJwtBlacklistService restarted = new InMemoryJwtBlacklistService(1000, snapshot);
+        assertTrue(restarted.isBlacklisted("revoked"));
+        assertTrue(restarted.isBlacklisted("short-lived"));
+        assertFalse(restarted.isBlacklisted("other"));
+    }
+
+    private static String jwt(long exp) {
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        return encoder.encodeToString("{\"alg\":\"HS256\"}".getBytes(StandardCharsets.UTF_8)) + "."
+                + encoder.encodeToString(("{\"sub\":\"alice\",\"exp\":" + exp + "}").getBytes(StandardCharsets.UTF_8))
+                + ".signature";
+    }
+}
@@ -0,0 +1,152 @@
+package com.xml.processor.service.concurrency;
+
+import com.xml.processor.config.TenantSchedulingProperties;
+import com.xml.processor.model.Client;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TenantFairSchedulerTest {
+
+    private final Deque<Runnable> executor = new ArrayDeque<>();
+    private final List<String> processed = new ArrayList<>();
+
+    @Test
+    void testSmallClientIsNotQueuedBehindBulkLoad() {
+        TenantFairScheduler scheduler = scheduler(new TenantSchedulingProperties(), 1, 100);
+        Client bulk = client(1L, "BULK");
+        Client small = client(2L, "SMALL");
+
+        for (int i = 0; i < 20; i++) {
+            submit(scheduler, bulk, 0, "BULK-" + i);
+        }
+        submit(scheduler, small, 0, "SMALL-0");
+        submit(scheduler, small, 0, "SMALL-1");
+        runAll();
+
+        assertEquals(22, processed.size());
+        assertTrue(processed.indexOf("SMALL-1") <= 4, "Small client waited behind the bulk load: " + processed);
+    }
+
+    @Test
+    void testWeightsShareCapacity() {
+        TenantSchedulingProperties properties = new TenantSchedulingProperties();
+        TenantSchedulingProperties.Limits heavy = new TenantSchedulingProperties.Limits();
+        heavy.setWeight(3);
+        properties.setOverrides(Map.of("HEAVY", heavy));
+        TenantFairScheduler scheduler = scheduler(properties, 1, 100);
+
+        for (int i = 0; i < 12; i++) {
+            submit(scheduler, client(1L, "HEAVY"), 0, "HEAVY-" + i);
+            submit(scheduler, client(2L, "LIGHT"), 0, "LIGHT-" + i);
+        }
+        runAll();
+
+        long heavyInFirstEight = processed.subList(0, 8).stream().filter(name -> name.startsWith("HEAVY")).count();
+        assertEquals(6, heavyInFirstEight, "Unexpected order: " + processed);
+    }
+
+    @Test
+    void testHigherPriorityInterfacesGoFirstWithinClient() {
+        TenantFairScheduler scheduler = scheduler(new TenantSchedulingProperties(), 1, 100);
+        Client client = client(1L, "ACME");
+
+        submit(scheduler, client, 0, "running");
+        submit(scheduler, client, 0, "low");
+        submit(scheduler, client, 5, "high");
+        runAll();
+
+        assertEquals(List.of("running", "high", "low"), processed);
+    }
+
+    @Test
+    void testConcurrencyLimitPerClient() {
+        TenantSchedulingProperties properties = new TenantSchedulingProperties();
+        properties.setMaxConcurrentFiles(1);
+        TenantFairScheduler scheduler = scheduler(properties, 4, 100);
+
+        submit(scheduler, client(1L, "ACME"), 0, "a");
+        submit(scheduler, client(1L, "ACME"), 0, "b");
+        submit(scheduler, client(2L, "OTHER"), 0, "c");
+
+        assertEquals(2, executor.size());
+        assertEquals(1, scheduler.getStats().get(0).getQueued());
+        runAll();
+        assertEquals(3, processed.size());
+    }
+
+    @Test
+    void testFullQueueRejectsFiles() {
+        TenantSchedulingProperties properties = new TenantSchedulingProperties();
+        properties.setMaxQueuedFiles(1);
+        TenantFairScheduler scheduler = scheduler(properties, 1, 100);
+        Client client = client(1L, "ACME");
+
+        submit(scheduler, client, 0, "running");
+        submit(scheduler, client, 0, "queued");
+        assertThrows(TaskRejectedException.class, () -> submit(scheduler, client, 0, "rejected"));
+
+        TenantQueueStats stats = scheduler.getStats().get(0);
+        assertEquals("ACME", stats.getClientCode());
+        assertEquals(1, stats.getInFlight());
+        assertEquals(1, stats.getQueued());
+        assertEquals(1, stats.getRejected());
+    }
+
+    @Test
+    void testRejectedFilesAreHandedBackAndFreeTheirSlot() {
+        List<String> rejected = new ArrayList<>();
+        boolean[] rejecting = {true};
+        TenantFairScheduler scheduler = new TenantFairScheduler(task -> {
+            if (rejecting[0]) {
+                throw new RejectedExecutionException("shutting down");
+            }
+            executor.add(task);
+        }, new TenantSchedulingProperties(), new StaticListableBeanFactory().getBeanProvider(MeterRegistry.class),
+                new MockEnvironment(), 1, 1, 100);
+        Client client = client(1L, "ACME");
+
+        scheduler.submit(client, 0, () -> processed.add("lost"), e -> rejected.add("lost"));
+        assertEquals(List.of("lost"), rejected);
+        assertEquals(0, scheduler.getStats().get(0).getInFlight());
+
+        rejecting[0] = false;
+        submit(scheduler, client, 0, "next");
+        runAll();
+        assertEquals(List.of("next"), processed);
+    }
+
+    private TenantFairScheduler scheduler(TenantSchedulingProperties properties, int workers, int queueCapacity) {
+        return new TenantFairScheduler(executor::add, properties,
+                new StaticListableBeanFactory().getBeanProvider(MeterRegistry.class),
+                new MockEnvironment(), workers, workers, queueCapacity);
+    }
+
+    private void submit(TenantFairScheduler scheduler, Client client, int priority, String name) {
+        scheduler.submit(client, priority, () -> processed.add(name));
+    }
+
+    private void runAll() {
+        while (!executor.isEmpty()) {
+            executor.poll().run();
+        }
+    }
+
+    private static Client client(Long id, String code) {
+        Client client = new Client();
+        client.setId(id);
+        client.setCode(code);
+        return client;
+    }
+}
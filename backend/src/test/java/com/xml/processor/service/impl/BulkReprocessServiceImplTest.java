@@ -0,0 +1,130 @@
+package com.xml.processor.service.impl;
+
+import com.xml.processor.dto.BulkReprocessRequest;
+import com.xml.processor.dto.BulkReprocessRun;
+import com.xml.processor.exception.ResourceNotFoundException;
+import com.xml.processor.exception.ValidationException;
+import com.xml.processor.model.JobStatus;
+import com.xml.processor.model.ProcessingJob;
+import com.xml.processor.repository.ProcessedFileRepository;
+import com.xml.processor.service.interfaces.ProcessingJobService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.domain.Pageable;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class BulkReprocessServiceImplTest {
+
+    private ProcessedFileRepository processedFileRepository;
+    private ProcessingJobService processingJobService;
+    private BulkReprocessServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        processedFileRepository = mock(ProcessedFileRepository.class);
+        processingJobService = mock(ProcessingJobService.class);
+        service = new BulkReprocessServiceImpl(processedFileRepository, processingJobService, Runnable::run,
+                2, 2, Duration.ZERO, Duration.ofSeconds(5), 10);
+        when(processedFileRepository.findMaxId()).thenReturn(100L);
+    }
+
+    @Test
+    void testReprocessesAllBatchesAndCountsOutcomes() {
+        candidates(0L, List.of(1L, 2L));
+        candidates(2L, List.of(3L));
+        job(1L, "SUCCESS");
+        job(2L, "ERROR");
+        when(processingJobService.reprocess(3L)).thenThrow(new ResourceNotFoundException("No stored upload"));
+
+        BulkReprocessRun run = service.start(new BulkReprocessRequest());
+
+        assertEquals(JobStatus.COMPLETED, run.getStatus());
+        assertEquals(2, run.getSubmitted());
+        assertEquals(1, run.getSucceeded());
+        assertEquals(1, run.getFailed());
+        assertEquals(1, run.getSkipped());
+        assertEquals(0, run.getInFlight());
+        assertEquals(3L, run.getLastFileId());
+        verify(processedFileRepository).findReprocessCandidateIds(eq("ERROR"), any(), any(), any(), any(), any(),
+                any(), eq(2L), eq(100L), any(Pageable.class));
+    }
+
+    @Test
+    void testRetriesFilesRejectedByFullQueue() {
+        candidates(0L, List.of(1L));
+        ProcessingJob job = job(1L, "SUCCESS");
+        when(processingJobService.reprocess(1L))
+                .thenThrow(new TaskRejectedException("Queue full"))
+                .thenReturn(job);
+
+        BulkReprocessRun run = service.start(new BulkReprocessRequest());
+
+        assertEquals(1, run.getSucceeded());
+        verify(processingJobService, times(2)).reprocess(1L);
+    }
+
+    @Test
+    void testFailsRunWhoseJobsDoNotFinishInTime() {
+        service = new BulkReprocessServiceImpl(processedFileRepository, processingJobService, Runnable::run,
+                2, 2, Duration.ZERO, Duration.ofMillis(50), 10);
+        candidates(0L, List.of(1L));
+        ProcessingJob job = job(1L, "SUCCESS");
+        when(processingJobService.getCompletion(job.getId())).thenReturn(Optional.of(new CompletableFuture<>()));
+
+        BulkReprocessRun run = service.start(new BulkReprocessRequest());
+
+        assertEquals(JobStatus.FAILED, run.getStatus());
+        assertEquals("1 jobs still in flight after PT0.05S", run.getErrorMessage());
+        assertEquals(1, run.getInFlight());
+    }
+
+    @Test
+    void testCapsRequestedConcurrency() {
+        candidates(0L, List.of());
+        BulkReprocessRequest request = new BulkReprocessRequest();
+        request.setMaxInFlight(50);
+
+        assertEquals(2, service.start(request).getMaxInFlight());
+    }
+
+    @Test
+    void testRejectsInvertedDateRange() {
+        BulkReprocessRequest request = new BulkReprocessRequest();
+        request.setProcessedFrom(LocalDateTime.now());
+        request.setProcessedTo(LocalDateTime.now().minusDays(1));
+
+        assertThrows(ValidationException.class, () -> service.start(request));
+    }
+
+    @Test
+    void testErrorPatternMatchesAnywhereUnlessItHasWildcards() {
+        assertNull(BulkReprocessServiceImpl.toLikePattern(" "));
+        assertEquals("%unknown segment%", BulkReprocessServiceImpl.toLikePattern("Unknown Segment"));
+        assertEquals("mapping%failed", BulkReprocessServiceImpl.toLikePattern("Mapping%failed"));
+    }
+
+    private void candidates(long afterId, List<Long> fileIds) {
+        when(processedFileRepository.findReprocessCandidateIds(any(), any(), any(), any(), any(), any(), any(),
+                eq(afterId), anyLong(), any(Pageable.class))).thenReturn(fileIds);
+    }
+
+    private ProcessingJob job(Long fileId, String resultStatus) {
+        ProcessingJob job = new ProcessingJob("job-" + fileId, 1L, 1L, 1L, "file-" + fileId + ".xml", 10);
+        job.setSourceProcessedFileId(fileId);
+        job.setStatus(JobStatus.COMPLETED);
+        job.setResultStatus(resultStatus);
+        when(processingJobService.reprocess(fileId)).thenReturn(job);
+        when(processingJobService.getCompletion(job.getId())).thenReturn(Optional.of(CompletableFuture.completedFuture(job)));
+        return job;
+    }
+}
@@ -0,0 +1,125 @@
+package com.xml.processor.service.impl;
+
+import com.xml.processor.model.Interface;
+import com.xml.processor.model.ProcessedFile;
+import com.xml.processor.service.interfaces.ProcessedFileService;
+import com.xml.processor.service.strategy.DocumentProcessingStrategy;
+import com.xml.processor.service.xml.ByteArrayMultipartFile;
+import com.xml.processor.service.xml.IdocSplitter;
+import com.xml.processor.service.xml.XmlInfrastructure;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class DocumentProcessingStrategyServiceImplTest {
+
+    private static final String BATCH =
+            "<DELVRY07>" +
+            "<IDOC><E1EDL20><VBELN>A</VBELN></E1EDL20></IDOC>" +
+            "<IDOC><E1EDL20><VBELN>B</VBELN></E1EDL20></IDOC>" +
+            "</DELVRY07>";
+
+    private DocumentProcessingStrategy strategy;
+    private ProcessedFileService processedFileService;
+    private DocumentProcessingStrategyServiceImpl service;
+    private Interface interfaceEntity;
+
+    @BeforeEach
+    void setUp() {
+        strategy = mock(DocumentProcessingStrategy.class);
+        when(strategy.getDocumentType()).thenReturn("ASN");
+        processedFileService = mock(ProcessedFileService.class);
+        when(processedFileService.createProcessedFile(any(ProcessedFile.class))).thenAnswer(invocation -> {
+            ProcessedFile stored = invocation.getArgument(0);
+            stored.setId(99L);
+            return stored;
+        });
+
+        service = new DocumentProcessingStrategyServiceImpl(List.of(strategy));
+        ReflectionTestUtils.setField(service, "idocSplitter", new IdocSplitter(new XmlInfrastructure()));
+        ReflectionTestUtils.setField(service, "processedFileService", processedFileService);
+        ReflectionTestUtils.setField(service, "documentSplitExecutor", (Executor) Runnable::run);
+
+        interfaceEntity = new Interface();
+        interfaceEntity.setType("ASN");
+        interfaceEntity.setSplitElement("IDOC");
+    }
+
+    @Test
+    void testProcessesEveryUnitAndStoresTheSummary() {
+        when(strategy.processDocument(any(MultipartFile.class), eq(interfaceEntity)))
+                .thenAnswer(invocation -> unitResult(invocation.getArgument(0), "SUCCESS"));
+
+        ProcessedFile summary = service.processDocument(file(BATCH), interfaceEntity);
+
+        assertEquals(99L, summary.getId());
+        assertEquals("SUCCESS", summary.getStatus());
+        assertEquals("Split into 2 units on IDOC: 2 succeeded, 0 failed", summary.getContent());
+        verify(strategy).processDocument(argThat((MultipartFile unit) -> "batch.xml#1".equals(unit.getOriginalFilename())),
+                eq(interfaceEntity));
+        verify(strategy).processDocument(argThat((MultipartFile unit) -> "batch.xml#2".equals(unit.getOriginalFilename())),
+                eq(interfaceEntity));
+        verify(processedFileService).createProcessedFile(summary);
+    }
+
+    @Test
+    void testReportsFailedUnitsInTheSummary() {
+        when(strategy.processDocument(any(MultipartFile.class), eq(interfaceEntity)))
+                .thenAnswer(invocation -> unitResult(invocation.getArgument(0), "ERROR"))
+                .thenThrow(new IllegalStateException("Strategy failed"));
+
+        ProcessedFile summary = service.processDocument(file(BATCH), interfaceEntity);
+
+        assertEquals("ERROR", summary.getStatus());
+        assertEquals("Split into 2 units on IDOC: 0 succeeded, 2 failed", summary.getContent());
+        assertTrue(summary.getErrorMessage().contains("batch.xml#1: Unit failed"), summary.getErrorMessage());
+        assertTrue(summary.getErrorMessage().contains("Strategy failed"), summary.getErrorMessage());
+        verify(processedFileService).createProcessedFile(summary);
+    }
+
+    @Test
+    void testStoresErrorSummaryWhenSplittingFailsAfterAFailedUnit() {
+        when(strategy.processDocument(any(MultipartFile.class), eq(interfaceEntity)))
+                .thenThrow(new IllegalStateException("Strategy failed"));
+
+        ProcessedFile summary = assertDoesNotThrow(() ->
+                service.processDocument(file("<DELVRY07><IDOC><E1EDL20/></IDOC><IDOC>"), interfaceEntity));
+
+        assertEquals("ERROR", summary.getStatus());
+        assertTrue(summary.getErrorMessage().startsWith("Failed to split document on element IDOC"),
+                summary.getErrorMessage());
+        verify(strategy).processDocument(any(MultipartFile.class), eq(interfaceEntity));
+        verify(processedFileService).createProcessedFile(summary);
+    }
+
+    @Test
+    void testProcessesDocumentWithoutSplitElementAsAWhole() {
+        MultipartFile file = file("<ORDERS><ID>1</ID></ORDERS>");
+        ProcessedFile result = new ProcessedFile();
+        when(strategy.processDocument(file, interfaceEntity)).thenReturn(result);
+
+        assertSame(result, service.processDocument(file, interfaceEntity));
+        verify(processedFileService, never()).createProcessedFile(any());
+    }
+
+    private static ProcessedFile unitResult(MultipartFile unit, String status) {
+        ProcessedFile result = new ProcessedFile();
+        result.setFileName(unit.getOriginalFilename());
+        result.setStatus(status);
+        result.setErrorMessage("ERROR".equals(status) ? "Unit failed" : null);
+        return result;
+    }
+
+    private static MultipartFile file(String xml) {
+        return new ByteArrayMultipartFile("batch.xml", "application/xml", xml.getBytes(StandardCharsets.UTF_8));
+    }
+}
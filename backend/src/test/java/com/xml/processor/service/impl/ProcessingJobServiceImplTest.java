@@ -0,0 +1,232 @@
+package com.xml.processor.service.impl;
+
+import com.xml.processor.model.Interface;
+import com.xml.processor.model.JobStatus;
+import com.xml.processor.model.ProcessedFile;
+import com.xml.processor.model.ProcessingJob;
+import com.xml.processor.model.ProcessingJobPayload;
+import com.xml.processor.repository.InterfaceRepository;
+import com.xml.processor.repository.ProcessingJobPayloadRepository;
+import com.xml.processor.repository.ProcessingJobRepository;
+import com.xml.processor.service.concurrency.TenantFairScheduler;
+import com.xml.processor.service.interfaces.XmlProcessorService;
+import com.xml.processor.service.xml.ByteArrayMultipartFile;
+import com.xml.processor.service.xml.IngestionFingerprinter;
+import com.xml.processor.service.xml.XmlInfrastructure;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class ProcessingJobServiceImplTest {
+
+    private static final long INTERFACE_ID = 3L;
+    private static final long PAYLOAD_ID = 7L;
+
+    private ProcessingJobRepository jobRepository;
+    private ProcessingJobPayloadRepository payloadRepository;
+    private TenantFairScheduler tenantFairScheduler;
+    private XmlProcessorService xmlProcessorService;
+    private ProcessingJobServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        jobRepository = mock(ProcessingJobRepository.class);
+        payloadRepository = mock(ProcessingJobPayloadRepository.class);
+        tenantFairScheduler = mock(TenantFairScheduler.class);
+        xmlProcessorService = mock(XmlProcessorService.class);
+        InterfaceRepository interfaceRepository = mock(InterfaceRepository.class);
+        Interface interfaceEntity = new Interface();
+        interfaceEntity.setId(INTERFACE_ID);
+        when(interfaceRepository.findWithClientById(INTERFACE_ID)).thenReturn(Optional.of(interfaceEntity));
+        when(payloadRepository.findIdByContentHash(any(), eq(INTERFACE_ID), anyString())).thenReturn(Optional.of(PAYLOAD_ID));
+        when(jobRepository.save(any(ProcessingJob.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        service = new ProcessingJobServiceImpl(mock(PlatformTransactionManager.class), "node-1");
+        ReflectionTestUtils.setField(service, "xmlProcessorService", xmlProcessorService);
+        ReflectionTestUtils.setField(service, "interfaceRepository", interfaceRepository);
+        ReflectionTestUtils.setField(service, "jobRepository", jobRepository);
+        ReflectionTestUtils.setField(service, "payloadRepository", payloadRepository);
+        ReflectionTestUtils.setField(service, "tenantFairScheduler", tenantFairScheduler);
+        ReflectionTestUtils.setField(service, "fingerprinter", new IngestionFingerprinter(new XmlInfrastructure()));
+        ReflectionTestUtils.setField(service, "leaseDuration", Duration.ofMinutes(1));
+        ReflectionTestUtils.setField(service, "maxAttempts", 3);
+        ReflectionTestUtils.setField(service, "recoveryBatchSize", 50);
+    }
+
+    @Test
+    void testAnswersDuplicateOfSuccessfulUploadWithItsJob() {
+        ProcessingJob original = original(JobStatus.COMPLETED, "SUCCESS");
+
+        ProcessingJob job = service.submit(upload(), INTERFACE_ID);
+
+        assertSame(original, job);
+        assertTrue(job.isDuplicate());
+        verify(jobRepository, never()).save(any());
+        verifyNoInteractions(tenantFairScheduler);
+    }
+
+    @Test
+    void testAnswersDuplicateOfUnfinishedUploadWithItsJob() {
+        ProcessingJob original = original(JobStatus.RUNNING, null);
+
+        assertSame(original, service.submit(upload(), INTERFACE_ID));
+        verifyNoInteractions(tenantFairScheduler);
+    }
+
+    @Test
+    void testProcessesDuplicateOfFailedUploadAgain() {
+        original(JobStatus.FAILED, null);
+
+        assertRunsAgain(service.submit(upload(), INTERFACE_ID));
+    }
+
+    @Test
+    void testProcessesDuplicateOfUploadWithUnsuccessfulResultAgain() {
+        original(JobStatus.COMPLETED, "ERROR");
+
+        assertRunsAgain(service.submit(upload(), INTERFACE_ID));
+    }
+
+    @Test
+    void testProcessesCorrectedResendOfFailedUploadInsteadOfStoredOne() {
+        original(JobStatus.FAILED, null);
+        resendWithOtherContent();
+
+        ProcessingJob job = service.submit(upload(), INTERFACE_ID);
+
+        assertFalse(job.isDuplicate());
+        assertEquals(9L, job.getPayloadId());
+        verify(payloadRepository).clearFingerprint(PAYLOAD_ID);
+        verify(payloadRepository).save(any(ProcessingJobPayload.class));
+        verify(tenantFairScheduler).submit(any(), anyInt(), any(Runnable.class), any());
+    }
+
+    @Test
+    void testAnswersResendOfSuccessfulUploadWithOtherContentWithItsJob() {
+        ProcessingJob original = original(JobStatus.COMPLETED, "SUCCESS");
+        resendWithOtherContent();
+
+        assertSame(original, service.submit(upload(), INTERFACE_ID));
+        verify(payloadRepository, never()).clearFingerprint(any());
+        verify(payloadRepository, never()).save(any());
+        verifyNoInteractions(tenantFairScheduler);
+    }
+
+    @Test
+    void testResumesJobOfStoppedNodeFromItsPayloadAfterItsLeaseExpired() throws Exception {
+        ProcessingJob job = abandoned(1);
+        when(jobRepository.claim(eq(job.getId()), any(), eq("node-1"), any(), any())).thenReturn(1);
+        when(jobRepository.markRunning(eq(job.getId()), eq("node-1"), any())).thenReturn(1);
+        when(jobRepository.complete(eq(job.getId()), eq("node-1"), any(), any(), any(), any(), any())).thenAnswer(invocation -> {
+            job.setStatus(invocation.getArgument(2));
+            return 1;
+        });
+        when(payloadRepository.findById(PAYLOAD_ID)).thenReturn(Optional.of(
+                new ProcessingJobPayload("application/xml", "<DELVRY07><IDOC/></DELVRY07>".getBytes(StandardCharsets.UTF_8))));
+        ProcessedFile processed = new ProcessedFile();
+        processed.setId(11L);
+        processed.setStatus("SUCCESS");
+        when(xmlProcessorService.processXmlFile(any(), any())).thenReturn(processed);
+
+        service.recoverJobs();
+
+        ArgumentCaptor<LocalDateTime> expiresAt = ArgumentCaptor.forClass(LocalDateTime.class);
+        ArgumentCaptor<LocalDateTime> now = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(jobRepository).claim(eq(job.getId()), any(), eq("node-1"), expiresAt.capture(), now.capture());
+        assertEquals(now.getValue().plusMinutes(1), expiresAt.getValue(), "The claim takes a lease of its own");
+        ArgumentCaptor<Runnable> task = ArgumentCaptor.forClass(Runnable.class);
+        verify(tenantFairScheduler).submit(any(), anyInt(), task.capture(), any());
+        CompletableFuture<ProcessingJob> completion = service.getCompletion(job.getId()).orElseThrow();
+
+        task.getValue().run();
+
+        ArgumentCaptor<MultipartFile> file = ArgumentCaptor.forClass(MultipartFile.class);
+        verify(xmlProcessorService).processXmlFile(file.capture(), any());
+        assertEquals("<DELVRY07><IDOC/></DELVRY07>", new String(file.getValue().getBytes(), StandardCharsets.UTF_8));
+        verify(jobRepository).complete(eq(job.getId()), eq("node-1"), eq(JobStatus.COMPLETED), any(), eq(11L), eq("SUCCESS"), isNull());
+        assertSame(job, completion.getNow(null), "Waiters on the resumed job get its outcome");
+    }
+
+    @Test
+    void testLeavesExpiredJobToNodeThatClaimedItFirst() {
+        ProcessingJob job = abandoned(1);
+        when(jobRepository.claim(eq(job.getId()), any(), eq("node-1"), any(), any())).thenReturn(0);
+
+        service.recoverJobs();
+
+        verify(jobRepository, never()).findById(job.getId());
+        verifyNoInteractions(tenantFairScheduler);
+    }
+
+    @Test
+    void testFailsExpiredJobThatUsedUpItsAttempts() {
+        ProcessingJob job = abandoned(3);
+        when(jobRepository.claim(eq(job.getId()), any(), eq("node-1"), any(), any())).thenReturn(1);
+
+        service.recoverJobs();
+
+        verify(jobRepository).complete(eq(job.getId()), eq("node-1"), eq(JobStatus.FAILED), any(), isNull(), isNull(),
+                eq("Processing abandoned after 3 attempts"));
+        verifyNoInteractions(tenantFairScheduler);
+    }
+
+    /**
+     * Stores a running job of a node that stopped, so its lease expired.
+     */
+    private ProcessingJob abandoned(int attempts) {
+        ProcessingJob job = new ProcessingJob("abandoned", INTERFACE_ID, null, PAYLOAD_ID, "delivery.xml", 27);
+        job.setStatus(JobStatus.RUNNING);
+        job.setAttempts(attempts);
+        job.setLeaseOwner("node-0");
+        job.setLeaseExpiresAt(LocalDateTime.now().minusMinutes(1));
+        when(jobRepository.findClaimable(any(), any(), any())).thenReturn(List.of(job.getId()));
+        when(jobRepository.findById(job.getId())).thenReturn(Optional.of(job));
+        return job;
+    }
+
+    private void resendWithOtherContent() {
+        when(payloadRepository.findIdByContentHash(any(), eq(INTERFACE_ID), anyString())).thenReturn(Optional.empty());
+        when(payloadRepository.findIdByFingerprint(any(), eq(INTERFACE_ID), anyString())).thenReturn(Optional.of(PAYLOAD_ID));
+        when(payloadRepository.save(any(ProcessingJobPayload.class))).thenAnswer(invocation -> {
+            ProcessingJobPayload payload = invocation.getArgument(0);
+            payload.setId(9L);
+            return payload;
+        });
+    }
+
+    private void assertRunsAgain(ProcessingJob job) {
+        assertFalse(job.isDuplicate());
+        assertEquals(PAYLOAD_ID, job.getPayloadId());
+        assertEquals(JobStatus.QUEUED, job.getStatus());
+        verify(jobRepository).save(job);
+        verify(tenantFairScheduler).submit(any(), anyInt(), any(Runnable.class), any());
+    }
+
+    private ProcessingJob original(JobStatus status, String resultStatus) {
+        ProcessingJob original = new ProcessingJob("original", INTERFACE_ID, null, PAYLOAD_ID, "delivery.xml", 20);
+        original.setStatus(status);
+        original.setResultStatus(resultStatus);
+        when(jobRepository.findFirstByPayloadIdAndSourceProcessedFileIdIsNullOrderBySubmittedAtDesc(PAYLOAD_ID))
+                .thenReturn(Optional.of(original));
+        return original;
+    }
+
+    private static MultipartFile upload() {
+        return new ByteArrayMultipartFile("delivery.xml", "application/xml",
+                "<DELVRY07><IDOC/></DELVRY07>".getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,183 @@
+package com.xml.processor.service.mapping;
+
+import com.xml.processor.model.AsnHeader;
+import com.xml.processor.model.AsnLine;
+import com.xml.processor.model.MappingRule;
+import com.xml.processor.service.xml.XmlInfrastructure;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AsnStreamingMapperTest {
+
+    private static final String IDOC =
+            "<DELVRY07>" +
+            "<IDOC BEGIN=\"1\">" +
+            "<EDI_DC40 SEGMENT=\"1\"><DOCNUM>0000000012345678</DOCNUM><SNDPRN>SAPERP</SNDPRN></EDI_DC40>" +
+            "<E1EDL20 SEGMENT=\"1\"><VBELN>0080001234</VBELN>" +
+            "<E1EDL24 SEGMENT=\"1\"><POSNR>000010</POSNR><MATNR>MAT-1</MATNR><LFIMG>12.000</LFIMG></E1EDL24>" +
+            "<E1EDL24 SEGMENT=\"1\"><POSNR>000020</POSNR><MATNR>MAT-2</MATNR><LFIMG>3</LFIMG><VRKME>PCE</VRKME></E1EDL24>" +
+            "<E1EDT13 SEGMENT=\"1\"><NTANF>20240102</NTANF></E1EDT13>" +
+            "</E1EDL20>" +
+            "</IDOC>" +
+            "</DELVRY07>";
+
+    private final XmlInfrastructure xmlInfrastructure = new XmlInfrastructure();
+    private final AsnStreamingMapper mapper = new AsnStreamingMapper(xmlInfrastructure);
+
+    @Test
+    void testStreamsLinesAndCompletesHeader() throws Exception {
+        CompiledRulePlan plan = plan(
+                rule(1L, "asn_headers", "document_number", "/DELVRY07/IDOC/E1EDL20/VBELN"),
+                rule(2L, "asn_headers", "senderId", "/DELVRY07/IDOC/EDI_DC40/SNDPRN"),
+                rule(3L, "asn_headers", "document_date", "/DELVRY07/IDOC/E1EDL20/E1EDT13/NTANF"),
+                rule(4L, "asn_lines", "line_number", "/DELVRY07/IDOC/E1EDL20/E1EDL24/POSNR"),
+                rule(5L, "asn_lines", "item_number", "/DELVRY07/IDOC/E1EDL20/E1EDL24/MATNR/text()"),
+                rule(6L, "asn_lines", "quantity", "/DELVRY07/IDOC/E1EDL20/E1EDL24/LFIMG"),
+                rule(7L, "asn_lines", "unit_of_measure", "/DELVRY07/IDOC/E1EDL20/E1EDL24/VRKME"),
+                rule(8L, "processed_files", "content", "/DELVRY07/IDOC/EDI_DC40/DOCNUM"));
+        List<AsnLine> lines = new ArrayList<>();
+        List<String> headerNumbers = new ArrayList<>();
+
+        AsnMappingResult result = mapper.map(stream(IDOC), plan, (header, line) -> {
+            headerNumbers.add(header.getDocumentNumber());
+            lines.add(line);
+        });
+
+        assertEquals(2, result.getLineCount());
+        assertEquals(List.of("0080001234", "0080001234"), headerNumbers);
+        assertEquals(10, lines.get(0).getLineNumber());
+        assertEquals("MAT-1", lines.get(0).getItemNumber());
+        assertEquals(12, lines.get(0).getQuantity());
+        assertNull(lines.get(0).getUnitOfMeasure());
+        assertEquals(20, lines.get(1).getLineNumber());
+        assertEquals("PCE", lines.get(1).getUnitOfMeasure());
+
+        AsnHeader header = result.getHeader();
+        assertEquals("SAPERP", header.getSenderId());
+        assertEquals("20240102", header.getDocumentDate());
+        assertTrue(result.isHeaderChangedAfterLines(), "The delivery date follows the lines");
+    }
+
+    @Test
+    void testMapsEachDeliveryOntoItsOwnHeader() throws Exception {
+        String idoc =
+                "<DELVRY07>" +
+                "<IDOC BEGIN=\"1\">" +
+                "<EDI_DC40 SEGMENT=\"1\"><SNDPRN>SAPERP</SNDPRN></EDI_DC40>" +
+                "<E1EDL20 SEGMENT=\"1\"><VBELN>0080001234</VBELN>" +
+                "<E1EDL24 SEGMENT=\"1\"><MATNR>MAT-1</MATNR></E1EDL24>" +
+                "<E1EDL24 SEGMENT=\"1\"><MATNR>MAT-2</MATNR></E1EDL24>" +
+                "</E1EDL20>" +
+                "<E1EDL20 SEGMENT=\"1\"><VBELN>0080001235</VBELN>" +
+                "<E1EDL24 SEGMENT=\"1\"><MATNR>MAT-3</MATNR></E1EDL24>" +
+                "<E1EDT13 SEGMENT=\"1\"><NTANF>20240103</NTANF></E1EDT13>" +
+                "</E1EDL20>" +
+                "</IDOC>" +
+                "</DELVRY07>";
+        CompiledRulePlan plan = plan(
+                rule(1L, "asn_headers", "document_number", "/DELVRY07/IDOC/E1EDL20/VBELN"),
+                rule(2L, "asn_headers", "senderId", "/DELVRY07/IDOC/EDI_DC40/SNDPRN"),
+                rule(3L, "asn_headers", "document_date", "/DELVRY07/IDOC/E1EDL20/E1EDT13/NTANF"),
+                rule(4L, "asn_lines", "item_number", "/DELVRY07/IDOC/E1EDL20/E1EDL24/MATNR"));
+        List<String> linesByHeader = new ArrayList<>();
+
+        AsnMappingResult result = mapper.map(stream(idoc), plan,
+                (header, line) -> linesByHeader.add(header.getDocumentNumber() + ":" + line.getItemNumber()));
+
+        assertArrayEquals(new String[] {"DELVRY07", "IDOC", "E1EDL20"}, mapper.getPlan(plan).getHeaderRecordPath());
+        assertEquals(List.of("0080001234:MAT-1", "0080001234:MAT-2", "0080001235:MAT-3"), linesByHeader);
+        assertEquals(3, result.getLineCount());
+        assertEquals(2, result.getDeliveries().size());
+
+        AsnMappingResult.Delivery first = result.getDeliveries().get(0);
+        assertEquals("0080001234", first.getHeader().getDocumentNumber());
+        assertEquals("SAPERP", first.getHeader().getSenderId());
+        assertNull(first.getHeader().getDocumentDate(), "The second delivery's date stays with it");
+        assertEquals(2, first.getLineCount());
+        assertFalse(first.isHeaderChangedAfterLines());
+
+        AsnMappingResult.Delivery second = result.getDeliveries().get(1);
+        assertEquals("0080001235", second.getHeader().getDocumentNumber());
+        assertEquals("SAPERP", second.getHeader().getSenderId());
+        assertEquals("20240103", second.getHeader().getDocumentDate());
+        assertEquals(1, second.getLineCount());
+        assertTrue(second.isHeaderChangedAfterLines(), "The delivery date follows the lines");
+        assertSame(first.getHeader(), result.getHeader());
+    }
+
+    @Test
+    void testAppliesDefaultsAndRejectsMissingRequiredLineValues() {
+        MappingRule lot = rule(3L, "asn_lines", "lot_number", "/DELVRY07/IDOC/E1EDL20/E1EDL24/CHARG");
+        lot.setRequired(true);
+        CompiledRulePlan plan = plan(
+                rule(1L, "asn_headers", "document_number", "/DELVRY07/IDOC/E1EDL20/VBELN"),
+                rule(2L, "asn_lines", "item_number", "/DELVRY07/IDOC/E1EDL20/E1EDL24/MATNR"),
+                lot);
+
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+                () -> mapper.map(stream(IDOC), plan, (header, line) -> { }));
+        assertTrue(error.getMessage().contains("line 1"), error.getMessage());
+
+        lot.setDefaultValue("NO-LOT");
+        CompiledRulePlan withDefault = plan(
+                rule(1L, "asn_headers", "document_number", "/DELVRY07/IDOC/E1EDL20/VBELN"),
+                rule(2L, "asn_lines", "item_number", "/DELVRY07/IDOC/E1EDL20/E1EDL24/MATNR"),
+                lot);
+        List<AsnLine> lines = new ArrayList<>();
+        assertDoesNotThrow(() -> mapper.map(stream(IDOC), withDefault, (header, line) -> lines.add(line)));
+        assertEquals("NO-LOT", lines.get(1).getLotNumber());
+    }
+
+    @Test
+    void testRejectsQuantitiesThatAreNotWholeNumbers() {
+        CompiledRulePlan plan = plan(
+                rule(1L, "asn_headers", "document_number", "/DELVRY07/IDOC/E1EDL20/VBELN"),
+                rule(2L, "asn_lines", "quantity", "/DELVRY07/IDOC/E1EDL20/E1EDL24/LFIMG"));
+
+        IllegalArgumentException fractional = assertThrows(IllegalArgumentException.class,
+                () -> mapper.map(stream(IDOC.replace("12.000", "5.5")), plan, (header, line) -> { }));
+        IllegalArgumentException overflowing = assertThrows(IllegalArgumentException.class,
+                () -> mapper.map(stream(IDOC.replace("12.000", "3000000000")), plan, (header, line) -> { }));
+
+        assertTrue(fractional.getMessage().contains("'5.5'") && fractional.getMessage().contains("line 1"),
+                fractional.getMessage());
+        assertTrue(fractional.getMessage().endsWith("is not a whole number"), fractional.getMessage());
+        assertTrue(overflowing.getMessage().endsWith("is not a whole number"), overflowing.getMessage());
+    }
+
+    @Test
+    void testDerivesRecordElementFromLineRules() {
+        CompiledRulePlan plan = plan(
+                rule(1L, "asn_lines", "item_number", "/DELVRY07/IDOC/E1EDL20/E1EDL24/MATNR"),
+                rule(2L, "asn_lines", "notes", "/DELVRY07/IDOC/E1EDL20/E1EDL24/@SEGMENT"));
+
+        AsnMappingPlan asnPlan = mapper.getPlan(plan);
+
+        assertArrayEquals(new String[] {"DELVRY07", "IDOC", "E1EDL20", "E1EDL24"}, asnPlan.getRecordPath());
+        assertSame(asnPlan, mapper.getPlan(plan));
+    }
+
+    private CompiledRulePlan plan(MappingRule... rules) {
+        return new CompiledRulePlan(1L, 0L, List.of(rules), xmlInfrastructure);
+    }
+
+    private static ByteArrayInputStream stream(String xml) {
+        return new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static MappingRule rule(Long id, String tableName, String databaseField, String xmlPath) {
+        MappingRule rule = new MappingRule();
+        rule.setId(id);
+        rule.setName("rule-" + id);
+        rule.setTableName(tableName);
+        rule.setDatabaseField(databaseField);
+        rule.setXmlPath(xmlPath);
+        return rule;
+    }
+}
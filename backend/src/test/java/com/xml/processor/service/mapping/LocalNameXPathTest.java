@@ -0,0 +1,26 @@
+package com.xml.processor.service.mapping;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LocalNameXPathTest {
+
+    @Test
+    void testRewritesElementNameTests() {
+        assertEquals("/*[local-name()='DELVRY07']//*[local-name()='E1EDL24'][2]/*[local-name()='MATNR']",
+                LocalNameXPath.rewrite("/DELVRY07//E1EDL24[2]/MATNR"));
+        assertEquals("child::*[local-name()='IDOC'][*[local-name()='POSNR'] = '10' and @SEGMENT]",
+                LocalNameXPath.rewrite("child::IDOC[POSNR = '10' and @SEGMENT]"));
+    }
+
+    @Test
+    void testKeepsFunctionsAttributesOperatorsAndLiterals() {
+        assertEquals("count(/*[local-name()='A']/*) * 2 div 1 mod 3",
+                LocalNameXPath.rewrite("count(/A/*) * 2 div 1 mod 3"));
+        assertEquals("/*[local-name()='A']/attribute::B | /*[local-name()='A']/text()",
+                LocalNameXPath.rewrite("/A/attribute::B | /A/text()"));
+        assertEquals("/*[local-name()='A'][. = 'B/C' or ../ns:D]",
+                LocalNameXPath.rewrite("/A[. = 'B/C' or ../ns:D]"));
+    }
+}
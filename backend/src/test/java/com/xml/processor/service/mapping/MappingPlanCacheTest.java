@@ -0,0 +1,94 @@
+package com.xml.processor.service.mapping;
+
+import com.xml.processor.model.MappingRule;
+import com.xml.processor.service.xml.XmlInfrastructure;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MappingPlanCacheTest {
+
+    private static final LocalDateTime UPDATED_AT = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+    private final MappingPlanCache cache = new MappingPlanCache(new XmlInfrastructure());
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void testReusesPlanWhileRulesAreUnchanged() {
+        CompiledRulePlan plan = cache.getPlan(1L, List.of(rule(1L, "/DELVRY07/VBELN", UPDATED_AT)));
+
+        assertSame(plan, cache.getPlan(1L, List.of(rule(1L, "/DELVRY07/VBELN", UPDATED_AT))));
+        assertNotSame(plan, cache.getPlan(2L, List.of(rule(1L, "/DELVRY07/VBELN", UPDATED_AT))),
+                "Plans are kept per interface");
+    }
+
+    @Test
+    void testRecompilesPlanWhenRuleIsUpdated() {
+        CompiledRulePlan plan = cache.getPlan(1L, List.of(rule(1L, "/DELVRY07/VBELN", UPDATED_AT)));
+
+        CompiledRulePlan updated = cache.getPlan(1L, List.of(rule(1L, "/DELVRY07/VBELN", UPDATED_AT.plusSeconds(1))));
+
+        assertNotSame(plan, updated);
+        assertNotEquals(plan.getVersion(), updated.getVersion());
+        assertSame(updated, cache.getPlan(1L, List.of(rule(1L, "/DELVRY07/VBELN", UPDATED_AT.plusSeconds(1)))));
+    }
+
+    @Test
+    void testRecompilesPlanWhenRuleIsAddedOrItsPathChanges() {
+        CompiledRulePlan plan = cache.getPlan(1L, List.of(rule(1L, "/DELVRY07/VBELN", UPDATED_AT)));
+
+        assertNotSame(plan, cache.getPlan(1L, List.of(rule(1L, "/DELVRY07/LFIMG", UPDATED_AT))));
+        assertEquals(2, cache.getPlan(1L, List.of(
+                rule(1L, "/DELVRY07/LFIMG", UPDATED_AT), rule(2L, "/DELVRY07/VBELN", UPDATED_AT))).getRules().size());
+    }
+
+    @Test
+    void testEvictsPlanAgainAfterCommit() {
+        List<MappingRule> rules = List.of(rule(1L, "/DELVRY07/VBELN", UPDATED_AT));
+        CompiledRulePlan plan = cache.getPlan(1L, rules);
+        TransactionSynchronizationManager.initSynchronization();
+
+        cache.evict(1L);
+        CompiledRulePlan readBeforeCommit = cache.getPlan(1L, rules);
+        assertNotSame(plan, readBeforeCommit);
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        assertNotSame(readBeforeCommit, cache.getPlan(1L, rules), "A plan cached before commit is evicted");
+    }
+
+    @Test
+    void testEvaluatesRuleWithoutPathAsFailedRule() throws Exception {
+        XmlInfrastructure xmlInfrastructure = new XmlInfrastructure();
+        CompiledRulePlan plan = cache.getPlan(1L, List.of(rule(1L, null, UPDATED_AT), rule(2L, "/DELVRY07/VBELN", UPDATED_AT)));
+
+        RuleMatches matches = plan.evaluate(xmlInfrastructure.parse(new ByteArrayInputStream(
+                "<DELVRY07><VBELN>0080001234</VBELN></DELVRY07>".getBytes(StandardCharsets.UTF_8))));
+
+        assertNotNull(matches.getError(0));
+        assertEquals("0080001234", matches.first(1));
+    }
+
+    private static MappingRule rule(Long id, String xmlPath, LocalDateTime updatedAt) {
+        MappingRule rule = new MappingRule();
+        rule.setId(id);
+        rule.setName("rule-" + id);
+        rule.setXmlPath(xmlPath);
+        rule.setDatabaseField("field" + id);
+        rule.setUpdatedAt(updatedAt);
+        return rule;
+    }
+}
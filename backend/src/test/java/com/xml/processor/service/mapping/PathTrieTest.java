@@ -0,0 +1,116 @@
+package com.xml.processor.service.mapping;
+
+import com.xml.processor.model.MappingRule;
+import com.xml.processor.service.xml.XmlInfrastructure;
+import org.junit.jupiter.api.Test;
+import org.w3c.dom.Document;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PathTrieTest {
+
+    private static final String IDOC =
+            "<DELVRY07>" +
+            "<IDOC BEGIN=\"1\">" +
+            "<EDI_DC40 SEGMENT=\"1\"><DOCNUM>0000000012345678</DOCNUM><SERIAL>20240101120000</SERIAL></EDI_DC40>" +
+            "<E1EDL20 SEGMENT=\"1\"><VBELN>0080001234</VBELN>" +
+            "<E1EDL24 SEGMENT=\"1\"><POSNR>000010</POSNR><MATNR>MAT-1</MATNR></E1EDL24>" +
+            "<E1EDL24 SEGMENT=\"1\"><POSNR>000020</POSNR><MATNR>MAT-2</MATNR></E1EDL24>" +
+            "</E1EDL20>" +
+            "</IDOC>" +
+            "</DELVRY07>";
+
+    private final List<MappingRule> rules = List.of(
+            rule(1L, "/DELVRY07/IDOC/EDI_DC40/DOCNUM"),
+            rule(2L, "/DELVRY07/IDOC/E1EDL20/VBELN/text()"),
+            rule(3L, "/DELVRY07/IDOC/E1EDL20/E1EDL24/POSNR"),
+            rule(4L, "/DELVRY07/IDOC/@BEGIN"),
+            rule(5L, "/DELVRY07/IDOC/E1EDL20/E1EDL24[2]/MATNR"),
+            rule(6L, "/DELVRY07/IDOC/E1EDL20/MISSING"));
+
+    @Test
+    void testCompilesOnlySimpleLocationPaths() {
+        PathTrie trie = PathTrie.compile(rules);
+
+        assertTrue(trie.isCompiled(0));
+        assertTrue(trie.isCompiled(1));
+        assertTrue(trie.isCompiled(2));
+        assertTrue(trie.isCompiled(3));
+        assertFalse(trie.isCompiled(4));
+        assertTrue(trie.isCompiled(5));
+    }
+
+    @Test
+    void testDomEvaluationMatchesXPathSemantics() throws Exception {
+        XmlInfrastructure xmlInfrastructure = new XmlInfrastructure();
+        Document document = xmlInfrastructure.parse(new ByteArrayInputStream(IDOC.getBytes(StandardCharsets.UTF_8)));
+
+        RuleMatches matches = new CompiledRulePlan(1L, 0L, rules, xmlInfrastructure).evaluate(document);
+
+        assertEquals("0000000012345678", matches.first(0));
+        assertEquals("0080001234", matches.first(1));
+        assertEquals(2, matches.count(2));
+        assertEquals("000010", matches.first(2));
+        assertEquals("000020", matches.last(2));
+        assertEquals("1", matches.first(3));
+        assertEquals("MAT-2", matches.first(4));
+        assertEquals(0, matches.count(5));
+        assertNull(matches.first(5));
+    }
+
+    @Test
+    void testStreamingEvaluationMatchesDomEvaluation() throws Exception {
+        CompiledRulePlan plan = new CompiledRulePlan(1L, 0L, rules, new XmlInfrastructure());
+
+        StreamingMappingResult result = new StreamingMappingEngine(new XmlInfrastructure())
+                .process(new ByteArrayInputStream(IDOC.getBytes(StandardCharsets.UTF_8)), plan);
+
+        RuleMatches matches = result.getMatches();
+        assertEquals("DELVRY07", result.getRootElement());
+        assertEquals("0000000012345678", matches.first(0));
+        assertEquals("0080001234", matches.first(1));
+        assertEquals("000010", matches.first(2));
+        assertEquals("000020", matches.last(2));
+        assertEquals("1", matches.first(3));
+        assertEquals(List.of(rules.get(4)), plan.getUnsupportedRules());
+        assertEquals(plan.getUnsupportedRules(), result.getUnsupportedRules());
+        assertEquals(0, matches.count(5));
+    }
+
+    @Test
+    void testBothEvaluatorsMatchLocalNamesInNamespacedDocuments() throws Exception {
+        String namespaced = IDOC
+                .replace("<DELVRY07>", "<DELVRY07 xmlns=\"urn:sap-com:document:sap:idoc:soap:messages\">")
+                .replace("<E1EDL24 SEGMENT=\"1\"><POSNR>000020", "<sap:E1EDL24 xmlns:sap=\"urn:sap\" SEGMENT=\"1\"><POSNR>000020")
+                .replace("MAT-2</MATNR></E1EDL24>", "MAT-2</MATNR></sap:E1EDL24>");
+        XmlInfrastructure xmlInfrastructure = new XmlInfrastructure();
+        CompiledRulePlan plan = new CompiledRulePlan(1L, 0L, rules, xmlInfrastructure);
+
+        RuleMatches dom = plan.evaluate(xmlInfrastructure.parse(new ByteArrayInputStream(namespaced.getBytes(StandardCharsets.UTF_8))));
+        RuleMatches streamed = new StreamingMappingEngine(xmlInfrastructure)
+                .process(new ByteArrayInputStream(namespaced.getBytes(StandardCharsets.UTF_8)), plan).getMatches();
+
+        for (RuleMatches matches : List.of(dom, streamed)) {
+            assertEquals("0000000012345678", matches.first(0));
+            assertEquals("0080001234", matches.first(1));
+            assertEquals("000010", matches.first(2));
+            assertEquals("000020", matches.last(2));
+            assertEquals("1", matches.first(3));
+        }
+        assertEquals("MAT-2", dom.first(4), "The XPath rule matches the same elements as the trie");
+        assertEquals(0, dom.count(5));
+    }
+
+    private static MappingRule rule(Long id, String xmlPath) {
+        MappingRule rule = new MappingRule();
+        rule.setId(id);
+        rule.setName("rule-" + id);
+        rule.setXmlPath(xmlPath);
+        rule.setDatabaseField("field" + id);
+        return rule;
+    }
+}
@@ -0,0 +1,90 @@
+package com.xml.processor.service.mapping;
+
+import com.xml.processor.model.MappingRule;
+import com.xml.processor.service.xml.ValidationResult;
+import com.xml.processor.service.xml.XmlInfrastructure;
+import org.junit.jupiter.api.Test;
+import org.xml.sax.SAXException;
+
+import javax.xml.transform.stream.StreamSource;
+import javax.xml.validation.Schema;
+import java.io.ByteArrayInputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StreamingMappingEngineTest {
+
+    private static final String SCHEMA =
+            "<xs:schema xmlns:xs=\"http://www.w3.org/2001/XMLSchema\">" +
+            "<xs:element name=\"DELVRY07\"><xs:complexType><xs:sequence>" +
+            "<xs:element name=\"E1EDL20\" maxOccurs=\"unbounded\"><xs:complexType><xs:sequence>" +
+            "<xs:element name=\"VBELN\" type=\"xs:string\"/>" +
+            "<xs:element name=\"LFIMG\" type=\"xs:decimal\"/>" +
+            "</xs:sequence></xs:complexType></xs:element>" +
+            "</xs:sequence></xs:complexType></xs:element>" +
+            "</xs:schema>";
+
+    private final XmlInfrastructure xmlInfrastructure = new XmlInfrastructure();
+    private final StreamingMappingEngine engine = new StreamingMappingEngine(xmlInfrastructure);
+    private final CompiledRulePlan plan = new CompiledRulePlan(1L, 0L, List.of(
+            rule(1L, "/DELVRY07/E1EDL20/VBELN"),
+            rule(2L, "/DELVRY07/E1EDL20/LFIMG")), xmlInfrastructure);
+
+    @Test
+    void testValidatesAndMapsInOnePass() throws Exception {
+        String xml = "<DELVRY07><E1EDL20><VBELN>0080001234</VBELN><LFIMG>12.000</LFIMG></E1EDL20></DELVRY07>";
+
+        StreamingMappingResult result = engine.process(stream(xml), plan, schema());
+
+        ValidationResult validation = result.getValidation();
+        assertTrue(validation.isValid(), validation.getErrorMessage());
+        assertNotNull(validation.getDuration());
+        assertEquals("DELVRY07", result.getRootElement());
+        assertEquals("0080001234", result.getMatches().first(0));
+        assertEquals("12.000", result.getMatches().first(1));
+        assertNull(engine.process(stream(xml), plan).getValidation(), "The unvalidated pass has no validation result");
+    }
+
+    @Test
+    void testCollectsSchemaViolationsWithoutAbortingTheMapping() throws Exception {
+        String xml = "<DELVRY07>\n" +
+                "<E1EDL20><VBELN>0080001234</VBELN><LFIMG>twelve</LFIMG></E1EDL20>\n" +
+                "<E1EDL20><VBELN>0080001235</VBELN><LFIMG>many</LFIMG></E1EDL20>\n" +
+                "</DELVRY07>";
+
+        StreamingMappingResult result = engine.process(stream(xml), plan, schema());
+
+        ValidationResult validation = result.getValidation();
+        assertFalse(validation.isValid());
+        assertEquals(2, validation.getErrors().get(0).getLine());
+        assertEquals(3, validation.getErrors().get(validation.getErrors().size() - 1).getLine());
+        assertEquals(2, result.getMatches().count(0), "Mapping continues past the violations");
+        assertEquals("many", result.getMatches().last(1));
+    }
+
+    @Test
+    void testRejectsDocumentsThatAreNotWellFormed() {
+        assertThrows(SAXException.class,
+                () -> engine.process(stream("<DELVRY07><E1EDL20></DELVRY07>"), plan, schema()));
+    }
+
+    private Schema schema() throws SAXException {
+        return xmlInfrastructure.newSchema(new StreamSource(new StringReader(SCHEMA)));
+    }
+
+    private static ByteArrayInputStream stream(String xml) {
+        return new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static MappingRule rule(Long id, String xmlPath) {
+        MappingRule rule = new MappingRule();
+        rule.setId(id);
+        rule.setName("rule-" + id);
+        rule.setXmlPath(xmlPath);
+        rule.setDatabaseField("field" + id);
+        return rule;
+    }
+}
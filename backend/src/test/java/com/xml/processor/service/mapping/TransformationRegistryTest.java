@@ -0,0 +1,47 @@
+package com.xml.processor.service.mapping;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TransformationRegistryTest {
+
+    @Test
+    void testStandardTransformations() {
+        TransformationRegistry registry = TransformationRegistry.STANDARD;
+
+        assertEquals("ABC", registry.resolve("UpperCase").apply("abc"));
+        assertEquals("2024-01-05", registry.resolve("date").apply("2024-1-5"));
+        assertEquals("09:05:00", registry.resolve("time").apply("9:5:0"));
+        assertEquals("2024-01-05T09:05:00", registry.resolve("datetime").apply("2024-01-05T09:05:00"));
+        assertEquals("12.35", registry.resolve("number").apply("12.345"));
+        assertEquals("-3.00", registry.resolve("currency").apply(" -3 "));
+        assertEquals("12", registry.resolve("integer").apply("12.9"));
+        assertEquals("", registry.resolve("number").apply(""));
+    }
+
+    @Test
+    void testAsnTransformationsExtendStandardProfile() {
+        TransformationRegistry registry = TransformationRegistry.ASN;
+
+        assertEquals("2024-03-31", registry.resolve("asn_date").apply("20240331"));
+        assertEquals("23:59:01", registry.resolve("asn_time").apply("235901"));
+        assertEquals("80001234", registry.resolve("asn_number").apply("0080001234"));
+        assertEquals("10.000", registry.resolve("asn_quantity").apply("10"));
+        assertEquals("COMPLETED", registry.resolve("asn_status").apply("03"));
+        assertEquals("mat-1", registry.resolve("lowercase").apply("MAT-1"));
+        assertSame(ValueTransformer.IDENTITY, TransformationRegistry.STANDARD.resolve("asn_date"));
+    }
+
+    @Test
+    void testInvalidValuesAndUnknownTransformationsKeepValue() {
+        assertEquals("2024-02-30", TransformationRegistry.STANDARD.resolve("date").apply("2024-02-30"));
+        assertEquals("n/a", TransformationRegistry.ASN.resolve("asn_quantity").apply("n/a"));
+        assertSame(ValueTransformer.IDENTITY, TransformationRegistry.XML.resolve("unknown"));
+        assertSame(ValueTransformer.IDENTITY, TransformationRegistry.XML.resolve(null));
+
+        assertEquals("2024-12-31", TransformationRegistry.XML.resolve("date").apply("12/31/2024"));
+        assertEquals("1234.50", TransformationRegistry.XML.resolve("number").apply("$1,234.5"));
+        assertEquals("abc", TransformationRegistry.XML.resolve("number").apply("abc"));
+    }
+}
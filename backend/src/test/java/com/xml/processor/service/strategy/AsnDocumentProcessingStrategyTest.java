@@ -0,0 +1,141 @@
+package com.xml.processor.service.strategy;
+
+import com.xml.processor.model.Client;
+import com.xml.processor.model.Interface;
+import com.xml.processor.model.MappingRule;
+import com.xml.processor.model.ProcessedFile;
+import com.xml.processor.repository.AsnBatchWriter;
+import com.xml.processor.service.interfaces.MappingRuleService;
+import com.xml.processor.service.interfaces.ProcessedFileService;
+import com.xml.processor.service.mapping.AsnStreamingMapper;
+import com.xml.processor.service.mapping.MappingPlanCache;
+import com.xml.processor.service.xml.ByteArrayMultipartFile;
+import com.xml.processor.service.xml.XmlInfrastructure;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class AsnDocumentProcessingStrategyTest {
+
+    private static final String IDOC =
+            "<DELVRY07><IDOC BEGIN=\"1\">" +
+            "<E1EDL20 SEGMENT=\"1\"><VBELN>0080001234</VBELN>" +
+            "<E1EDL24 SEGMENT=\"1\"><MATNR>MAT-1</MATNR><LFIMG>12</LFIMG></E1EDL24>" +
+            "<E1EDL24 SEGMENT=\"1\"><MATNR>MAT-2</MATNR><LFIMG>3</LFIMG></E1EDL24>" +
+            "</E1EDL20>" +
+            "<E1EDL20 SEGMENT=\"1\"><VBELN>0080001235</VBELN>" +
+            "<E1EDL24 SEGMENT=\"1\"><MATNR>MAT-3</MATNR><LFIMG>QUANTITY</LFIMG></E1EDL24>" +
+            "</E1EDL20>" +
+            "</IDOC></DELVRY07>";
+
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate callerTransaction;
+    private AsnDocumentProcessingStrategy strategy;
+    private Interface interfaceEntity;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:asn-strategy;DB_CLOSE_DELAY=-1", "sa", "");
+        dataSource.setDriverClassName("org.h2.Driver");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE asn_headers (id BIGINT AUTO_INCREMENT PRIMARY KEY, "
+                + "document_number VARCHAR(50) NOT NULL, document_type VARCHAR(50), sender_id VARCHAR(50), "
+                + "receiver_id VARCHAR(50), document_date VARCHAR(255) NOT NULL, document_time VARCHAR(255), "
+                + "status VARCHAR(20) NOT NULL, notes VARCHAR(1000), client_id BIGINT NOT NULL, "
+                + "created_at TIMESTAMP NOT NULL, updated_at TIMESTAMP NOT NULL)");
+        jdbcTemplate.execute("CREATE TABLE asn_lines (id BIGINT AUTO_INCREMENT PRIMARY KEY, "
+                + "header_id BIGINT NOT NULL REFERENCES asn_headers(id), line_number INT, item_number VARCHAR(50), "
+                + "item_description VARCHAR(255), quantity INT, unit_of_measure VARCHAR(50), lot_number VARCHAR(50), "
+                + "serial_number VARCHAR(50), status VARCHAR(20), notes VARCHAR(500), client_id BIGINT NOT NULL, "
+                + "created_at TIMESTAMP NOT NULL, updated_at TIMESTAMP NOT NULL)");
+        // DataSourceTransactionManager allows nested transactions like the configured JPA one
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        callerTransaction = new TransactionTemplate(transactionManager);
+
+        Client client = new Client();
+        client.setId(1L);
+        interfaceEntity = new Interface();
+        interfaceEntity.setId(3L);
+        interfaceEntity.setClient(client);
+
+        MappingRuleService mappingRuleService = mock(MappingRuleService.class);
+        when(mappingRuleService.getActiveMappingRules(eq(3L), any())).thenReturn(new PageImpl<>(List.of(
+                rule(1L, "asn_headers", "document_number", "/DELVRY07/IDOC/E1EDL20/VBELN"),
+                rule(2L, "asn_lines", "item_number", "/DELVRY07/IDOC/E1EDL20/E1EDL24/MATNR"),
+                rule(3L, "asn_lines", "quantity", "/DELVRY07/IDOC/E1EDL20/E1EDL24/LFIMG"))));
+        ProcessedFileService processedFileService = mock(ProcessedFileService.class);
+        when(processedFileService.createProcessedFile(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        XmlInfrastructure xmlInfrastructure = new XmlInfrastructure();
+        strategy = new AsnDocumentProcessingStrategy();
+        strategy.setTransactionManager(transactionManager);
+        ReflectionTestUtils.setField(strategy, "mappingRuleService", mappingRuleService);
+        ReflectionTestUtils.setField(strategy, "mappingPlanCache", new MappingPlanCache(xmlInfrastructure));
+        ReflectionTestUtils.setField(strategy, "asnStreamingMapper", new AsnStreamingMapper(xmlInfrastructure));
+        // One line per batch, so the first delivery's lines are written before the second fails
+        ReflectionTestUtils.setField(strategy, "asnBatchWriter", new AsnBatchWriter(jdbcTemplate, 1));
+        ReflectionTestUtils.setField(strategy, "processedFileService", processedFileService);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DROP ALL OBJECTS");
+    }
+
+    @Test
+    void testWritesEveryDeliveryOfTheDocument() {
+        ProcessedFile result = callerTransaction.execute(status ->
+                strategy.processDocument(upload(IDOC.replace("QUANTITY", "7")), interfaceEntity));
+
+        assertEquals("SUCCESS", result.getStatus(), result.getErrorMessage());
+        assertEquals(2, count("asn_headers"));
+        assertEquals(3, count("asn_lines"));
+    }
+
+    @Test
+    void testRollsBackFailedDocumentToSavepointOfCallerTransaction() {
+        ProcessedFile result = callerTransaction.execute(status -> {
+            jdbcTemplate.update("INSERT INTO asn_headers (document_number, document_date, status, client_id, "
+                    + "created_at, updated_at) VALUES ('EARLIER', '2024-01-01', 'RECEIVED', 1, NOW(), NOW())");
+            ProcessedFile processed = strategy.processDocument(upload(IDOC), interfaceEntity);
+            assertFalse(status.isRollbackOnly(), "The caller's transaction can still commit");
+            return processed;
+        });
+
+        assertEquals("ERROR", result.getStatus());
+        assertTrue(result.getErrorMessage().contains("is not a number"), result.getErrorMessage());
+        assertEquals(List.of("EARLIER"), jdbcTemplate.queryForList("SELECT document_number FROM asn_headers", String.class));
+        assertEquals(0, count("asn_lines"));
+    }
+
+    private int count(String table) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table, Integer.class);
+    }
+
+    private static ByteArrayMultipartFile upload(String xml) {
+        return new ByteArrayMultipartFile("delivery.xml", "application/xml", xml.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static MappingRule rule(Long id, String tableName, String databaseField, String xmlPath) {
+        MappingRule rule = new MappingRule();
+        rule.setId(id);
+        rule.setName("rule-" + id);
+        rule.setTableName(tableName);
+        rule.setDatabaseField(databaseField);
+        rule.setXmlPath(xmlPath);
+        return rule;
+    }
+}
@@ -0,0 +1,75 @@
+package com.xml.processor.service.tenant;
+
+import com.xml.processor.model.Client;
+import com.xml.processor.repository.ClientRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class TenantResolverTest {
+
+    private ClientRepository clientRepository;
+    private TenantResolver resolver;
+
+    @BeforeEach
+    void setUp() {
+        clientRepository = mock(ClientRepository.class);
+        resolver = new TenantResolver(clientRepository, new ConcurrentMapCacheManager(
+                TenantResolver.TENANTS, TenantResolver.TENANT_CODES, TenantResolver.UNKNOWN_TENANTS));
+    }
+
+    @Test
+    void testResolvesFromCacheAfterFirstLookup() {
+        when(clientRepository.findById(1L)).thenReturn(Optional.of(client(1L, "ACME")));
+
+        ClientSnapshot first = resolver.findById(1L).orElseThrow();
+        ClientSnapshot second = resolver.findById(1L).orElseThrow();
+
+        assertSame(first, second);
+        assertEquals("ACME", second.getCode());
+        assertNotSame(first.toClient(), second.toClient(), "Every request gets a Client of its own");
+        verify(clientRepository, times(1)).findById(1L);
+    }
+
+    @Test
+    void testRemembersUnknownClients() {
+        when(clientRepository.findById(9L)).thenReturn(Optional.empty());
+        when(clientRepository.findByCode("NOPE")).thenReturn(Optional.empty());
+
+        assertTrue(resolver.findById(9L).isEmpty());
+        assertTrue(resolver.findById(9L).isEmpty());
+        assertTrue(resolver.findByCode("NOPE").isEmpty());
+        assertTrue(resolver.findByCode("NOPE").isEmpty());
+
+        verify(clientRepository, times(1)).findById(9L);
+        verify(clientRepository, times(1)).findByCode("NOPE");
+    }
+
+    @Test
+    void testResolvesCodesAndDropsChangedClients() {
+        when(clientRepository.findByCode("ACME")).thenReturn(Optional.of(client(1L, "ACME")));
+        when(clientRepository.findById(1L)).thenReturn(Optional.of(client(1L, "ACME-2")));
+
+        assertEquals(1L, resolver.findByCode("ACME").orElseThrow().getId());
+        assertEquals("ACME", resolver.findById(1L).orElseThrow().getCode());
+        verify(clientRepository, never()).findById(1L);
+
+        resolver.onClientChanged(new ClientChangedEvent(1L));
+
+        assertEquals("ACME-2", resolver.findById(1L).orElseThrow().getCode());
+        verify(clientRepository, times(1)).findById(1L);
+    }
+
+    private static Client client(Long id, String code) {
+        Client client = new Client();
+        client.setId(id);
+        client.setName(code + " Inc.");
+        client.setCode(code);
+        return client;
+    }
+}
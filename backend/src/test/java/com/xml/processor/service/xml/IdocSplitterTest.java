@@ -0,0 +1,73 @@
+package com.xml.processor.service.xml;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IdocSplitterTest {
+
+    private static final String BATCH =
+            "<DELVRY07>" +
+            "<IDOC BEGIN=\"1\"><EDI_DC40><DOCNUM>1</DOCNUM></EDI_DC40><E1EDL20><VBELN>A</VBELN></E1EDL20></IDOC>" +
+            "<IDOC BEGIN=\"1\"><EDI_DC40><DOCNUM>2</DOCNUM></EDI_DC40><E1EDL20><VBELN>B</VBELN></E1EDL20></IDOC>" +
+            "</DELVRY07>";
+
+    private final IdocSplitter splitter = new IdocSplitter(new XmlInfrastructure());
+
+    @Test
+    void testEmitsOneDocumentPerSplitElementWithItsAncestors() throws Exception {
+        List<Integer> indexes = new ArrayList<>();
+        List<String> units = new ArrayList<>();
+
+        int count = splitter.split(stream(BATCH), "IDOC", (index, unit) -> {
+            indexes.add(index);
+            units.add(new String(unit, StandardCharsets.UTF_8));
+        });
+
+        assertEquals(2, count);
+        assertEquals(List.of(1, 2), indexes);
+        String first = units.get(0);
+        assertTrue(first.contains("<DELVRY07><IDOC BEGIN=\"1\">"), first);
+        assertTrue(first.contains("<DOCNUM>1</DOCNUM>"), first);
+        assertTrue(first.endsWith("</IDOC></DELVRY07>"), first);
+        assertFalse(first.contains("<VBELN>B</VBELN>"), first);
+        assertTrue(units.get(1).contains("<VBELN>B</VBELN>"), units.get(1));
+    }
+
+    @Test
+    void testLeavesOutSiblingsOfAncestorsBelowIdocLevel() throws Exception {
+        List<String> units = new ArrayList<>();
+
+        int count = splitter.split(stream(BATCH), "E1EDL20",
+                (index, unit) -> units.add(new String(unit, StandardCharsets.UTF_8)));
+
+        assertEquals(2, count);
+        assertTrue(units.get(0).contains("<DELVRY07><IDOC BEGIN=\"1\"><E1EDL20><VBELN>A</VBELN></E1EDL20></IDOC></DELVRY07>"),
+                units.get(0));
+        assertFalse(units.get(0).contains("EDI_DC40"), units.get(0));
+    }
+
+    @Test
+    void testReturnsZeroWhenSplitElementIsAbsent() throws Exception {
+        assertEquals(0, splitter.split(stream(BATCH), "ORDERS", (index, unit) -> fail("No unit expected")));
+    }
+
+    @Test
+    void testPropagatesHandlerFailures() {
+        IllegalStateException error = assertThrows(IllegalStateException.class,
+                () -> splitter.split(stream(BATCH), "IDOC", (index, unit) -> {
+                    throw new IllegalStateException("unit " + index);
+                }));
+
+        assertEquals("unit 1", error.getMessage());
+    }
+
+    private static ByteArrayInputStream stream(String xml) {
+        return new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8));
+    }
+}
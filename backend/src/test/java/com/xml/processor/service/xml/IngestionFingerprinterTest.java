@@ -0,0 +1,82 @@
+package com.xml.processor.service.xml;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IngestionFingerprinterTest {
+
+    private final IngestionFingerprinter fingerprinter = new IngestionFingerprinter(new XmlInfrastructure());
+
+    @Test
+    void testHashesContentWhileReading() throws Exception {
+        IngestionFingerprinter.Upload upload = read("<order><id>1</id></order>");
+
+        assertEquals("<order><id>1</id></order>", new String(upload.getContent(), StandardCharsets.UTF_8));
+        assertEquals(64, upload.getContentHash().length());
+        assertEquals(upload.getContentHash(), read("<order><id>1</id></order>").getContentHash());
+        assertNotEquals(upload.getContentHash(), read("<order><id>2</id></order>").getContentHash());
+    }
+
+    @Test
+    void testFingerprintsIdocsByControlKeys() throws Exception {
+        IngestionFingerprinter.Fingerprint first = fingerprint(idoc("0000000012345678", "20240102101500", "1"));
+        IngestionFingerprinter.Fingerprint resent = fingerprint(idoc("0000000012345678", "20240102111500", "1"));
+        IngestionFingerprinter.Fingerprint other = fingerprint(idoc("0000000012345679", "20240102101500", "1"));
+
+        assertTrue(first.getValue().startsWith("IDOC:"), first.getValue());
+        assertEquals("0000000012345678", first.getIdocNumber());
+        assertEquals(first.getValue(), resent.getValue(), "A resend differing in CREDAT is a duplicate");
+        assertNotEquals(first.getValue(), other.getValue());
+        assertNotEquals(first.getValue(), fingerprint(idoc("0000000012345678", "20240102101500", "2")).getValue());
+    }
+
+    @Test
+    void testFingerprintsOtherDocumentsByContent() throws Exception {
+        IngestionFingerprinter.Upload upload = read("<order><id>1</id></order>");
+        IngestionFingerprinter.Fingerprint fingerprint = fingerprinter.fingerprint(upload);
+
+        assertEquals("SHA256:" + upload.getContentHash(), fingerprint.getValue());
+        assertNull(fingerprint.getIdocNumber());
+
+        IngestionFingerprinter.Upload malformed = read("<order><id>1</order>");
+        assertEquals("SHA256:" + malformed.getContentHash(), fingerprinter.fingerprint(malformed).getValue());
+    }
+
+    @Test
+    void testKeepsIdocsOfDifferentSendersApart() throws Exception {
+        String idoc = idoc("0000000012345678", "20240102101500", "1");
+        IngestionFingerprinter.Fingerprint first = fingerprint(sentBy(idoc, "800", "SAPPRD", "PRDCLNT800"));
+
+        assertEquals(first.getValue(), fingerprint(sentBy(idoc.replace("20240102101500", "20240102111500"),
+                "800", "SAPPRD", "PRDCLNT800")).getValue(), "A resend by the same sender is a duplicate");
+        assertNotEquals(first.getValue(), fingerprint(sentBy(idoc, "800", "SAPPRD", "EWMCLNT800")).getValue());
+        assertNotEquals(first.getValue(), fingerprint(sentBy(idoc, "800", "SAPEWM", "PRDCLNT800")).getValue());
+        assertNotEquals(first.getValue(), fingerprint(sentBy(idoc, "100", "SAPPRD", "PRDCLNT800")).getValue());
+        assertEquals("0000000012345678", first.getIdocNumber());
+    }
+
+    private IngestionFingerprinter.Fingerprint fingerprint(String xml) throws Exception {
+        return fingerprinter.fingerprint(read(xml));
+    }
+
+    private IngestionFingerprinter.Upload read(String xml) throws Exception {
+        return fingerprinter.read(new ByteArrayMultipartFile("test.xml", "application/xml",
+                xml.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static String sentBy(String idoc, String mandt, String sndpor, String sndprn) {
+        return idoc.replace("<DOCNUM>", "<MANDT>" + mandt + "</MANDT><SNDPOR>" + sndpor + "</SNDPOR>"
+                + "<SNDPRN>" + sndprn + "</SNDPRN><DOCNUM>");
+    }
+
+    private static String idoc(String docnum, String credat, String serial) {
+        return "<DELVRY07><IDOC BEGIN=\"1\">"
+                + "<EDI_DC40 SEGMENT=\"1\"><DOCNUM>" + docnum + "</DOCNUM><CREDAT>" + credat + "</CREDAT>"
+                + "<SERIAL>" + serial + "</SERIAL></EDI_DC40>"
+                + "<E1EDL20 SEGMENT=\"1\"><VBELN>0080001234</VBELN></E1EDL20>"
+                + "</IDOC></DELVRY07>";
+    }
+}
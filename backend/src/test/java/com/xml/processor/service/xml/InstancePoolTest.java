@@ -0,0 +1,53 @@
+package com.xml.processor.service.xml;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class InstancePoolTest {
+
+    @Test
+    void testKeepsOneInstancePerThread() throws Exception {
+        AtomicInteger created = new AtomicInteger();
+        InstancePool<Integer> pool = InstancePool.perThread(created::incrementAndGet);
+
+        Integer first = pool.acquire();
+        pool.release(first);
+        assertSame(first, pool.acquire());
+        assertEquals(2, CompletableFuture.supplyAsync(pool::acquire, runnable -> new Thread(runnable).start()).get());
+    }
+
+    @Test
+    void testSharesReleasedInstancesBetweenThreads() throws Exception {
+        AtomicInteger created = new AtomicInteger();
+        InstancePool<Integer> pool = InstancePool.shared(created::incrementAndGet, 1);
+
+        Integer first = pool.acquire();
+        Integer second = pool.acquire();
+        assertNotEquals(first, second, "An acquired instance is not handed out twice");
+        pool.release(first);
+        pool.release(second);
+
+        Integer reused = CompletableFuture.supplyAsync(pool::acquire, runnable -> new Thread(runnable).start()).get();
+        assertSame(first, reused);
+        assertEquals(3, pool.acquire(), "Only one idle instance is kept");
+        assertEquals(3, created.get());
+    }
+
+    @Test
+    void testInfrastructureReusesSharedInstances() throws Exception {
+        XmlInfrastructure xmlInfrastructure = new XmlInfrastructure(true, 2);
+        byte[] xml = "<order><id>1</id></order>".getBytes(StandardCharsets.UTF_8);
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals("order", xmlInfrastructure.parse(new ByteArrayInputStream(xml)).getDocumentElement().getLocalName());
+        }
+        assertEquals("1", xmlInfrastructure.compileXPath("/order/id")
+                .evaluate(xmlInfrastructure.parse(new ByteArrayInputStream(xml))));
+    }
+}
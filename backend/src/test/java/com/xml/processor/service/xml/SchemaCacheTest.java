@@ -0,0 +1,107 @@
+package com.xml.processor.service.xml;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.xml.sax.SAXException;
+
+import javax.xml.transform.stream.StreamSource;
+import javax.xml.validation.Schema;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SchemaCacheTest {
+
+    private static final String NUMERIC_ID = schema("xs:int");
+    private static final String TEXT_ID = schema("xs:string");
+
+    @TempDir
+    Path tempDir;
+
+    // The interface repository is only used to warm the cache on application start
+    private final SchemaCache schemaCache = new SchemaCache(new XmlInfrastructure(), null);
+
+    @Test
+    void testCompilesFileSchemaOnce() throws Exception {
+        Path xsd = write("order.xsd", NUMERIC_ID);
+
+        Schema schema = schemaCache.getSchema(xsd.toString());
+
+        assertSame(schema, schemaCache.getSchema(xsd.toString()));
+        assertTrue(isValid(schema, "<order><id>1</id></order>"));
+        assertFalse(isValid(schema, "<order><id>A</id></order>"));
+    }
+
+    @Test
+    void testRecompilesOnlyWhenContentChanges() throws Exception {
+        Path xsd = write("order.xsd", NUMERIC_ID);
+        Schema first = schemaCache.getSchema(xsd.toString());
+
+        touch(xsd);
+        assertSame(first, schemaCache.getSchema(xsd.toString()), "A touched file with the same content is not recompiled");
+
+        Files.writeString(xsd, TEXT_ID);
+        touch(xsd);
+        Schema second = schemaCache.getSchema(xsd.toString());
+
+        assertNotSame(first, second);
+        assertTrue(isValid(second, "<order><id>A</id></order>"));
+        assertSame(second, schemaCache.getSchema(xsd.toString()));
+    }
+
+    @Test
+    void testInvalidateForcesRecompilation() throws Exception {
+        Path xsd = write("order.xsd", NUMERIC_ID);
+        Schema first = schemaCache.getSchema(xsd.toString());
+
+        schemaCache.invalidate(xsd.toString());
+        schemaCache.invalidate(null);
+
+        assertNotSame(first, schemaCache.getSchema(xsd.toString()));
+    }
+
+    @Test
+    void testReportsMissingAndInvalidSchemas() throws Exception {
+        Path broken = write("broken.xsd", schema("xs:unknown"));
+        String missing = tempDir.resolve("missing.xsd").toString();
+
+        assertThrows(FileNotFoundException.class, () -> schemaCache.getSchema(missing));
+        assertThrows(SAXException.class, () -> schemaCache.getSchema(broken.toString()));
+
+        Files.writeString(broken, NUMERIC_ID);
+        touch(broken);
+        assertNotNull(schemaCache.getSchema(broken.toString()), "A failed compilation is not cached");
+    }
+
+    private Path write(String name, String content) throws IOException {
+        return Files.writeString(tempDir.resolve(name), content);
+    }
+
+    private static void touch(Path file) throws IOException {
+        // File systems with a coarse timestamp resolution would otherwise hide the change
+        long lastModified = Files.getLastModifiedTime(file).toMillis();
+        Files.setLastModifiedTime(file, FileTime.fromMillis(lastModified + 2000));
+    }
+
+    private static boolean isValid(Schema schema, String xml) throws IOException {
+        try {
+            schema.newValidator().validate(new StreamSource(new StringReader(xml)));
+            return true;
+        } catch (SAXException e) {
+            return false;
+        }
+    }
+
+    private static String schema(String idType) {
+        return "<xs:schema xmlns:xs=\"http://www.w3.org/2001/XMLSchema\">" +
+                "<xs:element name=\"order\"><xs:complexType><xs:sequence>" +
+                "<xs:element name=\"id\" type=\"" + idType + "\"/>" +
+                "</xs:sequence></xs:complexType></xs:element>" +
+                "</xs:schema>";
+    }
+}
@@ -0,0 +1,86 @@
+package com.xml.processor.service.xml;
+
+import org.junit.jupiter.api.Test;
+import org.xml.sax.SAXParseException;
+
+import javax.xml.XMLConstants;
+import javax.xml.transform.stream.StreamSource;
+import javax.xml.validation.SchemaFactory;
+import javax.xml.validation.Validator;
+import java.io.StringReader;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ValidationIssueCollectorTest {
+
+    private static final String SCHEMA =
+            "<xs:schema xmlns:xs=\"http://www.w3.org/2001/XMLSchema\">" +
+            "<xs:element name=\"order\"><xs:complexType><xs:sequence>" +
+            "<xs:element name=\"id\" type=\"xs:int\"/>" +
+            "<xs:element name=\"quantity\" type=\"xs:int\"/>" +
+            "</xs:sequence></xs:complexType></xs:element>" +
+            "</xs:schema>";
+
+    @Test
+    void testCollectsEveryViolationWithItsPosition() throws Exception {
+        Validator validator = SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI)
+                .newSchema(new StreamSource(new StringReader(SCHEMA)))
+                .newValidator();
+        ValidationIssueCollector collector = new ValidationIssueCollector();
+        validator.setErrorHandler(collector);
+
+        validator.validate(new StreamSource(new StringReader(
+                "<order>\n<id>A</id>\n<quantity>B</quantity>\n</order>")));
+        ValidationResult result = collector.toResult(Duration.ofMillis(5));
+
+        assertFalse(result.isValid());
+        assertTrue(result.getErrors().size() >= 2, result.getErrorMessage());
+        assertEquals(2, result.getErrors().get(0).getLine());
+        assertEquals(3, result.getErrors().get(result.getErrors().size() - 1).getLine());
+        assertTrue(result.getErrorMessage().startsWith("Line 2, column "), result.getErrorMessage());
+        assertEquals(Duration.ofMillis(5), result.getDuration());
+    }
+
+    @Test
+    void testSeparatesWarningsFromErrors() {
+        ValidationIssueCollector collector = new ValidationIssueCollector();
+
+        collector.warning(new SAXParseException("deprecated", null, null, 4, 2));
+        ValidationResult warningsOnly = collector.toResult(Duration.ZERO);
+        collector.addError("Unknown interface type");
+        ValidationResult withError = collector.toResult(Duration.ZERO);
+
+        assertTrue(warningsOnly.isValid());
+        assertNull(warningsOnly.getErrorMessage());
+        assertEquals(List.of("deprecated"), warningsOnly.getWarnings().stream().map(ValidationResult.Issue::getMessage).toList());
+        assertFalse(withError.isValid());
+        assertEquals(-1, withError.getErrors().get(0).getLine());
+        assertEquals("Unknown interface type", withError.getErrorMessage());
+        assertEquals(1, warningsOnly.getWarnings().size(), "Results are not affected by later issues");
+    }
+
+    @Test
+    void testCapsIssuesAndCountsTheRest() {
+        ValidationIssueCollector collector = new ValidationIssueCollector();
+
+        for (int line = 1; line <= 105; line++) {
+            collector.error(new SAXParseException("invalid value", null, null, line, 1));
+        }
+        ValidationResult result = collector.toResult(Duration.ZERO);
+
+        assertEquals(100, result.getErrors().size());
+        assertEquals(100, result.getErrors().get(99).getLine());
+        assertEquals("... and 5 more validation issues", result.getWarnings().get(0).getMessage());
+    }
+
+    @Test
+    void testFatalErrorsAbortTheParse() {
+        ValidationIssueCollector collector = new ValidationIssueCollector();
+        SAXParseException fatal = new SAXParseException("not well-formed", null, null, 1, 1);
+
+        assertSame(fatal, assertThrows(SAXParseException.class, () -> collector.fatalError(fatal)));
+        assertTrue(collector.toResult(Duration.ZERO).isValid());
+    }
+}
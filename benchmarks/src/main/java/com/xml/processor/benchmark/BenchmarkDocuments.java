@@ -0,0 +1,99 @@
+package com.xml.processor.benchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Loads the documents the benchmarks run on: the checked-in samples from the Input
+ * directory, and synthetic DELVRY07 IDocs of a requested size built from the
+ * {@code asn1.xml} sample by repeating its first E1EDL24 delivery item. Synthetic IDocs
+ * carry the SEGMENT and BEGIN attributes of real SAP exports, so they are valid against
+ * the DELVRY07 schema.
+ * <p>
+ * The sample directory defaults to {@code ../Input} and can be changed with the
+ * {@code benchmark.input.dir} system property.
+ */
+public final class BenchmarkDocuments {
+
+    /** Prefix of synthetic document names, followed by the size, e.g. {@code DELVRY07-10MB}. */
+    public static final String SYNTHETIC_PREFIX = "DELVRY07-";
+
+    private static final String DELVRY07_SAMPLE = "asn1.xml";
+    private static final String ITEM_START = "<E1EDL24 SEGMENT=\"1\">";
+    private static final String ITEM_END = "</E1EDL24>";
+    private static final String ITEM_NUMBER = "000010";
+    private static final Pattern SEGMENT_START = Pattern.compile("<(E1[A-Z0-9_]+|EDI_DC40)>");
+
+    private BenchmarkDocuments() {
+    }
+
+    /**
+     * Returns the bytes of a sample file name or a synthetic document name.
+     *
+     * @param name A file in the Input directory, or {@code DELVRY07-<size>} with a KB or MB size
+     */
+    public static byte[] load(String name) {
+        if (name.startsWith(SYNTHETIC_PREFIX)) {
+            return synthetic(parseSize(name.substring(SYNTHETIC_PREFIX.length())));
+        }
+        try {
+            return Files.readAllBytes(inputDirectory().resolve(name));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read benchmark input " + name, e);
+        }
+    }
+
+    /**
+     * Builds a DELVRY07 IDoc of at least the given size. Items are numbered like SAP
+     * delivery items so every copy is a distinct, schema-valid E1EDL24 segment.
+     */
+    public static byte[] synthetic(long targetBytes) {
+        String sample = new String(load(DELVRY07_SAMPLE), StandardCharsets.UTF_8)
+                .replace("<IDOC>", "<IDOC BEGIN=\"1\">");
+        sample = SEGMENT_START.matcher(sample).replaceAll("<$1 SEGMENT=\"1\">");
+        int itemStart = sample.indexOf(ITEM_START);
+        int itemEnd = sample.indexOf(ITEM_END, itemStart) + ITEM_END.length();
+        int lastItemEnd = sample.lastIndexOf(ITEM_END) + ITEM_END.length();
+
+        byte[] header = sample.substring(0, itemStart).getBytes(StandardCharsets.UTF_8);
+        String item = sample.substring(itemStart, itemEnd);
+        byte[] trailer = sample.substring(lastItemEnd).getBytes(StandardCharsets.UTF_8);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream((int) Math.min(Integer.MAX_VALUE - 8, targetBytes + item.length()));
+        out.writeBytes(header);
+        int itemNumber = 10;
+        do {
+            String posnr = String.format(Locale.ROOT, "%06d", itemNumber % 1_000_000);
+            out.writeBytes(item.replace(ITEM_NUMBER, posnr).getBytes(StandardCharsets.UTF_8));
+            out.writeBytes("\n\t\t\t".getBytes(StandardCharsets.UTF_8));
+            itemNumber += 10;
+        } while (out.size() + trailer.length < targetBytes);
+        out.writeBytes(trailer);
+        return out.toByteArray();
+    }
+
+    /**
+     * Parses a size such as {@code 512}, {@code 10KB} or {@code 100MB} into bytes.
+     */
+    public static long parseSize(String size) {
+        String normalized = size.toUpperCase(Locale.ROOT);
+        if (normalized.endsWith("MB")) {
+            return Long.parseLong(normalized.substring(0, normalized.length() - 2)) * 1024 * 1024;
+        }
+        if (normalized.endsWith("KB")) {
+            return Long.parseLong(normalized.substring(0, normalized.length() - 2)) * 1024;
+        }
+        return Long.parseLong(normalized);
+    }
+
+    private static Path inputDirectory() {
+        return Paths.get(System.getProperty("benchmark.input.dir", "../Input"));
+    }
+}
@@ -0,0 +1,67 @@
+package com.xml.processor.benchmark;
+
+import com.xml.processor.model.MappingRule;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Mapping rules resembling the interfaces configured for each benchmark document type.
+ * Every rule set mixes simple location paths, resolved by the path trie, with at least
+ * one predicate that has to be evaluated as XPath.
+ */
+public final class BenchmarkRules {
+
+    private BenchmarkRules() {
+    }
+
+    /**
+     * Returns the rules for the document with the given root element name.
+     */
+    public static List<MappingRule> forRoot(String rootElement) {
+        List<MappingRule> rules = new ArrayList<>();
+        switch (rootElement) {
+            case "DELVRY07":
+                rules.add(rule("docnum", "/DELVRY07/IDOC/EDI_DC40/DOCNUM", "asn_number"));
+                rules.add(rule("serial", "/DELVRY07/IDOC/EDI_DC40/SERIAL", null));
+                rules.add(rule("created_date", "/DELVRY07/IDOC/EDI_DC40/CREDAT", "asn_date"));
+                rules.add(rule("created_time", "/DELVRY07/IDOC/EDI_DC40/CRETIM", "asn_time"));
+                rules.add(rule("delivery_number", "/DELVRY07/IDOC/E1EDL20/VBELN", "asn_number"));
+                rules.add(rule("gross_weight", "/DELVRY07/IDOC/E1EDL20/BTGEW", "asn_quantity"));
+                rules.add(rule("item_number", "/DELVRY07/IDOC/E1EDL20/E1EDL24/POSNR", null));
+                rules.add(rule("material", "/DELVRY07/IDOC/E1EDL20/E1EDL24/MATNR", "asn_number"));
+                rules.add(rule("quantity", "/DELVRY07/IDOC/E1EDL20/E1EDL24/LFIMG", "asn_quantity"));
+                rules.add(rule("unit", "/DELVRY07/IDOC/E1EDL20/E1EDL24/VRKME", "lowercase"));
+                rules.add(rule("first_plant", "/DELVRY07/IDOC/E1EDL20/E1EDL24[1]/WERKS", null));
+                break;
+            case "shipment":
+                rules.add(rule("asn_number", "/shipment/header/asnNumber", null));
+                rules.add(rule("shipment_date", "/shipment/header/shipmentDate", "date"));
+                rules.add(rule("supplier_id", "/shipment/header/supplierId", "uppercase"));
+                rules.add(rule("item_number", "/shipment/lines/line/itemNumber", null));
+                rules.add(rule("quantity", "/shipment/lines/line/quantity", "number"));
+                rules.add(rule("first_line", "/shipment/lines/line[@lineNumber='1']/description", null));
+                break;
+            default:
+                rules.add(rule("customer_return", "/ROOT/HEADER/CUSTOMERRETURN", "integer"));
+                rules.add(rule("protocol_number", "/ROOT/HEADER/PROTOCOLNUMBER", null));
+                rules.add(rule("item_code", "/ROOT/ITEM/CODE", null));
+                rules.add(rule("units", "/ROOT/ITEM/UNITS", "number"));
+                rules.add(rule("last_code", "/ROOT/ITEM[last()]/CODE", null));
+                break;
+        }
+        return rules;
+    }
+
+    private static MappingRule rule(String field, String xmlPath, String transformation) {
+        MappingRule rule = new MappingRule();
+        rule.setName(field);
+        rule.setXmlPath(xmlPath);
+        rule.setDatabaseField(field);
+        rule.setTargetField(field);
+        rule.setTransformation(transformation);
+        rule.setRequired(false);
+        rule.setIsActive(true);
+        return rule;
+    }
+}
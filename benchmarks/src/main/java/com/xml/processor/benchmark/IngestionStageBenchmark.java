@@ -0,0 +1,113 @@
+package com.xml.processor.benchmark;
+
+import com.xml.processor.model.MappingRule;
+import com.xml.processor.service.mapping.CompiledRulePlan;
+import com.xml.processor.service.mapping.MappingPlanCache;
+import com.xml.processor.service.mapping.RuleMatches;
+import com.xml.processor.service.mapping.StreamingMappingEngine;
+import com.xml.processor.service.mapping.StreamingMappingResult;
+import com.xml.processor.service.mapping.TransformationRegistry;
+import com.xml.processor.service.mapping.ValueTransformer;
+import com.xml.processor.service.xml.XmlInfrastructure;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.w3c.dom.Document;
+
+import java.io.ByteArrayInputStream;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the stages of the ingestion path separately: parsing into a DOM, mapping the
+ * DOM with a compiled rule plan, serializing it back, and mapping in a single streaming
+ * pass, plus parse, map and serialize together as {@code XmlProcessingStrategy} runs them.
+ * <p>
+ * Throughput and sampled latency are reported per stage and document; run with
+ * {@code -prof gc} to add the allocation rate.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class IngestionStageBenchmark {
+
+    @Param({"asn.xml", "asn1.xml", "asn3.XML",
+            "DELVRY07-10KB", "DELVRY07-1MB", "DELVRY07-10MB", "DELVRY07-100MB"})
+    public String document;
+
+    private XmlInfrastructure xmlInfrastructure;
+    private StreamingMappingEngine streamingMappingEngine;
+    private byte[] bytes;
+    private Document parsed;
+    private CompiledRulePlan plan;
+    private ValueTransformer[] transformers;
+
+    @Setup
+    public void setUp() throws Exception {
+        xmlInfrastructure = new XmlInfrastructure();
+        streamingMappingEngine = new StreamingMappingEngine(xmlInfrastructure);
+        bytes = BenchmarkDocuments.load(document);
+        parsed = xmlInfrastructure.parse(new ByteArrayInputStream(bytes));
+
+        String root = parsed.getDocumentElement().getLocalName() != null
+                ? parsed.getDocumentElement().getLocalName()
+                : parsed.getDocumentElement().getTagName();
+        List<MappingRule> rules = BenchmarkRules.forRoot(root);
+        plan = new MappingPlanCache(xmlInfrastructure).getPlan(1L, rules);
+        transformers = plan.getTransformers("DELVRY07".equals(root)
+                ? TransformationRegistry.ASN
+                : TransformationRegistry.STANDARD);
+    }
+
+    @Benchmark
+    public Document parse() throws Exception {
+        return xmlInfrastructure.parse(new ByteArrayInputStream(bytes));
+    }
+
+    @Benchmark
+    public Map<String, String> map() {
+        return map(parsed);
+    }
+
+    @Benchmark
+    public String serialize() throws Exception {
+        return xmlInfrastructure.serialize(parsed);
+    }
+
+    @Benchmark
+    public StreamingMappingResult mapStreaming() throws Exception {
+        return streamingMappingEngine.process(new ByteArrayInputStream(bytes), plan);
+    }
+
+    @Benchmark
+    public String parseMapSerialize() throws Exception {
+        Document document = xmlInfrastructure.parse(new ByteArrayInputStream(bytes));
+        map(document);
+        return xmlInfrastructure.serialize(document);
+    }
+
+    private Map<String, String> map(Document document) {
+        RuleMatches matches = plan.evaluate(document);
+        Map<String, String> values = new LinkedHashMap<>();
+        for (int i = 0; i < plan.getRules().size(); i++) {
+            String value = matches.first(i);
+            if (value != null) {
+                values.put(plan.getRules().get(i).getDatabaseField(), transformers[i].apply(value));
+            }
+        }
+        return values;
+    }
+}
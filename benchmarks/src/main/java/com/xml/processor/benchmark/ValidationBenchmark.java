@@ -0,0 +1,81 @@
+package com.xml.processor.benchmark;
+
+import com.xml.processor.service.impl.XmlValidationServiceImpl;
+import com.xml.processor.service.mapping.CompiledRulePlan;
+import com.xml.processor.service.mapping.MappingPlanCache;
+import com.xml.processor.service.mapping.StreamingMappingEngine;
+import com.xml.processor.service.mapping.StreamingMappingResult;
+import com.xml.processor.service.xml.SchemaCache;
+import com.xml.processor.service.xml.ValidationResult;
+import com.xml.processor.service.xml.XmlInfrastructure;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.w3c.dom.Document;
+
+import javax.xml.validation.Schema;
+import java.io.ByteArrayInputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures XSD validation of DELVRY07 IDocs against the {@code asn.xsd} schema: validation
+ * of an already parsed DOM through {@link XmlValidationServiceImpl}, and the fused
+ * validate-and-map streaming pass used by STREAMING_VALIDATED interfaces. The schema is
+ * compiled once in setup, as it is by the schema cache in the application.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class ValidationBenchmark {
+
+    private static final String SCHEMA_PATH = "asn.xsd";
+
+    @Param({"DELVRY07-10KB", "DELVRY07-1MB", "DELVRY07-10MB", "DELVRY07-100MB"})
+    public String document;
+
+    private XmlValidationServiceImpl validationService;
+    private StreamingMappingEngine streamingMappingEngine;
+    private byte[] bytes;
+    private Document parsed;
+    private Schema schema;
+    private CompiledRulePlan plan;
+
+    @Setup
+    public void setUp() throws Exception {
+        XmlInfrastructure xmlInfrastructure = new XmlInfrastructure();
+        // The interface repository is only used to warm the cache on application start
+        SchemaCache schemaCache = new SchemaCache(xmlInfrastructure, null);
+        validationService = new XmlValidationServiceImpl(schemaCache);
+        streamingMappingEngine = new StreamingMappingEngine(xmlInfrastructure);
+        bytes = BenchmarkDocuments.load(document);
+        parsed = xmlInfrastructure.parse(new ByteArrayInputStream(bytes));
+        schema = schemaCache.getSchema(SCHEMA_PATH);
+        plan = new MappingPlanCache(xmlInfrastructure).getPlan(1L, BenchmarkRules.forRoot("DELVRY07"));
+
+        ValidationResult result = validationService.validateXmlAgainstXsd(parsed, SCHEMA_PATH);
+        if (!result.isValid()) {
+            throw new IllegalStateException(document + " is not valid against " + SCHEMA_PATH + ": " + result.getErrorMessage());
+        }
+    }
+
+    @Benchmark
+    public ValidationResult validate() {
+        return validationService.validateXmlAgainstXsd(parsed, SCHEMA_PATH);
+    }
+
+    @Benchmark
+    public StreamingMappingResult validateAndMapStreaming() throws Exception {
+        return streamingMappingEngine.process(new ByteArrayInputStream(bytes), plan, schema);
+    }
+}
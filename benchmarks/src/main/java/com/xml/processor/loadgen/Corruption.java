@@ -0,0 +1,51 @@
+package com.xml.processor.loadgen;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+/**
+ * Ways a generated document is broken to exercise the error paths of the ingestion
+ * pipeline. The first two make the document not well-formed, the last one keeps it
+ * well-formed but invalid against its schema.
+ */
+public enum Corruption {
+
+    /** The document ends somewhere in its second half, as after an interrupted transfer. */
+    TRUNCATED {
+        @Override
+        byte[] apply(byte[] document, Random random) {
+            int length = document.length / 2 + random.nextInt(Math.max(1, document.length * 2 / 5));
+            byte[] truncated = new byte[length];
+            System.arraycopy(document, 0, truncated, 0, length);
+            return truncated;
+        }
+    },
+
+    /** One end tag is missing. */
+    UNCLOSED_ELEMENT {
+        @Override
+        byte[] apply(byte[] document, Random random) {
+            String xml = new String(document, StandardCharsets.UTF_8);
+            int from = xml.indexOf("</", xml.length() / 4 + random.nextInt(Math.max(1, xml.length() / 2)));
+            if (from < 0) {
+                from = xml.lastIndexOf("</");
+            }
+            int to = xml.indexOf('>', from) + 1;
+            return (xml.substring(0, from) + xml.substring(to)).getBytes(StandardCharsets.UTF_8);
+        }
+    },
+
+    /** An element the schema does not declare directly below the root. */
+    UNDECLARED_ELEMENT {
+        @Override
+        byte[] apply(byte[] document, Random random) {
+            String xml = new String(document, StandardCharsets.UTF_8);
+            int rootStart = xml.indexOf('<', xml.startsWith("<?") ? xml.indexOf("?>") : 0);
+            int rootEnd = xml.indexOf('>', rootStart) + 1;
+            return (xml.substring(0, rootEnd) + "<UNDECLARED>" + random.nextInt(1000) + "</UNDECLARED>"
+                    + xml.substring(rootEnd)).getBytes(StandardCharsets.UTF_8);
+        }
+    };
+
+    abstract byte[] apply(byte[] document, Random random);
+}
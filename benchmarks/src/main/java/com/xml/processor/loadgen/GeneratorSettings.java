@@ -0,0 +1,86 @@
+package com.xml.processor.loadgen;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Shape of the documents produced by {@link XsdDocumentGenerator}.
+ */
+public class GeneratorSettings {
+
+    private final Map<String, Integer> occurrences = new HashMap<>();
+    private double optionalRatio = 0.7;
+    private String sizeElement;
+    private long targetBytes;
+    private double malformedRatio;
+    private long seed = 42L;
+
+    /**
+     * Sets how often an element is repeated within each of its parents, e.g. the number of
+     * E1EDL24 items per delivery or E1EDL15 characteristics per item. Counts are capped
+     * at the element's maxOccurs; elements without a count occur minOccurs times, or
+     * once if optional and selected by the optional ratio.
+     */
+    public GeneratorSettings occurrences(String element, int count) {
+        occurrences.put(element, count);
+        return this;
+    }
+
+    /**
+     * Sets the probability that an optional element or attribute is generated.
+     */
+    public GeneratorSettings optionalRatio(double optionalRatio) {
+        this.optionalRatio = optionalRatio;
+        return this;
+    }
+
+    /**
+     * Repeats the given element until the document reaches the target size. Overrides the
+     * element's configured occurrences.
+     */
+    public GeneratorSettings targetSize(String element, long targetBytes) {
+        this.sizeElement = element;
+        this.targetBytes = targetBytes;
+        return this;
+    }
+
+    /**
+     * Sets the share of documents, between 0 and 1, that are made malformed or invalid.
+     */
+    public GeneratorSettings malformedRatio(double malformedRatio) {
+        this.malformedRatio = malformedRatio;
+        return this;
+    }
+
+    /**
+     * Sets the seed; the same seed and settings always produce the same documents.
+     */
+    public GeneratorSettings seed(long seed) {
+        this.seed = seed;
+        return this;
+    }
+
+    public Integer getOccurrences(String element) {
+        return occurrences.get(element);
+    }
+
+    public double getOptionalRatio() {
+        return optionalRatio;
+    }
+
+    public String getSizeElement() {
+        return sizeElement;
+    }
+
+    public long getTargetBytes() {
+        return targetBytes;
+    }
+
+    public double getMalformedRatio() {
+        return malformedRatio;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+}
@@ -0,0 +1,65 @@
+package com.xml.processor.loadgen;
+
+import com.xml.processor.XmlProcessorApplication;
+import com.xml.processor.model.Client;
+import com.xml.processor.model.Interface;
+import com.xml.processor.repository.ClientRepository;
+import com.xml.processor.repository.InterfaceRepository;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+
+/**
+ * Runs the backend inside the load generator's JVM on a random port, with an in-memory
+ * database and no upload size limit, and creates the client and interface the generated
+ * documents are uploaded to.
+ */
+public class InProcessServer implements AutoCloseable {
+
+    private static final String CLIENT_CODE = "LOADGEN";
+
+    private final ConfigurableApplicationContext context;
+    private final Long interfaceId;
+
+    public InProcessServer(String interfaceType, String rootElement, String schemaPath) {
+        // Passed as arguments so they take precedence over application.yml
+        context = new SpringApplicationBuilder(XmlProcessorApplication.class).run(
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:loadgen;DB_CLOSE_DELAY=-1",
+                "--spring.jpa.show-sql=false",
+                "--spring.servlet.multipart.max-file-size=-1",
+                "--spring.servlet.multipart.max-request-size=-1",
+                "--logging.level.root=WARN");
+
+        ClientRepository clientRepository = context.getBean(ClientRepository.class);
+        Client client = clientRepository.findByCode(CLIENT_CODE).orElseGet(() -> {
+            Client created = new Client();
+            created.setName("Load Test");
+            created.setCode(CLIENT_CODE);
+            return clientRepository.save(created);
+        });
+
+        Interface iface = new Interface();
+        iface.setName(CLIENT_CODE + "_" + rootElement);
+        iface.setType(interfaceType);
+        iface.setRootElement(rootElement);
+        iface.setSchemaPath(schemaPath);
+        iface.setDescription("Generated by the load generator");
+        iface.setClient(client);
+        interfaceId = context.getBean(InterfaceRepository.class).save(iface).getId();
+    }
+
+    public URI getBaseUrl() {
+        return URI.create("http://localhost:" + context.getEnvironment().getProperty("local.server.port"));
+    }
+
+    public Long getInterfaceId() {
+        return interfaceId;
+    }
+
+    @Override
+    public void close() {
+        context.close();
+    }
+}
@@ -0,0 +1,81 @@
+package com.xml.processor.loadgen;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records request latencies and response statuses of a replay run. Latencies are
+ * measured from the time a request was scheduled to be sent, not from when it was
+ * actually sent, so a server that falls behind the target rate is not flattered by
+ * requests queuing on the client (coordinated omission).
+ */
+public class LatencyRecorder {
+
+    private long[] latencies = new long[1024];
+    private int count;
+    private final Map<Integer, Integer> statuses = new TreeMap<>();
+    private final Map<String, Integer> outcomes = new TreeMap<>();
+    private int failures;
+
+    public synchronized void record(long latencyNanos, int status) {
+        if (count == latencies.length) {
+            latencies = Arrays.copyOf(latencies, count * 2);
+        }
+        latencies[count++] = latencyNanos;
+        statuses.merge(status, 1, Integer::sum);
+    }
+
+    public synchronized void recordFailure(long latencyNanos) {
+        record(latencyNanos, -1);
+        failures++;
+    }
+
+    /**
+     * Records the processing outcome of an accepted upload, e.g. SUCCESS, ERROR or FAILED.
+     */
+    public synchronized void recordOutcome(String outcome) {
+        outcomes.merge(outcome, 1, Integer::sum);
+    }
+
+    public synchronized int getCount() {
+        return count;
+    }
+
+    /**
+     * Returns the latency at the given percentile, in milliseconds.
+     *
+     * @param percentile Between 0 and 100
+     */
+    public synchronized double percentile(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        long[] sorted = Arrays.copyOf(latencies, count);
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile / 100.0 * count) - 1;
+        return sorted[Math.max(0, Math.min(count - 1, index))] / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    /**
+     * Formats a summary of the run.
+     *
+     * @param elapsedNanos Wall-clock duration of the run
+     */
+    public synchronized String summary(long elapsedNanos) {
+        double seconds = elapsedNanos / 1e9;
+        StringBuilder summary = new StringBuilder();
+        summary.append(String.format(Locale.ROOT, "Requests: %d in %.1f s (%.1f req/s), connection failures: %d%n",
+                count, seconds, count / seconds, failures));
+        summary.append("Statuses: ").append(statuses).append(System.lineSeparator());
+        if (!outcomes.isEmpty()) {
+            summary.append("Outcomes: ").append(outcomes).append(System.lineSeparator());
+        }
+        summary.append(String.format(Locale.ROOT,
+                "Latency ms: p50=%.1f p90=%.1f p99=%.1f p99.9=%.1f max=%.1f",
+                percentile(50), percentile(90), percentile(99), percentile(99.9), percentile(100)));
+        return summary.toString();
+    }
+}
@@ -0,0 +1,155 @@
+package com.xml.processor.loadgen;
+
+import com.xml.processor.benchmark.BenchmarkDocuments;
+import com.xml.processor.loadgen.XsdDocumentGenerator.GeneratedDocument;
+
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Command line entry point generating a reproducible corpus of IDoc or ASN documents from
+ * a schema, writing it to a directory and/or replaying it against the upload endpoint of a
+ * running backend or of one started in-process. See the benchmarks README for the options.
+ */
+public class LoadGenerator {
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parseOptions(args);
+        String schemaPath = options.getOrDefault("schema", "asn.xsd");
+        SchemaModel schema;
+        try (InputStream in = openSchema(schemaPath)) {
+            schema = SchemaModel.read(in);
+        }
+        String root = schema.getRoot().getName();
+
+        GeneratorSettings settings = new GeneratorSettings()
+                .seed(Long.parseLong(options.getOrDefault("seed", "42")))
+                .optionalRatio(Double.parseDouble(options.getOrDefault("optional-ratio", "0.7")))
+                .malformedRatio(Double.parseDouble(options.getOrDefault("malformed-ratio", "0")));
+        if (options.containsKey("lines")) {
+            settings.occurrences("DELVRY07".equals(root) ? "E1EDL24" : "line", Integer.parseInt(options.get("lines")));
+        }
+        if (options.containsKey("characteristics")) {
+            settings.occurrences("E1EDL15", Integer.parseInt(options.get("characteristics")));
+        }
+        if (options.containsKey("occurs")) {
+            for (String occurrence : options.get("occurs").split(",")) {
+                String[] parts = occurrence.split("=");
+                settings.occurrences(parts[0].trim(), Integer.parseInt(parts[1].trim()));
+            }
+        }
+        if (options.containsKey("size")) {
+            String sizeElement = options.getOrDefault("size-element", "DELVRY07".equals(root) ? "E1EDL24" : "line");
+            settings.targetSize(sizeElement, BenchmarkDocuments.parseSize(options.get("size")));
+        }
+
+        int documentCount = Integer.parseInt(options.getOrDefault("documents", "10"));
+        XsdDocumentGenerator generator = new XsdDocumentGenerator(schema, settings);
+        List<GeneratedDocument> documents = new ArrayList<>(documentCount);
+        Map<Corruption, Integer> corrupted = new EnumMap<>(Corruption.class);
+        long totalBytes = 0;
+        for (int i = 0; i < documentCount; i++) {
+            GeneratedDocument document = generator.generate(i);
+            documents.add(document);
+            totalBytes += document.getContent().length;
+            if (document.isMalformed()) {
+                corrupted.merge(document.getCorruption(), 1, Integer::sum);
+            }
+        }
+        System.out.printf(Locale.ROOT, "Generated %d %s documents, %.1f KB on average, malformed: %s%n",
+                documentCount, root, totalBytes / 1024.0 / Math.max(1, documentCount), corrupted);
+
+        if (options.containsKey("output")) {
+            Path output = Paths.get(options.get("output"));
+            Files.createDirectories(output);
+            for (GeneratedDocument document : documents) {
+                Files.write(output.resolve(document.getName()), document.getContent());
+            }
+            System.out.println("Written to " + output.toAbsolutePath());
+        }
+
+        if (options.containsKey("replay") || options.containsKey("in-process")) {
+            replay(options, documents, root, schemaPath);
+        }
+    }
+
+    private static void replay(Map<String, String> options, List<GeneratedDocument> documents,
+                               String root, String schemaPath) throws Exception {
+        int requests = Integer.parseInt(options.getOrDefault("requests", String.valueOf(documents.size())));
+        double rate = Double.parseDouble(options.getOrDefault("rate", "10"));
+        int maxInFlight = Integer.parseInt(options.getOrDefault("max-in-flight", "64"));
+        String interfaceType = options.getOrDefault("interface-type", "ASN");
+        InProcessServer server = null;
+        try {
+            URI baseUrl;
+            Long interfaceId;
+            if (options.containsKey("in-process")) {
+                server = new InProcessServer(interfaceType, root, schemaPath);
+                baseUrl = server.getBaseUrl();
+                interfaceId = server.getInterfaceId();
+            } else {
+                baseUrl = URI.create(options.get("replay"));
+                interfaceId = Long.parseLong(required(options, "interface-id"));
+            }
+
+            UploadReplayer replayer = new UploadReplayer(baseUrl, interfaceId);
+            replayer.setAwaitCompletion(!options.containsKey("accept-only"));
+            replayer.login(options.getOrDefault("username", "admin"), options.getOrDefault("password", "admin"));
+            System.out.printf(Locale.ROOT, "Replaying %d uploads to %s (interface %d) at %.1f req/s%n",
+                    requests, baseUrl, interfaceId, rate);
+
+            LatencyRecorder recorder = new LatencyRecorder();
+            long elapsed = replayer.replay(documents, requests, rate, maxInFlight, recorder);
+            System.out.println(recorder.summary(elapsed));
+        } finally {
+            if (server != null) {
+                server.close();
+            }
+        }
+    }
+
+    private static InputStream openSchema(String schemaPath) throws Exception {
+        Path path = Paths.get(schemaPath);
+        if (Files.isRegularFile(path)) {
+            return Files.newInputStream(path);
+        }
+        InputStream resource = LoadGenerator.class.getClassLoader().getResourceAsStream(schemaPath);
+        if (resource == null) {
+            throw new IllegalArgumentException("Schema not found as file or classpath resource: " + schemaPath);
+        }
+        return resource;
+    }
+
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--")) {
+                throw new IllegalArgumentException("Unexpected argument: " + args[i]);
+            }
+            String name = args[i].substring(2);
+            if (i + 1 < args.length && !args[i + 1].startsWith("--")) {
+                options.put(name, args[++i]);
+            } else {
+                options.put(name, "true");
+            }
+        }
+        return options;
+    }
+
+    private static String required(Map<String, String> options, String name) {
+        String value = options.get(name);
+        if (value == null) {
+            throw new IllegalArgumentException("Missing required option --" + name);
+        }
+        return value;
+    }
+}
@@ -0,0 +1,235 @@
+package com.xml.processor.loadgen;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+
+import javax.xml.XMLConstants;
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The element tree declared by an XSD, reduced to what is needed to generate instance
+ * documents: element order and occurrences, attributes, and the value restrictions of
+ * simple content. Supports the inline style of the IDoc and ASN schemas in this project:
+ * anonymous complex types with sequences, and simple types restricted by length,
+ * enumeration, fixed values or digit patterns. Named types and references are not resolved.
+ */
+public final class SchemaModel {
+
+    private final ElementDecl root;
+
+    private SchemaModel(ElementDecl root) {
+        this.root = root;
+    }
+
+    public ElementDecl getRoot() {
+        return root;
+    }
+
+    /**
+     * Reads the first global element of a schema.
+     */
+    public static SchemaModel read(InputStream schema) throws Exception {
+        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+        factory.setNamespaceAware(true);
+        factory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+        factory.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
+        Document document = factory.newDocumentBuilder().parse(schema);
+        for (Element element : children(document.getDocumentElement(), "element")) {
+            return new SchemaModel(element(element));
+        }
+        throw new IllegalArgumentException("Schema declares no global element");
+    }
+
+    private static ElementDecl element(Element declaration) {
+        ElementDecl decl = new ElementDecl(declaration.getAttribute("name"));
+        decl.minOccurs = occurs(declaration.getAttribute("minOccurs"), 1);
+        decl.maxOccurs = occurs(declaration.getAttribute("maxOccurs"), 1);
+        decl.value = new ValueDecl(localType(declaration.getAttribute("type")));
+        if (declaration.hasAttribute("fixed")) {
+            decl.value.fixed = declaration.getAttribute("fixed");
+        }
+        for (Element complexType : children(declaration, "complexType")) {
+            for (Element sequence : children(complexType, "sequence")) {
+                for (Element child : children(sequence, "element")) {
+                    decl.children.add(element(child));
+                }
+            }
+            for (Element attribute : children(complexType, "attribute")) {
+                AttributeDecl attr = new AttributeDecl(attribute.getAttribute("name"),
+                        "required".equals(attribute.getAttribute("use")),
+                        new ValueDecl(localType(attribute.getAttribute("type"))));
+                if (attribute.hasAttribute("fixed")) {
+                    attr.value.fixed = attribute.getAttribute("fixed");
+                }
+                simpleType(attribute, attr.value);
+                decl.attributes.add(attr);
+            }
+        }
+        simpleType(declaration, decl.value);
+        return decl;
+    }
+
+    private static void simpleType(Element declaration, ValueDecl value) {
+        for (Element simpleType : children(declaration, "simpleType")) {
+            for (Element restriction : children(simpleType, "restriction")) {
+                value.type = localType(restriction.getAttribute("base"));
+                for (Element facet : children(restriction, null)) {
+                    String facetValue = facet.getAttribute("value");
+                    switch (facet.getLocalName()) {
+                        case "maxLength":
+                        case "length":
+                            value.maxLength = Integer.parseInt(facetValue);
+                            break;
+                        case "enumeration":
+                            value.enumeration.add(facetValue);
+                            break;
+                        case "pattern":
+                            // The schemas only restrict to digits; other patterns are generated as digits too
+                            value.digitsOnly = true;
+                            break;
+                        default:
+                            break;
+                    }
+                }
+            }
+        }
+    }
+
+    private static int occurs(String value, int defaultValue) {
+        if (value == null || value.isEmpty()) {
+            return defaultValue;
+        }
+        return "unbounded".equals(value) ? Integer.MAX_VALUE : Integer.parseInt(value);
+    }
+
+    private static String localType(String type) {
+        if (type == null || type.isEmpty()) {
+            return "string";
+        }
+        int colon = type.indexOf(':');
+        return colon < 0 ? type : type.substring(colon + 1);
+    }
+
+    private static List<Element> children(Element parent, String localName) {
+        List<Element> result = new ArrayList<>();
+        for (Node child = parent.getFirstChild(); child != null; child = child.getNextSibling()) {
+            if (child.getNodeType() == Node.ELEMENT_NODE
+                    && XMLConstants.W3C_XML_SCHEMA_NS_URI.equals(child.getNamespaceURI())
+                    && (localName == null || localName.equals(child.getLocalName()))) {
+                result.add((Element) child);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * A declared element with its content model.
+     */
+    public static final class ElementDecl {
+        private final String name;
+        private int minOccurs;
+        private int maxOccurs;
+        private ValueDecl value;
+        private final List<ElementDecl> children = new ArrayList<>();
+        private final List<AttributeDecl> attributes = new ArrayList<>();
+
+        private ElementDecl(String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public int getMinOccurs() {
+            return minOccurs;
+        }
+
+        public int getMaxOccurs() {
+            return maxOccurs;
+        }
+
+        public ValueDecl getValue() {
+            return value;
+        }
+
+        public List<ElementDecl> getChildren() {
+            return Collections.unmodifiableList(children);
+        }
+
+        public List<AttributeDecl> getAttributes() {
+            return Collections.unmodifiableList(attributes);
+        }
+
+        public boolean isSimple() {
+            return children.isEmpty();
+        }
+    }
+
+    /**
+     * A declared attribute.
+     */
+    public static final class AttributeDecl {
+        private final String name;
+        private final boolean required;
+        private final ValueDecl value;
+
+        private AttributeDecl(String name, boolean required, ValueDecl value) {
+            this.name = name;
+            this.required = required;
+            this.value = value;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public boolean isRequired() {
+            return required;
+        }
+
+        public ValueDecl getValue() {
+            return value;
+        }
+    }
+
+    /**
+     * The restrictions on an element's or attribute's simple value.
+     */
+    public static final class ValueDecl {
+        private String type;
+        private String fixed;
+        private int maxLength = -1;
+        private boolean digitsOnly;
+        private final List<String> enumeration = new ArrayList<>();
+
+        private ValueDecl(String type) {
+            this.type = type;
+        }
+
+        public String getType() {
+            return type;
+        }
+
+        public String getFixed() {
+            return fixed;
+        }
+
+        public int getMaxLength() {
+            return maxLength;
+        }
+
+        public boolean isDigitsOnly() {
+            return digitsOnly;
+        }
+
+        public List<String> getEnumeration() {
+            return Collections.unmodifiableList(enumeration);
+        }
+    }
+}
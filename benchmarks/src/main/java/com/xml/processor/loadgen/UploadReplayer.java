@@ -0,0 +1,190 @@
+package com.xml.processor.loadgen;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.xml.processor.loadgen.XsdDocumentGenerator.GeneratedDocument;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.CookieManager;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Uploads documents to {@code POST /api/files/upload/{interfaceId}} at a fixed rate and
+ * records the latency of every request. Requests are sent open-loop on a schedule; the
+ * number of requests in flight is bounded so a stalled server cannot exhaust the client.
+ * Uploads are accepted as jobs; unless only acceptance is measured, the job is polled
+ * and the latency runs until it finished processing.
+ */
+public class UploadReplayer {
+
+    private static final long POLL_INTERVAL_MS = 50;
+
+    private final URI baseUrl;
+    private final Long interfaceId;
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Executor pollDelay = CompletableFuture.delayedExecutor(POLL_INTERVAL_MS, TimeUnit.MILLISECONDS);
+    private boolean awaitCompletion = true;
+    private String token;
+    private String csrfToken;
+
+    public UploadReplayer(URI baseUrl, Long interfaceId) {
+        this.baseUrl = baseUrl;
+        this.interfaceId = interfaceId;
+        // The CSRF token is bound to the session created at login
+        this.httpClient = HttpClient.newBuilder()
+                .cookieHandler(new CookieManager())
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+    }
+
+    /**
+     * Sets whether a request lasts until its job finished, the default, or only until the
+     * upload was accepted.
+     */
+    public void setAwaitCompletion(boolean awaitCompletion) {
+        this.awaitCompletion = awaitCompletion;
+    }
+
+    /**
+     * Logs in through {@code /api/auth/login} and keeps the JWT and CSRF token for the uploads.
+     */
+    public void login(String username, String password) throws IOException, InterruptedException {
+        String body = objectMapper.writeValueAsString(Map.of("username", username, "password", password));
+        HttpRequest request = HttpRequest.newBuilder(baseUrl.resolve("/api/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Login failed with status " + response.statusCode() + ": " + response.body());
+        }
+        JsonNode json = objectMapper.readTree(response.body());
+        token = json.path("token").asText();
+        csrfToken = json.path("csrfToken").asText(null);
+    }
+
+    /**
+     * Sends the documents, cycling through them, until the given number of requests is sent.
+     *
+     * @param ratePerSecond Target request rate
+     * @param maxInFlight   Upper bound of concurrent requests
+     * @return The elapsed wall-clock time in nanoseconds
+     */
+    public long replay(List<GeneratedDocument> documents, int requests, double ratePerSecond,
+                       int maxInFlight, LatencyRecorder recorder) throws InterruptedException {
+        long interval = (long) (TimeUnit.SECONDS.toNanos(1) / ratePerSecond);
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        long start = System.nanoTime();
+
+        for (int i = 0; i < requests; i++) {
+            long scheduled = start + i * interval;
+            long wait = scheduled - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            inFlight.acquire();
+            httpClient.sendAsync(uploadRequest(documents.get(i % documents.size())), HttpResponse.BodyHandlers.ofString())
+                    .thenCompose(this::awaitJob)
+                    .whenComplete((response, error) -> {
+                        long latency = System.nanoTime() - scheduled;
+                        if (error != null) {
+                            recorder.recordFailure(latency);
+                        } else {
+                            recorder.record(latency, response.statusCode());
+                            if (awaitCompletion && response.statusCode() == 200) {
+                                recorder.recordOutcome(jobOutcome(response.body()));
+                            }
+                        }
+                        inFlight.release();
+                    });
+        }
+        inFlight.acquire(maxInFlight);
+        inFlight.release(maxInFlight);
+        return System.nanoTime() - start;
+    }
+
+    /**
+     * Polls the job of an accepted upload until it is COMPLETED or FAILED and returns the
+     * last poll's response. Other responses are returned as they are.
+     */
+    private CompletableFuture<HttpResponse<String>> awaitJob(HttpResponse<String> response) {
+        if (!awaitCompletion || response.statusCode() != 202 || response.headers().firstValue("Location").isEmpty()) {
+            return CompletableFuture.completedFuture(response);
+        }
+        HttpRequest poll = HttpRequest.newBuilder(URI.create(response.headers().firstValue("Location").get()))
+                .header("Authorization", "Bearer " + token)
+                .GET()
+                .build();
+        return poll(poll);
+    }
+
+    private CompletableFuture<HttpResponse<String>> poll(HttpRequest poll) {
+        return httpClient.sendAsync(poll, HttpResponse.BodyHandlers.ofString())
+                .thenCompose(response -> {
+                    if (response.statusCode() == 200 && !isFinished(response.body())) {
+                        return CompletableFuture.supplyAsync(() -> poll, pollDelay).thenCompose(this::poll);
+                    }
+                    return CompletableFuture.completedFuture(response);
+                });
+    }
+
+    private boolean isFinished(String job) {
+        String status = readJob(job).path("status").asText();
+        return "COMPLETED".equals(status) || "FAILED".equals(status);
+    }
+
+    private String jobOutcome(String job) {
+        JsonNode json = readJob(job);
+        return "COMPLETED".equals(json.path("status").asText())
+                ? json.path("resultStatus").asText("UNKNOWN")
+                : json.path("status").asText("UNKNOWN");
+    }
+
+    private JsonNode readJob(String job) {
+        try {
+            return objectMapper.readTree(job);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private HttpRequest uploadRequest(GeneratedDocument document) {
+        String boundary = "loadgen-" + UUID.randomUUID();
+        HttpRequest.Builder builder = HttpRequest.newBuilder(baseUrl.resolve("/api/files/upload/" + interfaceId))
+                .header("Content-Type", "multipart/form-data; boundary=" + boundary)
+                .header("Authorization", "Bearer " + token)
+                .timeout(Duration.ofMinutes(5))
+                .POST(HttpRequest.BodyPublishers.ofByteArray(multipart(boundary, document)));
+        if (csrfToken != null) {
+            builder.header("X-CSRF-TOKEN", csrfToken);
+        }
+        return builder.build();
+    }
+
+    private static byte[] multipart(String boundary, GeneratedDocument document) {
+        ByteArrayOutputStream body = new ByteArrayOutputStream(document.getContent().length + 256);
+        String header = "--" + boundary + "\r\n"
+                + "Content-Disposition: form-data; name=\"file\"; filename=\"" + document.getName() + "\"\r\n"
+                + "Content-Type: application/xml\r\n\r\n";
+        body.writeBytes(header.getBytes(StandardCharsets.UTF_8));
+        body.writeBytes(document.getContent());
+        body.writeBytes(("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.UTF_8));
+        return body.toByteArray();
+    }
+}
@@ -0,0 +1,184 @@
+package com.xml.processor.loadgen;
+
+import com.xml.processor.loadgen.SchemaModel.AttributeDecl;
+import com.xml.processor.loadgen.SchemaModel.ElementDecl;
+import com.xml.processor.loadgen.SchemaModel.ValueDecl;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Generates instance documents for a schema, such as DELVRY07 IDocs from {@code asn.xsd}
+ * or ASNs from {@code asn1.xsd}. Documents are written with a StAX writer, indented like
+ * SAP exports. Document {@code n} is always generated from the seed and {@code n}, so a
+ * corpus can be reproduced exactly from its settings.
+ */
+public class XsdDocumentGenerator {
+
+    private static final String ALPHANUMERIC = "ABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789";
+    private static final int MAX_GENERATED_LENGTH = 35;
+
+    private final SchemaModel schema;
+    private final GeneratorSettings settings;
+    private final XMLOutputFactory outputFactory = XMLOutputFactory.newFactory();
+
+    public XsdDocumentGenerator(SchemaModel schema, GeneratorSettings settings) {
+        this.schema = schema;
+        this.settings = settings;
+    }
+
+    /**
+     * Generates the document with the given index.
+     */
+    public GeneratedDocument generate(int index) throws XMLStreamException {
+        // Spread the seeds, the first values of Randoms with adjacent seeds are correlated
+        Random random = new Random(settings.getSeed() * 0x9E3779B97F4A7C15L + index * 0xBF58476D1CE4E5B9L);
+        Corruption corruption = null;
+        if (random.nextDouble() < settings.getMalformedRatio()) {
+            corruption = Corruption.values()[random.nextInt(Corruption.values().length)];
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream(
+                (int) Math.min(Integer.MAX_VALUE - 8, Math.max(8192, settings.getTargetBytes() + 8192)));
+        XMLStreamWriter writer = outputFactory.createXMLStreamWriter(out, StandardCharsets.UTF_8.name());
+        writer.writeStartDocument(StandardCharsets.UTF_8.name(), "1.0");
+        writeElement(writer, out, schema.getRoot(), 0, random);
+        writer.writeCharacters("\n");
+        writer.writeEndDocument();
+        writer.close();
+
+        byte[] bytes = out.toByteArray();
+        if (corruption != null) {
+            bytes = corruption.apply(bytes, random);
+        }
+        String name = String.format(Locale.ROOT, "%s-%06d.xml", schema.getRoot().getName(), index);
+        return new GeneratedDocument(name, bytes, corruption);
+    }
+
+    private void writeElement(XMLStreamWriter writer, ByteArrayOutputStream out, ElementDecl element,
+                              int depth, Random random) throws XMLStreamException {
+        writer.writeCharacters("\n" + "\t".repeat(depth));
+        if (element.isSimple() && element.getAttributes().isEmpty()) {
+            writer.writeStartElement(element.getName());
+            writer.writeCharacters(value(element.getValue(), random));
+            writer.writeEndElement();
+            return;
+        }
+
+        writer.writeStartElement(element.getName());
+        for (AttributeDecl attribute : element.getAttributes()) {
+            if (attribute.isRequired() || random.nextDouble() < settings.getOptionalRatio()) {
+                writer.writeAttribute(attribute.getName(), value(attribute.getValue(), random));
+            }
+        }
+        if (element.isSimple()) {
+            writer.writeCharacters(value(element.getValue(), random));
+            writer.writeEndElement();
+            return;
+        }
+
+        for (ElementDecl child : element.getChildren()) {
+            if (child.getName().equals(settings.getSizeElement())) {
+                // Repeat until the target size is reached, leaving room for the closing tags
+                do {
+                    writeElement(writer, out, child, depth + 1, random);
+                    writer.flush();
+                } while (out.size() < settings.getTargetBytes() - 64L * depth);
+                continue;
+            }
+            int count = occurrences(child, random);
+            for (int i = 0; i < count; i++) {
+                writeElement(writer, out, child, depth + 1, random);
+            }
+        }
+        writer.writeCharacters("\n" + "\t".repeat(depth));
+        writer.writeEndElement();
+    }
+
+    private int occurrences(ElementDecl element, Random random) {
+        Integer configured = settings.getOccurrences(element.getName());
+        if (configured != null) {
+            return Math.max(element.getMinOccurs(), Math.min(configured, element.getMaxOccurs()));
+        }
+        if (element.getMinOccurs() > 0) {
+            return element.getMinOccurs();
+        }
+        return random.nextDouble() < settings.getOptionalRatio() ? 1 : 0;
+    }
+
+    private String value(ValueDecl value, Random random) {
+        if (value.getFixed() != null) {
+            return value.getFixed();
+        }
+        if (!value.getEnumeration().isEmpty()) {
+            return value.getEnumeration().get(random.nextInt(value.getEnumeration().size()));
+        }
+        int maxLength = value.getMaxLength() > 0 ? Math.min(value.getMaxLength(), MAX_GENERATED_LENGTH) : 12;
+        switch (value.getType()) {
+            case "date":
+                return LocalDate.of(2020, 1, 1).plusDays(random.nextInt(2000)).toString();
+            case "decimal":
+                return BigDecimal.valueOf(random.nextInt(1_000_000), 3).toPlainString();
+            case "byte":
+                return String.valueOf(random.nextInt(128));
+            case "short":
+                return String.valueOf(random.nextInt(Short.MAX_VALUE));
+            case "int":
+            case "integer":
+            case "long":
+            case "positiveInteger":
+            case "nonNegativeInteger":
+                return String.valueOf(1 + random.nextInt(1_000_000));
+            default:
+                return value.isDigitsOnly()
+                        ? text("0123456789", 1 + random.nextInt(maxLength), random)
+                        : text(ALPHANUMERIC, 1 + random.nextInt(maxLength), random);
+        }
+    }
+
+    private static String text(String alphabet, int length, Random random) {
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = alphabet.charAt(random.nextInt(alphabet.length()));
+        }
+        return new String(chars);
+    }
+
+    /**
+     * A generated document, and how it was broken if it is one of the malformed ones.
+     */
+    public static final class GeneratedDocument {
+        private final String name;
+        private final byte[] content;
+        private final Corruption corruption;
+
+        GeneratedDocument(String name, byte[] content, Corruption corruption) {
+            this.name = name;
+            this.content = content;
+            this.corruption = corruption;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public byte[] getContent() {
+            return content;
+        }
+
+        public Corruption getCorruption() {
+            return corruption;
+        }
+
+        public boolean isMalformed() {
+            return corruption != null;
+        }
+    }
+}
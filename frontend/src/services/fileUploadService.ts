@@ -1,10 +1,11 @@
 import axios from 'axios';
-import { ProcessedFile } from '../types';
+import { ProcessedFile, ProcessingJob } from '../types';
 import { handleApiError } from '../utils/errorHandler';
 import { clientService } from './clientService';
 
 const API_URL = process.env.REACT_APP_API_URL || 'http://localhost:8080/api';
 const MAX_FILE_SIZE = 10 * 1024 * 1024; // 10MB
+const JOB_POLL_INTERVAL_MS = 1000;
 
 class FileUploadService {
   validateFileSize(file: File): boolean {
@@ -54,7 +55,8 @@ class FileUploadService {
       formData.append('clientId', clientId.toString());
       formData.append('interfaceId', interfaceId.toString());
 
-      const response = await axios.post<ProcessedFile>(
+      // The upload is accepted as a job that is processed in the background
+      const response = await axios.post<ProcessingJob>(
         `${API_URL}/files/upload/${interfaceId}`,
         formData,
         {
@@ -64,11 +66,39 @@ class FileUploadService {
         }
       );
 
-      return response.data;
+      const job = await this.waitForJob(response.data.id);
+      if (job.status === 'FAILED') {
+        throw new Error(job.errorMessage || 'Processing failed');
+      }
+      if (job.processedFileId != null) {
+        const processedFile = await axios.get<ProcessedFile>(`${API_URL}/processed-files/${job.processedFileId}`);
+        return processedFile.data;
+      }
+      // Split documents are summarized without a stored record
+      return {
+        fileName: job.fileName,
+        status: job.resultStatus,
+        errorMessage: job.errorMessage,
+        processedAt: job.completedAt,
+      } as ProcessedFile;
     } catch (error) {
       throw handleApiError(error);
     }
   }
+
+  async getJob(jobId: string): Promise<ProcessingJob> {
+    const response = await axios.get<ProcessingJob>(`${API_URL}/files/jobs/${jobId}`);
+    return response.data;
+  }
+
+  async waitForJob(jobId: string): Promise<ProcessingJob> {
+    let job = await this.getJob(jobId);
+    while (job.status === 'QUEUED' || job.status === 'RUNNING') {
+      await new Promise(resolve => setTimeout(resolve, JOB_POLL_INTERVAL_MS));
+      job = await this.getJob(jobId);
+    }
+    return job;
+  }
 }
 
 export const fileUploadService = new FileUploadService(); 
\ No newline at end of file
@@ -66,6 +66,23 @@ export interface ProcessedFile {
   updatedAt?: string;
 }
 
+export type JobStatus = 'QUEUED' | 'RUNNING' | 'COMPLETED' | 'FAILED';
+
+export interface ProcessingJob {
+  id: string;
+  interfaceId: number;
+  fileName: string;
+  fileSize: number;
+  status: JobStatus;
+  processedFileId?: number;
+  resultStatus?: string;
+  errorMessage?: string;
+  submittedAt: string;
+  startedAt?: string;
+  completedAt?: string;
+  duplicate?: boolean;
+}
+
 export interface User {
   id: number;
   username: string;